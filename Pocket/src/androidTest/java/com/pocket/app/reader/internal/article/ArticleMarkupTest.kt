@@ -0,0 +1,141 @@
+package com.pocket.app.reader.internal.article
+
+import android.os.Build
+import android.webkit.JavascriptInterface
+import android.webkit.WebResourceRequest
+import android.webkit.WebResourceResponse
+import android.webkit.WebView
+import android.webkit.WebViewClient
+import androidx.test.platform.app.InstrumentationRegistry
+import com.pocket.app.reader.internal.article.javascript.JavascriptFunction
+import com.pocket.app.reader.internal.article.javascript.JavascriptFunctions
+import java.io.File
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+/**
+ * Checks that the article page ends up with the same content when it streams the markup through [ArticleMarkup]
+ * as when the markup is passed in as a String, like the reader used to.
+ */
+class ArticleMarkupTest {
+
+    private val instrumentation = InstrumentationRegistry.getInstrumentation()
+    private val context = instrumentation.targetContext
+    private val file = File(context.cacheDir, "article-markup-test.html")
+
+    @AfterTest
+    fun cleanUp() {
+        file.delete()
+    }
+
+    @Test
+    fun streamTheSameContentAsPassingItIn() {
+        writeArticle(paragraphs = 3_000) // Large enough to arrive in several chunks
+
+        val passed = load { it.evaluateJavascript(JavascriptFunctions.loadCallback(file.readText()), null) }
+        val streamed = load { it.evaluateJavascript(JavascriptFunctions.loadStreamed(ArticleMarkup.URL), null) }
+
+        assertTrue(passed.ready)
+        assertTrue(streamed.ready)
+        assertEquals(passed.body, streamed.body)
+    }
+
+    @Test
+    fun keepMarkupThatClosesMoreThanItOpens() {
+        file.writeText("<div id=\"RIL_container\"><p>Before</p></div></div><p>After an extra end tag</p>")
+
+        val passed = load { it.evaluateJavascript(JavascriptFunctions.loadCallback(file.readText()), null) }
+        val streamed = load { it.evaluateJavascript(JavascriptFunctions.loadStreamed(ArticleMarkup.URL), null) }
+
+        assertEquals(passed.body, streamed.body)
+    }
+
+    @Test
+    fun reportAnErrorWhenTheMarkupIsMissing() {
+        val result = load { it.evaluateJavascript(JavascriptFunctions.loadStreamed(ArticleMarkup.URL), null) }
+
+        assertFalse(result.ready)
+    }
+
+    private class Result(val ready: Boolean, val body: String)
+
+    /**
+     * Opens the article page in a new web view and once it is set up, invokes [load] on the main thread.
+     * Waits until the page reports it is ready or had an error.
+     */
+    private fun load(load: (WebView) -> Unit): Result {
+        val done = CountDownLatch(1)
+        var ready = false
+        lateinit var webView: WebView
+
+        instrumentation.runOnMainSync {
+            webView = WebView(context)
+            webView.settings.javaScriptEnabled = true
+            webView.settings.allowFileAccess = true
+            webView.addJavascriptInterface(object {
+                @JavascriptInterface fun onReady() {
+                    ready = true
+                    done.countDown()
+                }
+                @JavascriptInterface fun onError() = done.countDown()
+                @JavascriptInterface fun getHorizontalMargin() = 0
+                @JavascriptInterface fun getMaxMediaHeight() = 0
+                @JavascriptInterface fun log(log: String) {}
+            }, "PocketAndroidArticleInterface")
+            webView.webViewClient = object : WebViewClient() {
+                override fun onPageFinished(view: WebView, url: String?) {
+                    view.evaluateJavascript(settings(), null)
+                    load(view)
+                }
+
+                override fun shouldInterceptRequest(view: WebView?, request: WebResourceRequest?): WebResourceResponse? {
+                    return if (ArticleMarkup.isRequest(request)) ArticleMarkup.response(file) else null
+                }
+            }
+            webView.loadUrl("file:///android_asset/html/article-mobile.html")
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS), "article page never finished loading")
+
+        val body = CountDownLatch(1)
+        var html = ""
+        instrumentation.runOnMainSync {
+            webView.evaluateJavascript("document.body.innerHTML") {
+                html = it
+                body.countDown()
+            }
+        }
+        assertTrue(body.await(10, TimeUnit.SECONDS))
+        instrumentation.runOnMainSync { webView.destroy() }
+        return Result(ready, html)
+    }
+
+    /** Like [JavascriptFunctions.load] with default display settings. */
+    private fun settings() = JavascriptFunction("load").apply {
+        addParameter(2) // font size
+        addParameter(0) // font
+        addParameter(0) // not justified
+        addParameter(0) // light theme
+        addParameter(3) // line height
+        addParameter(context.resources.displayMetrics.density)
+        addParameter("phone")
+        addParameter(Build.VERSION.SDK_INT)
+    }.getCommand()
+
+    /** Writes a long article's markup, like a saved long read with lots of inline markup would have. */
+    private fun writeArticle(paragraphs: Int) {
+        file.bufferedWriter().use { out ->
+            out.write("<div id=\"RIL_header\"><h1>A very long read</h1><cite>Someone<span class=\"RIL_date\">Today</span></cite></div><div id=\"RIL_container\">")
+            for (i in 0 until paragraphs) {
+                out.write("<p>Paragraph $i has <em>some</em> <a href=\"https://example.com/$i\">links</a> and <strong>markup</strong> ")
+                out.write("that goes on for a while, like the text of a long article does, with quotes \"like this\" and 'this'.</p>")
+                if (i % 50 == 0) out.write("<h2>Section ${i / 50}</h2><blockquote>A pull quote from section ${i / 50}</blockquote>")
+            }
+            out.write("</div>")
+        }
+    }
+}
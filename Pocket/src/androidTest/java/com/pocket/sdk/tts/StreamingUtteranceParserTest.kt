@@ -0,0 +1,194 @@
+package com.pocket.sdk.tts
+
+import androidx.test.platform.app.InstrumentationRegistry
+import java.io.File
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNotNull
+
+/**
+ * Checks that [StreamingUtteranceParser] produces exactly what the Jsoup DOM parsing in [ArticleUtteranceParser] does,
+ * the same utterances, selectors and node indexes, since which one is used only depends on the size of the article.
+ */
+class StreamingUtteranceParserTest {
+
+    private val dir = File(InstrumentationRegistry.getInstrumentation().targetContext.cacheDir, "utterance-parser-test")
+        .apply { mkdirs() }
+
+    @AfterTest
+    fun cleanUp() {
+        dir.deleteRecursively()
+    }
+
+    @Test
+    fun matchTheDomParserOnAnArticle() {
+        assertSameAsDom("""
+            <p nodeIndex="1">For years the team shipped <a nodeIndex="2" href="https://example.com/a">a release</a> every week, and it mostly worked.</p>
+            <p nodeIndex="3">Then the app grew. <a nodeIndex="4" href="https://example.com/b">This link has a much longer label than thirty characters</a> and so it breaks its paragraph up.</p>
+            <h2 nodeIndex="5">What changed</h2>
+            <div>
+                <p nodeIndex="6">Nested in a wrapper without a node index.</p>
+                <figure nodeIndex="7"><img nodeIndex="8" src="https://example.com/image.jpg"><figcaption nodeIndex="9">A caption under the image</figcaption></figure>
+            </div>
+            <blockquote nodeIndex="10"><p nodeIndex="11">A pull quote that goes on for a while, long enough to be spoken on its own.</p></blockquote>
+            <ul nodeIndex="12">
+                <li nodeIndex="13">A first point</li>
+                <li nodeIndex="14">A second point with <em>emphasis</em> and <strong>weight</strong></li>
+            </ul>
+            Some text directly in the body, <b>with markup</b> around it.
+            <p nodeIndex="15"></p>
+            <script>var skipped = "never spoken";</script>
+            <style>p { color: red; }</style>
+            <div pktnolisten="true"><p nodeIndex="16">Skipped by request</p></div>
+            <p nodeIndex="17">The end.</p>
+        """)
+    }
+
+    @Test
+    fun matchTheDomParserOnHiddenNodes() {
+        assertSameAsDom("""
+            <p nodeIndex="1">Shown <span style="display:none">hidden by style</span>text</p>
+            <p nodeIndex="2">A form <input type="hidden" value="secret"> field <span type="hidden">hidden by type</span></p>
+            <p nodeIndex="3">A tracking <span width="0" height="0">pixel</span> and a <span width="0">thin</span> span</p>
+            <div nodeIndex="4"><a nodeIndex="5" href="#">short</a> link with <span style="DISPLAY:NONE">shouting hidden</span> text</div>
+        """)
+    }
+
+    @Test
+    fun matchTheDomParserOnPreformattedText() {
+        assertSameAsDom("""
+            <pre nodeIndex="1">fun main() {
+                println("spaces   are kept")
+            }</pre>
+            <div nodeIndex="2"><a nodeIndex="3" href="#">code</a> with <pre>a   nested
+              block</pre> after</div>
+            <p nodeIndex="4">Not   preformatted,
+              so   whitespace is collapsed</p>
+        """)
+    }
+
+    @Test
+    fun matchTheDomParserOnComments() {
+        assertSameAsDom("""
+            <p nodeIndex="1">Before<!-- a comment -->after</p>
+            Loose text<!-- between text -->more loose text
+            <div nodeIndex="2"><a nodeIndex="3" href="#">short</a><div>One</div><!-- c -->Two</div>
+            <!-- a comment with -- dashes and <p>markup</p> in it -->
+            <p nodeIndex="4">After the comments</p>
+        """)
+    }
+
+    @Test
+    fun matchTheDomParserOnEntities() {
+        assertSameAsDom("""
+            <p nodeIndex="1">Fish &amp; chips &mdash; &ldquo;quoted&rdquo; it&#8217;s&nbsp;here &#x27;x&#x27; &lt;tag&gt; &copy 2021</p>
+            Tom &amp; Jerry&hellip;
+            <p nodeIndex="2" title="&quot;quoted&quot;">A zero&#8203;width space and a soft&shy;hyphen</p>
+        """)
+    }
+
+    @Test
+    fun matchTheDomParserOnUnclosedAndVoidTags() {
+        assertSameAsDom("""
+            <p nodeIndex="1">A paragraph that is never closed
+            <p nodeIndex="2">So this one is its sibling
+            <ul nodeIndex="3"><li nodeIndex="4">One<li nodeIndex="5">Two, which is long enough that it gets spoken on its own</ul>
+            <dl><dt nodeIndex="6">Term<dd nodeIndex="7">Definition</dl>
+            <p nodeIndex="8">Line one<br>line two<br/>line three<img src="a.jpg">after an image</p>
+            <div nodeIndex="9"><span>A span that is closed by its parent</div>
+            <h2 nodeIndex="10">A heading <h3 nodeIndex="11">closed by another</h3>
+            <p nodeIndex="12">Stray end tags</span></em> are ignored</p>
+            <p nodeIndex="13">A paragraph closed by a block<div nodeIndex="14">that follows it</div>
+        """)
+    }
+
+    @Test
+    fun matchTheDomParserOnLongText() {
+        val words = (1..800).joinToString(" ") { "word$it" }
+        assertSameAsDom("""
+            <p nodeIndex="1">$words</p>
+            $words
+        """)
+    }
+
+    @Test
+    fun fallBackToTheDomParserOnTables() {
+        val body = """
+            <p nodeIndex="1">Before the table.</p>
+            <table nodeIndex="2"><tr><td nodeIndex="3">A cell</td>Text that gets moved out of the table<td>Another cell</td></tr></table>
+            <p nodeIndex="4">After the table.</p>
+        """
+        assertUnsupported(body)
+        assertSameAsDom(body)
+    }
+
+    @Test
+    fun fallBackToTheDomParserOnMisnestedFormatting() {
+        val body = """
+            <p nodeIndex="1">Some <b>bold and <i>italic</b> text</i> that overlaps.</p>
+            <p nodeIndex="2">More text.</p>
+        """
+        assertUnsupported(body)
+        assertSameAsDom(body)
+    }
+
+    @Test
+    fun fallBackToTheDomParserOnFormattingClosedByItsParent() {
+        val body = """
+            <p nodeIndex="1">A <em>paragraph that ends before its emphasis</p>
+            <p nodeIndex="2">so Jsoup carries it into this one.</p>
+        """
+        assertUnsupported(body)
+        assertSameAsDom(body)
+    }
+
+    private fun assertUnsupported(body: String) {
+        article(body).reader().use {
+            assertFailsWith<StreamingUtteranceParser.UnsupportedMarkupException> {
+                StreamingUtteranceParser(ArticleUtteranceParser(URL, null), it).parse()
+            }
+        }
+    }
+
+    private fun assertSameAsDom(body: String) {
+        val markup = article(body)
+        val dom = assertNotNull(ArticleUtteranceParser(URL, null).parseMarkup(markup, false))
+        val streamed = assertNotNull(ArticleUtteranceParser(URL, null).parseMarkup(markup, true))
+        assertEquals(describe(dom), describe(streamed))
+    }
+
+    private fun article(body: String) = File(dir, "text.html").apply {
+        writeText("""
+            <!DOCTYPE html>
+            <html><head><meta charset="utf-8"><title>An article</title></head>
+            <body>
+            <div id="RIL_container">
+            <div id="RIL_header"><h1>How we built it</h1><div class="RIL_author">A. Writer</div><div class="RIL_date">March 3, 2021</div></div>
+            <div id="RIL_body">
+            $body
+            </div>
+            </div>
+            </body></html>
+        """.trimIndent())
+    }
+
+    companion object {
+        private const val URL = "https://example.com/article"
+
+        /** Everything about the result that playback and highlighting depend on, as lines that are easy to compare in a failure. */
+        fun describe(result: ArticleUtteranceParser.ArticleTTSUtterances): List<String> {
+            val lines = mutableListOf("title=${result.title} author=${result.author} length=${result.length}")
+            result.utterances.forEach {
+                lines.add("${it.position}: \"${it.text}\" selector=${it.jQuerySelector?.mElement}[${it.jQuerySelector?.mIndex}] " +
+                        "nodeIndex=${it.nodeIndex} header=${it.isHeader} end=${it.endPosition} segment=${it.segmentIndex}")
+            }
+            val byNodeIndex = result.utterancesByNodeIndex
+            for (i in 0 until byNodeIndex.size()) {
+                lines.add("nodeIndex ${byNodeIndex.keyAt(i)} -> ${byNodeIndex.valueAt(i).position}")
+            }
+            return lines
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.pocket.sdk.tts
+
+import androidx.test.platform.app.InstrumentationRegistry
+import java.io.File
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+
+class UtteranceCacheTest {
+
+    private val dir = File(InstrumentationRegistry.getInstrumentation().targetContext.cacheDir, "utterance-cache-test")
+        .apply { mkdirs() }
+    private val markup = File(dir, "text.html").apply {
+        writeText("""
+            <html><body>
+            <div id="RIL_header"><h1>A title</h1><div class="RIL_author">An author</div></div>
+            <div id="RIL_body">
+            <p nodeIndex="1">A first paragraph with <a nodeIndex="2" href="#">a link</a>.</p>
+            <p nodeIndex="3"></p>
+            Some loose text
+            <pre nodeIndex="4">kept   as is</pre>
+            </div>
+            </body></html>
+        """.trimIndent())
+    }
+    private val cache = File(dir, "text.tts")
+
+    @AfterTest
+    fun cleanUp() {
+        dir.deleteRecursively()
+    }
+
+    @Test
+    fun readBackWhatWasWritten() {
+        val parsed = parse()
+        UtteranceCache.write(cache, markup, parsed)
+
+        val read = assertNotNull(UtteranceCache.read(cache, markup, URL))
+        assertEquals(StreamingUtteranceParserTest.describe(parsed), StreamingUtteranceParserTest.describe(read))
+        assertEquals(URL, read.url)
+    }
+
+    @Test
+    fun replaceAnExistingCache() {
+        UtteranceCache.write(cache, markup, parse())
+        markup.writeText(markup.readText().replace("A first paragraph", "A rewritten paragraph"))
+        val reparsed = parse()
+        UtteranceCache.write(cache, markup, reparsed)
+
+        val read = assertNotNull(UtteranceCache.read(cache, markup, URL))
+        assertEquals(StreamingUtteranceParserTest.describe(reparsed), StreamingUtteranceParserTest.describe(read))
+        assertEquals(listOf(cache.name), dir.list()!!.filter { it != markup.name }, "left a temp file behind")
+    }
+
+    @Test
+    fun returnNothingWithoutACache() {
+        assertNull(UtteranceCache.read(cache, markup, URL))
+    }
+
+    @Test
+    fun ignoreTheCacheWhenTheMarkupLengthChanges() {
+        UtteranceCache.write(cache, markup, parse())
+        val modified = markup.lastModified()
+        markup.appendText("<p>More</p>")
+        markup.setLastModified(modified)
+
+        assertNull(UtteranceCache.read(cache, markup, URL))
+    }
+
+    @Test
+    fun ignoreTheCacheWhenTheMarkupIsModified() {
+        UtteranceCache.write(cache, markup, parse())
+        markup.setLastModified(markup.lastModified() - 60_000)
+
+        assertNull(UtteranceCache.read(cache, markup, URL))
+    }
+
+    @Test
+    fun deleteACacheThatCantBeRead() {
+        UtteranceCache.write(cache, markup, parse())
+        cache.writeBytes(cache.readBytes().copyOf(cache.length().toInt() / 2))
+
+        assertNull(UtteranceCache.read(cache, markup, URL))
+        assertFalse(cache.exists())
+    }
+
+    private fun parse() = assertNotNull(ArticleUtteranceParser(URL, null).parseMarkup(markup, false))
+
+    companion object {
+        private const val URL = "https://example.com/article"
+    }
+}
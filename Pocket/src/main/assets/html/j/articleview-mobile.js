@@ -97,7 +97,12 @@ var ArticleView = Class.extend(
 		// TODO : 3.0 : If file was missing, handle that correctly
 			
 		$(document.body).html(content);
-		
+		this.contentLoaded();
+	},
+	
+	// article content was fully added to the body, finish laying it out
+	contentLoaded : function()
+	{
 		// Add empty content to bottom in case an image is at bottom. Otherwise pagination doesn't work on the last page
 		$(document.body).append($('<br>&nbsp;'))
 
@@ -107,6 +112,68 @@ var ArticleView = Class.extend(
 		this.onArticleReady();
 	},
 	
+	// article content is served by native at this url, so it streams from disk instead of being passed in.
+	// Each chunk is parsed and added to the page as it arrives, rather than once all of it has.
+	loadStreamed : function(url)
+	{
+		var self = this;
+		
+		// Writing to a document parses markup incrementally. The parser keeps appending to the element it is in
+		// even after that element is moved into this page, so whatever has arrived so far is already in the body.
+		$(document.body).empty();
+		var frame = document.createElement('iframe');
+		frame.style.display = 'none';
+		document.body.appendChild(frame);
+		var parser = frame.contentDocument;
+		parser.open();
+		parser.write('<div id="RIL_streaming">');
+		var streaming = parser.getElementById('RIL_streaming');
+		document.body.appendChild(streaming);
+		
+		var written = 0;
+		var write = function()
+		{
+			var text = request.responseText;
+			if (text.length > written)
+			{
+				parser.write(text.substring(written));
+				written = text.length;
+			}
+		};
+		var request = new XMLHttpRequest();
+		request.onprogress = write;
+		request.onload = function()
+		{
+			if (request.status != 200)
+			{
+				document.body.removeChild(frame);
+				$(streaming).remove();
+				self.loadHadError();
+				return;
+			}
+			write();
+			parser.write('</div>');
+			parser.close();
+			// Markup that closes more elements than it opens ends the streaming element early, the rest is parsed after it
+			while (parser.body && parser.body.firstChild)
+				streaming.appendChild(parser.body.firstChild);
+			document.body.removeChild(frame);
+			// Leave the article's own markup directly in the body, like loadCallback does
+			while (streaming.firstChild)
+				document.body.insertBefore(streaming.firstChild, streaming);
+			document.body.removeChild(streaming);
+			self.contentLoaded();
+		};
+		request.onerror = function()
+		{
+			document.body.removeChild(frame);
+			$(streaming).remove();
+			self.loadHadError();
+		};
+		request.open('GET', url);
+		request.send();
+	},
+
 	loadHadError : function()
 	{
 		PocketAndroidArticleInterface.onError();
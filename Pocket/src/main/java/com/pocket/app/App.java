@@ -9,8 +9,11 @@ import android.content.pm.ApplicationInfo;
 import android.content.res.Configuration;
 import android.net.Uri;
 import android.os.Build;
+import android.os.Debug;
 import android.os.StrictMode;
+import android.os.SystemClock;
 
+import com.ideashower.readitlater.BuildConfig;
 import com.ideashower.readitlater.R;
 import com.jakewharton.threetenabp.AndroidThreeTen;
 import com.pocket.analytics.Tracker;
@@ -59,12 +62,16 @@ import com.pocket.sdk2.api.legacy.PocketCache;
 import com.pocket.sdk2.braze.BrazeManager;
 import com.pocket.ui.view.notification.PktSnackbar;
 import com.pocket.util.android.Clipboard;
+import com.pocket.util.android.ContextUtil;
 import com.pocket.util.android.IntentUtils;
 import com.pocket.util.java.Logs;
+import com.pocket.util.java.StartupTrace;
 import com.pocket.util.prefs.Preferences;
 
+import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
@@ -74,6 +81,13 @@ import dagger.hilt.android.HiltAndroidApp;
 @HiltAndroidApp
 public class App extends Application implements Contextual, PocketApp {
 
+	/**
+	 * Where {@link StartupTrace} writes, in the cache dir. Render it with project-tools' startupTrace command.
+	 * Only debug builds trace, and only in the main process, since the others don't start the app's UI.
+	 */
+	private static final String STARTUP_TRACE_FILE = "startup.trace";
+	private static final long STARTUP_TRACE_TIMEOUT = 30_000;
+
 	@Inject PocketSingleton pocketSingleton;
 	@Inject PocketServer pocketServer;
 	@Inject AppSession appSession;
@@ -148,9 +162,14 @@ public class App extends Application implements Contextual, PocketApp {
 	
 	@Override
 	public void onCreate() {
+		boolean traced = BuildConfig.DEBUG && ContextUtil.isMainProcess(this);
+		if (traced) StartupTrace.start(new File(getCacheDir(), STARTUP_TRACE_FILE), startAllocationCounting(), processStart());
+		StartupTrace.Span trace = StartupTrace.begin("App.onCreate");
 		sContext = this;
 		AndroidThreeTen.init(this);
+		StartupTrace.Span inject = StartupTrace.begin("inject");
 		super.onCreate();
+		inject.end();
 
 		Logs.mode(appVersion.mode());
 
@@ -189,8 +208,31 @@ public class App extends Application implements Contextual, PocketApp {
 						null));
 						
 		// Note: Recompile and Reverse Engineer Detection is currently hidden in Assets.start():
+
+		trace.end();
+		if (traced) {
+			// Normally finished once the list first loads, but make sure it is written even if startup goes somewhere else.
+			appThreads.getHandler().postDelayed(() -> {
+				StartupTrace.finish();
+				Debug.stopAllocCounting();
+			}, STARTUP_TRACE_TIMEOUT);
+		}
     }
 
+	/** Counts allocations for {@link StartupTrace}. Counting slows allocating down, which is one reason to only trace debug builds. */
+	@SuppressWarnings("deprecation")
+	private static StartupTrace.Allocations startAllocationCounting() {
+		Debug.startAllocCounting();
+		return Debug::getThreadAllocCount;
+	}
+
+	/** @return When this process started, on the {@link System#nanoTime()} clock, which on Android is the same as {@link SystemClock#uptimeMillis()}. */
+	private static long processStart() {
+		long now = System.nanoTime();
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) return now;
+		return now - TimeUnit.MILLISECONDS.toNanos(SystemClock.uptimeMillis() - android.os.Process.getStartUptimeMillis());
+	}
+
 	@Override public Pocket pocket() { return pocketSingleton.getInstance(); }
 	@Override public PocketSingleton pocketSingleton() { return pocketSingleton; }
 	@Override public PocketServer pktserver() { return pocketServer; }
@@ -407,6 +449,12 @@ public class App extends Application implements Contextual, PocketApp {
 		super.onLowMemory();
 		dispatcher().dispatch((component) -> component.onLowMemory());
 	}
+	
+	@Override
+	public void onTrimMemory(int level) {
+		super.onTrimMemory(level);
+		dispatcher().dispatch((component) -> component.onTrimMemory(level));
+	}
 
 	/**
 	 * REVIEW duplicate of {@link #getActivityContext()} ?
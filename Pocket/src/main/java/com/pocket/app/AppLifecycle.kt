@@ -50,6 +50,9 @@ interface AppLifecycle {
     /** Invoked when [Application.onLowMemory] is.  */
     fun onLowMemory() {}
 
+    /** Invoked when [Application.onTrimMemory] is, see [android.content.ComponentCallbacks2] for the levels. */
+    fun onTrimMemory(level: Int) {}
+
     /**
      * The user has left the app's foreground Activities completely.
      */
@@ -1,6 +1,7 @@
 package com.pocket.app
 
 import android.content.Context
+import android.content.SharedPreferences
 import android.preference.PreferenceManager
 import com.pocket.analytics.BrowserAnalytics
 import com.pocket.analytics.PocketTracker
@@ -27,9 +28,14 @@ import com.pocket.sdk2.api.legacy.LegacyMigration
 import com.pocket.sdk2.api.legacy.PocketCache
 import com.pocket.util.DrawableLoader
 import com.pocket.util.StringLoader
+import com.pocket.util.android.AndroidBgThreadFactory
+import com.pocket.util.android.ContextUtil
+import com.pocket.util.java.Logs
 import com.pocket.util.prefs.AndroidPrefStore
+import com.pocket.util.prefs.MappedPrefStore
 import com.pocket.util.prefs.Preferences
 import com.pocket.util.prefs.Prefs
+import com.pocket.util.prefs.Store
 import dagger.Binds
 import dagger.Module
 import dagger.Provides
@@ -37,6 +43,10 @@ import dagger.hilt.InstallIn
 import dagger.hilt.android.qualifiers.ApplicationContext
 import dagger.hilt.components.SingletonComponent
 import org.threeten.bp.Clock
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
 import javax.inject.Singleton
 
 /**
@@ -47,11 +57,30 @@ import javax.inject.Singleton
 class PocketModule {
 
     @Provides @Singleton
-    fun providePrefs(@ApplicationContext context: Context): Preferences =
-        Prefs(
-            AndroidPrefStore(PreferenceManager.getDefaultSharedPreferences(context)),
-            AndroidPrefStore(context.getSharedPreferences("pocketAppPrefs", 0))
+    fun providePrefs(@ApplicationContext context: Context): Preferences {
+        val compactor = Executors.newSingleThreadExecutor(AndroidBgThreadFactory("prefs"))
+        return Prefs(
+            prefStore(context, "default", PreferenceManager.getDefaultSharedPreferences(context), compactor),
+            prefStore(context, "pocketAppPrefs", context.getSharedPreferences("pocketAppPrefs", 0), compactor)
         )
+    }
+
+    /**
+     * A [MappedPrefStore] that copies the values of the [legacy] SharedPreferences the first time it is created.
+     * The SharedPreferences are left as they are, so a downgrade still finds them. A later release can clear them.
+     *
+     * Only the main process uses it, since nothing coordinates writes to its file between processes.
+     * Other processes, and the main one if the file can't be opened, fall back to the SharedPreferences themselves.
+     */
+    private fun prefStore(context: Context, name: String, legacy: SharedPreferences, compactor: Executor): Store {
+        if (!ContextUtil.isMainProcess(context)) return AndroidPrefStore(legacy)
+        return try {
+            MappedPrefStore(File(context.filesDir, "prefs/$name.kv"), MappedPrefStore.legacy(legacy), compactor)
+        } catch (e: IOException) {
+            Logs.printStackTrace(e)
+            AndroidPrefStore(legacy)
+        }
+    }
 
     @Provides @Singleton
     fun provideAppMode(appVersion: AppVersion): AppMode = appVersion.mode()
@@ -33,7 +33,10 @@ import com.pocket.sdk2.api.legacy.LegacyMigration;
 import com.pocket.sync.source.subscribe.Changes;
 import com.pocket.sync.source.threads.ThreadPools;
 import com.pocket.sync.thing.Thing;
+import com.pocket.sync.value.BaseModeller;
+import com.pocket.sync.value.StringInterner;
 import com.pocket.util.android.thread.TaskRunnable;
+import com.pocket.util.java.StartupTrace;
 import com.pocket.util.prefs.EnumPreference;
 import com.pocket.util.prefs.Preferences;
 
@@ -58,6 +61,8 @@ public class PocketSingleton {
 	
 	private static final String ASSET_USER_THING_TYPE = "thing";
 	private static final String ASSET_USER_ITEM_TYPE = "item";
+	/** How many distinct values of @intern fields, like domains and tags, to share instances of. */
+	private static final int INTERNED_STRINGS = 4096;
 	private final CircularArray<String> requestLog = new CircularArray<>(25);
 	private final AppMode mode;
 	private final Pocket pocket;
@@ -80,6 +85,7 @@ public class PocketSingleton {
 			Versioning versioning,
 			ErrorHandler errorReporter
 	) {
+		StartupTrace.Span trace = StartupTrace.begin("Pocket setup");
 		this.mode = mode;
 		this.assets = assets;
 		if (mode.isForInternalCompanyOnly()) {
@@ -99,7 +105,9 @@ public class PocketSingleton {
 		SnowplowSource.Config snowplowConfig =
 				new SnowplowSource.Config(pktserver.snowplowCollector(), pktserver.snowplowPostPath(), mode.isForInternalCompanyOnly()
 						? SnowplowAppId.POCKET_ANDROID_DEV
-						: SnowplowAppId.POCKET_ANDROID);
+						: SnowplowAppId.POCKET_ANDROID,
+						new File(context.getFilesDir(), "snowplow"));
+		BaseModeller.setInterner(new StringInterner(INTERNED_STRINGS));
 		Pocket.Config.Builder config = new AndroidPocket.Config.Builder(context, appId, deviceIdentity(context, userAgent.mobile(), device))
 				.remote(new PocketRemoteSource(http.getClient(), pktserver.api(), pktserver.articleView(), snowplowConfig))
 				.threads(new WakefulPools(threads));
@@ -129,6 +137,7 @@ public class PocketSingleton {
 		AssetCleaner cleaner = new AssetCleaner(pocket, assets);
 		assets.addAssetUserCleaner(cleaner);
 		assets.addCleanListener(cleaner);
+		trace.end();
 	}
 	
 	public Pocket getInstance() {
@@ -356,6 +356,10 @@ class MyListViewModel @Inject constructor(
         listManager.loadNextPage()
     }
 
+    override fun onVisibleItemsChanged(first: Int, last: Int) {
+        listManager.setVisibleRange(first, last - first + 1)
+    }
+
     override fun onAddClicked() {
         tracker.track(SavesEvents.addButtonClicked())
         requireSignedIn {
@@ -1019,6 +1023,7 @@ sealed class MyListNavigationEvent {
 
 interface MyListInteractions {
     fun onScrolledNearBottom()
+    fun onVisibleItemsChanged(first: Int, last: Int)
     fun onSearchClicked()
     fun onCloseSearchClicked()
     fun onSearchTextChanged(text: String, delayTime: Long = 600, forceListManagerUpdate: Boolean = false)
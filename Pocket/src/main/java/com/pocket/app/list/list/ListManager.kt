@@ -8,12 +8,14 @@ import com.pocket.sdk.api.generated.enums.ReservedTag
 import com.pocket.sdk.api.generated.thing.Get
 import com.pocket.sdk.api.generated.thing.Saves
 import com.pocket.sdk.api.thing.GetUtil
+import com.pocket.sdk.util.data.AbsDataSourceCache
 import com.pocket.sdk.util.data.DataSourceCache
 import com.pocket.sdk.util.data.SyncCache
 import com.pocket.sdk2.api.legacy.PocketCache
 import com.pocket.util.NoCompareMutableStateFlow
 import com.pocket.util.NoCompareStateFlow
 import com.pocket.util.equalsAny
+import com.pocket.util.java.StartupTrace
 import com.pocket.util.prefs.Preferences
 import com.pocket.util.prefs.StringPreference
 import com.pocket.util.update
@@ -46,16 +48,28 @@ class ListManager @Inject constructor(
     var isSearching: Boolean = false
     var isRemoteData: Boolean = false
 
+    /** The part of the list on screen, see [setVisibleRange]. */
+    private var window: AbsDataSourceCache.Window<Any>? = null
+    private var windowCount = SyncCache.DEFAULT_PAGE_SIZE
+    /** Whether the list changed outside of [window] since [list] last emitted. */
+    private var changedOutsideWindow = false
+    /** Loading the list is the last part of a cold start, so [StartupTrace] finishes once it first loads. */
+    private var firstLoadTrace: StartupTrace.Span? = StartupTrace.beginAsync("first Saves bind")
+
     private var syncCache: SyncCache<Any, *>? = null
         set(value) {
             field?.clearListeners()
             value?.let { field = it } ?: return
+            changedOutsideWindow = false
+            openWindow(value, 0)
             value.addListener(object : DataSourceCache.Listener {
                 override fun onDataSourceChanged() {
-                    _list.update { value.list }
+                    // Invoked before the window, which resets this if the change was inside of it.
+                    changedOutsideWindow = true
                 }
 
                 override fun onDataSourceStateChanged(state: DataSourceCache.LoadState?) {
+                    if (state == DataSourceCache.LoadState.INITIAL_ERROR) endFirstLoadTrace()
                     // fallback to offline my list search if there is an error
                     // when we are doing a remote search for my list
                     if (state.equalsAny(
@@ -79,6 +93,23 @@ class ListManager @Inject constructor(
         refreshCache()
     }
 
+    /** Only emit when what's on screen, or the size of the list, changes. Changes elsewhere are picked up when scrolled to. */
+    private fun openWindow(cache: SyncCache<Any, *>, offset: Int) {
+        window?.stop()
+        window = cache.window(offset, windowCount) {
+            changedOutsideWindow = false
+            _list.update { cache.list }
+            endFirstLoadTrace()
+        }
+    }
+
+    private fun endFirstLoadTrace() {
+        val trace = firstLoadTrace ?: return
+        firstLoadTrace = null
+        trace.end()
+        StartupTrace.finish()
+    }
+
     private fun refreshCache() {
         if (sortFilterState.value.listStatus == ListStatus.SAVES) {
             if (isSearching && pocketCache.hasPremium()) {
@@ -173,6 +204,24 @@ class ListManager @Inject constructor(
         syncCache?.loadNextPage()
     }
 
+    /**
+     * Let the list know which positions are on screen, so it can keep them up to date
+     * and load more before they are scrolled to.
+     */
+    fun setVisibleRange(first: Int, count: Int) {
+        val cache = syncCache ?: return
+        if (count > windowCount) {
+            windowCount = count
+            openWindow(cache, first)
+        } else {
+            window?.move(first)
+        }
+        if (changedOutsideWindow) {
+            changedOutsideWindow = false
+            _list.update { cache.list }
+        }
+    }
+
     fun setTag(tag: String?) {
         _sortFilterState.update { it.copy(
             tag = tag,
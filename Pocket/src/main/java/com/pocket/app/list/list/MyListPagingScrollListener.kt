@@ -11,7 +11,11 @@ class MyListPagingScrollListener(
 
     override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
         super.onScrolled(recyclerView, dx, dy)
+        val firstVisiblePosition = LayoutManagerUtil.findFirstVisibleItemPosition(recyclerView)
         val lastVisiblePosition = LayoutManagerUtil.findLastVisibleItemPosition(recyclerView)
+        if (firstVisiblePosition >= 0 && lastVisiblePosition >= firstVisiblePosition) {
+            viewModel.onVisibleItemsChanged(firstVisiblePosition, lastVisiblePosition)
+        }
         if (lastVisiblePosition >= adapter.itemCount - PAGING_ITEM_THRESHOLD) {
             viewModel.onScrolledNearBottom()
         }
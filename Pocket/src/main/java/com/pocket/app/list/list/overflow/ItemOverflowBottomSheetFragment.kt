@@ -14,7 +14,7 @@ import com.pocket.sdk.api.generated.thing.Item
 import com.pocket.sdk.offline.cache.AssetUser
 import com.pocket.sdk.util.AbsPocketBottomSheetDialogFragment
 import com.pocket.sdk2.view.LazyAssetBitmap
-import com.pocket.sync.value.putThing
+import com.pocket.sync.value.putCompressedThing
 import com.pocket.sync.value.thingArg
 import com.pocket.ui.util.LazyBitmapDrawable
 import com.pocket.util.android.enumArg
@@ -37,7 +37,7 @@ class ItemOverflowBottomSheetFragment : AbsPocketBottomSheetDialogFragment() {
         get() = _binding!!
 
     private val savesTab by enumArg<SavesTab>(ARG_SAVES_TAB)
-    private val item by thingArg(ARG_ITEM, Item.JSON_CREATOR)
+    private val item by thingArg(ARG_ITEM, Item.BYTE_CREATOR, Item.JSON_CREATOR)
 
     override fun onCreateView(
         inflater: LayoutInflater,
@@ -111,7 +111,7 @@ class ItemOverflowBottomSheetFragment : AbsPocketBottomSheetDialogFragment() {
             savesTab: SavesTab,
         ) = ItemOverflowBottomSheetFragment().apply {
             arguments = Bundle().apply {
-                putThing(ARG_ITEM, item)
+                putCompressedThing(ARG_ITEM, item)
                 putEnum(ARG_SAVES_TAB, savesTab)
             }
         }
@@ -24,6 +24,7 @@ class ReaderViewModel @Inject constructor(
     private val listManager: ListManager,
     private val tracker: Tracker,
     private val destinationHelper: DestinationHelper,
+    private val queuePrefetcher: QueuePrefetcher,
 ) : ViewModel(),
     Reader.PreviousNextInteractions,
     Reader.Initializer,
@@ -87,6 +88,7 @@ class ReaderViewModel @Inject constructor(
     }
 
     private fun updatePreviousNextState() {
+        queuePrefetcher.onQueueMoved(viewModelScope, queueManagerStack.peek())
         _uiState.edit { copy(
             previousVisible = queueManagerStack.peek()?.hasPrevious() ?: false,
             nextVisible = queueManagerStack.peek()?.hasNext() ?: false,
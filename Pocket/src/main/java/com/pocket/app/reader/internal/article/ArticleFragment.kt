@@ -491,6 +491,19 @@ class ArticleFragment : AbsPocketFragment(), Reader.NavigationEventHandler, NoOb
             )
         }
 
+        /**
+         * Streams the article's markup from disk when the article page requests it, see [ArticleMarkup]
+         */
+        override fun shouldInterceptRequest(
+            view: WebView?,
+            request: WebResourceRequest?,
+        ): WebResourceResponse? {
+            if (ArticleMarkup.isRequest(request)) {
+                viewModel.markupFile?.let { return ArticleMarkup.response(it) }
+            }
+            return super.shouldInterceptRequest(view, request)
+        }
+
         /**
          * If the user opens any links, handle it here
          */
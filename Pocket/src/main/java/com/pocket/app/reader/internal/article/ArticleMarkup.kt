@@ -0,0 +1,42 @@
+package com.pocket.app.reader.internal.article
+
+import android.webkit.WebResourceRequest
+import android.webkit.WebResourceResponse
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileNotFoundException
+
+/**
+ * Serves an article's markup to the article web view straight from its file, so the web view streams it from disk
+ * instead of the app reading the whole article into a String and passing it through javascript.
+ * The article page requests [URL] (see `loadStreamed` in articleview-mobile.js) and
+ * [android.webkit.WebViewClient.shouldInterceptRequest] answers with [response].
+ */
+object ArticleMarkup {
+
+    /** On the domain reserved for apps to serve their own content to web views, the same one WebViewAssetLoader uses. */
+    const val URL = "https://appassets.androidplatform.net/article/markup.html"
+
+    fun isRequest(request: WebResourceRequest?) = request?.url?.toString() == URL
+
+    /** @return A response that streams this file, or null if it can't be opened, which fails the request. */
+    fun response(file: File): WebResourceResponse? {
+        val stream = try {
+            FileInputStream(file)
+        } catch (e: FileNotFoundException) {
+            return null
+        }
+        return WebResourceResponse(
+            "text/html",
+            "UTF-8",
+            200,
+            "OK",
+            mapOf(
+                // The article page is a file:// page, so this request is cross origin.
+                "Access-Control-Allow-Origin" to "*",
+                "Cache-Control" to "no-store",
+            ),
+            stream,
+        )
+    }
+}
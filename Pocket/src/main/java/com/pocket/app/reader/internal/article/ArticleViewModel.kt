@@ -37,6 +37,8 @@ import kotlinx.coroutines.launch
 import kotlinx.serialization.encodeToString
 import kotlinx.serialization.json.Json
 import okhttp3.HttpUrl.Companion.toHttpUrl
+import java.io.File
+import java.io.FileNotFoundException
 import javax.inject.Inject
 
 @HiltViewModel
@@ -72,6 +74,10 @@ class ArticleViewModel @Inject constructor(
     // used for the "Continue Reading" feature
     private val stopWatch = StopWatch()
 
+    /** The markup of the article being loaded, which the web view streams through [ArticleMarkup]. */
+    @Volatile var markupFile: File? = null
+        private set
+
     val toolbar = Toolbar()
 
     init {
@@ -119,8 +125,11 @@ class ArticleViewModel @Inject constructor(
         ) }
         viewModelScope.launch {
             try {
+                val file = articleRepository.getArticleFile(url, forceRefresh)
+                if (!file.exists()) throw FileNotFoundException("article view wasn't downloaded")
+                markupFile = file
                 _events.tryEmit(ArticleScreen.Event.ExecuteJavascript(
-                    JavascriptFunctions.loadCallback(articleRepository.getArticleHtml(url, forceRefresh))
+                    JavascriptFunctions.loadStreamed(ArticleMarkup.URL)
                 ))
                 // slight delay to give the webView time to load the article so we don't
                 // see a white flash when the loading happens
@@ -75,11 +75,11 @@ public class ImageViewerActivity extends AbsPocketActivity implements ImageViewe
 		int startImageId = 0;
 		Intent intent = getIntent();
 		if (intent != null){
-			images = Parceller.getList(intent, EXTRA_IMAGES, Image.JSON_CREATOR);
+			images = Parceller.getList(intent, EXTRA_IMAGES, Image.BYTE_CREATOR, Image.JSON_CREATOR);
 			startImageId = intent.getIntExtra(EXTRA_START_IMAGE_ID, 1);
 		}
 		if (images == null && savedInstanceState != null){
-			images = Parceller.getList(savedInstanceState, EXTRA_IMAGES, Image.JSON_CREATOR);
+			images = Parceller.getList(savedInstanceState, EXTRA_IMAGES, Image.BYTE_CREATOR, Image.JSON_CREATOR);
 			startImageId = savedInstanceState.getInt(EXTRA_START_IMAGE_ID, 1);
 		}
 		if (startImageId < 1) {
@@ -105,7 +105,7 @@ public class ImageViewerActivity extends AbsPocketActivity implements ImageViewe
 	@Override
 	public void onSaveInstanceState(Bundle outState) {
 		if (images != null) {
-			Parceller.put(outState, EXTRA_IMAGES, images);
+			Parceller.putCompressed(outState, EXTRA_IMAGES, images);
 			outState.putInt(EXTRA_START_IMAGE_ID, viewer.getCurrentImageIndex());
 		}
 		super.onSaveInstanceState(outState);
@@ -135,7 +135,7 @@ public class ImageViewerActivity extends AbsPocketActivity implements ImageViewe
 
 	public static void open(Activity activity, List<Image> images, int startingImageId){
 		Intent intent = new Intent(activity, ImageViewerActivity.class);
-		Parceller.put(intent, ImageViewerActivity.EXTRA_IMAGES, images);
+		Parceller.putCompressed(intent, ImageViewerActivity.EXTRA_IMAGES, images);
 		intent.putExtra(ImageViewerActivity.EXTRA_START_IMAGE_ID, startingImageId);
 		activity.startActivity(intent);
 	}
@@ -11,6 +11,16 @@ object JavascriptFunctions {
         addParameter(html)
     }.getCommand()
 
+    /**
+     * Like [loadCallback], but the article page requests the markup from [url] itself,
+     * so it doesn't have to be passed through javascript.
+     */
+    fun loadStreamed(
+        url: String
+    ): String = JavascriptFunction("loadStreamed").apply {
+        addParameter(url)
+    }.getCommand()
+
     /**
      * triggers the javascript callback onRequestedHighlightPatch where we
      * get the highlight patch
@@ -8,4 +8,6 @@ interface QueueManager {
     fun getNextUrl(): String? = null
     fun hasPrevious(): Boolean = false
     fun hasNext(): Boolean = false
+    /** @return Up to [count] urls after the current one, without moving the queue, for prefetching. */
+    fun getUpcomingUrls(count: Int): List<String> = emptyList()
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.pocket.app.reader.queue
+
+import android.util.Log
+import com.pocket.app.reader.Destination
+import com.pocket.app.reader.DestinationHelper
+import com.pocket.repository.ArticleRepository
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import javax.inject.Inject
+
+/**
+ * Prefetches the next articles in the reader's queue with [ArticleRepository.prefetch], so moving to the next
+ * article doesn't wait on downloading it. Prefetches of articles that are no longer coming up next are cancelled.
+ * Not thread safe, use from the main thread.
+ */
+class QueuePrefetcher @Inject constructor(
+    private val articleRepository: ArticleRepository,
+    private val destinationHelper: DestinationHelper,
+) {
+
+    private val prefetches = mutableMapOf<String, Job>()
+
+    /**
+     * Invoke when the current position of the queue changes.
+     * @param scope Where to run the prefetches, they are all cancelled along with it.
+     * @param queueManager The current queue, or null if there isn't one.
+     */
+    fun onQueueMoved(scope: CoroutineScope, queueManager: QueueManager?) {
+        val upcoming = queueManager?.getUpcomingUrls(PREFETCH_COUNT).orEmpty()
+        val iterator = prefetches.iterator()
+        while (iterator.hasNext()) {
+            val (url, job) = iterator.next()
+            if (url !in upcoming) {
+                job.cancel()
+                iterator.remove()
+            }
+        }
+        upcoming.forEach { url ->
+            if (url !in prefetches) {
+                prefetches[url] = scope.launch {
+                    try {
+                        if (destinationHelper.getDestination(url) == Destination.ARTICLE) {
+                            articleRepository.prefetch(url)
+                        }
+                    } catch (e: Exception) {
+                        // Not critical, it will just be downloaded when opened.
+                        Log.e("QueuePrefetcher", e.message ?: "")
+                    }
+                }
+            }
+        }
+    }
+
+    companion object {
+        /** How many of the next articles to prefetch. */
+        const val PREFETCH_COUNT = 2
+    }
+}
@@ -38,6 +38,8 @@ class SavesListQueueManager(
 
     override fun hasNext(): Boolean = urls.getOrNull(currentIndex + 1) != null
 
+    override fun getUpcomingUrls(count: Int): List<String> = urls.drop((currentIndex + 1).coerceAtLeast(0)).take(count)
+
     companion object {
         const val LOAD_MORE_THRESHOLD = 10
     }
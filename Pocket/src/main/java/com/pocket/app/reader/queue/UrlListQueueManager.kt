@@ -20,4 +20,6 @@ class UrlListQueueManager(
     override fun hasPrevious(): Boolean = urls.getOrNull(currentIndex - 1) != null
 
     override fun hasNext(): Boolean = urls.getOrNull(currentIndex + 1) != null
+
+    override fun getUpcomingUrls(count: Int): List<String> = urls.drop((currentIndex + 1).coerceAtLeast(0)).take(count)
 }
\ No newline at end of file
@@ -54,7 +54,7 @@ public class ItemsTaggingActivity extends AbsPocketActivity {
 		} else {
 			intent = new Intent(context, ItemsTaggingActivity.class);
 		}
-		Parceller.put(intent, ItemsTaggingFragment.ARG_ITEMS, ItemsTaggingFragment.copyAndReduceItemsForParcel(items));
+		Parceller.putCompressed(intent, ItemsTaggingFragment.ARG_ITEMS, ItemsTaggingFragment.copyAndReduceItemsForParcel(items));
 		if (cxts != null) {
 			Parceller.put(intent, ItemsTaggingFragment.ARG_UI_CONTEXTS, new ArrayList<>(cxts));
 		}
@@ -70,7 +70,7 @@ public class ItemsTaggingActivity extends AbsPocketActivity {
 		if (savedInstanceState == null) {	
 			// New instance
 			Fragment fragment = ItemsTaggingFragment.newInstance(
-					Parceller.getList(getIntent(), ItemsTaggingFragment.ARG_ITEMS, Item.JSON_CREATOR),
+					Parceller.getList(getIntent(), ItemsTaggingFragment.ARG_ITEMS, Item.BYTE_CREATOR, Item.JSON_CREATOR),
 					getIntent().getBooleanExtra(ItemsTaggingFragment.ARG_ADD_ONLY, false),
 					Parceller.getList(getIntent(), ItemsTaggingFragment.ARG_UI_CONTEXTS, ActionContext.JSON_CREATOR));
 			
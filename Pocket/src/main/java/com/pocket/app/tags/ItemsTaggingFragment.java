@@ -102,7 +102,7 @@ public class ItemsTaggingFragment extends AbsPocketFragment {
 	public static ItemsTaggingFragment newInstance(List<Item> items, boolean addOnly, List<ActionContext> cxts) {
 		ItemsTaggingFragment frag = new ItemsTaggingFragment();
 		Bundle args = new Bundle();
-		Parceller.put(args, ARG_ITEMS, copyAndReduceItemsForParcel(items));
+		Parceller.putCompressed(args, ARG_ITEMS, copyAndReduceItemsForParcel(items));
 		Parceller.put(args, ARG_UI_CONTEXTS, cxts);
 		args.putBoolean(ARG_ADD_ONLY, addOnly);
 		frag.setArguments(args);
@@ -195,7 +195,7 @@ public class ItemsTaggingFragment extends AbsPocketFragment {
 	public void onActivityCreated(Bundle savedInstanceState) {
 		super.onActivityCreated(savedInstanceState);
 		
-		items = Parceller.getList(getArguments(), ARG_ITEMS, Item.JSON_CREATOR);
+		items = Parceller.getList(getArguments(), ARG_ITEMS, Item.BYTE_CREATOR, Item.JSON_CREATOR);
 		itemMode = items.size() == 1 && !getArguments().getBoolean(ARG_ADD_ONLY) ? ItemMode.SINGLE_ITEM : ItemMode.MUTLI_ITEM;
 		
 		contentViewGroup = findViewById(R.id.content);
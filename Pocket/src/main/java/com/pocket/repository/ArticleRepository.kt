@@ -4,6 +4,7 @@ import android.util.Log
 import com.fasterxml.jackson.databind.node.ObjectNode
 import com.pocket.data.models.ArticleImage
 import com.pocket.sdk.Pocket
+import com.pocket.sdk.api.generated.enums.OfflineStatus
 import com.pocket.sdk.api.generated.enums.PositionType
 import com.pocket.sdk.api.generated.thing.Item
 import com.pocket.sdk.api.source.V3Source
@@ -16,17 +17,20 @@ import com.pocket.sdk.offline.OfflineDownloading
 import com.pocket.sdk.offline.cache.AssetUser
 import com.pocket.sdk.offline.cache.Assets
 import com.pocket.sdk.offline.cache.DownloadAuthorization
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.awaitClose
-import kotlinx.coroutines.channels.trySendBlocking
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.sync.Mutex
-import org.apache.commons.io.FileUtils
 import org.apache.commons.lang3.StringEscapeUtils
 import org.apache.commons.lang3.StringUtils
 import java.io.File
+import java.util.concurrent.atomic.AtomicInteger
 import javax.inject.Inject
 import javax.inject.Singleton
+import kotlin.coroutines.resume
 
 @Singleton
 class ArticleRepository @Inject constructor(
@@ -35,17 +39,33 @@ class ArticleRepository @Inject constructor(
     private val offlineDownloading: OfflineDownloading,
 ) {
 
-    suspend fun getArticleHtml(
+    /**
+     * Articles prefetched for the reader's queue, by url, and whether their markup was downloaded yet.
+     * Only used to count [prefetchMetrics].
+     */
+    private val prefetched = object : LinkedHashMap<String, Boolean>() {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Boolean>?) = size > MAX_PREFETCHED
+    }
+    private val prefetchHits = AtomicInteger()
+    private val prefetchMisses = AtomicInteger()
+
+    /** The width images were last requested at by [getImages], used to prefetch them at the same size. */
+    @Volatile private var imageWidth = 0
+
+    /** How often articles that were prefetched were ready by the time they were opened. */
+    val prefetchMetrics: PrefetchMetrics
+        get() = PrefetchMetrics(prefetchHits.get(), prefetchMisses.get())
+
+    /**
+     * @return The file with the article view's markup, downloading it first if needed. The reader streams it from
+     * there rather than loading it into memory.
+     */
+    suspend fun getArticleFile(
         url: String,
         forceRefresh: Boolean = false
-    ): String {
-        val item = pocket.getLocal(
-            pocket.spec().things().item()
-                .given_url(UrlString(url))
-                .build()
-        ) ?: Item.Builder()
-            .given_url(UrlString(url))
-            .build()
+    ): File {
+        countPrefetch(url, forceRefresh)
+        val item = getLocalItem(url)
         val filePath = assets.assetDirectory.pathForText(item)
         val file = File(filePath)
         // Download article view if it isn't already
@@ -66,13 +86,87 @@ class ArticleRepository @Inject constructor(
             // await
             lock.lock()
         }
-        return FileUtils.readFileToString(
-            file,
-            "UTF-8"
-        )
+        return file
+    }
+
+    /** If this url was prefetched, counts whether it was ready in [prefetchMetrics]. */
+    private fun countPrefetch(url: String, forceRefresh: Boolean) {
+        val ready = synchronized(prefetched) {
+            if (!prefetched.containsKey(url)) return
+            prefetched.remove(url)
+        }
+        if (forceRefresh) return
+        if (ready == true) {
+            prefetchHits.incrementAndGet()
+            Log.d("ArticleRepository", "prefetch hit")
+        } else {
+            prefetchMisses.incrementAndGet()
+            Log.d("ArticleRepository", "prefetch miss")
+        }
+    }
+
+    /**
+     * Warms an article the user is likely to open soon, such as the next ones in the reader's queue, so opening it
+     * doesn't wait on downloading its markup or downloading and resizing its images.
+     * Downloads at background priority. Cancelling the calling coroutine cancels any of its downloads that haven't
+     * been requested by the reader since.
+     */
+    suspend fun prefetch(url: String) {
+        synchronized(prefetched) {
+            if (prefetched[url] == true) return
+            prefetched[url] = false
+        }
+        val item = getLocalItem(url)
+        val file = File(assets.assetDirectory.pathForText(item))
+        if (!file.exists()) {
+            val status = suspendCancellableCoroutine<OfflineStatus?> { continuation ->
+                offlineDownloading.prefetch(item, PositionType.ARTICLE) { _, _, status ->
+                    continuation.resume(status)
+                }
+                continuation.invokeOnCancellation {
+                    offlineDownloading.cancelPrefetch(item, PositionType.ARTICLE)
+                }
+            }
+            if (status != OfflineStatus.OFFLINE || !file.exists()) return
+        }
+        synchronized(prefetched) {
+            if (prefetched.containsKey(url)) prefetched[url] = true // Otherwise it was opened or evicted meanwhile
+        }
+        prefetchImages(item)
+    }
+
+    /** Downloads and resizes an item's images into the image cache, like [getImages] will request them. */
+    private suspend fun prefetchImages(item: Item) {
+        val images = item.images.orEmpty().filter { it.src != null }
+        val width = imageWidth
+        if (images.isEmpty() || width <= 0) return
+        val canceller = Image.Canceller()
+        suspendCancellableCoroutine { continuation ->
+            continuation.invokeOnCancellation { canceller.cancel() }
+            val remaining = AtomicInteger(images.size)
+            images.forEach { image ->
+                Image.build(image.src, AssetUser.forItem(item.time_added, item.idkey()))
+                    .fitWidth(width, false)
+                    .setDownloadAuthorization(DownloadAuthorization.ONLY_WHEN_SPACE_AVAILABLE)
+                    .setCanceller(canceller)
+                    .cache { _, _ ->
+                        if (remaining.decrementAndGet() == 0) continuation.resume(Unit)
+                    }
+            }
+        }
     }
 
+    private suspend fun getLocalItem(url: String): Item =
+        pocket.getLocal(
+            pocket.spec().things().item()
+                .given_url(UrlString(url))
+                .build()
+        ) ?: Item.Builder()
+            .given_url(UrlString(url))
+            .build()
+
     fun getImages(url: String, imageWidth: Int): Flow<ArticleImage> = callbackFlow {
+        this@ArticleRepository.imageWidth = imageWidth
         val item = pocket.getLocal(
             pocket.spec().things().item()
                 .given_url(UrlString(url))
@@ -100,7 +194,8 @@ class ArticleRepository @Inject constructor(
                         StringUtils.defaultString(image.credit)
                     )
 
-                    trySendBlocking(ArticleImage(
+                    // Never blocks the image callback thread, the channel is unlimited below.
+                    trySend(ArticleImage(
                         imageId = image.image_id!!,
                         localFileUrl = "file://${File(request.assetSizedPath)}",
                         caption = caption,
@@ -113,7 +208,7 @@ class ArticleRepository @Inject constructor(
         awaitClose {
             // not possible to cancel the image requests from here?
         }
-    }
+    }.buffer(Channel.UNLIMITED)
 
     suspend fun getVideoJson(url: String): List<ObjectNode> {
         val item = pocket.getLocal(
@@ -138,4 +233,15 @@ class ArticleRepository @Inject constructor(
                 .build()
         )
     }
+
+    /**
+     * @param hits How many prefetched articles were ready when they were opened.
+     * @param misses How many prefetched articles were opened before their prefetch finished.
+     */
+    data class PrefetchMetrics(val hits: Int, val misses: Int)
+
+    companion object {
+        /** How many prefetched articles to track at most. */
+        const val MAX_PREFETCHED = 5
+    }
 }
\ No newline at end of file
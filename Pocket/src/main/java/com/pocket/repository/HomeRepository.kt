@@ -59,8 +59,8 @@ class HomeRepository
     }
 
     fun getLineup(locale: String?): Flow<List<DomainSlate>> {
-        return pocket.bindLocalAsFlow(lineup(locale))
-            .mapNotNull { it.homeSlateLineup?.slates?.map { it.toDomainSlate() } }
+        return pocket.bindLocalAsFlow(lineup(locale)) { it.homeSlateLineup }
+            .mapNotNull { it?.slates?.map { it.toDomainSlate() } }
     }
 
     suspend fun hasCachedLineup(locale: String?): Boolean =
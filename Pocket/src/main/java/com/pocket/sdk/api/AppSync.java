@@ -28,12 +28,14 @@ import com.pocket.sdk.api.value.Timestamp;
 import com.pocket.sdk.http.NetworkStatus;
 import com.pocket.sdk2.api.legacy.PocketCache;
 import com.pocket.sync.source.PendingResult;
+import com.pocket.sync.source.RemoteLane;
 import com.pocket.sync.source.result.RemotePriority;
 import com.pocket.sync.source.result.SyncException;
 import com.pocket.sync.space.Holder;
 import com.pocket.util.android.thread.TaskRunnable;
 import com.pocket.util.java.Logs;
 import com.pocket.util.java.Safe;
+import com.pocket.util.java.StartupTrace;
 import com.pocket.util.prefs.BooleanPreference;
 import com.pocket.util.prefs.Preferences;
 
@@ -107,6 +109,7 @@ public class AppSync implements AppLifecycle {
 			Versioning versioning,
 			AppLifecycleEventDispatcher dispatcher
 	) {
+		StartupTrace.Span trace = StartupTrace.begin("AppSync setup");
 		dispatcher.registerAppLifecycleObserver(this);
 		this.pktcache = pktcache;
 		this.pocket = pocket;
@@ -165,6 +168,7 @@ public class AppSync implements AppLifecycle {
 		});
 		addInitialFlags(g -> g.forcerediscovery(1));
 		addFlags(g -> g.rediscovery(1));
+		trace.end();
 	}
 	
 	@Override
@@ -436,7 +440,8 @@ public class AppSync implements AppLifecycle {
 							.chunk(i)
 							.build();
 					pocket.remember(fetchHolder, chunk);
-					fetches.add(pocket.syncRemote(chunk)
+					// The first chunk is enough to show the list, so the rest can wait for anything the user is doing.
+					fetches.add(pocket.syncRemote(RemoteLane.BACKGROUND, chunk)
 							.onSuccess(f -> {
 								completedWork.add(f);
 								dispatchProgress(completedWork.size(), totalWork);
@@ -1,6 +1,7 @@
 package com.pocket.sdk.image;
 
 import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.graphics.Bitmap;
 
@@ -14,10 +15,12 @@ import com.pocket.sdk.network.eclectic.EclecticHttp;
 import com.pocket.sdk.network.eclectic.EclecticHttpRequest;
 import com.pocket.sdk.network.eclectic.EclecticHttpUtil;
 import com.pocket.sdk.offline.cache.Asset;
+import com.pocket.sdk.offline.cache.AssetIndex;
 import com.pocket.sdk.offline.cache.AssetUser;
 import com.pocket.sdk.offline.cache.Assets;
 import com.pocket.util.java.Logs;
 import com.pocket.util.android.drawable.BitmapLruCache;
+import com.pocket.util.android.drawable.BitmapPool;
 import com.pocket.util.android.drawable.CacheableBitmapWrapper;
 import com.pocket.util.android.drawable.MemoryAwareBitmapFactory;
 import com.pocket.util.android.thread.TaskPool;
@@ -54,12 +57,18 @@ public final class ImageCache implements AppLifecycle {
 	private final UserAgent userAgent;
 	private final FileLocks fileLocks;
 	private final BitmapLruCache cache;
+	/** Bitmaps that are no longer displayed or cached, for decodes to reuse. */
+	private final BitmapPool pool;
 	/** Handles the first pass at looking at a request and deciding what to do. */
 	private final TaskPool routing;
 	/** Handles resizing already downloaded images. */
 	private final TaskPool resizing;
 	/** Handles downloading and writing images. */
 	private final TaskPool downloading;
+	/** Downloads in progress, keyed by the asset's local path. */
+	private final ImageFlights<Image.Request> downloads = new ImageFlights<>(ImageCache::isStillNeeded);
+	/** Resizes in progress, keyed by the resized output path. */
+	private final ImageFlights<Image.Request> resizes = new ImageFlights<>(ImageCache::isStillNeeded);
 	private final HttpClientDelegate http;
 	private final CookieDelegate cookies;
 
@@ -87,6 +96,8 @@ public final class ImageCache implements AppLifecycle {
 		int fraction = memClass > 24 ? 5 : 8;
 	    final int cacheSize = 1024 * 1024 * memClass / fraction;
 	    cache = new BitmapLruCache(cacheSize);
+		// Enough to cover the thumbnails that scroll off screen while quickly moving through a list.
+		pool = new BitmapPool(cacheSize / 4);
 		
 		routing = threads.newPriorityPool("img-route", 5);
 	    resizing = threads.newPriorityPool("img-resize", 2);
@@ -98,6 +109,16 @@ public final class ImageCache implements AppLifecycle {
 		trim();
 	}
 	
+	@Override
+	public void onTrimMemory(int level) {
+		if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+			trim();
+		} else {
+			pool.trimMemory(level);
+		}
+		if (DEBUG) Logs.d("ImageCache", "trim memory " + level + " " + pool);
+	}
+	
 	/**
 	 * Start building a new request for an image.
 	 */
@@ -113,13 +134,18 @@ public final class ImageCache implements AppLifecycle {
 	}
 	
 	/**
-	 * Checks if the image is already on disk, safely using locks to avoid resizing/caching partial images that are in the process of being written.
+	 * Checks if the image is already on disk. Answers from the {@link AssetIndex} if it knows,
+	 * otherwise looks on disk, safely using locks to avoid resizing/caching partial images that are in the process of being written.
 	 */
 	private boolean exists(Asset asset) {
+		AssetIndex index = assets.getIndex();
+		AssetIndex.Entry known = index.known(asset.local);
+		if (known != null) return known.exists();
+		
 		FileLocks.Lock lock = null;
 		try {
-			lock = fileLocks.lock(asset.local);
-			return asset.local.exists();
+			lock = fileLocks.readLock(asset.local);
+			return index.probe(asset.local).exists();
 		} catch (Throwable ignore) {
 			return asset.local.exists(); // If interrupted just fallback to just checking without the lock
 		} finally {
@@ -163,82 +189,22 @@ public final class ImageCache implements AppLifecycle {
 						// File has been flagged to be ignored.
 						callback(request, Image.Result.FAILED_PERMANENTLY);
 					
+					} else if (downloads.follow(asset.local.getAbsolutePath(), request)) {
+						// Another request is already downloading this image, it will call back for us when done.
+						if (DEBUG) Logs.i("ImageCache", "request joined download" + request.toString());
+						
 					} else if (exists(asset) && !request.refresh) {
 						if (request.resize != null) {
-							if (ImageResizer.isImageResized(request)) {
-								callback(request, Image.Result.SUCCESS);
-							} else {
-								resizing.submit(new ImageResizer(request, (r, success) -> callback(request, success ? Image.Result.SUCCESS : Image.Result.FAILED)));
-							}
+							resize(request);
 						} else {
 							assets.registerAssetUser(asset, request.assetUser);
 							callback(request, Image.Result.SUCCESS);
 						}
 					
 					} else if (request.tryFetchFromSource && assets.isDownloadAuthorized(request.downloadAuthorization)) {
-						EclecticHttp client = http.getClient();
-						String url = ImageCacheHelper.convertToPocketImageCacheUrl(asset.url.toString());
-						EclecticHttpRequest httpRequest = client.buildRequest(url)
-								.setHeader("User-Agent", userAgent.preferred())
-								.setHeader("Accept-Encoding", "gzip"); // REVIEW not sure if we need this, but it was part of FileDownloader before the refactor that setup this new code.
-						cookies.addCookiesToRequest(httpRequest, client);
-					
-						downloading.submit(new ImageTask(request) {
-							
-							@Override
-							protected void backgroundOperation() {
-								try {
-									Integer result = (Integer) client.get(httpRequest, (in, response) -> {
-										switch (response.getStatusCode()) {
-											case 200:
-												if (EclecticHttpUtil.getContentLength(response) > MAX_FILE_SIZE) return -1;
-												FileLocks.Lock lock = null;
-												try {
-													// Note: Since this buffers to disk, it will hold a lock that waits for both network and disk activity
-													// This does mean that if multiple requests for the same image occur at the same time, it could end up holding up the thread queue waiting
-													// for the lock to release, but until we see that use case actually happen and cause slow downs, leaving this implementation as is.
-													lock = fileLocks.lock(asset.local);
-													if (asset.local.exists()) return 1; // Must have already been downloaded in between the last check from another request
-													return writeImage(asset, request.assetUser, in.okioBuffer(), MAX_FILE_SIZE) ? 1 : -1;
-												} finally {
-													if (lock != null) lock.release();
-												}
-											case 404:
-											case 403:
-											case 301: // REVIEW why is this an invalid? why not redirect?
-												return -1;
-											default:
-												return 0;
-										}
-									}).getResponse();
-								
-									if (result == 1) {
-										try {
-											if (request.resize != null) {
-												if (ImageResizer.isImageResized(request)) {
-													callback(request, Image.Result.SUCCESS);
-												} else {
-													resizing.submit(new ImageResizer(request, (r, success) -> callback(request, success ? Image.Result.SUCCESS : Image.Result.FAILED)));
-												}
-											} else {
-												callback(request, Image.Result.SUCCESS);
-											}
-										} catch (Throwable catchall) {
-											// Make sure we call back no matter what.
-											callback(request, Image.Result.FAILED);
-										}
-									} else if (result == -1) {
-										assets.makeNFFile(asset);
-										callback(request, Image.Result.FAILED_PERMANENTLY);
-									} else {
-										callback(request, Image.Result.FAILED);
-									}
-								} catch (Throwable catchall) {
-									// Make sure we call back no matter what.
-									callback(request, Image.Result.FAILED);
-								}
-							}
-						});
+						if (downloads.join(asset.local.getAbsolutePath(), request)) {
+							download(request);
+						}
 					} else {
 						if (DEBUG) Logs.i("ImageCache", "request doesn't exist but not authorized to download" + request.toString());
 						callback(request, Image.Result.FAILED);
@@ -252,6 +218,117 @@ public final class ImageCache implements AppLifecycle {
 		return null;
 	}
 	
+	/**
+	 * Downloads the request's asset and then continues each request in its download flight.
+	 * Must only be invoked by the request that started the flight in {@link #downloads}.
+	 */
+	private void download(Image.Request request) {
+		final Asset asset = request.asset;
+		final String key = asset.local.getAbsolutePath();
+		final EclecticHttp client;
+		final EclecticHttpRequest httpRequest;
+		try {
+			client = http.getClient();
+			String url = ImageCacheHelper.convertToPocketImageCacheUrl(asset.url.toString());
+			httpRequest = client.buildRequest(url)
+					.setHeader("User-Agent", userAgent.preferred())
+					.setHeader("Accept-Encoding", "gzip"); // REVIEW not sure if we need this, but it was part of FileDownloader before the refactor that setup this new code.
+			cookies.addCookiesToRequest(httpRequest, client);
+		} catch (Throwable t) {
+			for (Image.Request joined : downloads.land(key)) {
+				callback(joined, Image.Result.FAILED);
+			}
+			return;
+		}
+		
+		downloading.submit(new ImageTask(request, downloads, key) {
+			
+			@Override
+			protected void backgroundOperation() {
+				if (downloads.abandonIfUnneeded(key)) {
+					// Every request in this flight was cancelled while it waited, nobody needs the download anymore.
+					return;
+				}
+				int result;
+				try {
+					result = (Integer) client.get(httpRequest, (in, response) -> {
+						switch (response.getStatusCode()) {
+							case 200:
+								if (EclecticHttpUtil.getContentLength(response) > MAX_FILE_SIZE) return -1;
+								FileLocks.Lock lock = null;
+								try {
+									// Note: Since this buffers to disk, it will hold a lock that waits for both network and disk activity.
+									// Other requests for this image join this download's flight rather than waiting on this lock,
+									// so it only holds up readers of the file itself.
+									lock = fileLocks.lock(asset.local);
+									if (asset.local.exists()) return 1; // Must have already been downloaded in between the last check from another request
+									return writeImage(asset, request.assetUser, in.okioBuffer(), MAX_FILE_SIZE) ? 1 : -1;
+								} finally {
+									if (lock != null) lock.release();
+								}
+							case 404:
+							case 403:
+							case 301: // REVIEW why is this an invalid? why not redirect?
+								return -1;
+							default:
+								return 0;
+						}
+					}).getResponse();
+				} catch (Throwable catchall) {
+					result = 0;
+				}
+				
+				if (result == -1) {
+					try {
+						assets.makeNFFile(asset);
+					} catch (Throwable ignore) {}
+				}
+				
+				// Make sure we call back every request in the flight no matter what.
+				for (Image.Request joined : downloads.land(key)) {
+					try {
+						if (result == 1) {
+							if (joined != request) {
+								assets.registerAssetUser(asset, joined.assetUser);
+							}
+							if (joined.resize != null) {
+								resize(joined);
+							} else {
+								callback(joined, Image.Result.SUCCESS);
+							}
+						} else if (result == -1) {
+							callback(joined, Image.Result.FAILED_PERMANENTLY);
+						} else {
+							callback(joined, Image.Result.FAILED);
+						}
+					} catch (Throwable catchall) {
+						callback(joined, Image.Result.FAILED);
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Calls back if the request's size is already on disk, otherwise resizes it.
+	 * Requests for the same sized path that arrive while it is being resized join that resize instead of starting their own.
+	 */
+	private void resize(Image.Request request) {
+		final String key = request.assetSizedPath;
+		if (resizes.follow(key, request)) {
+			return; // Another request is already resizing to this path, it will call back for us when done.
+		}
+		if (ImageResizer.isImageResized(request)) {
+			callback(request, Image.Result.SUCCESS);
+		} else if (resizes.join(key, request)) {
+			resizing.submit(new ImageResizer(request, resizes, key, (r, success) -> {
+				for (Image.Request joined : resizes.land(key)) {
+					callback(joined, success ? Image.Result.SUCCESS : Image.Result.FAILED);
+				}
+			}));
+		}
+	}
+	
 	/**
 	 * Writes an image to disk from a stream and registers assets/users
 	 * @param asset Info about this image
@@ -291,9 +368,14 @@ public final class ImageCache implements AppLifecycle {
 		}
 	}
 	
+	/** @return false if the request was cancelled, in which case it won't be called back. */
+	private static boolean isStillNeeded(Image.Request request) {
+		return request.callback == null || request.callback.isImageRequestStillValid(request);
+	}
+	
 	private void callback(final Image.Request request, Image.Result result) {
 		final Image.ImageReadyCallback callback = request.callback;
-		if (callback != null && !callback.isImageRequestStillValid(request)) {
+		if (!isStillNeeded(request)) {
 			if (DEBUG) Logs.i("ImageCache", "request invalid" + request.toString());
 			// request is no longer needed, so we don't need to allocate or cache the bitmap for now.
 			
@@ -304,12 +386,16 @@ public final class ImageCache implements AppLifecycle {
 			Bitmap bitmap;
 			final CacheableBitmapWrapper wrapper;
 			if (request.returnBitmap && callback != null && result == Image.Result.SUCCESS) {
-				bitmap = MemoryAwareBitmapFactory.decodeQuietly(request.assetSizedPath, null);
+				bitmap = MemoryAwareBitmapFactory.decodeQuietly(request.assetSizedPath, null, pool);
 				if (bitmap != null) {
-					wrapper = new CacheableBitmapWrapper(bitmap, request.assetSizedPath);
+					wrapper = new CacheableBitmapWrapper(bitmap, request.assetSizedPath, pool);
 					cache.cache(request.assetSizedPath, wrapper);
 				} else {
 					wrapper = null;
+					// In case the index is out of date, such as the file was removed in a way it didn't hear about, make the next request look on disk.
+					AssetIndex index = assets.getIndex();
+					index.forget(new File(request.assetSizedPath));
+					index.forget(request.asset.local);
 				}
 			} else {
 				wrapper = null;
@@ -333,10 +419,18 @@ public final class ImageCache implements AppLifecycle {
 				routing.cancelAllUntilEmpty();
 				downloading.cancelAllUntilEmpty();
 				resizing.cancelAllUntilEmpty();
+				// The work is cancelled, but requests that joined it still get called back.
+				for (Image.Request joined : downloads.landAll()) {
+					callback(joined, Image.Result.FAILED);
+				}
+				for (Image.Request joined : resizes.landAll()) {
+					callback(joined, Image.Result.FAILED);
+				}
 			}
 
 			@Override public void deleteUserData() {
 				cache.evictAll();
+				pool.clear();
 			}
 
 			@Override public void restart() {}
@@ -346,17 +440,27 @@ public final class ImageCache implements AppLifecycle {
 	}
 
 	/**
-	 * Removes cached images that are not currently being displayed
+	 * Removes cached images that are not currently being displayed, and releases pooled ones.
 	 */
 	public void trim() {
 		if (cache != null) {
 			cache.trimMemory();
 		}
+		if (pool != null) {
+			pool.clear();
+		}
 	}
 	
 	public FileLocks getImageFileLocks() {
 		return fileLocks;
 	}
 	
+	/**
+	 * Bitmaps that are no longer in use, for decodes to draw into rather than allocating new ones.
+	 */
+	public BitmapPool getBitmapPool() {
+		return pool;
+	}
+	
 }
 
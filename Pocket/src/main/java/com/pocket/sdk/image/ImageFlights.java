@@ -0,0 +1,128 @@
+package com.pocket.sdk.image;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces requests that need the same piece of work done, such as downloading the same asset
+ * or resizing to the same output path, so that work only happens once at a time per key.
+ * <p>
+ * The first request for a key becomes the leader and is expected to perform the work.
+ * Any requests for that key that arrive while the work is in flight join it as followers instead of
+ * doing the work (or waiting on file locks) themselves.
+ * When the leader finishes it invokes {@link #land(String)} to get all of the requests that should receive the result.
+ * <p>
+ * A request that is no longer needed only drops itself, the others in its flight still get the result.
+ * The leader can use {@link #abandonIfUnneeded(String)} to skip the work once nobody is waiting on it anymore.
+ * While the work waits to run, it should be prioritized by {@link #priority(String, Object, Priority)}, so a follower that
+ * needs the result sooner than the leader doesn't wait behind the leader's priority.
+ *
+ * @param <R> The type of request, {@link Image.Request} in the app.
+ */
+final class ImageFlights<R> {
+
+	interface Needed<R> {
+		/** @return false if this request was cancelled and should no longer be called back. */
+		boolean isNeeded(R request);
+	}
+
+	interface Priority<R> {
+		/** @return The priority of this request on its own. Invoked while holding a lock, so keep it cheap. */
+		int of(R request);
+	}
+
+	private final Map<String, List<R>> flights = new HashMap<>();
+	private final Needed<R> needed;
+
+	ImageFlights(Needed<R> needed) {
+		this.needed = needed;
+	}
+
+	/**
+	 * Join the flight for this key, starting a new one if needed.
+	 * @return true if this request started a new flight and the caller must perform the work and then {@link #land(String)}, false if it joined an in flight one and will be returned by the leader's {@link #land(String)}.
+	 */
+	synchronized boolean join(String key, R request) {
+		List<R> joined = flights.get(key);
+		if (joined != null) {
+			joined.add(request);
+			return false;
+		}
+		joined = new ArrayList<>(2);
+		joined.add(request);
+		flights.put(key, joined);
+		return true;
+	}
+
+	/**
+	 * Join the flight for this key only if one is already in flight.
+	 * @return true if joined, false if nothing was in flight for this key, in which case the request was not added.
+	 */
+	synchronized boolean follow(String key, R request) {
+		List<R> joined = flights.get(key);
+		if (joined != null) {
+			joined.add(request);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the requests in this key's flight that are no longer needed. If none are left, the flight ends,
+	 * so requests that arrive after this start a new one.
+	 * Must only be invoked by the leader, before starting the work.
+	 * @return true if the flight ended and the leader should skip the work, false if some requests still need it.
+	 */
+	synchronized boolean abandonIfUnneeded(String key) {
+		List<R> joined = flights.get(key);
+		if (joined == null) return true;
+		Iterator<R> it = joined.iterator();
+		while (it.hasNext()) {
+			if (!needed.isNeeded(it.next())) it.remove();
+		}
+		if (!joined.isEmpty()) return false;
+		flights.remove(key);
+		return true;
+	}
+
+	/**
+	 * @param leader The request that started the flight, used on its own if the flight already landed.
+	 * @return The highest priority of any request in this key's flight.
+	 */
+	synchronized int priority(String key, R leader, Priority<R> priority) {
+		List<R> joined = flights.get(key);
+		if (joined == null) return priority.of(leader);
+		int max = Integer.MIN_VALUE;
+		for (int i = 0, size = joined.size(); i < size; i++) {
+			max = Math.max(max, priority.of(joined.get(i)));
+		}
+		return max;
+	}
+
+	/**
+	 * Ends the flight for this key.
+	 * @return All requests that were part of the flight, the leader first, in the order they joined.
+	 */
+	synchronized List<R> land(String key) {
+		List<R> joined = flights.remove(key);
+		return joined != null ? joined : Collections.emptyList();
+	}
+
+	/**
+	 * Ends all flights. Used when the work itself is being cancelled.
+	 * @return All requests that were in any flight, so they can still be called back.
+	 */
+	synchronized List<R> landAll() {
+		List<R> all = new ArrayList<>();
+		for (List<R> joined : flights.values()) {
+			all.addAll(joined);
+		}
+		flights.clear();
+		return all;
+	}
+
+}
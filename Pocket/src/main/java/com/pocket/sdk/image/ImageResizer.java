@@ -16,9 +16,11 @@ import com.pocket.sdk.image.rule.ImageResizeRule;
 import com.pocket.sdk.image.rule.InvalidImageException;
 import com.pocket.sdk.image.rule.InvalidResizeRuleException;
 import com.pocket.sdk.offline.cache.Asset;
+import com.pocket.sdk.offline.cache.AssetIndex;
 import com.pocket.sdk.offline.cache.AssetUser;
 import com.pocket.sdk.offline.cache.Assets;
 import com.pocket.util.java.Logs;
+import com.pocket.util.android.drawable.BitmapPool;
 import com.pocket.util.android.drawable.MemoryAwareBitmapFactory;
 import com.pocket.util.java.FileLocks;
 
@@ -47,8 +49,9 @@ public class ImageResizer extends ImageTask {
 	private String mSizedPath;
 	private File mSizedFile;
 	
-	ImageResizer(Image.Request request, Callback callback) {
-		super(request);
+	/** A resize for the flight this request leads, see {@link ImageTask#ImageTask(Image.Request, ImageFlights, String)}. */
+	ImageResizer(Image.Request request, ImageFlights<Image.Request> flights, String key, Callback callback) {
+		super(request, flights, key);
 		
 		mRequest = request;
 		mAsset = request.asset;
@@ -66,32 +69,37 @@ public class ImageResizer extends ImageTask {
 		if (request.resize == null) {
 			return true; // No resize needed.
 		}
-		return assetExistsAndPassesAgeTest(request.asset.local, new File(request.assetSizedPath));
+		return assetExistsAndPassesAgeTest(App.getApp().assets().getIndex(), request.asset.local, new File(request.assetSizedPath));
 	}
 	
 	/**
 	 * Does this asset exist and is still up-to-date? If the source image has been modified since the
 	 * resized image was created, then it is not up-to-date. 
+	 * Answers from the {@link AssetIndex} where it can and only looks on disk for files it doesn't know about yet.
 	 * 
+	 * @param index The index of asset files
 	 * @param sourceFile The original source image.
 	 * @param sizedFile The path to the resized image.
 	 * @return True if the image exists and is still up-to-date. False if it doesn't exist or the source has been modified since the resized image was created.
 	 */
-	private static boolean assetExistsAndPassesAgeTest(File sourceFile, File sizedFile) {
-		if (sizedFile.exists()) {
+	private static boolean assetExistsAndPassesAgeTest(AssetIndex index, File sourceFile, File sizedFile) {
+		AssetIndex.Entry sized = index.known(sizedFile);
+		if (sized == null) {
 			/*
-			 * For thread safety, we can't just rely a simple File.exists() check as that won't
-			 * catch the reproducible race condition where the file exists, but is still being
-			 * written out, so it isn't fully formed yet. So if there is a lock, wait on it
+			 * The index only learns of written files once they are complete, but for thread safety, we can't just rely on
+			 * a simple File.exists() check as that won't catch the reproducible race condition where the file exists,
+			 * but is still being written out, so it isn't fully formed yet. So if there is a lock, wait on it
 			 * before we make a decision.
 			 */
 			if (!waitForLock(sizedFile)) {
 				return false;
 			}
-
+			sized = index.probe(sizedFile);
+		}
+		if (sized.exists()) {
 			// Make sure it's not older than the source image (if the source has since be redownloaded)
-			long thumbModified = sizedFile.lastModified();
-			long sourceModified = sourceFile.lastModified();
+			long thumbModified = sized.modified;
+			long sourceModified = index.get(sourceFile).modified;
 			
 			return thumbModified == 0 || sourceModified == 0 || thumbModified >= sourceModified;
 
@@ -101,7 +109,7 @@ public class ImageResizer extends ImageTask {
 	}
 
 	/**
-	 * Obtain a shared lock on a file and immediately release it.
+	 * Obtain a read lock on a file and immediately release it, which waits for any in progress write to finish.
 	 * @param file
 	 * @return
 	 */
@@ -109,7 +117,7 @@ public class ImageResizer extends ImageTask {
 		FileLocks.Lock lock = null;
 
 		try {
-			lock = App.getApp().imageCache().getImageFileLocks().lock(file);
+			lock = App.getApp().imageCache().getImageFileLocks().readLock(file);
 			lock.release();
 			return true;
 
@@ -130,7 +138,8 @@ public class ImageResizer extends ImageTask {
 		mSizedFile = new File(mSizedPath);
 		
 		// Check local store for resized image
-		mImageResourceExists = assetExistsAndPassesAgeTest(mSourceFile, mSizedFile);
+		AssetIndex index = App.getApp().assets().getIndex();
+		mImageResourceExists = assetExistsAndPassesAgeTest(index, mSourceFile, mSizedFile);
 		
 		// Check to see if we should return
 		if (mImageResourceExists){
@@ -139,7 +148,8 @@ public class ImageResizer extends ImageTask {
 		}
 			
 		// Check local store for source image
-		if (!mSourceFile.exists()) {
+		if (!index.get(mSourceFile).exists()) {
+			mCallback.onImageResizerCompleted(this, false);
 			return;
 		}
 		
@@ -186,7 +196,7 @@ public class ImageResizer extends ImageTask {
 		
 		// Clean up
 		if (resized != null && !resized.isRecycled()) {
-			resized.recycle();
+			App.getApp().imageCache().getBitmapPool().put(resized);
 		}
 		
 		// Handle results
@@ -276,6 +286,7 @@ public class ImageResizer extends ImageTask {
 		int sourceWidth = -1;
 		int sourceHeight = -1;
 		final boolean flattenAlpha = replaceAlphaColor != Color.TRANSPARENT;
+		final BitmapPool pool = App.getApp().imageCache().getBitmapPool();
 		try {
 			is = new FileInputStream(srcPath);
 			
@@ -292,9 +303,10 @@ public class ImageResizer extends ImageTask {
 				readOpts.inScaled = false; // This is false because we work in pixel dimensions, not screen dimensions.
 				readOpts.inPreferredConfig = Bitmap.Config.ARGB_8888;
 				makeOptionsMutable(readOpts);
+				pool.reuse(readOpts, sourceWidth, sourceHeight);
 				
 				// The inSampleSized Bitmap will be at least as large as we need, but not the exact size yet.
-				inSampleSized = MemoryAwareBitmapFactory.decodeFileDescriptor(is.getFD(), readOpts);
+				inSampleSized = MemoryAwareBitmapFactory.decodeFileDescriptor(is.getFD(), readOpts, pool);
 				if (readOpts.outWidth <= 0 || readOpts.outHeight <= 0) {
 					throw new InvalidImageException(readOpts.outWidth, readOpts.outHeight);
 				}
@@ -345,7 +357,7 @@ public class ImageResizer extends ImageTask {
 						whiteImage.eraseColor(Color.WHITE);
 						Canvas c = new Canvas(whiteImage);
 						c.drawBitmap(theImage, new Matrix(), null);
-						theImage.recycle();
+						pool.put(theImage);
 						theImage = whiteImage;
 						whiteImage = null;
 					}
@@ -362,9 +374,9 @@ public class ImageResizer extends ImageTask {
 			
 		} finally {
 			IOUtils.closeQuietly(is);
-			// Could be the same image. So only recycle if it isn't the one we are returning.
+			// Could be the same image. So only release if it isn't the one we are returning.
 			if (inSampleSized != null && inSampleSized != theImage && !inSampleSized.isRecycled()) {
-				inSampleSized.recycle();
+				pool.put(inSampleSized);
 			}
 		}
 		
@@ -476,9 +488,10 @@ public class ImageResizer extends ImageTask {
 			}
 			
 		} finally {
-			// Could be the same image. So only recycle if it isn't the one we are returning.
+			// Could be the same image. So only release if it isn't the one we are returning.
+			// Region decodes don't draw into pooled bitmaps, since they'd come out at the pooled bitmap's size, but they can still give theirs to later decodes.
 			if (inSampleSized != null && inSampleSized != theImage && !inSampleSized.isRecycled()) {
-				inSampleSized.recycle();
+				App.getApp().imageCache().getBitmapPool().put(inSampleSized);
 			}
 		}
 		
@@ -528,8 +541,8 @@ public class ImageResizer extends ImageTask {
 
 			FileUtils.forceMkdir(file.getParentFile()); // ensure the path's directory structure exists
 
+			lock = App.getApp().imageCache().getImageFileLocks().lock(path); // Before opening the stream, which creates the file, so readers don't see it partially written
 			os = new FileOutputStream(path);
-			lock = App.getApp().imageCache().getImageFileLocks().lock(path);
 			bitmap.compress(Bitmap.CompressFormat.JPEG, 90, os);
 			os.flush();
 			os.getFD().sync();
@@ -5,17 +5,33 @@ import com.pocket.util.android.thread.TaskRunnable;
 /**
  * A {@link TaskRunnable} that prioritizes requests so that images that the user is most likely looking at
  * get prioritized over requests that are for caching or may no longer be needed such as having gone off-screen.
+ * A task doing the work for an {@link ImageFlights} flight takes the priority of the most urgent request in it.
  */
 abstract class ImageTask extends TaskRunnable {
 	
 	private final Image.Request request;
+	private final ImageFlights<Image.Request> flights;
+	private final String key;
 	
 	ImageTask(Image.Request request) {
+		this(request, null, null);
+	}
+	
+	/**
+	 * @param flights The flights the request leads, with {@code key}, so the task is prioritized by all the requests that joined it.
+	 */
+	ImageTask(Image.Request request, ImageFlights<Image.Request> flights, String key) {
 		this.request = request;
+		this.flights = flights;
+		this.key = key;
 	}
 	
 	@Override
 	public int getPriority() {
+		return flights != null ? flights.priority(key, request, ImageTask::priority) : priority(request);
+	}
+	
+	private static int priority(Image.Request request) {
 		if (request.callback == null || !request.returnBitmap) {
 			return TaskRunnable.PRIORITY_LOW;
 			
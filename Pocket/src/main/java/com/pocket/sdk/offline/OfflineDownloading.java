@@ -35,6 +35,7 @@ import com.pocket.sdk.preferences.AppPrefs;
 import com.pocket.sdk.util.AbsPocketActivity;
 import com.pocket.sdk.util.thread.PriorityTaskPool;
 import com.pocket.sdk2.api.legacy.PocketCache;
+import com.pocket.sync.source.RemoteLane;
 import com.pocket.sync.source.subscribe.Changes;
 import com.pocket.sync.source.subscribe.Subscription;
 import com.pocket.util.android.FormFactor;
@@ -296,6 +297,36 @@ public class OfflineDownloading implements AppLifecycle {
 		queue(item, view, Priority.HIGH, refresh, callback);
 	}
 	
+	/**
+	 * Like {@link #download(Item, PositionType, boolean, DownloaderCallback)} but at predownloading priority,
+	 * for views the user is likely to open soon but isn't waiting on yet.
+	 * If the same view is later requested with {@link #download(Item, PositionType, boolean, DownloaderCallback)} it is bumped to high priority.
+	 */
+	public void prefetch(Item item, PositionType view, DownloaderCallback callback) {
+		queue(item, view, Priority.NORMAL, false, callback, true);
+	}
+
+	/**
+	 * Cancel a {@link #prefetch(Item, PositionType, DownloaderCallback)} that is no longer likely to be needed.
+	 * Only cancels a download that the prefetch started and that nothing else has requested since, such as
+	 * {@link #download(Item, PositionType, boolean, DownloaderCallback)} or predownloading. Otherwise does nothing.
+	 * Like {@link #cancelPredownloading()}, callbacks of the cancelled download aren't invoked.
+	 */
+	public synchronized void cancelPrefetch(Item item, PositionType view) {
+		if (session == null) return;
+		ItemDownload download = new ItemDownload(item, view);
+		if (!session.isPrefetchOnly(download)) return;
+		Downloader downloader = session.downloading.get(download);
+		if (downloader == null) return;
+		downloader.cancel();
+		session.finished(downloader);
+		if (session.downloading.isEmpty()) {
+			endSession(session);
+		} else {
+			onSessionChanged();
+		}
+	}
+
 	/**
 	 * Queue up an item's view to be downloaded. If already queue'd it won't duplicate the request, unless 'refresh' is true.
 	 *
@@ -306,6 +337,14 @@ public class OfflineDownloading implements AppLifecycle {
 	 * @param callback A callback when downloaded or null if no callback is needed.
 	 */
 	private synchronized void queue(Item item, PositionType view, Priority priority, boolean refresh, DownloaderCallback callback) {
+		queue(item, view, priority, refresh, callback, false);
+	}
+	
+	/**
+	 * @param prefetch Whether this is from {@link #prefetch(Item, PositionType, DownloaderCallback)}, which tracks the downloads
+	 * 			it starts so {@link #cancelPrefetch(Item, PositionType)} only cancels those.
+	 */
+	private synchronized void queue(Item item, PositionType view, Priority priority, boolean refresh, DownloaderCallback callback, boolean prefetch) {
 		if (pools == null) return;
 		session = getSession();
 		
@@ -316,8 +355,10 @@ public class OfflineDownloading implements AppLifecycle {
 			downloader = new Downloader(priority, download, refresh, this, session);
 			pools.coordinators.submit(downloader);
 			session.submitted(downloader);
-		} else if (priority == Priority.HIGH) {
-			downloader.setPriority(Priority.HIGH.taskRunnablePriority);
+			session.requested(download, prefetch);
+		} else {
+			if (!prefetch) session.requested(download, false); // A prefetch joining doesn't make it cancellable
+			if (priority == Priority.HIGH) downloader.setPriority(Priority.HIGH.taskRunnablePriority);
 		}
 		downloader.addCallback(callback);
 	}
@@ -532,6 +573,8 @@ public class OfflineDownloading implements AppLifecycle {
 		private final Map<Item, Integer> itemsPredownloading = new HashMap<>();
 		/** The number of predownloading items that have competed. */
 		private int itemsPredownloaded;
+		/** Downloads started by {@link #prefetch(Item, PositionType, DownloaderCallback)} that nothing else has requested since. */
+		private final Set<ItemDownload> prefetchOnly = new HashSet<>();
 		
 		/** Invoke when the downloader is created and submitted to the queue. */
 		synchronized void submitted(Downloader downloader) {
@@ -542,9 +585,23 @@ public class OfflineDownloading implements AppLifecycle {
 		/** Invoke when the downloader is completed (regardless of result). */
 		synchronized void finished(Downloader downloader) {
 			downloading.remove(downloader.item);
+			prefetchOnly.remove(downloader.item);
 			if (downloader.isPredownload) decrementPredownloading(downloader.item.getItem());
 		}
 		
+		/** Invoke when a download is requested. @param prefetch Whether only a prefetch needs it. */
+		synchronized void requested(ItemDownload download, boolean prefetch) {
+			if (prefetch) {
+				prefetchOnly.add(download);
+			} else {
+				prefetchOnly.remove(download);
+			}
+		}
+		
+		synchronized boolean isPrefetchOnly(ItemDownload download) {
+			return prefetchOnly.contains(download);
+		}
+		
 		synchronized void incrementPredownloading(Item item) {
 			Integer c = itemsPredownloading.get(item);
 			itemsPredownloading.put(item, c != null ? c+1 : 1);
@@ -638,7 +695,8 @@ public class OfflineDownloading implements AppLifecycle {
 						http.getClient(),
 						com.pocket.sdk.api.generated.enums.FormFactor.find(FormFactor.getClassKey(false)),
 						imageCache,
-						refresh);
+						refresh,
+						getPriority() == Priority.HIGH.taskRunnablePriority ? RemoteLane.INTERACTIVE : RemoteLane.BACKGROUND);
 				
 				pocket.sync(null, pocket.spec().actions().update_offline_status()
 						.time(Timestamp.now())
@@ -134,6 +134,13 @@ public class AssetDirectory {
 		return folderPathFor(item) + mSeparator + "text.html";
 	}
 	
+	/**
+	 * The absolute file path and name for where the parsed text to speech utterances of this item's article view are/should-be cached.
+	 */
+	public String pathForUtterances(Item item) {
+		return folderPathFor(item) + mSeparator + "text.tts";
+	}
+	
 	/**
 	 * The absolute to the directory where image and css assets are stored.
 	 */
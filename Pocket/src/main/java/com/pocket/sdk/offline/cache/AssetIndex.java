@@ -0,0 +1,196 @@
+package com.pocket.sdk.offline.cache;
+
+import com.pocket.util.java.Logs;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An in memory index of which asset files exist on disk, along with their size and when they were last modified,
+ * so hot paths like binding thumbnails in a scrolling list can decide what to do without touching the file system.
+ * <p>
+ * {@link Assets} keeps it up to date as files are written through its written... methods and as the {@link Assets.CacheCleaner} deletes them.
+ * Files it doesn't know about yet are looked up on disk once with {@link #probe(File)} and remembered.
+ * <p>
+ * Files that exist are persisted in a snapshot with {@link #save(File)} and restored with {@link #load(File)} so a new process starts warm.
+ * The snapshot must never claim a file that might have been deleted, so anything that deletes asset files must
+ * report it with {@link #deleted(File)} or {@link #clear()} and {@link #save(File)} <b>before</b> deleting them.
+ * Files that are missing are only remembered in memory, so a file written without reporting it is at worst missed until the next process.
+ */
+public class AssetIndex {
+
+	private static final int MAGIC = 0x50414931; // PAI1
+
+	/** A file known to not exist. */
+	private static final Entry MISSING = new Entry(-1, 0);
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicBoolean dirty = new AtomicBoolean();
+
+	/**
+	 * @return What is known about this file, or null if it isn't known yet and needs a {@link #probe(File)}.
+	 */
+	public Entry known(File file) {
+		return entries.get(file.getAbsolutePath());
+	}
+
+	/**
+	 * @return What is known about this file, looking on disk if it isn't known yet.
+	 */
+	public Entry get(File file) {
+		Entry entry = known(file);
+		return entry != null ? entry : probe(file);
+	}
+
+	/**
+	 * Looks up a file on disk and remembers the result, unless something was reported about it in the meantime,
+	 * since that will be newer than what this found.
+	 * If the file might be in the process of being written, wait for that to finish before probing.
+	 */
+	public Entry probe(File file) {
+		Entry entry;
+		if (file.exists()) {
+			entry = new Entry(file.length(), file.lastModified());
+		} else {
+			entry = MISSING;
+		}
+		Entry previous = entries.putIfAbsent(file.getAbsolutePath(), entry);
+		if (previous != null) {
+			return previous;
+		}
+		if (entry.exists()) dirty.set(true);
+		return entry;
+	}
+
+	/**
+	 * A file has been fully written to disk.
+	 * @param length Its size in bytes
+	 */
+	public void written(File file, long length) {
+		entries.put(file.getAbsolutePath(), new Entry(length, file.lastModified()));
+		dirty.set(true);
+	}
+
+	/**
+	 * A file is about to be deleted.
+	 */
+	public void deleted(File file) {
+		entries.put(file.getAbsolutePath(), MISSING);
+		dirty.set(true);
+	}
+
+	/**
+	 * Something might have changed the file without reporting it, look on disk again next time it is needed.
+	 */
+	public void forget(File file) {
+		if (entries.remove(file.getAbsolutePath()) != null) {
+			dirty.set(true);
+		}
+	}
+
+	/**
+	 * Forget everything, such as when all assets are about to be deleted.
+	 */
+	public void clear() {
+		entries.clear();
+		dirty.set(true);
+	}
+
+	/**
+	 * Restores a snapshot saved by {@link #save(File)}.
+	 * Anything already known is kept, since it is newer than the snapshot.
+	 * A missing or unreadable snapshot is ignored, the index will just fill in as files are probed.
+	 */
+	public void load(File snapshot) {
+		if (!snapshot.exists()) return;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)));
+			if (in.readInt() != MAGIC) return;
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String path = in.readUTF();
+				long length = in.readLong();
+				long modified = in.readLong();
+				entries.putIfAbsent(path, new Entry(length, modified));
+			}
+		} catch (IOException e) {
+			// Not critical, anything it didn't get to will be probed.
+			Logs.printStackTrace(e);
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Writes the files known to exist to a snapshot, if anything changed since the last save.
+	 * Writes to a temp file first and then replaces the old snapshot. If that fails, the old snapshot is deleted instead,
+	 * so it can't go on to claim files that are about to be deleted.
+	 */
+	public synchronized void save(File snapshot) {
+		if (!dirty.getAndSet(false)) return;
+		List<Map.Entry<String, Entry>> existing = new ArrayList<>();
+		for (Map.Entry<String, Entry> e : entries.entrySet()) {
+			if (e.getValue().exists()) existing.add(e);
+		}
+		File tmp = new File(snapshot.getAbsolutePath() + ".tmp");
+		FileOutputStream fos = null;
+		try {
+			FileUtils.forceMkdir(snapshot.getParentFile());
+			fos = new FileOutputStream(tmp);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+			out.writeInt(MAGIC);
+			out.writeInt(existing.size());
+			for (Map.Entry<String, Entry> e : existing) {
+				out.writeUTF(e.getKey());
+				out.writeLong(e.getValue().length);
+				out.writeLong(e.getValue().modified);
+			}
+			out.flush();
+			fos.getFD().sync();
+			out.close();
+			fos = null;
+			if (!tmp.renameTo(snapshot)) throw new IOException("could not replace " + snapshot);
+
+		} catch (IOException e) {
+			Logs.printStackTrace(e);
+			dirty.set(true);
+			FileUtils.deleteQuietly(tmp);
+			FileUtils.deleteQuietly(snapshot);
+
+		} finally {
+			IOUtils.closeQuietly(fos);
+		}
+	}
+
+	public static class Entry {
+		/** Size in bytes, or -1 if the file doesn't exist. */
+		public final long length;
+		/** When it was last modified, in the same form as {@link File#lastModified()}. */
+		public final long modified;
+
+		Entry(long length, long modified) {
+			this.length = length;
+			this.modified = modified;
+		}
+
+		public boolean exists() {
+			return length >= 0;
+		}
+	}
+
+}
@@ -148,6 +148,8 @@ public class Assets implements AppLifecycle {
 	/** Synchronization lock for {@link #assetDirectory} and related values. */
 	private final Object assetDirectoryLock = new Object();
 	private final List<CleanListener> cleanListeners = new ArrayList<>();
+	/** Which asset files exist on disk. Use {@link #getIndex()} to access. */
+	private final AssetIndex index = new AssetIndex();
 	
 	private final AppThreads threads;
 	private final Context appContext;
@@ -165,6 +167,7 @@ public class Assets implements AppLifecycle {
 	/** Current location of all assets. Use {@link #getAssetDirectory()} to access. */
 	private AssetDirectory assetDirectory;
 	private boolean cleanedTemp;
+	private volatile boolean indexLoaded;
 
 	@Inject
 	public Assets(
@@ -211,7 +214,7 @@ public class Assets implements AppLifecycle {
 	
 	@Override
 	public void onUserGone(Context context) {
-		clean();
+		clean(); // This also saves the index
 	}
 	
 	@Override
@@ -313,12 +316,49 @@ public class Assets implements AppLifecycle {
 		}
 	}
 	
+	/**
+	 * @return An index of which asset files exist on disk, to check before looking on disk yourself.
+	 * 			Restored from its last snapshot the first time it is accessed.
+	 */
+	public AssetIndex getIndex() {
+		if (!indexLoaded) {
+			synchronized (index) {
+				if (!indexLoaded) {
+					File snapshot = getIndexSnapshot();
+					if (snapshot != null) index.load(snapshot);
+					indexLoaded = true;
+				}
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Persists the index, see {@link AssetIndex#save(File)}.
+	 */
+	private void saveIndex() {
+		File snapshot = getIndexSnapshot();
+		if (snapshot != null) index.save(snapshot);
+	}
+	
+	/**
+	 * @return Where the index's snapshot is kept, or null if the asset directory is unavailable.
+	 * 			It is kept with the assets, so if they are moved or deleted as a whole, so is the snapshot.
+	 */
+	private File getIndexSnapshot() {
+		AssetDirectory dir = getAssetDirectoryQuietly();
+		return dir != null ? new File(dir.getOfflinePath(), ".index") : null;
+	}
+	
 	/**
 	 * Moves all assets into the clean up directory, which will later be cleaned up by the {@link com.pocket.sdk.offline.cache.Assets.CacheCleaner}.
 	 */
 	private void resetOfflineDirectory() {
 		if (assetDirectory == null) return;
 		
+		// The index's snapshot moves along with the files, so only the in memory index needs to be cleared.
+		index.clear();
+		
 		int key = directoryIncrement.get();
 		key++;
 		if (key == Integer.MAX_VALUE) {
@@ -614,6 +654,7 @@ public class Assets implements AppLifecycle {
 	
 	public void written(String fileLocalPath, long sizeInBytes) {
 		database.setBytes(fileLocalPath, sizeInBytes);
+		getIndex().written(new File(fileLocalPath), sizeInBytes);
 	}
 	
 	public void clean() {
@@ -635,6 +676,8 @@ public class Assets implements AppLifecycle {
 	/** See {@link AssetsDatabase#fixIdKeys} */
 	@Deprecated
 	public void fixIdKeys(Map<String, String> oldToNew, Set<String> markupOldKeys) throws InterruptedException {
+		getIndex().clear();
+		saveIndex();
 		database.fixIdKeys(oldToNew, markupOldKeys);
 		awaitAssetDatabaseChanges();
 	}
@@ -685,9 +728,19 @@ public class Assets implements AppLifecycle {
 					}
 				}
 			}
+			
+			// Persist what was written since the last save, so the next process starts with it.
+			saveIndex();
 		}
 		
 		private void deleteFiles(Collection<File> files) {
+			// Make sure the index's snapshot won't claim these files before deleting them.
+			AssetIndex index = getIndex();
+			for (File file : files) {
+				index.deleted(file);
+			}
+			saveIndex();
+			
 			TreeSet<File> dirs = new TreeSet<>(Collections.reverseOrder());
 			for (File file : files) {
 				try {
@@ -797,7 +850,9 @@ public class Assets implements AppLifecycle {
 	public boolean makeNFFile(Asset asset) {
 		try {
 			FileUtils.forceMkdir(asset.local.getParentFile());
-			new File(asset.local.getAbsolutePath() + ".nf").createNewFile();
+			File nf = new File(asset.local.getAbsolutePath() + ".nf");
+			nf.createNewFile();
+			getIndex().written(nf, 0);
 			// TODO this is not tracked by assets ... which means they will never be cleaned up. is there a better way to track these?
 			return true;
 			
@@ -813,7 +868,7 @@ public class Assets implements AppLifecycle {
 	 * @return
 	 */
 	public boolean isNF(Asset asset) {
-		return new File(asset.local.getAbsolutePath() + ".nf").exists();
+		return getIndex().get(new File(asset.local.getAbsolutePath() + ".nf")).exists();
 	}
 	
 	/**
@@ -19,6 +19,7 @@ import com.pocket.sdk.offline.cache.AssetDirectory;
 import com.pocket.sdk.offline.cache.AssetUser;
 import com.pocket.sdk.offline.cache.Assets;
 import com.pocket.sdk.premium.PermanentLibraryUtil;
+import com.pocket.sync.source.RemoteLane;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -50,6 +51,7 @@ public class TextDownloader {
 	 * @param formFactor Info about this device
 	 * @param imageCache Access to image downloading
 	 * @param refresh true to download this again even if already downloaded, false to return success if already downloaded
+	 * @param lane {@link RemoteLane#INTERACTIVE} if the user is waiting for it, {@link RemoteLane#BACKGROUND} for predownloading
 	 * @return The result of the operation
 	 * @throws Exception
 	 */
@@ -61,7 +63,8 @@ public class TextDownloader {
 			EclecticHttp http,
 			FormFactor formFactor,
 			ImageCache imageCache,
-			boolean refresh) throws Exception {
+			boolean refresh,
+			RemoteLane lane) throws Exception {
 
 		String uid = null;
 		Account account = pocket.sync(pocket.spec().things().loginInfo().build()).get().account;
@@ -107,7 +110,7 @@ public class TextDownloader {
 		
 		ArticleView article;
 		try {
-			article = pocket.syncRemote(builder.build()).get();
+			article = pocket.syncRemote(lane, builder.build()).get();
 			
 			String markup = article.article;
 			item = article.item;
@@ -18,7 +18,10 @@ import org.jsoup.nodes.TextNode;
 import org.jsoup.select.Elements;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -41,6 +44,11 @@ public class ArticleUtteranceParser {
 	 */
 	public static final int MAX_UTTERANCE_CHARACTER_LENGTH = 3000;
 	
+	/**
+	 * Article view html larger than this is parsed with {@link StreamingUtteranceParser} rather than loading it all into a Jsoup DOM.
+	 */
+	private static final long STREAMING_THRESHOLD_BYTES = 512 * 1024;
+	
 	protected static final String NODE_INDEX = "nodeIndex";
 	private static final String NODE_INDEX_SELECTOR = "[" + NODE_INDEX + "]";
 	private static final Pattern SINGLE_QUOTE_BEFORE_LETTER = Pattern.compile(" '[a-zA-Z]");
@@ -61,6 +69,7 @@ public class ArticleUtteranceParser {
 	private final OnParsedListener mListener;
 	
 	private boolean mStarted;
+	private volatile ArticleTTSUtterances mResult;
 	/**
 	 * Node indexes that are waiting to be indexed to whatever the next utterance is.
 	 */
@@ -80,6 +89,7 @@ public class ArticleUtteranceParser {
 	
 	/**
 	 * Start the parsing. This is asynchronous. The {@link OnParsedListener} provided in the constructor will be invoked on success or failure.
+	 * If the article was parsed before, such as by {@link #preload(String)}, the cached result is used instead of parsing again.
 	 * 
 	 * Calling this twice will throw a {@link RuntimeException}.
 	 */
@@ -94,12 +104,12 @@ public class ArticleUtteranceParser {
 		mApp.offline().download(item, PositionType.ARTICLE, false, (i, view, status) -> mApp.threads().runOrPostOnUiThread(() -> {
 			if (status == OfflineStatus.OFFLINE) {
 				// Begin the parsing
-				mApp.threads().asyncThen(() -> parse(App.getApp().offline().articleViewLocation(item), mUrl),
+				mApp.threads().asyncThen(() -> load(item),
 					(success, e) -> {
-						if (!success || mSpeech.isEmpty()) {
+						if (!success || mResult == null) {
 							mListener.onArticleUtterancesParserError(mUrl, ListenError.ARTICLE_PARSING_FAILED);
 						} else {
-							mListener.onArticleUtterancesParsed(mUrl, new ArticleTTSUtterances(mSpeech, mUtterancesByNodeIndex, mTitle, mUrl, mAuthor, mTextLength));
+							mListener.onArticleUtterancesParsed(mUrl, mResult);
 						}
 					});
 				
@@ -108,6 +118,79 @@ public class ArticleUtteranceParser {
 			}
 		}));
 	}
+	
+	/**
+	 * Download and parse an article in the background at a low priority, caching the result so a later {@link #parse()} of the same
+	 * url can skip straight to playing. Use this for articles that are likely to be played soon, such as the next ones in the playlist.
+	 * Does nothing if it was already parsed.
+	 * 
+	 * @param url The url of the article to parse.
+	 */
+	public static void preload(String url) {
+		App app = App.getApp();
+		Item item = ItemUtil.create(url, app.pocket().spec());
+		app.offline().prefetch(item, PositionType.ARTICLE, (i, view, status) -> {
+			if (status == OfflineStatus.OFFLINE) {
+				app.threads().async(() -> new ArticleUtteranceParser(url, null).load(item), null); // Failures just mean it will be parsed when played
+			}
+		});
+	}
+	
+	/**
+	 * Loads the utterances from the cache, or parses them and writes the cache.
+	 * Should be called from a background thread. The result is available from {@link #mResult}, which is left null if nothing speakable was found.
+	 */
+	private void load(Item item) throws Exception {
+		File markup = mApp.offline().articleViewLocation(item);
+		File cache = new File(mApp.assets().getAssetDirectory().pathForUtterances(item));
+		
+		ArticleTTSUtterances cached = UtteranceCache.read(cache, markup, mUrl);
+		if (cached != null) {
+			mResult = cached;
+			return;
+		}
+		
+		ArticleTTSUtterances result = parseMarkup(markup, markup.length() > STREAMING_THRESHOLD_BYTES);
+		if (result == null) {
+			return;
+		}
+		UtteranceCache.write(cache, markup, result);
+		mResult = result;
+	}
+	
+	/**
+	 * Parses the markup, without looking at or writing the cache. Can only be used once per instance.
+	 * 
+	 * @param streaming true to parse with {@link StreamingUtteranceParser}, false to parse a Jsoup DOM.
+	 * 		If the streaming parser doesn't support the markup, it falls back to the DOM.
+	 * @return The result or null if nothing speakable was found.
+	 */
+	ArticleTTSUtterances parseMarkup(File markup, boolean streaming) throws IOException {
+		if (streaming) {
+			try (Reader reader = new InputStreamReader(new FileInputStream(markup), "UTF-8")) {
+				new StreamingUtteranceParser(this, reader).parse();
+			} catch (StreamingUtteranceParser.UnsupportedMarkupException e) {
+				reset();
+				parse(markup, mUrl);
+			}
+		} else {
+			parse(markup, mUrl);
+		}
+		if (mSpeech.isEmpty()) {
+			return null;
+		}
+		return new ArticleTTSUtterances(mSpeech, mUtterancesByNodeIndex, mTitle, mUrl, mAuthor, mTextLength);
+	}
+
+	/** Drops anything parsed so far, to parse again from the start. */
+	private void reset() {
+		mSpeech.clear();
+		mUtterancesByNodeIndex.clear();
+		mPendingNodeIndexes.clear();
+		mTitle = null;
+		mAuthor = null;
+		mTextLength = 0;
+	}
 
 	private void parse(File file, String baseUri) throws IOException {
 		Document doc = Jsoup.parse(file, "UTF-8", baseUri);
@@ -223,10 +306,25 @@ public class ArticleUtteranceParser {
 		}
 	}
 	
-	private void addUtterance(String text, NodeSelector jQuerySelector, int nodeIndex, boolean isHeader) {
+	void addUtterance(String text, NodeSelector jQuerySelector, int nodeIndex, boolean isHeader) {
 		addUtterance(text, jQuerySelector, nodeIndex, isHeader, -1);
 	}
 	
+	/**
+	 * Record a node index that has no text of its own, to be indexed to whatever the next utterance is.
+	 */
+	void addPendingNodeIndex(int nodeIndex) {
+		mPendingNodeIndexes.add(nodeIndex);
+	}
+	
+	void setTitle(String title) {
+		mTitle = title;
+	}
+	
+	void setAuthor(String author) {
+		mAuthor = author;
+	}
+	
 	/**
 	 * Do not call directly. For recursive use. Please use {@link #addUtterance(String, String, int, boolean)}.
 	 * 
@@ -290,7 +388,10 @@ public class ArticleUtteranceParser {
 	/**
 	 * Index any pending node indexes to whatever the last added {@link Utterance} was.
 	 */
-	private void flushPendingNodeIndexes() {
+	void flushPendingNodeIndexes() {
+		if (mSpeech.isEmpty()) {
+			return; // Nothing to index them to yet, keep them pending.
+		}
 		Utterance lastUtterance = mSpeech.get(mSpeech.size()-1);
 		for (Integer ni : mPendingNodeIndexes) {
 			mUtterancesByNodeIndex.put(ni.intValue(), lastUtterance);
@@ -407,7 +508,7 @@ public class ArticleUtteranceParser {
 		private final String author;
 		private final int length;
 
-		private ArticleTTSUtterances(ArrayList<Utterance> utterances,
+		ArticleTTSUtterances(ArrayList<Utterance> utterances,
 				SparseArray<Utterance> utterancesByNodeIndex,
 				String title,
 				String url,
@@ -434,6 +535,10 @@ public class ArticleUtteranceParser {
 			return utterancesByNodeIndex.get(nodeIndex);
 		}
 		
+		SparseArray<Utterance> getUtterancesByNodeIndex() {
+			return utterancesByNodeIndex;
+		}
+		
 		public String getTitle() {
 			return title;
 		}
@@ -127,7 +127,8 @@ internal class GetItemAudioPlayer(
         }
     }
 
-    override fun preloadNext(itemId: String?) {
+    override fun preloadNext(upcoming: List<Track>) {
+        val itemId = upcoming.firstOrNull()?.itemId
         if (itemId == null) {
             streamingPlayer.preloadNext(null)
             return
@@ -185,6 +186,9 @@ internal class GetItemAudioPlayer(
         disposables.clear()
         streamingPlayer.release()
     }
+
+    /** Ready to preload once the current file is fully buffered. */
+    override fun getPreloadReadiness(): Observable<Boolean> = streamingPlayer.bufferingUpdates.map { it == 1f }
 }
 
 private fun AndroidMediaPlayer.Error.toListenError(): ListenError {
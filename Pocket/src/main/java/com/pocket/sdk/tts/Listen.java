@@ -42,7 +42,9 @@ import com.pocket.util.prefs.StringPreference;
 
 import org.threeten.bp.Duration;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -76,6 +78,8 @@ import io.reactivex.subjects.PublishSubject;
 public class Listen implements AppLifecycle {
 	private static final boolean DEBUG = BuildConfig.DEBUG && false;
 	private static final int REQUEST_CODE = 555;
+	/** How many upcoming tracks to hand to {@link ListenPlayer#preloadNext(List)}. */
+	private static final int PRELOAD_COUNT = 3;
 	private static final Session.Segment SESSION_SEGMENT = new Session.Segment() {};
 	private static final String POLLY_REMOVAL_FLAG = "temp.android.app.listen.polly.removal";
 
@@ -704,16 +708,22 @@ public class Listen implements AppLifecycle {
 				);
 				
 				if (state.supportedFeatures.contains(ListenState.Feature.PRELOADING)) {
-					final Observable<Boolean> bufferingComplete =
-							bufferingUpdates.map(progress -> progress == 1).distinctUntilChanged();
+					final Observable<Boolean> readyToPreload =
+							player.getPreloadReadiness().distinctUntilChanged();
 					final Observable<Boolean> isAutoPlayOn =
 							states().map(state -> state.autoPlay).distinctUntilChanged();
 					subscriptions.add(Observable.combineLatest(
-							bufferingComplete, isAutoPlayOn, (complete, autoPlay) -> complete && autoPlay)
+							readyToPreload, isAutoPlayOn, (ready, autoPlay) -> ready && autoPlay)
 							.subscribe(preloadNext -> {
-								final Track track = playlist.after(state.current);
-								if (preloadNext && track != null) {
-									player.preloadNext(track.itemId);
+								if (!preloadNext) return;
+								final List<Track> upcoming = new ArrayList<>(PRELOAD_COUNT);
+								Track track = playlist.after(state.current);
+								while (track != null && upcoming.size() < PRELOAD_COUNT) {
+									upcoming.add(track);
+									track = playlist.after(track);
+								}
+								if (!upcoming.isEmpty()) {
+									player.preloadNext(upcoming);
 								}
 							}));
 				}
@@ -56,7 +56,10 @@ internal interface ListenEngine {
     }
     
     object Tts : ListenEngine {
-        private val features = arrayOf(ListenState.Feature.MULTIPLE_VOICES)
+        private val features = arrayOf(
+            ListenState.Feature.MULTIPLE_VOICES,
+            ListenState.Feature.PRELOADING,
+        )
     
         override fun isValid(player: ListenPlayer?) = player is TTSPlayer
         
@@ -2,6 +2,7 @@ package com.pocket.sdk.tts;
 
 import org.threeten.bp.Duration;
 
+import java.util.List;
 import java.util.Set;
 
 import io.reactivex.Observable;
@@ -29,8 +30,10 @@ public interface ListenPlayer {
 	 * <p>
 	 * For some players this might be a no-op if playing an item doesn't require any time-consuming
 	 * loading.
+	 *
+	 * @param upcoming The tracks that will play next, in order. Players may only preload as many as are useful to them.
 	 */
-	void preloadNext(String itemId);
+	void preloadNext(List<Track> upcoming);
 	
 	/**
 	 * Is there an article loaded into the player?
@@ -57,6 +60,12 @@ public interface ListenPlayer {
 	Observable<?> getProgressUpdates();
 	/** A stream that emits new buffering progress values */
 	Observable<Float> getBufferingUpdates();
+	/**
+	 * A stream that emits true once the current item is loaded far enough that the player can start preloading the next,
+	 * and false when it starts loading another item.
+	 * Only used if the engine supports {@link ListenState.Feature#PRELOADING}.
+	 */
+	Observable<Boolean> getPreloadReadiness();
 	/** A stream that emits when the player completes playing an item */
 	Observable<?> getCompletions();
 	/**
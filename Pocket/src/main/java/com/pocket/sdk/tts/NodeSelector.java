@@ -49,6 +49,16 @@ public class NodeSelector {
 	
 	
 	
+	/**
+	 * Recreate a {@link NodeSelector} from its parts, such as when restoring a previously parsed article.
+	 * 
+	 * @param element See {@link #mElement}
+	 * @param index See {@link #mIndex}
+	 */
+	static NodeSelector of(String element, int index) {
+		return new NodeSelector(element, index);
+	}
+	
 	/**
 	 * A jQuery selector for the element. If {@link #mIndex} is not -1, then this is actually the parent of the TextNode. 
 	 */
@@ -0,0 +1,810 @@
+package com.pocket.sdk.tts;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An alternative to the Jsoup DOM based parsing in {@link ArticleUtteranceParser}, for large articles.
+ * <p>
+ * Reads the article view html as a stream of tags and text and never builds a tree of the whole document.
+ * It only holds onto an element's contents while it can't yet tell whether that element will be spoken as one
+ * block or broken up into its children. As soon as it knows an element will be broken up, its completed
+ * children are turned into utterances and released. So memory use is bounded by the largest single speech block
+ * rather than by the size of the article.
+ * <p>
+ * Produces the same utterances, node indexes and {@link NodeSelector}s as the DOM parser for the article view markup
+ * we generate. It is not a general purpose html parser. It closes elements that are left open the way Jsoup does for the
+ * common cases, like unclosed paragraphs and list items, but does not attempt to fix up anything more malformed than that.
+ * Where Jsoup would build a different tree, for tables and for formatting elements that are misnested or closed by something
+ * other than their own end tag, it throws {@link UnsupportedMarkupException} so the caller can fall back to the DOM parser,
+ * rather than produce node selectors that don't match the reader's DOM.
+ */
+final class StreamingUtteranceParser {
+
+	private static final Set<String> VOID_TAGS = new HashSet<>(Arrays.asList(
+			"area", "base", "br", "col", "command", "embed", "hr", "img", "input", "keygen", "link", "meta", "param", "source", "track", "wbr"));
+	/** Tags whose contents are not html and are skipped entirely. */
+	private static final Set<String> RAW_TEXT_TAGS = new HashSet<>(Arrays.asList(
+			"script", "style", "textarea", "title", "noscript", "iframe", "xmp", "noembed", "noframes"));
+	/** Tags that Jsoup's {@link org.jsoup.nodes.Element#text()} separates with a space. */
+	private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList(
+			"html", "head", "body", "frameset", "script", "noscript", "style", "meta", "link", "title", "frame",
+			"noframes", "section", "nav", "aside", "hgroup", "header", "footer", "p", "h1", "h2", "h3", "h4", "h5", "h6",
+			"ul", "ol", "pre", "div", "blockquote", "hr", "address", "figure", "figcaption", "form", "fieldset", "ins",
+			"del", "dl", "dt", "dd", "li", "table", "caption", "thead", "tfoot", "tbody", "colgroup", "col", "tr", "th",
+			"td", "video", "audio", "canvas", "details", "menu", "plaintext", "template", "article", "main", "svg", "math", "center"));
+	/** Tags that Jsoup's tree builder treats as special, which stop an end tag for some other element from closing past them. */
+	private static final Set<String> SPECIAL_TAGS = new HashSet<>(Arrays.asList(
+			"address", "applet", "area", "article", "aside", "base", "basefont", "bgsound", "blockquote", "body", "br", "button",
+			"caption", "center", "col", "colgroup", "command", "dd", "details", "dir", "div", "dl", "dt", "embed", "fieldset",
+			"figcaption", "figure", "footer", "form", "frame", "frameset", "h1", "h2", "h3", "h4", "h5", "h6", "head", "header",
+			"hgroup", "hr", "html", "iframe", "img", "input", "isindex", "li", "link", "listing", "marquee", "menu", "meta", "nav",
+			"noembed", "noframes", "noscript", "object", "ol", "p", "param", "plaintext", "pre", "script", "section", "select",
+			"style", "summary", "table", "tbody", "td", "textarea", "tfoot", "th", "thead", "title", "tr", "ul", "wbr", "xmp"));
+	/** Start tags that close an open paragraph. */
+	private static final Set<String> CLOSES_P_TAGS = new HashSet<>(Arrays.asList(
+			"address", "article", "aside", "blockquote", "center", "details", "dir", "div", "dl", "fieldset", "figcaption",
+			"figure", "footer", "header", "hgroup", "menu", "nav", "ol", "p", "section", "summary", "ul", "h1", "h2", "h3", "h4",
+			"h5", "h6", "pre", "listing", "form", "plaintext", "table", "hr", "li", "dd", "dt", "xmp"));
+	/** Elements an end tag for a special element won't look past for its start tag. */
+	private static final Set<String> SCOPE_TAGS = new HashSet<>(Arrays.asList(
+			"applet", "caption", "html", "marquee", "object", "table", "td", "th", "template"));
+	/** Table elements, which Jsoup moves content around for (foster parenting) and which aren't supported. */
+	private static final Set<String> TABLE_TAGS = new HashSet<>(Arrays.asList(
+			"table", "caption", "colgroup", "col", "thead", "tbody", "tfoot", "tr", "th", "td"));
+	/** Formatting tags, which Jsoup closes without stopping at special elements. */
+	private static final Set<String> FORMATTING_TAGS = new HashSet<>(Arrays.asList(
+			"a", "b", "big", "code", "em", "font", "i", "nobr", "s", "small", "strike", "strong", "tt", "u"));
+	private static final String NODE_INDEX = ArticleUtteranceParser.NODE_INDEX.toLowerCase();
+	/** Stands in for a comment in an element's kept children, comments aren't spoken but do count as siblings. */
+	private static final Object COMMENT = new Object();
+
+	/** The markup has structures this parser can't reproduce the DOM parser's results for. Parse it with the DOM parser instead. */
+	static final class UnsupportedMarkupException extends IOException {
+		UnsupportedMarkupException(String message) {
+			super(message);
+		}
+	}
+
+	private enum State {
+		/** Not part of anything we need. Contents are not kept. */
+		IGNORE,
+		/** One of the header elements, contents are kept until the body starts. */
+		CAPTURE,
+		/** In the body, but not yet known if it is one speech block or will be broken up. Contents are kept. */
+		PENDING,
+		/** Being broken up, each child is handled as it completes. Contents are not kept. */
+		RECURSE,
+		/** Not spoken. Contents are not kept. */
+		SKIP
+	}
+
+	private final ArticleUtteranceParser sink;
+	private final Reader reader;
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int length;
+
+	private final El root = new El("#root", null, -1, new HashMap<>());
+	private El current = root;
+	private El header;
+	private El body;
+	private El title;
+	private El author;
+	private El date;
+	private boolean done;
+
+	/**
+	 * @param sink Where utterances are added
+	 * @param reader The article view html. Not closed by this class.
+	 */
+	StreamingUtteranceParser(ArticleUtteranceParser sink, Reader reader) {
+		this.sink = sink;
+		this.reader = reader;
+	}
+
+	/**
+	 * @throws UnsupportedMarkupException If the markup needs the DOM parser, see the class docs.
+	 */
+	void parse() throws IOException {
+		StringBuilder text = new StringBuilder();
+		int c;
+		while (!done && (c = next()) != -1) {
+			if (c == '<') {
+				int p = peek();
+				if (p == '/' || p == '!' || p == '?' || Character.isLetter(p)) {
+					onText(text);
+					if (p == '/') {
+						next();
+						readEndTag();
+					} else if (p == '!') {
+						next();
+						readMarkupDeclaration();
+					} else if (p == '?') {
+						skipPast('>');
+					} else {
+						readStartTag();
+					}
+				} else {
+					text.append('<');
+				}
+			} else {
+				text.append((char) c);
+			}
+		}
+		onText(text);
+		while (!done && current != root) {
+			close();
+		}
+		if (body == null) {
+			emitHeader(); // Odd, but let the parser decide what to do about an article without a body.
+		}
+	}
+
+	// Tokenizing
+
+	private int next() throws IOException {
+		if (position >= length) {
+			length = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (length <= 0) {
+				length = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+
+	private int peek() throws IOException {
+		int c = next();
+		if (c != -1) position--;
+		return c;
+	}
+
+	private void skipWhitespace() throws IOException {
+		int c;
+		while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+			next();
+		}
+	}
+
+	private void skipPast(char end) throws IOException {
+		int c;
+		while ((c = next()) != -1 && c != end) {}
+	}
+
+	private String readName() throws IOException {
+		StringBuilder name = new StringBuilder();
+		int c;
+		while ((c = peek()) != -1 && !Character.isWhitespace(c) && c != '>' && c != '/' && c != '=') {
+			name.append((char) next());
+		}
+		return name.toString().toLowerCase();
+	}
+
+	private void readMarkupDeclaration() throws IOException {
+		if (peek() == '-') {
+			next();
+			if (peek() == '-') {
+				next();
+				// A comment, skip to -->
+				int dashes = 0;
+				int c;
+				while ((c = next()) != -1) {
+					if (c == '>' && dashes >= 2) break;
+					dashes = c == '-' ? dashes + 1 : 0;
+				}
+				current.nodeCount++; // Comments take up a spot in the parent's child nodes.
+				if (current.children != null) {
+					current.children.add(COMMENT);
+				}
+				return;
+			}
+		}
+		skipPast('>'); // A doctype or similar
+	}
+
+	private void readEndTag() throws IOException {
+		String name = readName();
+		skipPast('>');
+		onEndTag(name);
+	}
+
+	private void readStartTag() throws IOException {
+		String name = readName();
+		Map<String, String> attributes = new HashMap<>();
+		boolean selfClosing = false;
+		while (true) {
+			skipWhitespace();
+			int c = peek();
+			if (c == -1) {
+				break;
+			} else if (c == '>') {
+				next();
+				break;
+			} else if (c == '/') {
+				next();
+				if (peek() == '>') {
+					next();
+					selfClosing = true;
+					break;
+				}
+				continue;
+			}
+			String key = readName();
+			if (key.isEmpty()) {
+				next(); // Stray character like a lone '=', skip it
+				continue;
+			}
+			String value = "";
+			skipWhitespace();
+			if (peek() == '=') {
+				next();
+				skipWhitespace();
+				StringBuilder v = new StringBuilder();
+				int quote = peek();
+				if (quote == '"' || quote == '\'') {
+					next();
+					while ((c = next()) != -1 && c != quote) {
+						v.append((char) c);
+					}
+				} else {
+					while ((c = peek()) != -1 && !Character.isWhitespace(c) && c != '>') {
+						v.append((char) next());
+					}
+				}
+				value = Parser.unescapeEntities(v.toString(), true);
+			}
+			if (!attributes.containsKey(key)) {
+				attributes.put(key, value);
+			}
+		}
+
+		El el = onStartTag(name, attributes);
+		if (VOID_TAGS.contains(name) || selfClosing) {
+			close();
+		} else if (RAW_TEXT_TAGS.contains(name)) {
+			skipRawText(name);
+			close();
+		}
+	}
+
+	/** Skips past the closing tag of a raw text element like script. */
+	private void skipRawText(String name) throws IOException {
+		String end = "</" + name;
+		int matched = 0;
+		int c;
+		while ((c = next()) != -1) {
+			if (Character.toLowerCase(c) == end.charAt(matched)) {
+				matched++;
+				if (matched == end.length()) {
+					skipPast('>');
+					return;
+				}
+			} else {
+				matched = Character.toLowerCase(c) == end.charAt(0) ? 1 : 0;
+			}
+		}
+	}
+
+	// Document structure
+
+	private El onStartTag(String name, Map<String, String> attributes) throws UnsupportedMarkupException {
+		if (TABLE_TAGS.contains(name)) {
+			throw new UnsupportedMarkupException("<" + name + ">");
+		}
+		closeImplied(name);
+		El parent = current;
+		El el = new El(name, parent, parent.elementCount++, attributes);
+		parent.nodeCount++;
+		if (parent.children != null) {
+			parent.children.add(el);
+		}
+
+		if (parent.state == State.RECURSE) {
+			if (isSkipped(el)) {
+				el.state = State.SKIP;
+			} else {
+				startPending(el);
+			}
+		} else if (parent.state == State.PENDING) {
+			startPending(el);
+		} else if (parent.state == State.CAPTURE) {
+			el.state = State.CAPTURE;
+			el.children = new ArrayList<>();
+		} else if (body == null) {
+			// Still in the head of the article, look for the header pieces and the start of the body.
+			if ("RIL_body".equals(el.id)) {
+				body = el;
+				body.state = State.RECURSE;
+				emitHeader();
+			} else if ("RIL_header".equals(el.id)) {
+				header = el;
+			} else if (title == null && header != null && "h1".equals(name) && isWithin(el, header)) {
+				title = capture(el);
+			} else if (author == null && el.hasClass("RIL_author")) {
+				author = capture(el);
+			} else if (date == null && el.hasClass("RIL_date")) {
+				date = capture(el);
+			}
+		}
+		current = el;
+		return el;
+	}
+
+	private void startPending(El el) {
+		el.state = State.PENDING;
+		el.children = new ArrayList<>();
+		if (el.hasNodeIndexAttr) {
+			for (El a = el.parent; a != null && a.state == State.PENDING; a = a.parent) {
+				a.hasNodeIndexDescendant = true;
+			}
+			settle();
+		}
+	}
+
+	private El capture(El el) {
+		el.state = State.CAPTURE;
+		el.children = new ArrayList<>();
+		return el;
+	}
+
+	/**
+	 * Closes the open elements that a new element with this tag implicitly ends, like Jsoup's tree builder does.
+	 * So unclosed paragraphs, list items and headings end up as siblings rather than nested.
+	 */
+	private void closeImplied(String name) throws UnsupportedMarkupException {
+		if (name.equals("li") || name.equals("dd") || name.equals("dt")) {
+			for (El el = current; el != root; el = el.parent) {
+				if (name.equals("li") ? el.tag.equals("li") : el.tag.equals("dd") || el.tag.equals("dt")) {
+					closeThrough(el);
+					break;
+				}
+				if (SPECIAL_TAGS.contains(el.tag) && !el.tag.equals("address") && !el.tag.equals("div") && !el.tag.equals("p")) {
+					break;
+				}
+			}
+		}
+		if (CLOSES_P_TAGS.contains(name)) {
+			El p = findInScope("p", true);
+			if (p != null) {
+				closeThrough(p);
+			}
+		}
+		if (isHeader(name) && isHeader(current.tag)) {
+			close();
+		}
+	}
+
+	private void onEndTag(String name) throws UnsupportedMarkupException {
+		if (TABLE_TAGS.contains(name)) {
+			throw new UnsupportedMarkupException("</" + name + ">");
+		}
+		if (FORMATTING_TAGS.contains(name) && !current.tag.equals(name) && isOpen(name)) {
+			// Jsoup's adoption agency would restructure the tree around the misnested element.
+			throw new UnsupportedMarkupException("misnested </" + name + ">");
+		}
+		if (name.equals("p") && findInScope("p", true) == null) {
+			// Like a browser, a stray </p> is an empty paragraph.
+			onStartTag("p", new HashMap<>());
+			close();
+			return;
+		}
+		if (SPECIAL_TAGS.contains(name)) {
+			El el = findInScope(name, false);
+			if (el != null) {
+				closeThrough(el);
+			}
+			return;
+		}
+		// Close up to the nearest open element with this name, ignore stray end tags
+		for (El el = current; el != root; el = el.parent) {
+			if (el.tag.equals(name)) {
+				closeThrough(el);
+				return;
+			} else if (SPECIAL_TAGS.contains(el.tag) && !FORMATTING_TAGS.contains(name)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @param name A tag name, any heading matches another heading.
+	 * @param buttonScope Also stop at buttons, like Jsoup does when looking for an open paragraph.
+	 * @return The nearest open element with this tag, unless a table, cell or similar boundary is in the way.
+	 */
+	private El findInScope(String name, boolean buttonScope) {
+		for (El el = current; el != root; el = el.parent) {
+			if (el.tag.equals(name) || isHeader(name) && isHeader(el.tag)) {
+				return el;
+			} else if (SCOPE_TAGS.contains(el.tag) || buttonScope && el.tag.equals("button")) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private boolean isOpen(String name) {
+		for (El el = current; el != root; el = el.parent) {
+			if (el.tag.equals(name)) return true;
+		}
+		return false;
+	}
+
+	/** Closes the open elements up to and including this one. */
+	private void closeThrough(El el) throws UnsupportedMarkupException {
+		while (!done && current != el) {
+			if (FORMATTING_TAGS.contains(current.tag)) {
+				// Jsoup reopens formatting elements closed this way around the content that follows them.
+				throw new UnsupportedMarkupException("<" + current.tag + "> closed by <" + el.tag + ">");
+			}
+			close();
+		}
+		if (!done) close();
+	}
+
+	private void close() {
+		El el = current;
+		current = el.parent;
+		el.closed = true;
+
+		if (el == body) {
+			sink.flushPendingNodeIndexes();
+			done = true; // Nothing after the body is spoken
+			return;
+		}
+
+		if (el.state == State.PENDING) {
+			if (el.hasNodeIndexAttr && isInterruption(el)) {
+				for (El a = el.parent; a != null && a.state == State.PENDING; a = a.parent) {
+					a.hasInterruption = true;
+				}
+			}
+			if (el.parent.state == State.RECURSE) {
+				handleChild(el);
+				el.children = null;
+			} else {
+				settle();
+			}
+		}
+	}
+
+	private void onText(StringBuilder raw) {
+		if (raw.length() == 0) {
+			return;
+		}
+		String text = Parser.unescapeEntities(raw.toString(), false);
+		raw.setLength(0);
+
+		Txt txt = new Txt(text, current, current.nodeCount++);
+		if (current.state == State.RECURSE) {
+			addUtterance(txt);
+		} else if (current.children != null) {
+			current.children.add(txt);
+		}
+	}
+
+	/**
+	 * Checks whether the outermost pending element, and then its pending descendants, can already be known to need breaking up.
+	 * If so, handles its completed children now and releases them.
+	 */
+	private void settle() {
+		// Find the outermost pending element, the one directly within a breaking up (RECURSE) element.
+		El outermost = null;
+		for (El el = current; el != null && el.state == State.PENDING; el = el.parent) {
+			outermost = el;
+		}
+		while (outermost != null && outermost.parent.state == State.RECURSE && willBreakUp(outermost)) {
+			El open = breakUp(outermost);
+			outermost = open != null && open.state == State.PENDING ? open : null;
+		}
+	}
+
+	/** Whether it is already certain that {@link #handleChild(El)} would break this element up, even if more content is coming. */
+	private static boolean willBreakUp(El el) {
+		return el.hasNodeIndexDescendant && (el.nodeIndex == 0 || el.hasInterruption);
+	}
+
+	/**
+	 * Switch an open pending element to being broken up, handling the children it has so far.
+	 * @return Its still open child if any.
+	 */
+	private El breakUp(El el) {
+		el.state = State.RECURSE;
+		if (el.nodeIndex != 0) {
+			sink.addPendingNodeIndex(el.nodeIndex);
+		}
+		El open = null;
+		for (Object child : el.children) {
+			if (child instanceof Txt) {
+				addUtterance((Txt) child);
+			} else if (child == COMMENT) {
+				// Not spoken
+			} else if (((El) child).closed) {
+				handleChild((El) child);
+				((El) child).children = null;
+			} else {
+				open = (El) child;
+				if (isSkipped(open)) {
+					open.state = State.SKIP;
+					open.children = null;
+				}
+			}
+		}
+		el.children = null;
+		return open;
+	}
+
+	// Utterances, these mirror the DOM parsing in ArticleUtteranceParser
+
+	private void emitHeader() {
+		if (title != null) {
+			addUtterance(title, null);
+			sink.setTitle(text(title, true));
+		}
+		if (author != null) {
+			addUtterance(author, " by ");
+			sink.setAuthor(text(author, true));
+		}
+		if (date != null) {
+			addUtterance(date, null);
+		}
+		title = author = date = null;
+	}
+
+	/** Handle a complete element that is a child of an element being broken up. */
+	private void handleChild(El child) {
+		if (isSkipped(child)) {
+			return;
+		}
+		if (!child.hasNodeIndexDescendant) {
+			addUtterance(child, null);
+		} else if (child.nodeIndex != 0 && !child.hasInterruption) {
+			addUtterance(child, null);
+		} else {
+			if (child.nodeIndex != 0) {
+				sink.addPendingNodeIndex(child.nodeIndex);
+			}
+			for (Object grandchild : child.children) {
+				if (grandchild instanceof Txt) {
+					addUtterance((Txt) grandchild);
+				} else if (grandchild instanceof El) {
+					handleChild((El) grandchild);
+				}
+			}
+		}
+	}
+
+	private static boolean isSkipped(El el) {
+		return el.tag.equals("script") || el.tag.equals("style") || el.attributes.containsKey("pktnolisten");
+	}
+
+	/**
+	 * @return true if this node index element means its parent can't be spoken as one logical speech block.
+	 * 	Short links and empty nodes don't break up their parent.
+	 */
+	private static boolean isInterruption(El el) {
+		int len = text(el, false).length();
+		return len != 0 && !(el.tag.equals("a") && len < 30);
+	}
+
+	private void addUtterance(Txt txt) {
+		StringBuilder normalised = new StringBuilder();
+		appendNormalisedWhitespace(normalised, txt.text, false);
+		String text = normalised.toString();
+		if (StringUtils.isBlank(text)) {
+			return;
+		}
+		sink.addUtterance(text, NodeSelector.of(selector(txt.parent), txt.index), 0, false);
+	}
+
+	private void addUtterance(El el, String prefix) {
+		String text = text(el, true);
+		if (StringUtils.isBlank(text)) {
+			if (el.nodeIndex != 0) {
+				sink.addPendingNodeIndex(el.nodeIndex);
+			}
+		} else {
+			if (!StringUtils.isEmpty(prefix)) {
+				text = (prefix + text).trim();
+			}
+			String selector = selector(el);
+			sink.addUtterance(text, selector != null ? NodeSelector.of(selector, -1) : null, el.nodeIndex, isHeader(el.tag));
+		}
+	}
+
+	private static boolean isHeader(String tag) {
+		return tag.length() == 2 && tag.charAt(0) == 'h' && Character.isDigit(tag.charAt(1));
+	}
+
+	private static boolean isWithin(El el, El ancestor) {
+		for (El a = el.parent; a != null; a = a.parent) {
+			if (a == ancestor) return true;
+		}
+		return false;
+	}
+
+	// Selectors, these mirror NodeSelector
+
+	private static String selector(El el) {
+		String unique = uniqueSelector(el);
+		if (unique != null) {
+			return unique;
+		}
+		StringBuilder selector = new StringBuilder();
+		if (el.parent != null && el.index >= 0) {
+			selector.append(":eq(").append(el.index).append(")");
+		}
+		// Like NodeSelector, this starts from the grandparent.
+		for (El parent = el.parent != null ? el.parent.parent : null; parent != null && parent.index >= 0; parent = parent.parent) {
+			unique = uniqueSelector(parent);
+			if (unique != null) {
+				return selector.insert(0, unique).toString();
+			} else {
+				selector.insert(0, ")").insert(0, parent.index).insert(0, ":eq(");
+			}
+		}
+		return null;
+	}
+
+	private static String uniqueSelector(El el) {
+		if (el.nodeIndex != 0) {
+			return "[" + ArticleUtteranceParser.NODE_INDEX + "=" + el.nodeIndex + "]";
+		} else if (!StringUtils.isBlank(el.id)) {
+			return "#" + el.id;
+		} else if (el.tag.equals("body") || el.tag.equals("html")) {
+			return el.tag;
+		}
+		return null;
+	}
+
+	// Text, these mirror Jsoup's Element.text()
+
+	/**
+	 * @param skipHidden Leave out descendants that ArticleUtteranceParser removes as hidden before speaking an element.
+	 */
+	private static String text(El el, boolean skipHidden) {
+		StringBuilder accum = new StringBuilder();
+		appendText(el, null, accum, skipHidden, true);
+		return accum.toString().trim();
+	}
+
+	private static void appendText(El el, Object nextSibling, StringBuilder accum, boolean skipHidden, boolean isRoot) {
+		if (skipHidden && !isRoot && el.isHidden()) {
+			return;
+		}
+		boolean block = BLOCK_TAGS.contains(el.tag);
+		if (accum.length() > 0 && (block || el.tag.equals("br")) && !lastCharIsWhitespace(accum)) {
+			accum.append(' ');
+		}
+		List<Object> children = el.children;
+		if (children != null) {
+			for (int i = 0, size = children.size(); i < size; i++) {
+				Object child = children.get(i);
+				if (child instanceof Txt) {
+					if (el.preservesWhitespace()) {
+						accum.append(((Txt) child).text);
+					} else {
+						appendNormalisedWhitespace(accum, ((Txt) child).text, lastCharIsWhitespace(accum));
+					}
+				} else if (child instanceof El) {
+					appendText((El) child, i + 1 < size ? children.get(i + 1) : null, accum, skipHidden, false);
+				}
+			}
+		}
+		if (block && nextSibling instanceof Txt && !lastCharIsWhitespace(accum)) {
+			accum.append(' ');
+		}
+	}
+
+	private static boolean lastCharIsWhitespace(StringBuilder sb) {
+		return sb.length() != 0 && sb.charAt(sb.length() - 1) == ' ';
+	}
+
+	private static void appendNormalisedWhitespace(StringBuilder accum, String string, boolean stripLeading) {
+		boolean lastWasWhite = false;
+		boolean reachedNonWhite = false;
+		int len = string.length();
+		int c;
+		for (int i = 0; i < len; i += Character.charCount(c)) {
+			c = string.codePointAt(i);
+			if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == 160) {
+				if ((stripLeading && !reachedNonWhite) || lastWasWhite) continue;
+				accum.append(' ');
+				lastWasWhite = true;
+			} else if (c != 8203 && c != 173) {
+				accum.appendCodePoint(c);
+				lastWasWhite = false;
+				reachedNonWhite = true;
+			}
+		}
+	}
+
+	// Nodes
+
+	private static final class El {
+		final String tag;
+		final El parent;
+		/** Index within the parent's child elements. */
+		final int index;
+		final Map<String, String> attributes;
+		final String id;
+		final boolean hasNodeIndexAttr;
+		final int nodeIndex;
+
+		State state = State.IGNORE;
+		/** Child {@link El}s, {@link Txt}s and {@link #COMMENT}s, only kept while needed, see {@link State}. */
+		List<Object> children;
+		int elementCount;
+		int nodeCount;
+		boolean closed;
+		boolean hasNodeIndexDescendant;
+		/** Has a node index descendant that isn't empty or a short link, see {@link #isInterruption(El)}. */
+		boolean hasInterruption;
+
+		El(String tag, El parent, int index, Map<String, String> attributes) {
+			this.tag = tag;
+			this.parent = parent;
+			this.index = index;
+			this.attributes = attributes;
+			this.id = attributes.get("id");
+			this.hasNodeIndexAttr = attributes.containsKey(NODE_INDEX);
+			int ni = 0;
+			if (hasNodeIndexAttr) {
+				try {
+					ni = Integer.parseInt(attributes.get(NODE_INDEX).trim());
+				} catch (NumberFormatException ignore) {}
+			}
+			this.nodeIndex = ni;
+		}
+
+		boolean hasClass(String name) {
+			String classes = attributes.get("class");
+			if (classes == null) return false;
+			for (String c : StringUtils.split(classes)) {
+				if (c.equalsIgnoreCase(name)) return true;
+			}
+			return false;
+		}
+
+		/** Matches the selectors ArticleUtteranceParser uses to remove hidden nodes. */
+		boolean isHidden() {
+			String style = attributes.get("style");
+			return (style != null && StringUtils.containsIgnoreCase(style, "display:none"))
+					|| "hidden".equalsIgnoreCase(attributes.get("type"))
+					|| ("0".equals(attributes.get("width")) && "0".equals(attributes.get("height")));
+		}
+
+		boolean preservesWhitespace() {
+			El el = this;
+			for (int i = 0; i < 6 && el != null; i++, el = el.parent) {
+				if (el.tag.equals("pre")) return true;
+			}
+			return false;
+		}
+	}
+
+	private static final class Txt {
+		final String text;
+		final El parent;
+		/** Index within the parent's child nodes. */
+		final int index;
+
+		Txt(String text, El parent, int index) {
+			this.text = text;
+			this.parent = parent;
+			this.index = index;
+		}
+	}
+
+}
@@ -39,6 +39,7 @@ class TTSPlayer internal constructor(private val mContext: Context?) : ListenPla
     private val mStartedUtterances: Subject<Utterance> = PublishSubject.create()
     private val mCompletions: Subject<Any> = PublishSubject.create()
     private val mErrors: Subject<ListenError> = PublishSubject.create()
+    private val mLoaded: Subject<Boolean> = BehaviorSubject.createDefault(false)
     private val mVoices: MutableSet<VoiceCompat.Voice> = HashSet()
     private val mPrefSpeed: Float
     private val mPrefPitch: Float
@@ -240,6 +241,7 @@ class TTSPlayer internal constructor(private val mContext: Context?) : ListenPla
                 }
                 mLoadingUrl = null
                 mUtterances = result
+                mLoaded.onNext(true)
                 if (mIsPendingPlayback) {
                     play()
                 }
@@ -256,8 +258,9 @@ class TTSPlayer internal constructor(private val mContext: Context?) : ListenPla
         }).parse()
     }
 
-    override fun preloadNext(itemId: String) {
-        // Not supported/not needed.
+    override fun preloadNext(upcoming: List<Track>) {
+        // Parse them ahead of time so they are cached and start without a wait when loaded.
+        upcoming.mapNotNull { it.openUrl }.forEach { ArticleUtteranceParser.preload(it) }
     }
 
     /**
@@ -277,6 +280,7 @@ class TTSPlayer internal constructor(private val mContext: Context?) : ListenPla
         mIsReset = true
         pause()
         mUtterances = null
+        mLoaded.onNext(false)
         mCurrentPosition = 0
         synchronized(mQueueLock) { mQueued = EMPTY_QUEUE }
         mIsPendingPlayback = false
@@ -723,6 +727,11 @@ class TTSPlayer internal constructor(private val mContext: Context?) : ListenPla
         return Observable.just(0f)
     }
 
+    /** Text to speech has no buffering, so preloading starts once the current article is parsed. */
+    override fun getPreloadReadiness(): Observable<Boolean> {
+        return mLoaded
+    }
+
     companion object {
         val DEBUG = BuildConfig.DEBUG && false
         const val TAG = "TTSPlayer"
@@ -0,0 +1,160 @@
+package com.pocket.sdk.tts;
+
+import android.util.SparseArray;
+
+import com.pocket.util.java.Logs;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Stores the result of {@link ArticleUtteranceParser} in a compact binary file next to the article view markup,
+ * so playing an article that was already parsed (or preloaded) doesn't need to parse its html again.
+ * <p>
+ * The cache records the length and modified time of the markup it was parsed from and is ignored if either changes,
+ * such as when the article view is downloaded again.
+ */
+final class UtteranceCache {
+
+	/** Increment this any time the format or the parser's output changes, to invalidate existing caches. */
+	private static final int VERSION = 2;
+
+	private UtteranceCache() {}
+
+	/**
+	 * @param cache The cache file, see {@link com.pocket.sdk.offline.cache.AssetDirectory#pathForUtterances(com.pocket.sdk.api.generated.thing.Item)}
+	 * @param markup The article view html this cache was parsed from.
+	 * @param url The url to report in the result
+	 * @return The cached utterances or null if there is no cache, it is out of date or could not be read.
+	 */
+	static ArticleUtteranceParser.ArticleTTSUtterances read(File cache, File markup, String url) {
+		if (!cache.exists()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)));
+			if (in.readInt() != VERSION
+					|| in.readLong() != markup.length()
+					|| in.readLong() != markup.lastModified()) {
+				return null;
+			}
+			String title = readString(in);
+			String author = readString(in);
+			int length = in.readInt();
+
+			int count = in.readInt();
+			ArrayList<Utterance> utterances = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				String text = readString(in);
+				String element = readString(in);
+				int index = in.readInt();
+				NodeSelector selector = element != null ? NodeSelector.of(element, index) : null;
+				int nodeIndex = in.readInt();
+				boolean isHeader = in.readBoolean();
+				int endPosition = in.readInt();
+				int segmentIndex = in.readInt();
+				utterances.add(new Utterance(text, selector, nodeIndex, isHeader, endPosition, segmentIndex, i));
+			}
+
+			int indexed = in.readInt();
+			SparseArray<Utterance> byNodeIndex = new SparseArray<>(indexed);
+			for (int i = 0; i < indexed; i++) {
+				byNodeIndex.put(in.readInt(), utterances.get(in.readInt()));
+			}
+			return new ArticleUtteranceParser.ArticleTTSUtterances(utterances, byNodeIndex, title, url, author, length);
+
+		} catch (Throwable t) {
+			Logs.printStackTrace(t);
+			FileUtils.deleteQuietly(cache);
+			return null;
+
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Write the utterances to the cache, replacing any existing cache. Fails quietly, since the cache is only an optimization.
+	 *
+	 * @param cache Where to write
+	 * @param markup The article view html the utterances were parsed from.
+	 * @param utterances The parsed result
+	 */
+	static void write(File cache, File markup, ArticleUtteranceParser.ArticleTTSUtterances utterances) {
+		// Write to a temp file and then move it into place so a reader never sees a partial file.
+		File temp = new File(cache.getParentFile(), cache.getName() + "." + Thread.currentThread().getId() + ".tmp");
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			out.writeInt(VERSION);
+			out.writeLong(markup.length());
+			out.writeLong(markup.lastModified());
+			writeString(out, utterances.getTitle());
+			writeString(out, utterances.getAuthor());
+			out.writeInt(utterances.getLength());
+
+			ArrayList<Utterance> list = utterances.getUtterances();
+			out.writeInt(list.size());
+			for (Utterance u : list) {
+				writeString(out, u.text);
+				writeString(out, u.jQuerySelector != null ? u.jQuerySelector.mElement : null);
+				out.writeInt(u.jQuerySelector != null ? u.jQuerySelector.mIndex : -1);
+				out.writeInt(u.nodeIndex);
+				out.writeBoolean(u.isHeader);
+				out.writeInt(u.endPosition);
+				out.writeInt(u.segmentIndex);
+			}
+
+			SparseArray<Utterance> byNodeIndex = utterances.getUtterancesByNodeIndex();
+			out.writeInt(byNodeIndex.size());
+			for (int i = 0; i < byNodeIndex.size(); i++) {
+				out.writeInt(byNodeIndex.keyAt(i));
+				out.writeInt(byNodeIndex.valueAt(i).position);
+			}
+			out.close();
+			out = null;
+
+			if (!temp.renameTo(cache)) {
+				FileUtils.deleteQuietly(temp);
+			}
+
+		} catch (Throwable t) {
+			Logs.printStackTrace(t);
+			IOUtils.closeQuietly(out);
+			FileUtils.deleteQuietly(temp);
+		}
+	}
+
+	/** Like {@link DataOutputStream#writeUTF(String)} but supports null and strings longer than 64k. */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes("UTF-8");
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+}
@@ -3,14 +3,19 @@ package com.pocket.sdk.util.data;
 import com.ideashower.readitlater.BuildConfig;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * A data source cache implementation that handles a lot of the common logic. This can be used as a starting point
  * instead of the raw interface in most cases.
  *
+ * Besides {@link Listener}s, which hear about every change to the list, consumers that only show part of the list
+ * can subscribe to a {@link Window} of it with {@link #window(int, int, WindowListener)}.
+ *
  * All calls are assumed to be made from the UI thread, if not, bugs could occur.
  */
 public abstract class AbsDataSourceCache<T> implements DataSourceCache<T> {
@@ -19,6 +24,7 @@ public abstract class AbsDataSourceCache<T> implements DataSourceCache<T> {
 
     private final List<T> mList = new ArrayList<>();
     private final Set<Listener> mListeners = new HashSet<>();
+    private final Set<Window<T>> mWindows = new HashSet<>();
     private final Thread mCreatedOnThread = STRICT_MODE ? Thread.currentThread() : null;
 
     private LoadState mLoadState = LoadState.INITIAL;
@@ -160,8 +166,29 @@ public abstract class AbsDataSourceCache<T> implements DataSourceCache<T> {
         mListeners.add(listener);
     }
 
+    /** Removes all {@link Listener}s and stops all {@link Window}s. */
     public void clearListeners() {
         mListeners.clear();
+        mWindows.clear();
+    }
+
+    /**
+     * Subscribe to the items in [offset, offset + count) of the list.
+     * Unlike a {@link Listener}, the listener is only invoked when the list loads and then when the items in that range or the size of the list change,
+     * so changes elsewhere in a large list don't cost the consumer anything.
+     * While there is a window, this also loads the next page whenever the window is within a window's length of the end of what is loaded,
+     * so the next items are ready before they are scrolled to.
+     *
+     * @param offset The position of the first item.
+     * @param count How many items to include.
+     * @return The window, use {@link Window#move(int)} to follow scrolling and {@link Window#stop()} when no longer needed.
+     */
+    public Window<T> window(int offset, int count, WindowListener<T> listener) {
+        checkThread();
+        Window<T> window = new Window<>(this, offset, count, listener);
+        mWindows.add(window);
+        prefetch();
+        return window;
     }
 
     protected void setState(LoadState state) {
@@ -195,15 +222,72 @@ public abstract class AbsDataSourceCache<T> implements DataSourceCache<T> {
     
     protected void setList(List<T> list, boolean isPagingComplete) {
         checkThread();
+        boolean first = !isLoaded();
+        int oldSize = mList.size();
+        Map<Window<T>, List<T>> before = new HashMap<>();
+        for (Window<T> window : mWindows) {
+            before.put(window, window.items());
+        }
         mList.clear();
         mList.addAll(list);
         mIsPagingComplete = isPagingComplete;
+        onListChanged();
+
+        boolean resized = mList.size() != oldSize;
+        for (Window<T> window : new ArrayList<>(mWindows)) {
+            if (first || resized || !window.items().equals(before.get(window))) window.listener.onWindowChanged(window);
+        }
+        prefetch();
+    }
+
+    /**
+     * Replace part of the list, rather than setting the whole thing like {@link #setList(List, boolean)} does.
+     * Only {@link Window}s that overlap the replaced range are notified, or all of them if the size of the list changed.
+     *
+     * @param start The position of the first item to replace.
+     * @param end The position after the last item to replace. Use start to only insert.
+     * @param items The items to put in their place, can be a different number than what they replace.
+     */
+    protected void replaceRange(int start, int end, List<T> items, boolean isPagingComplete) {
+        checkThread();
+        boolean resized = items.size() != end - start;
+        if (resized) {
+            List<T> range = mList.subList(start, end);
+            range.clear();
+            range.addAll(items);
+        } else {
+            for (int i = 0; i < items.size(); i++) {
+                mList.set(start + i, items.get(i));
+            }
+        }
+        mIsPagingComplete = isPagingComplete;
+        onListChanged();
+
+        int changedEnd = start + items.size();
+        for (Window<T> window : new ArrayList<>(mWindows)) {
+            if (resized || (window.offset < changedEnd && start < window.offset + window.count)) window.listener.onWindowChanged(window);
+        }
+        prefetch();
+    }
+
+    private void onListChanged() {
         setState(LoadState.LOADED);
         for (Listener listener : mListeners) {
             listener.onDataSourceChanged();
         }
     }
 
+    /** Loads the next page if any window is close to the end of what is loaded. */
+    private void prefetch() {
+        if (mIsPagingComplete || !isLoaded()) return;
+        for (Window<T> window : mWindows) {
+            if (window.offset + window.count * 2 > mList.size()) {
+                loadNextPage();
+                return;
+            }
+        }
+    }
+
     /**
      * @return true if this is in one of {@link com.pocket.sdk.util.data.DataSourceCache.LoadState}'s LOADED_ (has content) states.
      */
@@ -219,4 +303,64 @@ public abstract class AbsDataSourceCache<T> implements DataSourceCache<T> {
                 return false;
         }
     }
+
+    /**
+     * A range of a {@link AbsDataSourceCache}'s list, see {@link #window(int, int, WindowListener)}.
+     */
+    public static class Window<T> {
+
+        private final AbsDataSourceCache<T> cache;
+        private final WindowListener<T> listener;
+        private final int count;
+        private int offset;
+
+        private Window(AbsDataSourceCache<T> cache, int offset, int count, WindowListener<T> listener) {
+            this.cache = cache;
+            this.offset = Math.max(offset, 0);
+            this.count = count;
+            this.listener = listener;
+        }
+
+        public int offset() {
+            return offset;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /** @return The size of the whole list. */
+        public int total() {
+            return cache.size();
+        }
+
+        /** @return A copy of the items currently in the window. Can be fewer than {@link #count()} at the end of the list. */
+        public List<T> items() {
+            int size = cache.mList.size();
+            int start = Math.min(offset, size);
+            return new ArrayList<>(cache.mList.subList(start, Math.min(offset + count, size)));
+        }
+
+        /**
+         * Move the window to a new position, such as after scrolling.
+         * The listener is not invoked, use {@link #items()} if the new items are needed right away.
+         * This may start loading the next page.
+         */
+        public void move(int offset) {
+            cache.checkThread();
+            this.offset = Math.max(offset, 0);
+            if (cache.mWindows.contains(this)) cache.prefetch();
+        }
+
+        /** Stop receiving changes. */
+        public void stop() {
+            cache.checkThread();
+            cache.mWindows.remove(this);
+        }
+    }
+
+    public interface WindowListener<T> {
+        /** The list loaded, or the items in the window or the size of the whole list changed. */
+        void onWindowChanged(Window<T> window);
+    }
 }
@@ -3,6 +3,7 @@ package com.pocket.sdk.util.data;
 import com.pocket.sdk.Pocket;
 import com.pocket.sdk.api.generated.PocketRemoteStyle;
 import com.pocket.sync.source.PendingResult;
+import com.pocket.sync.source.RemoteLane;
 import com.pocket.sync.source.Source;
 import com.pocket.sync.source.result.SyncException;
 import com.pocket.sync.source.subscribe.Subscription;
@@ -24,7 +25,10 @@ import java.util.Map;
  * <h3>Implementation</h3>
  * This takes a Thing and breaks it into {@link Page}s using {@link SubsetApply#subset(Thing, Subset)}.
  * To load each page it will use Pocket.sync() and then subscribe to it as well to keep it up to date.
- * As pages are loaded/updated, it creates the full list by looping through each page, invoking {@link CollectionGet#collectionFrom(Thing)} and appending the results into one list.
+ * As pages are loaded, it creates the full list by looping through each page, invoking {@link CollectionGet#collectionFrom(Thing)} and appending the results into one list.
+ * When a page that is already loaded updates, only that page's range of the list is replaced, and only if its items actually changed,
+ * so the work per change depends on the page size, not the size of the whole list.
+ * Combined with {@link #window(int, int, WindowListener)}, consumers only hear about the changes they are showing.
  *
  * <h2>Thread Safety</h2>
  * This assumes (but doesn't enforce to avoid performance penalties of checking) all calls to it are on the ui thread.
@@ -102,18 +106,22 @@ public class SyncCache<C, T extends Thing> extends AbsDataSourceCache<C> {
 		var t = first.identity;
 		// Also stop any subscription this replaces
 		Subscription.stop(subs.put(t, source.bind(forceRemote, t, u -> {
-			Throwable error = null;
-			try {
-				updatePage(first, u);
-			} catch (Throwable e) {
-				error = e;
-			}
 			if (pages.isEmpty()) {
 				// First time
+				Throwable error = null;
+				try {
+					updatePage(first, u);
+				} catch (Throwable e) {
+					error = e;
+				}
 				check(error != null ? new Status.Error(error) : new Status.Loaded<>(first));
 			} else {
 				// Update
-				invalidateList();
+				try {
+					updateRange(first, u);
+				} catch (Throwable ignored) {
+					invalidateList();
+				}
 			}
 		}, (e, sub) -> check(new Status.Error(e)))));
 	}
@@ -151,9 +159,16 @@ public class SyncCache<C, T extends Thing> extends AbsDataSourceCache<C> {
 	protected void doLoadNextPage() {
 		Page<C, T> next = nextPage();
 		Subscription.stop(subs.put(next.identity, source.bind(forceRemote, next.identity, u -> { // The Subscription.stop() ensures if this ends up replacing an existing subscription it is stopped properly.
-			if (!pages.contains(next)) pages.add(next);
+			boolean added = !pages.contains(next);
+			if (added) pages.add(next);
 			try {
-				updatePage(next, u);
+				if (added) {
+					updatePage(next, u);
+					int end = getList().size();
+					replaceRange(end, end, next.data, isLastPageComplete());
+				} else {
+					updateRange(next, u);
+				}
 			} catch (Throwable t) {
 				setError(
 						new Error() {
@@ -162,8 +177,8 @@ public class SyncCache<C, T extends Thing> extends AbsDataSourceCache<C> {
 						},
 						LoadState.LOADED_APPEND_ERROR
 				);
+				invalidateList();
 			}
-			invalidateList();
 		},
 		(e, sub) -> {
 			sub.stop();
@@ -182,6 +197,24 @@ public class SyncCache<C, T extends Thing> extends AbsDataSourceCache<C> {
 		List<C> data = collection.collectionFrom(updated);
 		if (data != null) page.data.addAll(data);
 	}
+	
+	/**
+	 * Applies an update to a page that is already in the list by replacing only its range of the list.
+	 * Does nothing if its items didn't change.
+	 */
+	private void updateRange(Page<C, T> page, T updated) {
+		int start = 0;
+		for (Page<C, T> p : pages) {
+			if (p == page) break;
+			start += p.data.size();
+		}
+		List<C> before = new ArrayList<>(page.data);
+		boolean wasComplete = isPagingComplete();
+		updatePage(page, updated);
+		boolean isComplete = isLastPageComplete();
+		if (before.equals(page.data) && wasComplete == isComplete) return;
+		replaceRange(start, start + before.size(), page.data, isComplete);
+	}
 
 	/**
 	 * Invalidates the current list and notifies any listeners of changes in Item state.
@@ -193,19 +226,20 @@ public class SyncCache<C, T extends Thing> extends AbsDataSourceCache<C> {
 			list.addAll(page.data);
 		}
 		
-		// Check if paging is completed
-		boolean isPagingComplete;
+		// Apply this new list
+		setList(list, isLastPageComplete());
+	}
+	
+	/** @return Whether the last loaded page is the last one there is. */
+	private boolean isLastPageComplete() {
 		Page<C,T> last = pages.isEmpty() ? null : pages.get(pages.size()-1);
 		if (last == null) {
-			isPagingComplete = false;
+			return false;
 		} else if (paging == null) {
-			isPagingComplete = true;
+			return true;
 		} else {
-			isPagingComplete = paging.isPagingComplete(last.subset, last.data);
+			return paging.isPagingComplete(last.subset, last.data);
 		}
-
-		// Apply this new list
-		setList(list, isPagingComplete);
 	}
 	
 	@Override
@@ -218,9 +252,9 @@ public class SyncCache<C, T extends Thing> extends AbsDataSourceCache<C> {
 		 */
 		Page<C,T> firstPage = pages.get(0);
 		if (firstPage.identity.remote().style == PocketRemoteStyle.LOCAL) {
-			pendingRefresh = source.sync(firstPage.identity);
+			pendingRefresh = source.sync(RemoteLane.INTERACTIVE, firstPage.identity);
 		} else {
-			pendingRefresh = source.syncRemote(firstPage.identity);
+			pendingRefresh = source.syncRemote(RemoteLane.INTERACTIVE, firstPage.identity);
 		}
 		pendingRefresh
 			.onSuccess(p -> {
@@ -0,0 +1,72 @@
+package com.pocket.util.android.drawable;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+
+/**
+ * Bitmaps that are no longer displayed or cached, kept so later decodes can draw into them with {@link BitmapFactory.Options#inBitmap}
+ * instead of allocating new ones. This cuts down on garbage collection while quickly scrolling through lists of thumbnails.
+ * <p>
+ * Any mutable bitmap can be reused for a decode that needs the same or fewer bytes, the decoder reconfigures it to the new dimensions.
+ * See {@link BucketPool} for how bitmaps are matched to decodes and released.
+ */
+public class BitmapPool extends BucketPool<Bitmap> {
+
+	public BitmapPool(long maxSize) {
+		super(maxSize);
+	}
+
+	@Override
+	protected int sizeOf(Bitmap bitmap) {
+		return bitmap.getAllocationByteCount();
+	}
+
+	@Override
+	protected boolean accepts(Bitmap bitmap) {
+		return !bitmap.isRecycled()
+				&& bitmap.isMutable()
+				&& (Build.VERSION.SDK_INT < Build.VERSION_CODES.O || bitmap.getConfig() != Bitmap.Config.HARDWARE);
+	}
+
+	@Override
+	protected void release(Bitmap bitmap) {
+		if (!bitmap.isRecycled()) {
+			bitmap.recycle();
+		}
+	}
+
+	/**
+	 * Sets up decode options to draw into a pooled bitmap if there is one large enough.
+	 *
+	 * @param opts The options about to be used to decode. Its {@link BitmapFactory.Options#inSampleSize} and {@link BitmapFactory.Options#inPreferredConfig} should already be set.
+	 * @param width The width of the source image, before sampling.
+	 * @param height The height of the source image, before sampling.
+	 */
+	public void reuse(BitmapFactory.Options opts, int width, int height) {
+		if (width <= 0 || height <= 0) return;
+
+		// The decoder rounds the sample size down to a power of 2. Round the sampled size up so there is always enough room.
+		int sample = Integer.highestOneBit(Math.max(1, opts.inSampleSize));
+		long bytes = (long) ((width + sample - 1) / sample) * ((height + sample - 1) / sample) * bytesPerPixel(opts.inPreferredConfig);
+		if (bytes > Integer.MAX_VALUE) return;
+
+		opts.inMutable = true;
+		opts.inBitmap = get((int) bytes);
+	}
+
+	private static int bytesPerPixel(Bitmap.Config config) {
+		if (config == null) return 4; // ARGB_8888 is the default
+		switch (config) {
+			case ALPHA_8:
+				return 1;
+			case RGB_565:
+			case ARGB_4444:
+				return 2;
+			default:
+				if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && config == Bitmap.Config.RGBA_F16) return 8;
+				return 4;
+		}
+	}
+
+}
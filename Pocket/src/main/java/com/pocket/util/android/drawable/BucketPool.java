@@ -0,0 +1,193 @@
+package com.pocket.util.android.drawable;
+
+import android.content.ComponentCallbacks2;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A pool of reusable entries, such as bitmaps, bucketed by how many bytes each one holds.
+ * Entries are handed back out to requests that need the same or a bit fewer bytes,
+ * and once the pool is over its byte limit the least recently added ones are released.
+ * <p>
+ * The bookkeeping lives here, apart from {@link BitmapPool}, so it can be checked without Android's graphics classes.
+ * Thread safe.
+ */
+public abstract class BucketPool<T> {
+
+	/** How many times larger than requested an entry may be and still be handed out, so small requests don't hold onto large entries. */
+	public static final int MAX_OVERSIZE = 4;
+
+	/** Entries, keyed by their size in bytes. The last of each bucket is the most recently added. */
+	private final TreeMap<Integer, ArrayDeque<T>> buckets = new TreeMap<>();
+	/** Every entry in the order it was added, to its size in bytes. */
+	private final LinkedHashMap<T, Integer> order = new LinkedHashMap<>();
+
+	private long maxSize;
+	private long size;
+
+	private long hits;
+	private long allocations;
+	private long puts;
+	private long evictions;
+
+	/**
+	 * @param maxSize The most bytes to hold at once.
+	 */
+	public BucketPool(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/** @return The number of bytes this entry holds. */
+	protected abstract int sizeOf(T entry);
+
+	/** @return true if this entry can be reused later, false if it should be released instead of pooled. */
+	protected abstract boolean accepts(T entry);
+
+	/** Free this entry, it is no longer in the pool and won't be reused. */
+	protected abstract void release(T entry);
+
+	/**
+	 * Offer an entry that is no longer in use. If the pool can't reuse it, it is released right away.
+	 * The caller must not use it again either way.
+	 * @return true if it was pooled, false if it was released.
+	 */
+	public synchronized boolean put(T entry) {
+		if (order.containsKey(entry)) return true;
+
+		int bytes = accepts(entry) ? sizeOf(entry) : 0;
+		if (bytes <= 0 || bytes > maxSize) {
+			release(entry);
+			return false;
+		}
+
+		ArrayDeque<T> bucket = buckets.get(bytes);
+		if (bucket == null) {
+			bucket = new ArrayDeque<>();
+			buckets.put(bytes, bucket);
+		}
+		bucket.addLast(entry);
+		order.put(entry, bytes);
+		size += bytes;
+		puts++;
+		trimTo(maxSize);
+		return true;
+	}
+
+	/**
+	 * Take an entry out of the pool that holds at least this many bytes, but not more than {@link #MAX_OVERSIZE} times as many.
+	 * @return The smallest entry that fits, or null if there are none and the caller has to allocate a new one.
+	 */
+	public synchronized T get(int bytes) {
+		Integer key = bytes > 0 ? buckets.ceilingKey(bytes) : null;
+		if (key == null || key > (long) bytes * MAX_OVERSIZE) {
+			allocations++;
+			return null;
+		}
+
+		ArrayDeque<T> bucket = buckets.get(key);
+		T entry = bucket.pollLast();
+		if (bucket.isEmpty()) buckets.remove(key);
+		order.remove(entry);
+		size -= key;
+		hits++;
+		return entry;
+	}
+
+	/**
+	 * Release the least recently added entries until the pool holds no more than this many bytes.
+	 */
+	public synchronized void trimTo(long bytes) {
+		Iterator<Map.Entry<T, Integer>> oldest = order.entrySet().iterator();
+		while (size > bytes && oldest.hasNext()) {
+			Map.Entry<T, Integer> next = oldest.next();
+			oldest.remove();
+			T entry = next.getKey();
+			int key = next.getValue();
+			ArrayDeque<T> bucket = buckets.get(key);
+			bucket.removeFirstOccurrence(entry);
+			if (bucket.isEmpty()) buckets.remove(key);
+			size -= key;
+			evictions++;
+			release(entry);
+		}
+	}
+
+	/**
+	 * Release everything in the pool.
+	 */
+	public void clear() {
+		trimTo(0);
+	}
+
+	/**
+	 * Give memory back as the system asks for it, see {@link ComponentCallbacks2#onTrimMemory(int)}.
+	 * Once the ui is hidden the pool has nothing to draw for, so it is emptied.
+	 * While running low it is halved.
+	 */
+	public synchronized void trimMemory(int level) {
+		if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+			clear();
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+			trimTo(maxSize / 2);
+		}
+	}
+
+	/**
+	 * Change the most bytes to hold at once, releasing entries if it is now over.
+	 */
+	public synchronized void setMaxSize(long maxSize) {
+		this.maxSize = maxSize;
+		trimTo(maxSize);
+	}
+
+	public synchronized long maxSize() {
+		return maxSize;
+	}
+
+	/** @return The bytes held by entries currently in the pool. */
+	public synchronized long size() {
+		return size;
+	}
+
+	/** @return The number of entries currently in the pool. */
+	public synchronized int count() {
+		return order.size();
+	}
+
+	/** @return How many times {@link #get(int)} had an entry to reuse. */
+	public synchronized long hits() {
+		return hits;
+	}
+
+	/** @return How many times {@link #get(int)} didn't have an entry to reuse, so the caller had to allocate a new one. */
+	public synchronized long allocations() {
+		return allocations;
+	}
+
+	/** @return How many entries were pooled by {@link #put(Object)}. */
+	public synchronized long puts() {
+		return puts;
+	}
+
+	/** @return How many pooled entries were released to stay under the limit or free memory. */
+	public synchronized long evictions() {
+		return evictions;
+	}
+
+	/** @return The fraction of {@link #get(int)} requests that reused an entry, 0 if there haven't been any. */
+	public synchronized float hitRate() {
+		long requests = hits + allocations;
+		return requests > 0 ? hits / (float) requests : 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return getClass().getSimpleName() + " " + order.size() + " entries, " + size + "/" + maxSize + " bytes, "
+				+ hits + " hits, " + allocations + " allocations, " + puts + " puts, " + evictions + " evictions";
+	}
+
+}
@@ -18,6 +18,10 @@ public class CacheableBitmapWrapper {
 
 	private final Bitmap mBitmap;
 	private final String mKey;
+	private final BitmapPool mPool;
+	
+	// Whether the bitmap has been given to the pool for reuse
+	private boolean mReleased;
 
 	// Number of ImageViews currently showing bitmap
 	private int mImageViewsCount;
@@ -26,12 +30,20 @@ public class CacheableBitmapWrapper {
 	private int mCacheCount;
 
 	public CacheableBitmapWrapper(Bitmap bitmap, String localPath) {
+		this(bitmap, localPath, null);
+	}
+
+	/**
+	 * @param pool If provided, once the bitmap is no longer displayed or cached it is given to this pool for reuse instead of being recycled.
+	 */
+	public CacheableBitmapWrapper(Bitmap bitmap, String localPath, BitmapPool pool) {
 		if (null == bitmap) {
 			throw new IllegalArgumentException("Bitmap can not be null");
 		}
 
 		mKey = localPath;
 		mBitmap = bitmap;
+		mPool = pool;
 		mImageViewsCount = 0;
 		mCacheCount = 0;
 	}
@@ -55,12 +67,12 @@ public class CacheableBitmapWrapper {
 
 	/**
 	 * Returns true when this wrapper has a bitmap and the bitmap has not been
-	 * recycled.
+	 * recycled or given to the pool.
 	 * 
-	 * @return true - if the bitmap has not been recycled.
+	 * @return true - if the bitmap has not been recycled or given to the pool.
 	 */
 	public boolean hasValidBitmap() {
-		return !mBitmap.isRecycled();
+		return !mReleased && !mBitmap.isRecycled();
 	}
 
 	/**
@@ -99,14 +111,17 @@ public class CacheableBitmapWrapper {
 	/**
 	 * Checks whether the wrapper is currently referenced, and is being
 	 * displayed. If neither of those conditions are met then the bitmap is
-	 * recycled and freed.
+	 * given to the pool, or recycled and freed.
 	 */
 	private void checkState() {
 		if (ImageCache.DEBUG) Logs.d("ImageCache", "bitmap checkState " + mImageViewsCount + "," + mCacheCount + " " + mKey);
 		
 		if (mCacheCount <= 0 && mImageViewsCount <= 0 && hasValidBitmap()) {
 			if (ImageCache.DEBUG) Logs.d("ImageCache", "bitmap recycled " + mKey);
-			if (!mBitmap.isRecycled()) {
+			if (mPool != null) {
+				mReleased = true;
+				mPool.put(mBitmap);
+			} else if (!mBitmap.isRecycled()) {
 				mBitmap.recycle();
 			}
 		}
@@ -29,8 +29,15 @@ public class MemoryAwareBitmapFactory {
 	 * @return
 	 */
 	public static Bitmap decodeQuietly(String path, Options opts) {
+		return decodeQuietly(path, opts, null);
+	}
+	
+	/**
+	 * Same as decodeQuietly(String, Options) but draws into a bitmap from the pool if it has one large enough.
+	 */
+	public static Bitmap decodeQuietly(String path, Options opts, BitmapPool pool) {
 		try {
-			return decode(path, opts);
+			return decode(path, opts, pool);
 		} catch (OutOfMemoryError oome) {
 			// Ok to ignore completely since decode() prints the stacktrace
 
@@ -58,13 +65,28 @@ public class MemoryAwareBitmapFactory {
 	 * @throws IOException If file not found or if there was a problem decoding.
 	 */
 	public static Bitmap decode(String path, Options opts) throws OutOfMemoryError, IOException, InterruptedException {
+		return decode(path, opts, null);
+	}
+	
+	/**
+	 * Same as decode(String, Options) but if a pool is provided, draws into a bitmap from it if it has one large enough.
+	 */
+	public static Bitmap decode(String path, Options opts, BitmapPool pool) throws OutOfMemoryError, IOException, InterruptedException {
 		FileInputStream is = null;
 		FileLocks.Lock lock = null;
 
 		try {
 			is = new FileInputStream(path);
-			lock = App.getApp().imageCache().getImageFileLocks().lock(path);
-			return decodeFileDescriptor(is.getFD(), opts, 1);
+			lock = App.getApp().imageCache().getImageFileLocks().readLock(path);
+			FileDescriptor fd = is.getFD();
+			if (pool != null) {
+				if (opts == null) opts = new Options();
+				opts.inJustDecodeBounds = true;
+				BitmapFactory.decodeFileDescriptor(fd, null, opts);
+				opts.inJustDecodeBounds = false;
+				pool.reuse(opts, opts.outWidth, opts.outHeight);
+			}
+			return decodeFileDescriptor(fd, opts, pool, 1);
 			
 		} finally {
 			FileLocks.releaseQuietly(lock);
@@ -73,10 +95,18 @@ public class MemoryAwareBitmapFactory {
 	}
 	
 	public static Bitmap decodeFileDescriptor(FileDescriptor fd, Options opts) throws OutOfMemoryError {
-		return decodeFileDescriptor(fd, opts, 1);
+		return decodeFileDescriptor(fd, opts, null, 1);
+	}
+	
+	/**
+	 * Same as decodeFileDescriptor(FileDescriptor, Options) but for options set up by {@link BitmapPool#reuse(Options, int, int)}.
+	 * If the image can't be drawn into the pooled bitmap, the bitmap goes back to the pool and it decodes into a new one instead.
+	 */
+	public static Bitmap decodeFileDescriptor(FileDescriptor fd, Options opts, BitmapPool pool) throws OutOfMemoryError {
+		return decodeFileDescriptor(fd, opts, pool, 1);
 	}
 	
-	private static Bitmap decodeFileDescriptor(FileDescriptor fd, Options opts, int attempt) throws OutOfMemoryError {
+	private static Bitmap decodeFileDescriptor(FileDescriptor fd, Options opts, BitmapPool pool, int attempt) throws OutOfMemoryError {
 		Bitmap bitmap = null;
 		boolean retry = false;
 		
@@ -85,6 +115,18 @@ public class MemoryAwareBitmapFactory {
 			
 		} catch (OutOfMemoryError oome) {
 			retry = handleOOME(oome, attempt);
+			
+		} catch (IllegalArgumentException e) {
+			if (opts == null || opts.inBitmap == null) throw e;
+			// The pooled bitmap didn't fit this image after all.
+			Bitmap unused = opts.inBitmap;
+			opts.inBitmap = null;
+			if (pool != null) {
+				pool.put(unused);
+			} else {
+				unused.recycle();
+			}
+			return decodeFileDescriptor(fd, opts, pool, attempt);
 		}
 		
 		if (bitmap != null) {
@@ -92,7 +134,7 @@ public class MemoryAwareBitmapFactory {
 			
 		} else if (retry) {
 			waitBeforeRetry(attempt);
-			return decodeFileDescriptor(fd, opts, attempt+1);
+			return decodeFileDescriptor(fd, opts, pool, attempt+1);
 			
 		} else {
 			return null;
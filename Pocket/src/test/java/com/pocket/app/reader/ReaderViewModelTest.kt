@@ -4,6 +4,7 @@ import com.pocket.BaseCoroutineTest
 import com.pocket.analytics.Tracker
 import com.pocket.analytics.appevents.ReaderEvents
 import com.pocket.app.list.list.ListManager
+import com.pocket.app.reader.queue.QueuePrefetcher
 import com.pocket.app.reader.queue.UrlListQueueManager
 import com.pocket.repository.ItemRepository
 import com.pocket.sdk.preferences.AppPrefs
@@ -25,6 +26,8 @@ class ReaderViewModelTest : BaseCoroutineTest() {
     private val tracker = mockk<Tracker>(relaxed = true)
     @SpyK
     private val destinationHelper = mockk<DestinationHelper>(relaxed = true)
+    @SpyK
+    private val queuePrefetcher = mockk<QueuePrefetcher>(relaxed = true)
 
     private lateinit var subject: ReaderViewModel
 
@@ -36,6 +39,7 @@ class ReaderViewModelTest : BaseCoroutineTest() {
             listManager,
             tracker,
             destinationHelper,
+            queuePrefetcher,
         )
     }
 
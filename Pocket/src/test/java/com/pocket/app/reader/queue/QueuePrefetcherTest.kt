@@ -0,0 +1,86 @@
+package com.pocket.app.reader.queue
+
+import com.pocket.BaseCoroutineTest
+import com.pocket.app.reader.Destination
+import com.pocket.app.reader.DestinationHelper
+import com.pocket.repository.ArticleRepository
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.mockk
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.cancel
+import kotlin.test.AfterTest
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class QueuePrefetcherTest : BaseCoroutineTest() {
+
+    private val articleRepository = mockk<ArticleRepository>(relaxed = true)
+    private val destinationHelper = mockk<DestinationHelper>(relaxed = true)
+    private val cancelled = mutableListOf<String>()
+
+    private lateinit var scope: CoroutineScope
+    private lateinit var subject: QueuePrefetcher
+
+    @BeforeTest
+    fun setup() {
+        scope = CoroutineScope(Dispatchers.Main)
+        coEvery { destinationHelper.getDestination(any(), any()) } returns Destination.ARTICLE
+        coEvery { destinationHelper.getDestination("web", any()) } returns Destination.ORIGINAL_WEB
+        coEvery { articleRepository.prefetch(any()) } coAnswers {
+            try {
+                awaitCancellation()
+            } finally {
+                cancelled.add(firstArg())
+            }
+        }
+        subject = QueuePrefetcher(articleRepository, destinationHelper)
+    }
+
+    @AfterTest
+    fun tearDown() {
+        scope.cancel()
+    }
+
+    @Test
+    fun `WHEN the queue is opened THEN the next articles are prefetched`() {
+        subject.onQueueMoved(scope, UrlListQueueManager(listOf("url0", "url1", "url2", "url3"), 0))
+
+        coVerify(exactly = 1) { articleRepository.prefetch("url1") }
+        coVerify(exactly = 1) { articleRepository.prefetch("url2") }
+        coVerify(exactly = 0) { articleRepository.prefetch("url3") }
+    }
+
+    @Test
+    fun `WHEN the queue moves THEN articles no longer upcoming are cancelled AND the rest are kept`() {
+        val queue = UrlListQueueManager(listOf("url0", "url1", "url2", "url3"), 0)
+        subject.onQueueMoved(scope, queue)
+
+        queue.getNextUrl()
+        subject.onQueueMoved(scope, queue)
+
+        assertEquals(listOf("url1"), cancelled)
+        coVerify(exactly = 1) { articleRepository.prefetch("url2") }
+        coVerify(exactly = 1) { articleRepository.prefetch("url3") }
+    }
+
+    @Test
+    fun `WHEN an upcoming url opens outside the article view THEN it is not prefetched`() {
+        subject.onQueueMoved(scope, UrlListQueueManager(listOf("url0", "web", "url2"), 0))
+
+        coVerify(exactly = 0) { articleRepository.prefetch("web") }
+        coVerify(exactly = 1) { articleRepository.prefetch("url2") }
+    }
+
+    @Test
+    fun `WHEN the queue is gone THEN all prefetches are cancelled`() {
+        subject.onQueueMoved(scope, UrlListQueueManager(listOf("url0", "url1", "url2"), 0))
+
+        subject.onQueueMoved(scope, null)
+
+        assertEquals(setOf("url1", "url2"), cancelled.toSet())
+    }
+}
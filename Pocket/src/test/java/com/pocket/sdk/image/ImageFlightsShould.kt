@@ -0,0 +1,96 @@
+package com.pocket.sdk.image
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class ImageFlightsShould {
+    private val cancelled = mutableSetOf<String>()
+    private val flights = ImageFlights<String> { it !in cancelled }
+
+    @Test
+    fun `make the first request the leader and later ones followers`() {
+        assertTrue(flights.join(KEY, "leader"))
+        assertFalse(flights.join(KEY, "second"))
+        assertTrue(flights.follow(KEY, "third"))
+
+        assertEquals(listOf("leader", "second", "third"), flights.land(KEY))
+        assertEquals(emptyList(), flights.land(KEY))
+    }
+
+    @Test
+    fun `only follow flights that are in flight`() {
+        assertFalse(flights.follow(KEY, "request"))
+        assertTrue(flights.join(KEY, "request"), "nothing was added by follow, so this starts a new flight")
+    }
+
+    @Test
+    fun `keep flights for different keys apart`() {
+        flights.join(KEY, "a")
+        assertTrue(flights.join("other", "b"))
+
+        assertEquals(listOf("a"), flights.land(KEY))
+        assertEquals(listOf("b"), flights.land("other"))
+    }
+
+    @Test
+    fun `only drop the requests that were cancelled`() {
+        flights.join(KEY, "leader")
+        flights.join(KEY, "follower")
+        flights.join(KEY, "another")
+        cancelled.add("follower")
+
+        assertFalse(flights.abandonIfUnneeded(KEY))
+        assertEquals(listOf("leader", "another"), flights.land(KEY))
+    }
+
+    @Test
+    fun `keep the work going for followers when the leader is cancelled`() {
+        flights.join(KEY, "leader")
+        flights.join(KEY, "follower")
+        cancelled.add("leader")
+
+        assertFalse(flights.abandonIfUnneeded(KEY))
+        assertEquals(listOf("follower"), flights.land(KEY))
+    }
+
+    @Test
+    fun `abandon the work once every request is cancelled`() {
+        flights.join(KEY, "leader")
+        flights.join(KEY, "follower")
+        cancelled.addAll(listOf("leader", "follower"))
+
+        assertTrue(flights.abandonIfUnneeded(KEY))
+        assertTrue(flights.join(KEY, "later"), "requests after the flight was abandoned start a new one")
+    }
+
+    @Test
+    fun `return every request when landing all`() {
+        flights.join(KEY, "a")
+        flights.join(KEY, "b")
+        flights.join("other", "c")
+
+        assertEquals(setOf("a", "b", "c"), flights.landAll().toSet())
+        assertEquals(emptyList(), flights.land(KEY))
+        assertTrue(flights.join(KEY, "d"))
+    }
+
+    @Test
+    fun `take the priority of the most urgent request in the flight`() {
+        val priorities = mapOf("prefetch" to 1, "visible" to 3, "offscreen" to 2)
+        flights.join(KEY, "prefetch")
+        assertEquals(1, flights.priority(KEY, "prefetch") { priorities.getValue(it) })
+
+        flights.follow(KEY, "visible")
+        flights.follow(KEY, "offscreen")
+        assertEquals(3, flights.priority(KEY, "prefetch") { priorities.getValue(it) })
+
+        flights.land(KEY)
+        assertEquals(1, flights.priority(KEY, "prefetch") { priorities.getValue(it) }, "only the leader once landed")
+    }
+
+    companion object {
+        private const val KEY = "/images/a.jpg"
+    }
+}
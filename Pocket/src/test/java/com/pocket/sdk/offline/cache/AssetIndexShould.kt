@@ -0,0 +1,121 @@
+package com.pocket.sdk.offline.cache
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class AssetIndexShould {
+
+    @get:Rule val tmp = TemporaryFolder()
+    private lateinit var snapshot: File
+
+    @BeforeTest fun setUp() {
+        snapshot = File(tmp.root, "offline/.index")
+    }
+
+    @Test
+    fun `remember what it found on disk`() {
+        val index = AssetIndex()
+        val image = tmp.newFile("image.jpg").apply { writeBytes(ByteArray(10)) }
+        val missing = File(tmp.root, "missing.jpg")
+
+        assertNull(index.known(image))
+        assertEquals(10, index.get(image).length)
+        assertFalse(index.get(missing).exists())
+
+        // Changes that aren't reported aren't noticed
+        image.delete()
+        missing.writeBytes(ByteArray(1))
+        assertTrue(index.known(image)!!.exists())
+        assertFalse(index.known(missing)!!.exists())
+
+        index.forget(missing)
+        assertTrue(index.get(missing).exists())
+    }
+
+    @Test
+    fun `not let a probe replace what was reported`() {
+        val index = AssetIndex()
+        val image = File(tmp.root, "image.jpg")
+        image.writeBytes(ByteArray(10))
+        index.deleted(image)
+
+        assertFalse(index.probe(image).exists())
+        assertFalse(index.known(image)!!.exists())
+    }
+
+    @Test
+    fun `only restore files that exist from a snapshot`() {
+        val written = tmp.newFile("written.jpg").apply { writeBytes(ByteArray(5)) }
+        val probed = tmp.newFile("probed.jpg")
+        val deleted = tmp.newFile("deleted.jpg")
+        val missing = File(tmp.root, "missing.jpg")
+        AssetIndex().apply {
+            written(written, 5)
+            probe(probed)
+            written(deleted, 1)
+            deleted(deleted)
+            probe(missing)
+            save(snapshot)
+        }
+
+        val index = AssetIndex()
+        index.load(snapshot)
+        assertEquals(5, index.known(written)!!.length)
+        assertEquals(written.lastModified(), index.known(written)!!.modified)
+        assertTrue(index.known(probed)!!.exists())
+        assertNull(index.known(deleted))
+        assertNull(index.known(missing))
+    }
+
+    @Test
+    fun `keep what it already knows over an older snapshot`() {
+        val image = tmp.newFile("image.jpg")
+        AssetIndex().apply {
+            written(image, 1)
+            save(snapshot)
+        }
+
+        val index = AssetIndex()
+        index.deleted(image)
+        index.load(snapshot)
+        assertFalse(index.known(image)!!.exists())
+    }
+
+    @Test
+    fun `only save when something changed`() {
+        val index = AssetIndex()
+        index.written(tmp.newFile("image.jpg"), 1)
+        index.save(snapshot)
+        snapshot.delete()
+
+        index.save(snapshot)
+        assertFalse(snapshot.exists())
+
+        index.clear()
+        index.save(snapshot)
+        assertTrue(snapshot.exists())
+        assertFalse(File(snapshot.path + ".tmp").exists())
+    }
+
+    @Test
+    fun `ignore a corrupt snapshot`() {
+        val image = tmp.newFile("image.jpg")
+        AssetIndex().apply {
+            written(image, 1)
+            save(snapshot)
+        }
+        snapshot.writeBytes(snapshot.readBytes().copyOf(snapshot.length().toInt() - 3))
+
+        val index = AssetIndex()
+        index.load(snapshot)
+        assertNull(index.known(image))
+        assertFalse(index.get(File(tmp.root, "missing.jpg")).exists())
+    }
+}
@@ -0,0 +1,108 @@
+package com.pocket.sdk.util.data
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class AbsDataSourceCacheShould {
+
+    /** A cache of numbers that hands out pages of 10 from [library] as they are requested. */
+    private class Numbers(var library: List<Int>) : AbsDataSourceCache<Int>() {
+        var pagesLoaded = 0
+
+        override fun doLoadFirstPage() {
+            pagesLoaded = 1
+            setList(library.take(10), library.size <= 10)
+        }
+
+        override fun doLoadNextPage() {
+            val end = list.size
+            pagesLoaded++
+            replaceRange(end, end, library.drop(end).take(10), library.size <= end + 10)
+        }
+
+        override fun doRefresh() {}
+
+        fun update(position: Int, value: Int) {
+            replaceRange(position, position + 1, listOf(value), isPagingComplete)
+        }
+
+        fun reload() {
+            setList(library.take(list.size), isPagingComplete)
+        }
+
+        fun remove(position: Int) {
+            replaceRange(position, position + 1, emptyList(), isPagingComplete)
+        }
+    }
+
+    private val cache = Numbers((0 until 100).toList())
+    private val changes = mutableListOf<List<Int>>()
+
+    private fun window(offset: Int, count: Int) = cache.window(offset, count) { changes.add(it.items()) }
+
+    @Test
+    fun `notify a window when the list loads`() {
+        window(0, 5)
+        cache.loadFirstPage()
+
+        assertEquals(listOf((0..4).toList()), changes)
+    }
+
+    @Test
+    fun `only notify windows that a change overlaps`() {
+        cache.loadFirstPage()
+        val window = window(0, 5)
+        cache.update(7, -7)
+        assertEquals(0, changes.size)
+
+        cache.update(3, -3)
+        assertEquals(listOf(listOf(0, 1, 2, -3, 4)), changes)
+        assertEquals(listOf(0, 1, 2, -3, 4), window.items())
+    }
+
+    @Test
+    fun `notify all windows when the size changes`() {
+        cache.loadFirstPage()
+        window(0, 3)
+        cache.remove(8)
+
+        assertEquals(1, changes.size)
+        assertEquals(9, cache.size())
+    }
+
+    @Test
+    fun `not notify when a new list has the same items in the window`() {
+        cache.loadFirstPage()
+        window(0, 5)
+        cache.library = cache.library.toMutableList().apply { set(7, -7) }
+        cache.reload()
+
+        assertEquals(0, changes.size)
+        assertEquals(-7, cache.get(7))
+    }
+
+    @Test
+    fun `prefetch the next page ahead of a window`() {
+        cache.loadFirstPage()
+        val window = window(0, 5)
+        assertEquals(1, cache.pagesLoaded)
+
+        window.move(6)
+        assertEquals(2, cache.pagesLoaded)
+        assertEquals(20, cache.size())
+
+        window.move(50)
+        assertEquals(6, cache.pagesLoaded, "keeps loading until the window is covered")
+        assertEquals((50..54).toList(), window.items())
+    }
+
+    @Test
+    fun `stop notifying after stopping`() {
+        cache.loadFirstPage()
+        window(0, 5).stop()
+        cache.update(0, -1)
+        cache.clearListeners()
+
+        assertEquals(0, changes.size)
+    }
+}
@@ -0,0 +1,149 @@
+package com.pocket.util.android.drawable
+
+import android.content.ComponentCallbacks2
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class BucketPoolShould {
+
+    private class Block(val bytes: Int, val reusable: Boolean = true)
+
+    private class BlockPool(maxSize: Long) : BucketPool<Block>(maxSize) {
+        val released = mutableListOf<Block>()
+        override fun sizeOf(entry: Block) = entry.bytes
+        override fun accepts(entry: Block) = entry.reusable
+        override fun release(entry: Block) {
+            released.add(entry)
+        }
+    }
+
+    @Test
+    fun `hand out the smallest entry that fits`() {
+        val pool = BlockPool(1000)
+        val small = Block(100)
+        val medium = Block(200)
+        val large = Block(300)
+        listOf(large, small, medium).forEach { pool.put(it) }
+
+        assertSame(medium, pool.get(150))
+        assertSame(small, pool.get(100))
+        assertSame(large, pool.get(100))
+        assertNull(pool.get(1))
+        assertEquals(0, pool.size())
+    }
+
+    @Test
+    fun `hand out the most recent entry of a bucket`() {
+        val pool = BlockPool(1000)
+        val older = Block(100)
+        val newer = Block(100)
+        pool.put(older)
+        pool.put(newer)
+
+        assertSame(newer, pool.get(100))
+        assertSame(older, pool.get(100))
+    }
+
+    @Test
+    fun `not hand out entries much larger than needed`() {
+        val pool = BlockPool(10_000)
+        val large = Block(1000)
+        pool.put(large)
+
+        assertNull(pool.get(1000 / BucketPool.MAX_OVERSIZE - 1))
+        assertSame(large, pool.get(1000 / BucketPool.MAX_OVERSIZE))
+    }
+
+    @Test
+    fun `release the oldest entries when over the limit`() {
+        val pool = BlockPool(300)
+        val first = Block(100)
+        val second = Block(200)
+        val third = Block(100)
+        pool.put(first)
+        pool.put(second)
+        pool.put(third)
+
+        assertEquals(listOf(first), pool.released)
+        assertEquals(300, pool.size())
+        assertEquals(2, pool.count())
+        assertEquals(1, pool.evictions())
+
+        // What it handed out no longer counts towards the limit
+        assertSame(second, pool.get(200))
+        pool.put(Block(200))
+        assertEquals(listOf(first), pool.released)
+    }
+
+    @Test
+    fun `release what it can't pool`() {
+        val pool = BlockPool(300)
+        val tooLarge = Block(301)
+        val notReusable = Block(100, reusable = false)
+
+        assertFalse(pool.put(tooLarge))
+        assertFalse(pool.put(notReusable))
+        assertEquals(listOf(tooLarge, notReusable), pool.released)
+        assertEquals(0, pool.size())
+        assertEquals(0, pool.puts())
+    }
+
+    @Test
+    fun `not pool the same entry twice`() {
+        val pool = BlockPool(1000)
+        val block = Block(100)
+        assertTrue(pool.put(block))
+        assertTrue(pool.put(block))
+
+        assertEquals(100, pool.size())
+        assertSame(block, pool.get(100))
+        assertNull(pool.get(100))
+    }
+
+    @Test
+    fun `give memory back when the system asks`() {
+        val pool = BlockPool(1000)
+        repeat(10) { pool.put(Block(100)) }
+
+        pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE)
+        assertEquals(1000, pool.size())
+
+        pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+        assertEquals(500, pool.size())
+
+        pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+        assertEquals(0, pool.size())
+        assertEquals(10, pool.released.size)
+    }
+
+    @Test
+    fun `trim when its limit is lowered`() {
+        val pool = BlockPool(1000)
+        repeat(10) { pool.put(Block(100)) }
+
+        pool.setMaxSize(250)
+        assertEquals(200, pool.size())
+        assertEquals(8, pool.released.size)
+    }
+
+    @Test
+    fun `count hits and allocations`() {
+        val pool = BlockPool(1000)
+        assertEquals(0f, pool.hitRate())
+
+        pool.put(Block(100))
+        pool.get(100)
+        pool.get(100)
+        pool.get(50)
+        pool.get(0)
+
+        assertEquals(1, pool.hits())
+        assertEquals(3, pool.allocations())
+        assertEquals(0.25f, pool.hitRate())
+        assertEquals(1, pool.puts())
+    }
+}
@@ -0,0 +1,195 @@
+package com.pocket.util.prefs
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+import kotlin.test.BeforeTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class MappedPrefStoreShould {
+
+    @get:Rule val tmp = TemporaryFolder()
+    private lateinit var file: File
+
+    @BeforeTest fun setUp() {
+        file = File(tmp.root, "prefs/test.kv")
+    }
+
+    @Test
+    fun `keep all types of values after reopening`() {
+        MappedPrefStore(file).apply {
+            set("string", "value")
+            set("set", setOf("a", "b"))
+            set("int", 1)
+            set("float", 1.5f)
+            set("long", 2L)
+            set("boolean", true)
+            set("removed", "value")
+            remove("removed")
+        }
+
+        val store = MappedPrefStore(file)
+        assertEquals("value", store.getString("string"))
+        assertEquals(setOf("a", "b"), store.getStringSet("set"))
+        assertEquals(1, store.getInt("int"))
+        assertEquals(1.5f, store.getFloat("float"))
+        assertEquals(2L, store.getLong("long"))
+        assertTrue(store.getBoolean("boolean"))
+        assertFalse(store.contains("removed"))
+        assertEquals(setOf("string", "set", "int", "float", "long", "boolean"), store.keys())
+    }
+
+    @Test
+    fun `compact and grow the log`() {
+        val large = "x".repeat(10_000)
+        MappedPrefStore(file).apply {
+            repeat(10_000) { set("counter", it) }
+            repeat(50) { set("large$it", large) }
+            clear()
+            set("after clear", true)
+            repeat(10) { set("large$it", large) }
+        }
+
+        val store = MappedPrefStore(file)
+        assertEquals(0, store.getInt("counter"))
+        assertTrue(store.getBoolean("after clear"))
+        assertEquals(large, store.getString("large9"))
+        assertNull(store.getString("large10"))
+    }
+
+    @Test
+    fun `keep changes made while compacting in the background`() {
+        val compactions = mutableListOf<Runnable>()
+        MappedPrefStore(file, null) { compactions.add(it) }.apply {
+            repeat(1_000) { set("counter", it) }
+            assertEquals(1, compactions.size, "only one compaction at a time")
+            set("during", "value")
+            repeat(10) { set("large$it", "x".repeat(10_000)) } // More than fits in the old log
+            compactions.removeAt(0).run()
+            set("after", true)
+            while (compactions.isNotEmpty()) compactions.removeAt(0).run()
+        }
+
+        val store = MappedPrefStore(file)
+        assertEquals(999, store.getInt("counter"))
+        assertEquals("value", store.getString("during"))
+        assertEquals(10_000, store.getString("large9")?.length)
+        assertTrue(store.getBoolean("after"))
+    }
+
+    @Test
+    fun `keep changes made while compacting fails and try again`() {
+        val compactions = mutableListOf<Runnable>()
+        val temp = File(file.path + ".tmp")
+        val large = "x".repeat(10_000)
+        MappedPrefStore(file, null) { compactions.add(it) }.apply {
+            repeat(1_000) { set("counter", it) }
+            temp.mkdirs() // A directory in the way of the new log makes compacting fail
+            compactions.removeAt(0).run()
+            assertEquals(1, compactions.size, "tries again")
+            repeat(10) { set("large$it", large) } // More than fits in the old log
+            temp.delete()
+            while (compactions.isNotEmpty()) compactions.removeAt(0).run()
+        }
+        assertEquals(10_000, MappedPrefStore(file).getString("large9")?.length)
+
+        MappedPrefStore(file, null) { compactions.add(it) }.apply {
+            repeat(1_000) { set("counter", it + 1) }
+            temp.mkdirs()
+            var attempts = 0
+            while (compactions.isNotEmpty()) {
+                compactions.removeAt(0).run()
+                attempts++
+            }
+            assertEquals(3, attempts, "gives up after a few attempts")
+            repeat(10) { set("more$it", large) }
+            temp.delete()
+            assertEquals(1, compactions.size, "the next write tries again")
+            while (compactions.isNotEmpty()) compactions.removeAt(0).run()
+        }
+
+        val store = MappedPrefStore(file)
+        assertEquals(1_000, store.getInt("counter"))
+        assertEquals(large, store.getString("large9"))
+        assertEquals(large, store.getString("more9"))
+    }
+
+    @Test
+    fun `drop a partially written record and keep the ones before it`() {
+        MappedPrefStore(file).apply {
+            set("first", "value")
+            set("last", "value")
+        }
+        RandomAccessFile(file, "rw").use {
+            // Flip the last non-zero byte, which is part of the last record's checksum.
+            val bytes = ByteArray(it.length().toInt()).also { b -> it.readFully(b) }
+            val end = bytes.indexOfLast { b -> b != 0.toByte() }
+            it.seek(end.toLong())
+            it.write(bytes[end].toInt() xor 0xff)
+        }
+
+        val store = MappedPrefStore(file)
+        assertEquals("value", store.getString("first"))
+        assertNull(store.getString("last"))
+
+        store.set("next", "value")
+        assertEquals("value", MappedPrefStore(file).getString("next"))
+    }
+
+    @Test
+    fun `move legacy values only when first created`() {
+        val legacy = FakeLegacy(mapOf("string" to "value", "int" to 3, "set" to setOf("a")))
+
+        MappedPrefStore(file, legacy).apply {
+            assertEquals("value", getString("string"))
+            assertEquals(3, getInt("int"))
+            assertEquals(setOf("a"), getStringSet("set"))
+            set("string", "changed")
+        }
+        assertTrue(legacy.cleared)
+
+        val reopened = MappedPrefStore(file, FakeLegacy(mapOf("string" to "stale")))
+        assertEquals("changed", reopened.getString("string"))
+    }
+
+    @Test
+    fun `emit changes of a key`() {
+        val store = MappedPrefStore(file)
+        val values = store.intChanges("int").test()
+        val others = store.stringChanges("string").test()
+
+        store.set("int", 1)
+        store.set("int", 1) // Unchanged, not emitted
+        store.set("int", 2)
+
+        values.assertValues(1, 2)
+        others.assertNoValues()
+    }
+
+    @Test
+    fun `emit changes of every key when cleared`() {
+        val store = MappedPrefStore(file)
+        store.set("int", 1)
+        store.set("boolean", true)
+        val ints = store.intChanges("int").test()
+        val booleans = store.booleanChanges("boolean").test()
+
+        store.clear()
+
+        ints.assertValues(0)
+        booleans.assertValues(false)
+    }
+
+    private class FakeLegacy(private val values: Map<String, Any>) : MappedPrefStore.Legacy {
+        var cleared = false
+        override fun values() = values
+        override fun clear() {
+            cleared = true
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.pocket.analytics
 import android.app.Activity
 import android.app.Application
 import android.content.Context
+import android.graphics.Rect
 import android.os.Bundle
+import android.os.SystemClock
+import android.os.Trace
 import android.util.Log
+import android.view.Choreographer
 import android.view.View
 import android.view.ViewGroup
 import androidx.core.view.iterator
@@ -124,6 +128,12 @@ private object Schema {
  * (`AbsPocketFragment` handles it in `onViewCreatedImpl` by binding a value declared in
  * `getScreenIdentifier()`)
  * 
+ * Scrolling doesn't check impressions on every scroll callback. Scrolled containers are collected
+ * and checked together at most once per frame (or per [impressionCheckIntervalMs]), and only the
+ * tracked views whose on-screen rect changed since their last check are rechecked. Impressions
+ * found in one pass are sent to Snowplow together at the end of it. See [impressionCheckStats]
+ * for how much main thread time this takes.
+ * 
  * ### Content opens
  * Content opens are always tracked manually by calling [trackContentOpen]. If initiated by user's
  * click include the clicked view and be sure to configure the UI entity identifier for it.
@@ -161,6 +171,10 @@ class SnowplowTracker(
     private val getAdjustId: () -> String?,
     private val apiId: Int,
     private val clientVersion: String,
+    /**
+     * Minimum time between scroll triggered impression checks. 0 checks at most once per frame.
+     */
+    private val impressionCheckIntervalMs: Long = 0,
 ) : TrackerConfig, Tracker {
 
     var browserContext: BrowserContext? = null
@@ -210,6 +224,18 @@ class SnowplowTracker(
     private val impressionRequirements =
         mutableMapOf<ImpressionRequirement, TrackerConfig.ImpressionRequirementChecker>()
 
+    /** Scrolled containers waiting for the next [impressionCheck] pass. */
+    private val scrolledContainers = mutableSetOf<ViewGroup>()
+    /** The on-screen rect of each tracked view as of its last scroll triggered check. */
+    private val lastVisibleRects = WeakHashMap<View, Rect>()
+    private var isImpressionCheckScheduled = false
+    /** While a pass is running, impressions are collected here and sent together at the end. */
+    private var impressionBatch: MutableList<SelfDescribing>? = null
+    private val visibleRect = Rect()
+
+    /** Counters for the main thread time spent on scroll triggered impression checks. */
+    val impressionCheckStats = ImpressionCheckStats()
+
     // The snowplow sdk Verbose log level is too verbose, and Debug isn't verbose enough
     // Just printing the event context for easy debugging
     private fun SelfDescribing.log() {
@@ -268,6 +294,7 @@ class SnowplowTracker(
         uniqueId: Any,
     ) {
         impressionComponents[view] = component
+        lastVisibleRects.remove(view) // Possibly new content, so it must be checked on the next scroll even if it hasn't moved.
         for (requirement in impressionRequirements.values) {
             requirement.enableFor(view, uniqueId)
         }
@@ -283,17 +310,17 @@ class SnowplowTracker(
         // Only track when there is a valid UI entity for [view]
         if (view.toCustomContext(0) == null) return
 
-        tracker.trackAndLog(
-            SelfDescribing(
-                Schema.Impression,
-                mapOf("component" to component.value, "requirement" to requirement.value)
-            ).apply {
-                entities.addStandardCustomContexts(view)
-                if (corpusRecommendation != null) {
-                    entities.add(corpusRecommendation.toCustomContext())
-                }
+        val event = SelfDescribing(
+            Schema.Impression,
+            mapOf("component" to component.value, "requirement" to requirement.value)
+        ).apply {
+            // Contexts are read from the view hierarchy now, even if sending is deferred to the end of a batch.
+            entities.addStandardCustomContexts(view)
+            if (corpusRecommendation != null) {
+                entities.add(corpusRecommendation.toCustomContext())
             }
-        )
+        }
+        impressionBatch?.add(event) ?: tracker.trackAndLog(event)
     }
 
     override fun trackEngagement(
@@ -471,18 +498,84 @@ class SnowplowTracker(
         RecyclerView.OnScrollListener(),
         NestedScrollView.OnScrollChangeListener {
         override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
-            dispatchCheckImpressionsToChildren(recyclerView)
+            scheduleImpressionCheck(recyclerView)
         }
 
         override fun onScrollChange(v: NestedScrollView, x: Int, y: Int, oldX: Int, oldY: Int) {
-            dispatchCheckImpressionsToChildren(v)
+            scheduleImpressionCheck(v)
         }
+    }
 
-        private fun dispatchCheckImpressionsToChildren(parent: ViewGroup) {
-            for (child in parent) {
-                child.dispatchCheckImpressions()
+    private val impressionCheck = Choreographer.FrameCallback {
+        isImpressionCheckScheduled = false
+        checkScrolledImpressions()
+    }
+
+    /**
+     * Queue a check of the impressions within a scrolled [container]. Any number of calls before
+     * the next frame (or [impressionCheckIntervalMs]) are handled by a single pass.
+     */
+    private fun scheduleImpressionCheck(container: ViewGroup) {
+        scrolledContainers.add(container)
+        impressionCheckStats.scrollEvents++
+        if (isImpressionCheckScheduled) return
+        isImpressionCheckScheduled = true
+        Choreographer.getInstance().postFrameCallbackDelayed(impressionCheck, impressionCheckIntervalMs)
+    }
+
+    /**
+     * Recheck the tracked views within [scrolledContainers] whose on-screen rect changed since
+     * they were last checked. Views that didn't move can't have changed visibility, so they are skipped.
+     */
+    private fun checkScrolledImpressions() {
+        if (scrolledContainers.isEmpty()) return
+        val start = SystemClock.elapsedRealtimeNanos()
+        Trace.beginSection("SnowplowTracker.checkImpressions")
+        val batch = mutableListOf<SelfDescribing>()
+        impressionBatch = batch
+        try {
+            // Only walk up from tracked views, rather than down through every view in the containers.
+            for (view in impressionComponents.keys.toList()) {
+                if (!view.isWithinAny(scrolledContainers)) continue
+                if (view.hasSameVisibleRectAsLastCheck()) {
+                    impressionCheckStats.viewsSkipped++
+                } else {
+                    impressionCheckStats.viewsChecked++
+                    checkImpressions(view)
+                }
             }
+        } finally {
+            impressionBatch = null
+            scrolledContainers.clear()
+            Trace.endSection()
         }
+        for (event in batch) {
+            tracker.trackAndLog(event)
+        }
+        impressionCheckStats.impressions += batch.size
+        impressionCheckStats.onPass(SystemClock.elapsedRealtimeNanos() - start)
+    }
+
+    private fun View.isWithinAny(containers: Set<ViewGroup>): Boolean {
+        var parent = parent
+        while (parent is ViewGroup) {
+            if (parent in containers) return true
+            parent = parent.parent
+        }
+        return false
+    }
+
+    /** Updates the recorded rect and returns true if it didn't change. Not laid out views always need a check. */
+    private fun View.hasSameVisibleRectAsLastCheck(): Boolean {
+        if (!isLaidOut || !isAttachedToWindow) {
+            lastVisibleRects.remove(this)
+            return false
+        }
+        if (!getGlobalVisibleRect(visibleRect)) visibleRect.setEmpty()
+        val last = lastVisibleRects[this]
+        if (last == visibleRect) return true
+        if (last == null) lastVisibleRects[this] = Rect(visibleRect) else last.set(visibleRect)
+        return false
     }
 
     init {
@@ -727,6 +820,42 @@ class SnowplowTracker(
     }
 }
 
+/**
+ * Main thread cost of [SnowplowTracker]'s scroll triggered impression checks, since it was created.
+ * Only accessed from the main thread.
+ */
+class ImpressionCheckStats {
+    /** Scroll callbacks received. Each used to trigger a full check of the scrolled container. */
+    var scrollEvents = 0L
+        internal set
+    /** Coalesced passes actually run. */
+    var passes = 0L
+        private set
+    /** Tracked views whose requirements were checked. */
+    var viewsChecked = 0L
+        internal set
+    /** Tracked views skipped because they hadn't moved since their last check. */
+    var viewsSkipped = 0L
+        internal set
+    /** Impression events sent from passes. */
+    var impressions = 0L
+        internal set
+    var totalNanos = 0L
+        private set
+    var maxPassNanos = 0L
+        private set
+
+    internal fun onPass(nanos: Long) {
+        passes++
+        totalNanos += nanos
+        if (nanos > maxPassNanos) maxPassNanos = nanos
+    }
+
+    override fun toString() = "ImpressionCheckStats(scrollEvents=$scrollEvents, passes=$passes, " +
+            "viewsChecked=$viewsChecked, viewsSkipped=$viewsSkipped, impressions=$impressions, " +
+            "totalMs=${totalNanos / 1_000_000.0}, maxPassMs=${maxPassNanos / 1_000_000.0})"
+}
+
 private fun UiEntityable.Type.toSnowplowUiType() = when (this) {
     UiEntityable.Type.BUTTON -> UiEntityType.BUTTON
     UiEntityable.Type.DIALOG -> UiEntityType.DIALOG
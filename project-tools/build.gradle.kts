@@ -10,6 +10,9 @@ dependencies {
     kapt(Deps.Picocli.codeGen)
 
     implementation(Deps.Commons.IO.commonsIo)
+
+    testImplementation(libs.kotlin.test)
+    testImplementation(libs.kotlin.junit)
 }
 
 registerJarTask(
@@ -0,0 +1,149 @@
+package com.pocket.tools
+
+import picocli.CommandLine.*
+import java.io.File
+import java.util.concurrent.Callable
+
+/**
+ * Renders a trace written by `com.pocket.util.java.StartupTrace` as a startup report.
+ *
+ * To get one, cold start a debug build, wait for the list to load and pull the file from the app's cache dir:
+ * ```
+ * adb shell run-as <application id> cat cache/startup.trace > startup.trace
+ * ```
+ */
+@Command(
+    name = "startupTrace",
+    description = ["Prints the critical path and a breakdown of spans from a startup trace file"],
+    mixinStandardHelpOptions = true,
+)
+class StartupTraceReport : Callable<Unit> {
+
+    @Parameters(index = "0", paramLabel = "TRACE_FILE")
+    lateinit var file: File
+
+    @Option(names = ["--min"], description = ["Hide spans shorter than this many milliseconds from the breakdown. Default: \${DEFAULT-VALUE}"])
+    var minMillis: Double = 0.0
+
+    override fun call() {
+        print(report(parse(file.readLines()), minMillis))
+    }
+}
+
+/** Untraced time shorter than this many microseconds is left out of the critical path. */
+private const val MIN_GAP = 100L
+
+/** A line of the trace file. Times are microseconds since the process started. */
+internal data class Span(
+    val index: Int,
+    val parent: Int,
+    val start: Long,
+    val duration: Long,
+    val allocations: Long,
+    val async: Boolean,
+    val thread: String,
+    val name: String,
+) {
+    val end get() = start + duration
+}
+
+/** A span on the critical path, or a gap where nothing was traced if [span] is null. */
+internal data class Step(val span: Span?, val start: Long, val end: Long, val steps: List<Step>)
+
+internal fun parse(lines: List<String>): List<Span> = lines
+    .filter { it.isNotBlank() && !it.startsWith("#") }
+    .map { line ->
+        val columns = line.split('\t', limit = 8)
+        Span(
+            index = columns[0].toInt(),
+            parent = columns[1].toInt(),
+            start = columns[2].toLong(),
+            duration = columns[3].toLong(),
+            allocations = columns[4].toLong(),
+            async = columns[5] == "1",
+            thread = columns[6],
+            name = columns[7],
+        )
+    }
+
+/**
+ * Works backwards from [to] to [from]: the step before a point in time is whichever span started before it
+ * and kept running the closest to it, preferring the outermost. Each step is then broken down the same way,
+ * using the spans that ran within it on its thread, or on any thread for async spans, since those are waiting on other work.
+ * Gaps between steps are included as untraced time, unless nothing within a span was traced.
+ *
+ * @param spans The spans that can be steps, already limited to those within [from] and the end of the span being broken down.
+ * @param path The spans already on the path to this point, which can't be steps again.
+ */
+internal fun criticalPath(spans: List<Span>, from: Long, to: Long, path: Set<Span> = emptySet()): List<Step> {
+    val steps = mutableListOf<Step>()
+    var t = to
+    while (t > from) {
+        val span = spans
+            .filter { it.start < t && it !in path }
+            .maxWithOrNull(compareBy<Span>({ minOf(it.end, t) }, { -it.start }))
+            ?: break
+        val end = minOf(span.end, t)
+        if (end < t - MIN_GAP) steps.add(Step(null, end, t, emptyList()))
+        val within = spans.filter { it.start >= span.start && it.end <= span.end && (span.async || it.thread == span.thread) }
+        steps.add(Step(span, span.start, end, criticalPath(within, span.start, end, path + span)))
+        t = span.start
+    }
+    if (steps.none { it.span != null }) return emptyList()
+    if (t > from + MIN_GAP) steps.add(Step(null, from, t, emptyList()))
+    return steps.reversed()
+}
+
+/** Time in a span not covered by the spans nested directly in it. */
+internal fun selfTime(span: Span, spans: List<Span>): Long {
+    var covered = 0L
+    var coveredTo = span.start
+    spans.filter { it.parent == span.index }.sortedBy { it.start }.forEach {
+        val start = maxOf(it.start, coveredTo)
+        val end = minOf(it.end, span.end)
+        if (end > start) {
+            covered += end - start
+            coveredTo = end
+        }
+    }
+    return span.duration - covered
+}
+
+internal fun report(spans: List<Span>, minMillis: Double = 0.0): String = buildString {
+    if (spans.isEmpty()) {
+        appendLine("No spans in this trace")
+        return@buildString
+    }
+    val total = spans.maxOf { it.end }
+    appendLine("Startup: ${ms(total)} from process start to the end of the last span, ${spans.size} spans")
+    appendLine()
+
+    appendLine("Critical path")
+    appendLine(String.format("%10s %10s %6s  %s", "start", "time", "share", "span"))
+    fun path(steps: List<Step>, depth: Int) {
+        steps.forEach { step ->
+            val name = step.span?.let { "${it.name} [${it.thread}]" } ?: "(untraced)"
+            val time = step.end - step.start
+            appendLine(String.format("%10s %10s %5.1f%%  %s%s", ms(step.start), ms(time), time * 100.0 / total, "  ".repeat(depth), name))
+            path(step.steps, depth + 1)
+        }
+    }
+    path(criticalPath(spans, 0, total), 0)
+    appendLine()
+
+    appendLine("Spans")
+    appendLine(String.format("%10s %10s %10s %12s  %-24s %s", "start", "duration", "self", "allocations", "thread", "span"))
+    val children = spans.groupBy { it.parent }
+    fun tree(parent: Int, depth: Int) {
+        children[parent].orEmpty().sortedBy { it.start }.forEach { span ->
+            if (span.duration / 1000.0 >= minMillis) {
+                val allocations = if (span.allocations >= 0) span.allocations.toString() else "-"
+                appendLine(String.format("%10s %10s %10s %12s  %-24s %s%s", ms(span.start), ms(span.duration), ms(selfTime(span, spans)), allocations, span.thread, "  ".repeat(depth), span.name))
+            }
+            tree(span.index, depth + 1)
+        }
+    }
+    tree(-1, 0)
+}
+
+private fun ms(micros: Long) = String.format("%.1fms", micros / 1000.0)
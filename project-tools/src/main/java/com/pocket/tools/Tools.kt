@@ -23,6 +23,7 @@ fun main(args: Array<String>) : Unit = exitProcess(CommandLine(Tools()).execute(
     mixinStandardHelpOptions = true,
     subcommands = [
         UpdateBuildVersionForRelease::class,
+        StartupTraceReport::class,
     ]
 )
 class Tools
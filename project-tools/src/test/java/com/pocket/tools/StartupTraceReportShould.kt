@@ -0,0 +1,84 @@
+package com.pocket.tools
+
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class StartupTraceReportShould {
+
+    /** A cold start where the list's first load waits on a restore running on another thread. Times are in microseconds. */
+    private val trace = parse("""
+        # pocket startup trace 1
+        0	-1	0	1000	-1	0	main	process start
+        1	-1	1000	5000	-1	0	main	App.onCreate
+        2	1	1500	2000	1200	0	main	inject
+        3	1	4000	1000	-1	0	main	AppSync
+        4	-1	6500	3000	-1	1	main	first Saves bind
+        5	-1	7000	1500	-1	0	pocket-bg	MutableSpace restore
+    """.trimIndent().lines())
+
+    @Test
+    fun `parse every column`() {
+        assertEquals(6, trace.size)
+        assertEquals(Span(2, 1, 1500, 2000, 1200, false, "main", "inject"), trace[2])
+        assertTrue(trace[4].async)
+        assertEquals(3500, trace[2].end)
+    }
+
+    @Test
+    fun `follow the critical path back from the last span`() {
+        assertEquals(listOf(
+            "process start 0-1000",
+            "App.onCreate 1000-6000",
+            "  (untraced) 1000-1500",
+            "  inject 1500-3500",
+            "  (untraced) 3500-4000",
+            "  AppSync 4000-5000",
+            "  (untraced) 5000-6000",
+            "(untraced) 6000-6500",
+            "first Saves bind 6500-9500",
+            "  (untraced) 6500-7000",
+            "  MutableSpace restore 7000-8500",
+            "  (untraced) 8500-9500",
+        ), describe(criticalPath(trace, 0, 9500)))
+    }
+
+    @Test
+    fun `only break spans down by work on their own thread`() {
+        val spans = parse(listOf(
+            "0\t-1\t0\t1000\t-1\t0\tmain\tonCreate",
+            "1\t-1\t200\t500\t-1\t0\tbackground\tnot within onCreate's thread",
+        ))
+        assertEquals(listOf("onCreate 0-1000"), describe(criticalPath(spans, 0, 1000)))
+    }
+
+    @Test
+    fun `prefer the outermost span and leave out short gaps`() {
+        val spans = parse(listOf(
+            "0\t-1\t0\t1000\t-1\t0\tmain\touter",
+            "1\t0\t50\t950\t-1\t0\tmain\tinner",
+        ))
+        assertEquals(listOf("outer 0-1000", "  inner 50-1000"), describe(criticalPath(spans, 0, 1000)))
+    }
+
+    @Test
+    fun `count self time as what nested spans don't cover`() {
+        assertEquals(2000, selfTime(trace[1], trace))
+        assertEquals(2000, selfTime(trace[2], trace))
+        assertEquals(3000, selfTime(trace[4], trace), "spans on other threads aren't nested in async spans")
+    }
+
+    @Test
+    fun `not count nested time past the end of a span`() {
+        val spans = parse(listOf(
+            "0\t-1\t0\t1000\t-1\t0\tmain\tparent",
+            "1\t0\t100\t500\t-1\t0\tmain\tfirst",
+            "2\t0\t800\t400\t-1\t0\tmain\tended after its parent",
+        ))
+        assertEquals(300, selfTime(spans[0], spans))
+    }
+
+    private fun describe(steps: List<Step>, depth: Int = 0): List<String> = steps.flatMap {
+        listOf("${"  ".repeat(depth)}${it.span?.name ?: "(untraced)"} ${it.start}-${it.end}") + describe(it.steps, depth + 1)
+    }
+}
@@ -20,6 +20,7 @@ include(":sync-gen")
 include(":sync-android")
 include(":sync-pocket")
 include(":sync-pocket-android")
+include(":sync-benchmarks")
 include(":analytics")
 include(":sync-parser")
 
@@ -7,12 +7,19 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import com.pocket.sync.source.JsonConfig;
 import com.pocket.sync.spec.Syncable;
 import com.pocket.sync.thing.Thing;
+import com.pocket.sync.value.binary.ByteReader;
+import com.pocket.sync.value.binary.ByteWriter;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Utility for parcelling sync values like {@link Thing}, {@link EnumType} to and from a {@link Bundle}.
+ * <p>
+ * Things are put as json by default. For large things, or lists of them, use the putCompressed methods instead.
+ * They write the {@link Thing#compress(ByteWriter)} bytes, which are smaller and much faster to read back than parsing json.
+ * Read those back with the get methods that take both a {@link ByteTypeParser} and a {@link SyncableParser},
+ * which also still read json, such as from an intent created before switching to compressed.
  */
 public class Parceller {
 
@@ -50,6 +57,39 @@ public class Parceller {
     }
 
 
+    // Put compressed Things
+
+    /**
+     * Put this thing into the bundle at the provided key in its compressed form.
+     * Read it back later with {@link #get(Bundle, String, ByteTypeParser, SyncableParser)}.
+     * <p>
+     * <b>WARNING</b> Like {@link Thing#compress(ByteWriter)}, this includes dangerous fields, which json leaves out,
+     * so only use it for values that stay within the app.
+     */
+    public static void putCompressed(Bundle into, String key, Thing thing) {
+        into.putByteArray(key, toBytes(thing));
+    }
+
+    /**
+     * Put this list of things into the bundle at the provided key in their compressed form.
+     * Read it back later with {@link #getList(Bundle, String, ByteTypeParser, SyncableParser)}.
+     * See the warning on {@link #putCompressed(Bundle, String, Thing)}.
+     */
+    public static void putCompressed(Bundle into, String key, List<? extends Thing> things) {
+        into.putByteArray(key, toBytes(things));
+    }
+
+    /** Same as {@link #putCompressed(Bundle, String, Thing)} but for intent extras. */
+    public static void putCompressed(Intent into, String key, Thing thing) {
+        into.putExtra(key, toBytes(thing));
+    }
+
+    /** Same as {@link #putCompressed(Bundle, String, List)} but for intent extras. */
+    public static void putCompressed(Intent into, String key, List<? extends Thing> things) {
+        into.putExtra(key, toBytes(things));
+    }
+
+
     // Put StringEnums
 
     /**
@@ -103,6 +143,50 @@ public class Parceller {
     }
 
 
+    // Compressed Thing conversions
+
+    private static byte[] toBytes(Thing thing) {
+        if (thing == null) return null;
+        ByteWriter out = new ByteWriter();
+        thing.compress(out);
+        return out.readByteArray();
+    }
+
+    /** In the same format as {@link ByteReader#readList(ByteTypeParser, boolean)} with nullable elements. */
+    private static byte[] toBytes(List<? extends Thing> things) {
+        if (things == null) return null;
+        ByteWriter out = new ByteWriter();
+        out.writeInt(things.size());
+        for (Thing thing : things) {
+            out.writeBoolean(thing != null);
+            if (thing != null) thing.compress(out);
+        }
+        return out.readByteArray();
+    }
+
+    /** Reads what either a put or a putCompressed method wrote. */
+    private static <T extends Thing> T fromValue(Object value, ByteTypeParser<T> bytes, SyncableParser<T> json) {
+        if (value instanceof byte[]) {
+            return bytes.create(new ByteReader((byte[]) value));
+        } else if (value instanceof String) {
+            return fromString((String) value, json);
+        } else {
+            return null;
+        }
+    }
+
+    /** Reads what either a put or a putCompressed method wrote for a list. */
+    private static <T extends Thing> ArrayList<T> fromListValue(Object value, ByteTypeParser<T> bytes, SyncableParser<T> json) {
+        if (value instanceof byte[]) {
+            return new ArrayList<>(new ByteReader((byte[]) value).readList(bytes, true));
+        } else if (value instanceof String[]) {
+            return fromStringArray((String[]) value, json);
+        } else {
+            return null;
+        }
+    }
+
+
     // StringEnum conversions
 
     private static String toString(StringEnum value) {
@@ -145,6 +229,38 @@ public class Parceller {
     }
 
 
+    // Get compressed Things
+
+    /**
+     * Reads a thing from a bundle, previously added with {@link #putCompressed(Bundle, String, Thing)}, or as json with {@link #put(Bundle, String, Thing)}.
+     * @param bytes A byte creator for the expected type. Generated things have this as a public static BYTE_CREATOR field. For example Item.BYTE_CREATOR
+     * @param json A json creator for the expected type, see {@link #get(Bundle, String, SyncableParser)}
+     * @return The thing or null if the bundle is null or the key is not set or contains a null value.
+     */
+    public static <T extends Thing> T get(Bundle from, String key, ByteTypeParser<T> bytes, SyncableParser<T> json) {
+        if (from == null) return null;
+        return fromValue(from.get(key), bytes, json);
+    }
+
+    /** Same as {@link #get(Bundle, String, ByteTypeParser, SyncableParser)} but will read from the intent's extras. If the intent or its extras are null this returns null. */
+    public static <T extends Thing> T get(Intent from, String key, ByteTypeParser<T> bytes, SyncableParser<T> json) {
+        if (from == null || from.getExtras() == null) return null;
+        return fromValue(from.getExtras().get(key), bytes, json);
+    }
+
+    /** Reads a list written by {@link #putCompressed(Bundle, String, List)} or {@link #put(Bundle, String, List)}. See {@link #get(Bundle, String, ByteTypeParser, SyncableParser)}. */
+    public static <T extends Thing> ArrayList<T> getList(Bundle from, String key, ByteTypeParser<T> bytes, SyncableParser<T> json) {
+        if (from == null) return null;
+        return fromListValue(from.get(key), bytes, json);
+    }
+
+    /** Same as {@link #getList(Bundle, String, ByteTypeParser, SyncableParser)} but will read from the intent's extras. */
+    public static <T extends Thing> ArrayList<T> getList(Intent from, String key, ByteTypeParser<T> bytes, SyncableParser<T> json) {
+        if (from == null || from.getExtras() == null) return null;
+        return fromListValue(from.getExtras().get(key), bytes, json);
+    }
+
+
     // Get String Enums
 
     public static <T extends StringEnum> T getStringEnum(Bundle from, String key, TypeParser<T> creator) {
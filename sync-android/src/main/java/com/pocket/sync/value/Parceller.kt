@@ -9,9 +9,22 @@ fun Bundle.putThing(key: String, thing: Thing) {
     Parceller.put(this, key, thing)
 }
 
+/** See [Parceller.putCompressed]. Read it with the [thingArg] that takes a [ByteTypeParser]. */
+fun Bundle.putCompressedThing(key: String, thing: Thing) {
+    Parceller.putCompressed(this, key, thing)
+}
+
 fun <T : Thing> thingArg(
     key: String,
     creator: SyncableParser<T>,
 ) = ReadOnlyProperty<Fragment, T> { thisRef, _ ->
     Parceller.get(thisRef.requireArguments(), key, creator)
 }
+
+fun <T : Thing> thingArg(
+    key: String,
+    bytes: ByteTypeParser<T>,
+    json: SyncableParser<T>,
+) = ReadOnlyProperty<Fragment, T> { thisRef, _ ->
+    Parceller.get(thisRef.requireArguments(), key, bytes, json)
+}
@@ -0,0 +1,100 @@
+import org.jetbrains.kotlin.gradle.tasks.KotlinCompile
+
+plugins {
+    kotlinJvm()
+}
+
+/**
+ * Generates the things in src/main/graphql, which exercise parts of the sync engine the Pocket things don't, such as long cascades of reactions.
+ * Uses the same generator as sync-pocket-android's unit tests, which the sync-gen:syncTestsGenJarPublish gradle task puts in that module.
+ */
+val syncGenOutput = layout.buildDirectory.dir("generated/sources/sync")
+val syncGen = tasks.register<JavaExec>("syncGen") {
+    val jarFile = file("../sync-pocket-android/sync-tests-class-generator.jar")
+    val schemaDir = "src/main/graphql"
+    val usageFile = "sync-benchmarks-usage.txt"
+    classpath = files(jarFile)
+    args(schemaDir, syncGenOutput.get().asFile.path, usageFile)
+    doFirst {
+        delete(syncGenOutput)
+    }
+    inputs.file(jarFile)
+    inputs.dir(schemaDir)
+    inputs.file(usageFile)
+    outputs.dir(syncGenOutput)
+    outputs.file(usageFile)
+}
+
+kotlin {
+    tasks.withType<KotlinCompile> {
+        dependsOn(syncGen)
+    }
+}
+
+sourceSets {
+    main {
+        java.srcDir(syncGenOutput)
+    }
+}
+
+dependencies {
+    implementation(projects.syncPocket)
+
+    implementation(libs.jmh.core)
+    annotationProcessor(libs.jmh.generator.annprocess)
+}
+
+/**
+ * Runs the benchmarks and writes the results to build/reports/jmh/results.json.
+ * Pass JMH arguments with -Pjmh, for example -Pjmh="SpaceBenchmark -p size=1000" to only run some of them.
+ */
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the sync engine JMH benchmarks."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+    args("-rf", "json", "-rff", results.get().asFile.absolutePath)
+    providers.gradleProperty("jmh").orNull?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
+
+/**
+ * Compares two results files from the jmh task, such as one from before and one after a change.
+ * Usage: -Pbaseline=path/to/before.json -Pcandidate=path/to/after.json
+ */
+tasks.register<JavaExec>("jmhCompare") {
+    group = "benchmark"
+    description = "Prints the difference between two JMH results files."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.pocket.sync.benchmarks.CompareResults")
+    args(
+        providers.gradleProperty("baseline").orNull ?: "",
+        providers.gradleProperty("candidate").orNull ?: layout.buildDirectory.file("reports/jmh/results.json").get().asFile.absolutePath
+    )
+}
+
+/**
+ * Prints how much of each api response items keep after the usage file trims unused fields, how much heap a space
+ * restored with them uses and how long they take to parse.
+ * Usage: -Psize=10000
+ */
+tasks.register<JavaExec>("trimReport") {
+    group = "benchmark"
+    description = "Prints the size of items and of the restored space before and after trimming unused fields."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.pocket.sync.benchmarks.TrimReport")
+    args(providers.gradleProperty("size").orNull ?: "")
+}
+
+/**
+ * Prints how much heap a space restored with a library uses with and without interning fields marked with @intern.
+ * Usage: -Psize=10000
+ */
+tasks.register<JavaExec>("internReport") {
+    group = "benchmark"
+    description = "Prints the heap of the restored space with string interning off and on."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.pocket.sync.benchmarks.InternReport")
+    args(providers.gradleProperty("size").orNull ?: "")
+}
@@ -0,0 +1,73 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sync.space.Holder;
+import com.pocket.sync.space.mutable.MutableSpace;
+import com.pocket.sync.test.generated.thing.CascadeLink;
+import com.pocket.sync.test.generated.thing.Unrelated;
+import com.pocket.sync.thing.Thing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imprinting a chain of {@link CascadeLink}s into a {@link MutableSpace}, which takes a pass of reactions per link.
+ * Each imprint also includes a library's worth of {@link Unrelated} changes, which the imprint's diff collects along with every pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CascadeBenchmark {
+
+	private static final Holder HOLDER = Holder.persistent("benchmark");
+
+	@Param({"1", "25", "100", "200"})
+	public int depth;
+
+	@Param({"10000"})
+	public int others;
+
+	private List<Thing> things;
+	private MutableSpace space;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		things = new ArrayList<>(depth + others);
+		for (int i = 0; i < depth; i++) {
+			things.add(new CascadeLink.Builder().id("link" + i).depth(i).build());
+		}
+		for (int i = 0; i < others; i++) {
+			things.add(new Unrelated.Builder().id("other" + i).state("state").build());
+		}
+	}
+
+	/** A new space for every imprint, since imprinting the same things again wouldn't change anything. */
+	@Setup(Level.Invocation)
+	public void newSpace() {
+		space = new MutableSpace().setSpec(new CascadeSpec());
+		space.remember(HOLDER, things.toArray(new Thing[0]));
+	}
+
+	@Benchmark
+	public MutableSpace imprint() {
+		space.imprint(things);
+		return space;
+	}
+
+}
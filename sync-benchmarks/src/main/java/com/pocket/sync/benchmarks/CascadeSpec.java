@@ -0,0 +1,43 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sync.action.Action;
+import com.pocket.sync.source.subscribe.Changes;
+import com.pocket.sync.space.Diff;
+import com.pocket.sync.space.Space;
+import com.pocket.sync.test.generated.SyncTestsApplier;
+import com.pocket.sync.test.generated.SyncTestsBaseSpec;
+import com.pocket.sync.test.generated.SyncTestsDerives;
+import com.pocket.sync.test.generated.thing.CascadeLink;
+import com.pocket.sync.thing.Thing;
+
+/**
+ * The spec of the things in src/main/graphql, see {@link CascadeBenchmark}.
+ */
+public class CascadeSpec extends SyncTestsBaseSpec {
+
+	public CascadeSpec() {
+		super(new Deriver(), new SyncTestsApplier() {
+			@Override
+			protected void unknown(Action action, Space space) {
+
+			}
+		});
+	}
+
+	private static class Deriver extends SyncTestsDerives {
+
+		@Override
+		public Integer derive__CascadeLink__level(CascadeLink t, Diff diff, Space.Selector selector) {
+			if (t.level != null) return t.level;
+			if (t.depth == null || t.depth == 0) return 0;
+			boolean previousHasLevel = !diff.find(Changes.of(CascadeLink.class, l -> l.level != null && l.depth != null && l.depth == t.depth - 1)).isEmpty();
+			return previousHasLevel ? t.depth : null;
+		}
+
+		@Override
+		public <T extends Thing> T derive(T thing, Space.Selector space) {
+			return null;
+		}
+	}
+
+}
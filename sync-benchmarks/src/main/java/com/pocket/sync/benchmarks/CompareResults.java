@@ -0,0 +1,72 @@
+package com.pocket.sync.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pocket.util.java.JsonUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints how the scores changed between two results files written by the jmh task, such as one from before a change and one from after.
+ * Changes bigger than the combined error of both runs are marked with a *.
+ * <p>
+ * Usage: CompareResults baseline.json candidate.json
+ */
+public class CompareResults {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2 || args[0].isEmpty() || args[1].isEmpty()) {
+			System.err.println("Usage: CompareResults baseline.json candidate.json");
+			System.exit(1);
+			return;
+		}
+		Map<String, JsonNode> baseline = read(new File(args[0]));
+		Map<String, JsonNode> candidate = read(new File(args[1]));
+
+		for (Map.Entry<String, JsonNode> e : candidate.entrySet()) {
+			JsonNode after = e.getValue();
+			JsonNode before = baseline.get(e.getKey());
+			String unit = after.get("scoreUnit").asText();
+			if (before == null) {
+				System.out.printf("  %-60s %14s -> %12.3f %s (new)%n", e.getKey(), "", after.get("score").asDouble(), unit);
+				continue;
+			}
+			double from = before.get("score").asDouble();
+			double to = after.get("score").asDouble();
+			double error = error(before) + error(after);
+			double change = from != 0 ? (to - from) / from * 100 : 0;
+			System.out.printf("%s %-60s %12.3f -> %12.3f %s %+7.1f%%%n",
+					Math.abs(to - from) > error ? "*" : " ", e.getKey(), from, to, unit, change);
+		}
+		for (String removed : baseline.keySet()) {
+			if (!candidate.containsKey(removed)) System.out.printf("  %-60s (removed)%n", removed);
+		}
+	}
+
+	/** @return The primary metric of each result, keyed by the benchmark's name and params. */
+	private static Map<String, JsonNode> read(File file) throws IOException {
+		Map<String, JsonNode> results = new LinkedHashMap<>();
+		for (JsonNode result : JsonUtil.getObjectMapper().readTree(file)) {
+			StringBuilder key = new StringBuilder(result.get("benchmark").asText().replace(CompareResults.class.getPackage().getName() + ".", ""));
+			JsonNode params = result.get("params");
+			if (params != null) {
+				Iterator<Map.Entry<String, JsonNode>> it = params.fields();
+				while (it.hasNext()) {
+					Map.Entry<String, JsonNode> p = it.next();
+					key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText());
+				}
+			}
+			results.put(key.toString(), result.get("primaryMetric"));
+		}
+		return results;
+	}
+
+	private static double error(JsonNode metric) {
+		double error = metric.path("scoreError").asDouble(0);
+		return Double.isNaN(error) ? 0 : error;
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sdk.api.generated.enums.ItemStatus;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.source.subscribe.Changes;
+import com.pocket.sync.space.Diff;
+import com.pocket.sync.space.DiffAccumulator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building {@link Diff}s of a library's worth of changes, merging them and finding changes in them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DiffBenchmark {
+
+	@Param({"1000", "10000", "50000"})
+	public int size;
+
+	private List<Item> items;
+	private List<Item> archived;
+	private Diff added;
+	private Diff changed;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		PocketSpec spec = Library.spec();
+		items = Library.items(spec, size);
+		archived = new ArrayList<>(size);
+		for (Item item : items) {
+			archived.add(item.builder().status(ItemStatus.ARCHIVED).build());
+		}
+		added = build();
+		changed = changed();
+	}
+
+	@Benchmark
+	public Diff build() {
+		Diff.Builder diff = new Diff.Builder();
+		for (Item item : items) {
+			diff.added(item);
+		}
+		return diff.build();
+	}
+
+	@Benchmark
+	public Diff changed() {
+		Diff.Builder diff = new Diff.Builder();
+		for (int i = 0; i < size; i++) {
+			diff.changed(items.get(i), archived.get(i));
+		}
+		return diff.build();
+	}
+
+	/** Merges two passes of changes with {@link Diff#add(Diff)}, which copies. */
+	@Benchmark
+	public Diff add() {
+		return added.add(changed);
+	}
+
+	/** Merges two passes of changes with a {@link DiffAccumulator}, like imprinting does. */
+	@Benchmark
+	public Diff accumulate() {
+		DiffAccumulator diff = new DiffAccumulator();
+		diff.add(added);
+		diff.add(changed);
+		return diff.freeze();
+	}
+
+	/** Includes grouping the changes by type, since a new Diff is published after every transaction. */
+	@Benchmark
+	public Object findByType() {
+		return new Diff(changed.changes, changed.invalidated).find(Changes.of(Item.class, item -> item.status == ItemStatus.ARCHIVED));
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.util.java.FileLocks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed reads and writes of image files from several threads, like the image cache does while a list scrolls,
+ * through {@link FileLocks}' striped read/write locks and through the {@link GlobalFileLocks} they replaced.
+ * Each lock is held for a bit of work that stands in for the file access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(8)
+public class FileLocksBenchmark {
+
+	/** Roughly how much work is done while holding a lock, in {@link Blackhole#consumeCPU(long)} tokens. */
+	private static final long WORK = 200;
+
+	@Param({"0", "5", "20", "50"})
+	public int writePercent;
+
+	@Param({"1", "64"})
+	public int paths;
+
+	@Param({"readWrite", "global"})
+	public String locking;
+
+	private String[] files;
+	private FileLocks readWrite;
+	private GlobalFileLocks global;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		files = new String[paths];
+		for (int i = 0; i < paths; i++) {
+			files[i] = "/data/pocket/assets/image" + i + ".jpg";
+		}
+		readWrite = new FileLocks();
+		global = new GlobalFileLocks();
+	}
+
+	@Benchmark
+	public void access() throws InterruptedException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String file = files[random.nextInt(paths)];
+		boolean write = random.nextInt(100) < writePercent;
+		if (locking.equals("global")) {
+			GlobalFileLocks.Lock lock = global.lock(file);
+			try {
+				Blackhole.consumeCPU(WORK);
+			} finally {
+				lock.release();
+			}
+		} else {
+			FileLocks.Lock lock = write ? readWrite.lock(file) : readWrite.readLock(file);
+			try {
+				Blackhole.consumeCPU(WORK);
+			} finally {
+				lock.release();
+			}
+		}
+	}
+
+}
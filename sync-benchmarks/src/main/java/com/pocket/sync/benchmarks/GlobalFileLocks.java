@@ -0,0 +1,56 @@
+package com.pocket.sync.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * How {@link com.pocket.util.java.FileLocks} worked before it had read locks and stripes, as a baseline for {@link FileLocksBenchmark}.
+ * Every lock is exclusive and every lock and release goes through one monitor shared by all paths.
+ */
+final class GlobalFileLocks {
+
+	private final Map<String, ArrayList<Lock>> locks = new HashMap<>();
+	private final ArrayList<ArrayList<Lock>> recycled = new ArrayList<>();
+
+	Lock lock(String path) throws InterruptedException {
+		Lock lock = new Lock(path);
+		Lock held;
+		synchronized (locks) {
+			ArrayList<Lock> queue = locks.get(path);
+			if (queue == null) {
+				queue = recycled.isEmpty() ? new ArrayList<>() : recycled.remove(0);
+				queue.clear();
+				locks.put(path, queue);
+			}
+			held = !queue.isEmpty() ? queue.get(queue.size() - 1) : null;
+			queue.add(lock);
+		}
+		if (held != null) held.latch.await();
+		return lock;
+	}
+
+	final class Lock {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+		private final String file;
+
+		private Lock(String file) {
+			this.file = file;
+		}
+
+		void release() {
+			synchronized (locks) {
+				if (latch.getCount() <= 0) return;
+				ArrayList<Lock> queue = locks.get(file);
+				if (queue != null) {
+					queue.remove(this);
+					if (queue.isEmpty()) recycled.add(locks.remove(file));
+				}
+				latch.countDown();
+			}
+		}
+	}
+
+}
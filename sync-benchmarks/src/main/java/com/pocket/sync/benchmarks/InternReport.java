@@ -0,0 +1,75 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.space.mutable.MutableSpace;
+import com.pocket.sync.space.persist.MemoryStorage;
+import com.pocket.sync.value.BaseModeller;
+import com.pocket.sync.value.StringInterner;
+
+import java.util.List;
+
+/**
+ * Prints the heap used by a {@link MutableSpace} restored with a library from a {@link MemoryStorage}, like
+ * {@link StorageBenchmark}, with {@link BaseModeller#setInterner(StringInterner)} off and on.
+ * Restoring uncompresses every item, so without interning each one gets its own copy of fields marked with @intern,
+ * such as the domain, mime type and tags.
+ * <p>
+ * Only the restore is measured, the storage is persisted beforehand and shared by both. Heap sizes are measured between
+ * forced garbage collections, so expect some noise between runs.
+ * <p>
+ * Usage: InternReport [size]
+ */
+public class InternReport {
+
+	/** The size the app uses, see PocketSingleton. */
+	private static final int INTERNED_STRINGS = 4096;
+
+	public static void main(String[] args) {
+		int size = args.length > 0 && !args[0].isEmpty() ? Integer.parseInt(args[0]) : 10_000;
+		PocketSpec spec = Library.spec();
+		List<Item> items = Library.items(spec, size);
+		MemoryStorage storage = persist(spec, items);
+		Item first = items.get(0);
+
+		restoredBytes(spec, storage, first); // Warm up, so class loading isn't counted in the first measurement
+		BaseModeller.setInterner(null);
+		long plain = restoredBytes(spec, storage, first);
+		BaseModeller.setInterner(new StringInterner(INTERNED_STRINGS));
+		long interned = restoredBytes(spec, storage, first);
+		BaseModeller.setInterner(null);
+
+		System.out.printf("%d items%n", size);
+		System.out.printf("%-12s %12s%n", "", "bytes/item");
+		System.out.printf("%-12s %12d  heap of the restored space%n", "not interned", plain / size);
+		System.out.printf("%-12s %12d  heap of the restored space, %.1f%% smaller%n", "interned", interned / size, 100 - interned * 100.0 / plain);
+	}
+
+	/** @return The bytes of heap used by a space restored from this storage, not counting the storage itself. */
+	private static long restoredBytes(PocketSpec spec, MemoryStorage storage, Item first) {
+		long before = usedHeap();
+		MutableSpace space = new MutableSpace(storage).setSpec(spec);
+		space.get(first); // The space restores during its first transaction.
+		long used = usedHeap() - before;
+		if (space.get(first) == null) throw new AssertionError(); // Also keeps the space reachable until measured
+		return used;
+	}
+
+	/** @return A storage with these items persisted to it by a space, like they would be after a sync. */
+	private static MemoryStorage persist(PocketSpec spec, List<Item> items) {
+		MemoryStorage storage = new MemoryStorage();
+		MutableSpace space = new MutableSpace(storage).setSpec(spec);
+		space.remember(Library.HOLDER, Library.array(items));
+		space.imprint(items);
+		return storage;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
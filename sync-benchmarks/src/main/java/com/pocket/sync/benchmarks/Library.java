@@ -0,0 +1,101 @@
+package com.pocket.sync.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pocket.sdk.api.generated.enums.ItemStatus;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.generated.thing.Tag;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sdk.api.thing.ItemUtil;
+import com.pocket.sdk.api.value.Timestamp;
+import com.pocket.sync.source.JsonConfig;
+import com.pocket.sync.spec.Syncable;
+import com.pocket.sync.space.Holder;
+import com.pocket.sync.thing.Thing;
+import com.pocket.util.java.JsonUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A synthetic Pocket library, for benchmarks to work on something shaped like a real account.
+ * A few domains and tags repeat across most items, like they do in large accounts.
+ * Always produces the same items for the same size, so results can be compared between runs.
+ */
+public final class Library {
+
+	/** No special Json parsing configuration rules, like the tests use. */
+	public static final JsonConfig JSON_CONFIG = Syncable.NO_ALIASES;
+	/** What benchmarks hold the library's items with, so they survive a restore. */
+	public static final Holder HOLDER = Holder.persistent("benchmark");
+
+	private Library() {}
+
+	public static PocketSpec spec() {
+		return new PocketSpec();
+	}
+
+	/**
+	 * @param size How many items to have.
+	 */
+	public static List<Item> items(PocketSpec spec, int size) {
+		List<Item> items = new ArrayList<>(size);
+		long added = 1_500_000_000L;
+		for (int i = 0; i < size; i++) {
+			String domain = "domain" + (i % 50) + ".com";
+			List<Tag> tags = i % 3 == 0
+					? Collections.singletonList(new Tag.Builder().tag("tag" + (i % 20)).build())
+					: Collections.emptyList();
+			items.add(ItemUtil.build("https://" + domain + "/article/" + i, spec)
+					.item_id(String.valueOf(i))
+					.given_title("Article " + i)
+					.resolved_title("A longer title for article " + i)
+					.resolved_domain(domain)
+					.mime_type("text/html")
+					.is_article(true)
+					.word_count(500 + i % 3000)
+					.favorite(i % 10 == 0)
+					.status(i % 4 == 0 ? ItemStatus.ARCHIVED : ItemStatus.UNREAD)
+					.time_added(new Timestamp(added + i * 60L))
+					.tags(tags)
+					.build());
+		}
+		return items;
+	}
+
+	/**
+	 * The items as json, like the v3 api sends them, with some of the fields the app doesn't use and that the
+	 * usage file trims from the generated {@link Item}. Parsing these includes skipping over those fields.
+	 */
+	public static List<byte[]> responses(List<Item> items) throws IOException {
+		ObjectMapper mapper = JsonUtil.getObjectMapper();
+		List<byte[]> responses = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			ObjectNode json = items.get(i).toJson(JSON_CONFIG);
+			json.put("resolved_normal_url", "http://" + json.get("resolved_domain").asText() + "/article/" + i);
+			json.put("domain_id", String.valueOf(i % 50));
+			json.put("origin_domain_id", String.valueOf(i % 50));
+			json.put("response_code", "200");
+			json.put("content_length", String.valueOf(20_000 + i % 5000));
+			json.put("date_resolved", "2017-07-14 02:40:00");
+			json.put("date_published", "2017-07-13 00:00:00");
+			json.put("innerdomain_redirect", "0");
+			json.put("login_required", "0");
+			json.put("lang", i % 5 == 0 ? "es" : "en");
+			json.put("time_first_parsed", "0");
+			json.put("time_to_read", 2 + i % 20);
+			json.put("used_fallback", "0");
+			json.put("has_old_dupes", "0");
+			responses.add(mapper.writeValueAsBytes(json));
+		}
+		return responses;
+	}
+
+	/** @return The items as an array, for the varargs methods of Space. */
+	public static Thing[] array(List<? extends Thing> things) {
+		return things.toArray(new Thing[0]);
+	}
+
+}
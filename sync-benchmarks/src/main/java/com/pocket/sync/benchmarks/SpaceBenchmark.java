@@ -0,0 +1,95 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.generated.thing.Saves;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.space.mutable.MutableSpace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MutableSpace} imprinting a whole library, like a first sync, and looking things up and searching in it afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SpaceBenchmark {
+
+	/** A specific title, a domain most items share one of, something that matches nothing and a single letter that matches everything. */
+	private static final String[] SEARCHES = {"article 1234", "domain7", "zzz", "a"};
+
+	@Param({"1000", "10000", "50000"})
+	public int size;
+
+	private PocketSpec spec;
+	private List<Item> items;
+	private MutableSpace filled;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		spec = Library.spec();
+		items = Library.items(spec, size);
+		filled = new MutableSpace().setSpec(spec);
+		filled.remember(Library.HOLDER, Library.array(items));
+		filled.imprint(items);
+	}
+
+	@Benchmark
+	public MutableSpace imprint(Empty empty) {
+		empty.space.imprint(items);
+		return empty.space;
+	}
+
+	/** Looks up every item by its identity. */
+	@Benchmark
+	public void get(Blackhole bh) {
+		for (Item item : items) {
+			bh.consume(filled.get(item));
+		}
+	}
+
+	/** Looks up one item by a field that isn't part of its identity. */
+	@Benchmark
+	public Object where() {
+		return filled.where(Item.THING_TYPE, "item_id", String.valueOf(size / 2));
+	}
+
+	/** Derives {@link Saves} searches, which find their items through the space's search index, for a few kinds of queries. */
+	@Benchmark
+	public void search(Blackhole bh) {
+		for (String query : SEARCHES) {
+			bh.consume(filled.derive(new Saves.Builder().search(query).build()));
+		}
+	}
+
+	/** A new space for each {@link #imprint(Empty)}, already holding the items so they are kept. */
+	@State(Scope.Thread)
+	public static class Empty {
+		MutableSpace space;
+
+		@Setup(Level.Invocation)
+		public void create(SpaceBenchmark benchmark) {
+			space = new MutableSpace().setSpec(benchmark.spec);
+			space.remember(Library.HOLDER, Library.array(benchmark.items));
+		}
+	}
+
+}
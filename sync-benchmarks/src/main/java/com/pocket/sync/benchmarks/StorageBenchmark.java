@@ -0,0 +1,60 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.space.mutable.MutableSpace;
+import com.pocket.sync.space.persist.MemoryStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link MutableSpace} restoring a library from persistence, like on app start.
+ * Uses {@link MemoryStorage} so it measures the space rebuilding its state rather than disk or database access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StorageBenchmark {
+
+	@Param({"1000", "10000", "50000"})
+	public int size;
+
+	private PocketSpec spec;
+	private MemoryStorage storage;
+	private Item first;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		spec = Library.spec();
+		List<Item> items = Library.items(spec, size);
+		first = items.get(0);
+		storage = new MemoryStorage();
+		MutableSpace space = new MutableSpace(storage).setSpec(spec);
+		space.remember(Library.HOLDER, Library.array(items));
+		space.imprint(items);
+	}
+
+	@Benchmark
+	public Item restore() {
+		// The space restores during its first transaction.
+		return new MutableSpace(storage).setSpec(spec).get(first);
+	}
+
+}
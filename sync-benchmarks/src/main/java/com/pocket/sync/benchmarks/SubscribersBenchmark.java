@@ -0,0 +1,80 @@
+package com.pocket.sync.benchmarks;
+
+import com.pocket.sdk.api.generated.enums.ItemStatus;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.source.subscribe.Changes;
+import com.pocket.sync.source.subscribe.Subscribers;
+import com.pocket.sync.source.threads.Publisher;
+import com.pocket.sync.space.Diff;
+import com.pocket.sync.space.mutable.MutableSpace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Subscribers#publish(Diff)} of a change to every item in a library, such as after a large sync,
+ * to a mix of subscribers like a running app has: some to all items, some to items matching a condition and some to single items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SubscribersBenchmark {
+
+	private static final int SUBSCRIBERS = 50;
+
+	@Param({"1000", "10000", "50000"})
+	public int size;
+
+	private Subscribers subscribers;
+	private Diff diff;
+	private int updates;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		PocketSpec spec = Library.spec();
+		List<Item> items = Library.items(spec, size);
+		MutableSpace space = new MutableSpace().setSpec(spec);
+		subscribers = new Subscribers(space, "benchmark", Publisher.CALLING_THREAD);
+		for (int i = 0; i < SUBSCRIBERS; i++) {
+			switch (i % 3) {
+				case 0: subscribers.add(Changes.of(Item.class), this::onUpdate); break;
+				case 1: subscribers.add(Changes.of(Item.class, item -> item.status == ItemStatus.ARCHIVED), this::onUpdate); break;
+				default: subscribers.add(Changes.of(items.get(i * size / SUBSCRIBERS)), this::onUpdate); break;
+			}
+		}
+		Diff.Builder builder = new Diff.Builder();
+		for (Item item : items) {
+			builder.changed(item, item.builder().status(ItemStatus.ARCHIVED).build());
+		}
+		diff = builder.build();
+	}
+
+	private void onUpdate(Item item) {
+		updates++;
+	}
+
+	@Benchmark
+	public int publish() {
+		// A new Diff each time, since each transaction publishes a new one, so it can't reuse what a previous publish looked up.
+		subscribers.publish(new Diff(diff.changes, diff.invalidated));
+		return updates;
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.pocket.sync.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pocket.sdk.api.generated.enums.ItemStatus;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.generated.thing.Saves;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.value.binary.ByteReader;
+import com.pocket.sync.value.binary.ByteWriter;
+import com.pocket.util.java.JsonUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated code of a thing, for each item in a library: parsing from and writing to json,
+ * compressing and uncompressing, and working out idkeys.
+ * Also rebuilding a thing that holds the whole library as a list, which should share that list rather than copy it.
+ * Run with -prof gc to see how much each of these allocates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ThingBenchmark {
+
+	@Param({"1000", "10000", "50000"})
+	public int size;
+
+	private final ObjectMapper mapper = JsonUtil.getObjectMapper();
+	private JsonFactory factory;
+	private List<Item> items;
+	private List<byte[]> json;
+	private List<byte[]> responses;
+	private List<byte[]> compressed;
+	private Saves saves;
+	private Item replacement;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		PocketSpec spec = Library.spec();
+		factory = mapper.getFactory();
+		items = Library.items(spec, size);
+		json = new ArrayList<>(size);
+		compressed = new ArrayList<>(size);
+		for (Item item : items) {
+			// Parse each separately, like separate responses would, so values aren't shared by the json itself.
+			json.add(mapper.writeValueAsBytes(item.toJson(Library.JSON_CONFIG)));
+			ByteWriter out = new ByteWriter();
+			item.compress(out);
+			compressed.add(out.readByteArray());
+		}
+		responses = Library.responses(items);
+		saves = new Saves.Builder().list(items).build();
+		replacement = items.get(size / 2).builder().status(ItemStatus.ARCHIVED).build();
+	}
+
+	@Benchmark
+	public void parse(Blackhole bh) throws IOException {
+		for (byte[] bytes : json) {
+			bh.consume(Item.from(factory.createParser(bytes), Library.JSON_CONFIG));
+		}
+	}
+
+	/** Like {@link #parse(Blackhole)}, but through a json tree first, which the streaming parser replaced. */
+	@Benchmark
+	public void parseTree(Blackhole bh) throws IOException {
+		for (byte[] bytes : json) {
+			bh.consume(Item.from(mapper.readTree(bytes), Library.JSON_CONFIG));
+		}
+	}
+
+	/** Like {@link #parse(Blackhole)}, but with the fields the app doesn't use that responses also have. */
+	@Benchmark
+	public void parseResponse(Blackhole bh) throws IOException {
+		for (byte[] bytes : responses) {
+			bh.consume(Item.from(factory.createParser(bytes), Library.JSON_CONFIG));
+		}
+	}
+
+	@Benchmark
+	public void serialize(Blackhole bh) throws IOException {
+		for (Item item : items) {
+			bh.consume(mapper.writeValueAsBytes(item.toJson(Library.JSON_CONFIG)));
+		}
+	}
+
+	@Benchmark
+	public void compress(Blackhole bh) {
+		for (Item item : items) {
+			ByteWriter out = new ByteWriter();
+			item.compress(out);
+			bh.consume(out.readByteArray());
+		}
+	}
+
+	@Benchmark
+	public void uncompress(Blackhole bh) {
+		for (byte[] bytes : compressed) {
+			bh.consume(Item.uncompress(new ByteReader(bytes)));
+		}
+	}
+
+	@Benchmark
+	public void idkey(Copies copies, Blackhole bh) {
+		for (Item item : copies.items) {
+			bh.consume(item.idkey());
+		}
+	}
+
+	@Benchmark
+	public Saves rebuildList() {
+		return saves.builder().list(saves.list).build();
+	}
+
+	/** Replaces one item in the middle of the list, which should only change that element. */
+	@Benchmark
+	public Saves replaceInList() {
+		return saves.with(saves.list.get(size / 2)::equals, replacement);
+	}
+
+	/** Fresh copies of the items for each {@link #idkey(Copies, Blackhole)}, since things cache their idkey. */
+	@State(Scope.Thread)
+	public static class Copies {
+		List<Item> items;
+
+		@Setup(Level.Invocation)
+		public void copy(ThingBenchmark benchmark) {
+			items = new ArrayList<>(benchmark.size);
+			for (Item item : benchmark.items) {
+				items.add(item.builder().build());
+			}
+		}
+	}
+
+}
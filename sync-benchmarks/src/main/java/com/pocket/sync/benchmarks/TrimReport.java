@@ -0,0 +1,144 @@
+package com.pocket.sync.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sync.space.mutable.MutableSpace;
+import com.pocket.sync.space.persist.MemoryStorage;
+import com.pocket.sync.value.binary.ByteWriter;
+import com.pocket.util.java.JsonUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints how much of each api response a library's items keep, now that fields the app doesn't use are trimmed from the
+ * generated {@link Item} by the usage file, and roughly how long an item takes to parse.
+ * Trimmed fields are skipped while parsing, so they are never held in memory, persisted or restored.
+ * <p>
+ * It also measures the heap used by a {@link MutableSpace} restored with the library from a {@link MemoryStorage},
+ * like {@link StorageBenchmark}, and what it would use with the trimmed fields. Since this build's {@link Item} can't
+ * hold those, that is the restored space plus the trimmed values held by a reference each, like a generated field would.
+ * <p>
+ * Timing and heap sizes here are only a quick look, see {@link ThingBenchmark#parseResponse} for a proper measurement of parsing.
+ * <p>
+ * Usage: TrimReport [size]
+ */
+public class TrimReport {
+
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws IOException {
+		int size = args.length > 0 && !args[0].isEmpty() ? Integer.parseInt(args[0]) : 10_000;
+		ObjectMapper mapper = JsonUtil.getObjectMapper();
+		JsonFactory factory = mapper.getFactory();
+		List<byte[]> responses = Library.responses(Library.items(Library.spec(), size));
+
+		long responseFields = 0, responseBytes = 0, keptFields = 0, keptBytes = 0, persistedBytes = 0;
+		List<byte[]> kept = new ArrayList<>(size);
+		for (byte[] response : responses) {
+			Item item = Item.from(factory.createParser(response), Library.JSON_CONFIG);
+			ObjectNode json = item.toJson(Library.JSON_CONFIG);
+			byte[] keptJson = mapper.writeValueAsBytes(json);
+			kept.add(keptJson);
+			ByteWriter out = new ByteWriter();
+			item.compress(out);
+
+			responseFields += mapper.readTree(response).size();
+			responseBytes += response.length;
+			keptFields += json.size();
+			keptBytes += keptJson.length;
+			persistedBytes += out.readByteArray().length;
+		}
+
+		System.out.printf("%d items%n", size);
+		System.out.printf("%-10s %12s %12s%n", "", "fields/item", "bytes/item");
+		System.out.printf("%-10s %12.1f %12d%n", "response", responseFields / (double) size, responseBytes / size);
+		System.out.printf("%-10s %12.1f %12d  %.1f%% of the response trimmed%n", "kept", keptFields / (double) size, keptBytes / size, 100 - keptBytes * 100.0 / responseBytes);
+		System.out.printf("%-10s %12s %12d  compressed, as persisted and restored%n", "persisted", "", persistedBytes / size);
+		long restored = restoredBytes(factory, responses);
+		long untrimmed = restored + trimmedBytes(mapper, responses, kept);
+		System.out.printf("%-10s %12s %12d  heap of a restored space with the trimmed fields, estimated%n", "untrimmed", "", untrimmed / size);
+		System.out.printf("%-10s %12s %12d  heap of the restored space, %.1f%% smaller%n", "restored", "", restored / size, 100 - restored * 100.0 / untrimmed);
+		System.out.printf("parse: %.2fµs/item for responses, %.2fµs/item for only the kept fields%n",
+				parseMicros(factory, responses), parseMicros(factory, kept));
+	}
+
+	/** @return The bytes of heap used by a space restored with the items in these responses, including the items and its storage. */
+	private static long restoredBytes(JsonFactory factory, List<byte[]> responses) throws IOException {
+		PocketSpec spec = Library.spec();
+		long before = usedHeap();
+		MemoryStorage storage = persist(spec, factory, responses);
+		Item first = Item.from(factory.createParser(responses.get(0)), Library.JSON_CONFIG);
+		MutableSpace space = new MutableSpace(storage).setSpec(spec);
+		space.get(first); // The space restores during its first transaction.
+		long used = usedHeap() - before;
+		if (space.get(first) == null) throw new AssertionError(); // Also keeps the space reachable until measured
+		return used;
+	}
+
+	/** @return A storage with the items in these responses persisted to it by a space, like they would be after a sync. */
+	private static MemoryStorage persist(PocketSpec spec, JsonFactory factory, List<byte[]> responses) throws IOException {
+		List<Item> items = new ArrayList<>(responses.size());
+		for (byte[] response : responses) {
+			items.add(Item.from(factory.createParser(response), Library.JSON_CONFIG));
+		}
+		MemoryStorage storage = new MemoryStorage();
+		MutableSpace space = new MutableSpace(storage).setSpec(spec);
+		space.remember(Library.HOLDER, Library.array(items));
+		space.imprint(items);
+		return storage;
+	}
+
+	/** @return The bytes of heap the values of the fields trimmed from each response would use, held by a reference each. */
+	private static long trimmedBytes(ObjectMapper mapper, List<byte[]> responses, List<byte[]> kept) throws IOException {
+		long before = usedHeap();
+		Object[] held = trimmedValues(mapper, responses, kept);
+		long used = usedHeap() - before;
+		if (held.length < 0) throw new AssertionError(); // Keeps them reachable until measured
+		return used;
+	}
+
+	private static Object[] trimmedValues(ObjectMapper mapper, List<byte[]> responses, List<byte[]> kept) throws IOException {
+		List<Object> values = new ArrayList<>();
+		for (int i = 0; i < responses.size(); i++) {
+			JsonNode keptJson = mapper.readTree(kept.get(i));
+			Iterator<Map.Entry<String, JsonNode>> fields = mapper.readTree(responses.get(i)).fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				if (keptJson.has(field.getKey())) continue;
+				JsonNode value = field.getValue();
+				values.add(value.isIntegralNumber() ? (Object) value.intValue() : value.asText());
+			}
+		}
+		return values.toArray();
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/** @return The average time to parse an item, in microseconds, after a few rounds to warm up. */
+	private static double parseMicros(JsonFactory factory, List<byte[]> json) throws IOException {
+		long nanos = 0;
+		for (int round = 0; round < ROUNDS * 2; round++) {
+			long start = System.nanoTime();
+			for (byte[] bytes : json) {
+				if (Item.from(factory.createParser(bytes), Library.JSON_CONFIG) == null) throw new AssertionError();
+			}
+			if (round >= ROUNDS) nanos += System.nanoTime() - start;
+		}
+		return nanos / 1000.0 / ROUNDS / json.size();
+	}
+
+}
@@ -115,12 +115,18 @@ public final class ExampleQuery implements GraphQlSyncable, Thing {
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("input")) {
-                builder.input(NonIdentifiable.from(parser, _config, allowed));
-            } else if (currentName.equals("example")) {
-                builder.example(ThingExample.from(parser, _config, allowed));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "input":
+                    builder.input(NonIdentifiable.from(parser, _config, allowed));
+                    break;
+                case "example":
+                    builder.example(ThingExample.from(parser, _config, allowed));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
@@ -278,16 +284,28 @@ public final class ExampleQuery implements GraphQlSyncable, Thing {
 
     @Override
     public ExampleQuery redact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (example != null) _builder.example(Modeller.redact(example, e));
-        return _builder.build();
+        Builder _builder = null;
+        if (example != null) {
+            ThingExample _r = Modeller.redact(example, e);
+            if (_r != example) {
+                if (_builder == null) _builder = builder();
+                _builder.example(_r);
+            }
+        }
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
     public ExampleQuery unredact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (example != null) _builder.example(Modeller.unredact(example, e));
-        return _builder.build();
+        Builder _builder = null;
+        if (example != null) {
+            ThingExample _r = Modeller.unredact(example, e);
+            if (_r != example) {
+                if (_builder == null) _builder = builder();
+                _builder.example(_r);
+            }
+        }
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
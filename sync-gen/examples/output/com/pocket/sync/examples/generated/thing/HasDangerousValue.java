@@ -111,10 +111,15 @@ public final class HasDangerousValue implements GraphQlSyncable, InterfaceExampl
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("dangerous")) {
-                builder.dangerous(Modeller.asDangerous(parser));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "dangerous":
+                    builder.dangerous(Modeller.asDangerous(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
@@ -258,16 +263,28 @@ public final class HasDangerousValue implements GraphQlSyncable, InterfaceExampl
 
     @Override
     public HasDangerousValue redact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (dangerous != null) _builder.dangerous(Modeller.redact(dangerous, e));
-        return _builder.build();
+        Builder _builder = null;
+        if (dangerous != null) {
+            String _r = Modeller.redact(dangerous, e);
+            if (_r != dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous(_r);
+            }
+        }
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
     public HasDangerousValue unredact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (dangerous != null) _builder.dangerous(Modeller.unredact(dangerous, e));
-        return _builder.build();
+        Builder _builder = null;
+        if (dangerous != null) {
+            String _r = Modeller.unredact(dangerous, e);
+            if (_r != dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous(_r);
+            }
+        }
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
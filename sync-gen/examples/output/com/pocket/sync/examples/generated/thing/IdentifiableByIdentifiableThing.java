@@ -119,12 +119,18 @@ public final class IdentifiableByIdentifiableThing implements GraphQlSyncable, T
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("id")) {
-                builder.id(IdentifiableByValue.from(parser, _config, allowed));
-            } else if (currentName.equals("val")) {
-                builder.val(Modeller.asString(parser));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "id":
+                    builder.id(IdentifiableByValue.from(parser, _config, allowed));
+                    break;
+                case "val":
+                    builder.val(Modeller.asString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
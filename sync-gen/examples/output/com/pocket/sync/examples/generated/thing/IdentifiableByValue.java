@@ -117,12 +117,18 @@ public final class IdentifiableByValue implements GraphQlSyncable, Thing {
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("id")) {
-                builder.id(Modeller.asString(parser));
-            } else if (currentName.equals("val")) {
-                builder.val(Modeller.asString(parser));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "id":
+                    builder.id(Modeller.asString(parser));
+                    break;
+                case "val":
+                    builder.val(Modeller.asString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
@@ -109,10 +109,15 @@ public final class NonIdentifiable implements GraphQlSyncable, VarietyExample, T
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("val")) {
-                builder.val(Modeller.asString(parser));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "val":
+                    builder.val(Modeller.asString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
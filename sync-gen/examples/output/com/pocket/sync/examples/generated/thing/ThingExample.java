@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.pocket.sync.examples.generated.ExamplesAuthType;
 import com.pocket.sync.examples.generated.ExamplesRemoteStyle;
 import com.pocket.sync.examples.generated.Modeller;
@@ -355,83 +356,115 @@ public final class ThingExample implements GraphQlSyncable, Thing {
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("id")) {
-                builder.id(Modeller.asString(parser));
-            } else if (currentName.equals("id_derived")) {
-                builder.id_derived(Modeller.asString(parser));
-            } else if (currentName.equals("hash_target")) {
-                builder.hash_target(Modeller.asString(parser));
-            } else if (currentName.equals("val")) {
-                builder.val(Modeller.asString(parser));
-            } else if (currentName.equals("val_list")) {
-                builder.val_list(Modeller.asList(parser, Modeller.STRING_STREAMING_CREATOR));
-            } else if (currentName.equals("val_map")) {
-                builder.val_map(Modeller.asMap(parser, Modeller.STRING_STREAMING_CREATOR));
-            } else if (currentName.equals("bool")) {
-                builder.bool(Modeller.asBoolean(parser));
-            } else if (currentName.equals("id_thing")) {
-                builder.id_thing(IdentifiableByValue.from(parser, _config, allowed));
-            } else if (currentName.equals("id_list")) {
-                builder.id_list(Modeller.asList(parser, IdentifiableByValue.STREAMING_JSON_CREATOR, _config, allowed));
-            } else if (currentName.equals("id_map")) {
-                builder.id_map(Modeller.asMap(parser, IdentifiableByValue.STREAMING_JSON_CREATOR, _config, allowed));
-            } else if (currentName.equals("non_id_thing")) {
-                builder.non_id_thing(NonIdentifiable.from(parser, _config, allowed));
-            } else if (currentName.equals("non_id_list")) {
-                builder.non_id_list(Modeller.asList(parser, NonIdentifiable.STREAMING_JSON_CREATOR, _config, allowed));
-            } else if (currentName.equals("non_id_map")) {
-                builder.non_id_map(Modeller.asMap(parser, NonIdentifiable.STREAMING_JSON_CREATOR, _config, allowed));
-            } else if (currentName.equals("derived_first_available")) {
-                builder.derived_first_available(Modeller.asString(parser));
-            } else if (currentName.equals("remap_target")) {
-                // WARNING: LEAVING STREAMING MODE
-                // To handle remaps we currently parse the field using the object mapper.
-                // This way we can iterate through the list multiple times, so we can build both
-                // the actual list and all the remapped lists.
-                // We could do it fully in streaming mode to make sure we get the best performance,
-                // but we would have to add fake fields to Item (or other remap targets) that aren't part of its state
-                // or figure out another way to pass these extra passed values to the parent thing (like Get)
-                // so it could build the remap fields from them.
-                final JsonNode value = Modeller.OBJECT_MAPPER.readTree(parser);
-                if (value != null) builder.remap_target(Modeller.asList(value, IdentifiableByValue.JSON_CREATOR, _config));
-                List<String> derived_remap = Modeller.remap(value, "val", Modeller.STRING_CREATOR);
-                if (derived_remap != null) builder.derived_remap(derived_remap);
-            } else if (currentName.equals("reactive_to_type")) {
-                builder.reactive_to_type(Modeller.asString(parser));
-            } else if (currentName.equals("reactive_to_type_field")) {
-                builder.reactive_to_type_field(Modeller.asString(parser));
-            } else if (currentName.equals("reactive_to_sibling_field")) {
-                builder.reactive_to_sibling_field(Modeller.asString(parser));
-            } else if (currentName.equals("reactive_to_any_sibling_field")) {
-                builder.reactive_to_any_sibling_field(Modeller.asString(parser));
-            } else if (currentName.equals("reactive_collection_field")) {
-                builder.reactive_collection_field(Modeller.asString(parser));
-            } else if (currentName.equals("dangerous")) {
-                builder.dangerous(Modeller.asDangerous(parser));
-            } else if (currentName.equals("dangerous_list")) {
-                builder.dangerous_list(Modeller.asList(parser, Modeller.DANGEROUS_STREAMING_CREATOR));
-            } else if (currentName.equals("dangerous_map")) {
-                builder.dangerous_map(Modeller.asMap(parser, Modeller.DANGEROUS_STREAMING_CREATOR));
-            } else if (currentName.equals("has_dangerous")) {
-                builder.has_dangerous(HasDangerousValue.from(parser, _config, allowed));
-            } else if (currentName.equals("has_dangerous_list")) {
-                builder.has_dangerous_list(Modeller.asList(parser, HasDangerousValue.STREAMING_JSON_CREATOR, _config, allowed));
-            } else if (currentName.equals("has_dangerous_map")) {
-                builder.has_dangerous_map(Modeller.asMap(parser, HasDangerousValue.STREAMING_JSON_CREATOR, _config, allowed));
-            } else if (currentName.equals("variety")) {
-                builder.variety(VarietyExample.VARIETY_VARIETYEXAMPLE_CREATOR.create(parser, _config, allowed));
-            } else if (currentName.equals("variety_list")) {
-                builder.variety_list(Modeller.asList(parser, VarietyExample.VARIETY_VARIETYEXAMPLE_CREATOR, _config, allowed));
-            } else if (currentName.equals("variety_map")) {
-                builder.variety_map(Modeller.asMap(parser, VarietyExample.VARIETY_VARIETYEXAMPLE_CREATOR, _config, allowed));
-            } else if (currentName.equals("interface")) {
-                builder.interface_(InterfaceExample.INTERFACE_INTERFACEEXAMPLE_CREATOR.create(parser, _config, allowed));
-            } else if (currentName.equals("interface_list")) {
-                builder.interface_list(Modeller.asList(parser, InterfaceExample.INTERFACE_INTERFACEEXAMPLE_CREATOR, _config, allowed));
-            } else if (currentName.equals("interface_map")) {
-                builder.interface_map(Modeller.asMap(parser, InterfaceExample.INTERFACE_INTERFACEEXAMPLE_CREATOR, _config, allowed));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "id":
+                    builder.id(Modeller.asString(parser));
+                    break;
+                case "id_derived":
+                    builder.id_derived(Modeller.asString(parser));
+                    break;
+                case "hash_target":
+                    builder.hash_target(Modeller.asString(parser));
+                    break;
+                case "val":
+                    builder.val(Modeller.asString(parser));
+                    break;
+                case "val_list":
+                    builder.val_list(Modeller.asList(parser, Modeller.STRING_STREAMING_CREATOR));
+                    break;
+                case "val_map":
+                    builder.val_map(Modeller.asMap(parser, Modeller.STRING_STREAMING_CREATOR));
+                    break;
+                case "bool":
+                    builder.bool(Modeller.asBoolean(parser));
+                    break;
+                case "id_thing":
+                    builder.id_thing(IdentifiableByValue.from(parser, _config, allowed));
+                    break;
+                case "id_list":
+                    builder.id_list(Modeller.asList(parser, IdentifiableByValue.STREAMING_JSON_CREATOR, _config, allowed));
+                    break;
+                case "id_map":
+                    builder.id_map(Modeller.asMap(parser, IdentifiableByValue.STREAMING_JSON_CREATOR, _config, allowed));
+                    break;
+                case "non_id_thing":
+                    builder.non_id_thing(NonIdentifiable.from(parser, _config, allowed));
+                    break;
+                case "non_id_list":
+                    builder.non_id_list(Modeller.asList(parser, NonIdentifiable.STREAMING_JSON_CREATOR, _config, allowed));
+                    break;
+                case "non_id_map":
+                    builder.non_id_map(Modeller.asMap(parser, NonIdentifiable.STREAMING_JSON_CREATOR, _config, allowed));
+                    break;
+                case "derived_first_available":
+                    builder.derived_first_available(Modeller.asString(parser));
+                    break;
+                case "remap_target": {
+                    // Remaps need to read the list more than once, to build both the actual list and all the remapped lists.
+                    // Buffer its tokens once and replay them for each pass, which stays in streaming mode
+                    // instead of building a tree of the whole list.
+                    final TokenBuffer value = Modeller.buffer(parser);
+                    builder.remap_target(Modeller.asList(Modeller.replay(value), IdentifiableByValue.STREAMING_JSON_CREATOR, _config));
+                    List<String> derived_remap = Modeller.remap(Modeller.replay(value), "val", Modeller.STRING_STREAMING_CREATOR);
+                    if (derived_remap != null) builder.derived_remap(derived_remap);
+                    break;
+                }
+                case "reactive_to_type":
+                    builder.reactive_to_type(Modeller.asString(parser));
+                    break;
+                case "reactive_to_type_field":
+                    builder.reactive_to_type_field(Modeller.asString(parser));
+                    break;
+                case "reactive_to_sibling_field":
+                    builder.reactive_to_sibling_field(Modeller.asString(parser));
+                    break;
+                case "reactive_to_any_sibling_field":
+                    builder.reactive_to_any_sibling_field(Modeller.asString(parser));
+                    break;
+                case "reactive_collection_field":
+                    builder.reactive_collection_field(Modeller.asString(parser));
+                    break;
+                case "dangerous":
+                    builder.dangerous(Modeller.asDangerous(parser));
+                    break;
+                case "dangerous_list":
+                    builder.dangerous_list(Modeller.asList(parser, Modeller.DANGEROUS_STREAMING_CREATOR));
+                    break;
+                case "dangerous_map":
+                    builder.dangerous_map(Modeller.asMap(parser, Modeller.DANGEROUS_STREAMING_CREATOR));
+                    break;
+                case "has_dangerous":
+                    builder.has_dangerous(HasDangerousValue.from(parser, _config, allowed));
+                    break;
+                case "has_dangerous_list":
+                    builder.has_dangerous_list(Modeller.asList(parser, HasDangerousValue.STREAMING_JSON_CREATOR, _config, allowed));
+                    break;
+                case "has_dangerous_map":
+                    builder.has_dangerous_map(Modeller.asMap(parser, HasDangerousValue.STREAMING_JSON_CREATOR, _config, allowed));
+                    break;
+                case "variety":
+                    builder.variety(VarietyExample.VARIETY_VARIETYEXAMPLE_CREATOR.create(parser, _config, allowed));
+                    break;
+                case "variety_list":
+                    builder.variety_list(Modeller.asList(parser, VarietyExample.VARIETY_VARIETYEXAMPLE_CREATOR, _config, allowed));
+                    break;
+                case "variety_map":
+                    builder.variety_map(Modeller.asMap(parser, VarietyExample.VARIETY_VARIETYEXAMPLE_CREATOR, _config, allowed));
+                    break;
+                case "interface":
+                    builder.interface_(InterfaceExample.INTERFACE_INTERFACEEXAMPLE_CREATOR.create(parser, _config, allowed));
+                    break;
+                case "interface_list":
+                    builder.interface_list(Modeller.asList(parser, InterfaceExample.INTERFACE_INTERFACEEXAMPLE_CREATOR, _config, allowed));
+                    break;
+                case "interface_map":
+                    builder.interface_map(Modeller.asMap(parser, InterfaceExample.INTERFACE_INTERFACEEXAMPLE_CREATOR, _config, allowed));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
@@ -835,134 +868,270 @@ public final class ThingExample implements GraphQlSyncable, Thing {
 
     @Override
     public ThingExample redact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (dangerous != null) _builder.dangerous(Modeller.redact(dangerous, e));
+        Builder _builder = null;
+        if (dangerous != null) {
+            String _r = Modeller.redact(dangerous, e);
+            if (_r != dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous(_r);
+            }
+        }
         if (dangerous_list != null && !dangerous_list.isEmpty()) {
-            List<String> _list = new ArrayList<>(dangerous_list.size());
-            for (String _v : dangerous_list) {
-                _list.add(Modeller.redact(_v, e));
+            List<String> _list = null;
+            for (int _i = 0, _n = dangerous_list.size(); _i < _n; _i++) {
+                String _v = dangerous_list.get(_i);
+                String _r = Modeller.redact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(dangerous_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous_list(_list);
             }
-            _builder.dangerous_list(_list);
         }
         if (dangerous_map != null && !dangerous_map.isEmpty()) {
-            Map<String,String> _map = new HashMap<>(dangerous_map.size());
+            Map<String,String> _map = null;
             for (Map.Entry<String,String> _e : dangerous_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.redact(_e.getValue(), e));
+                String _r = Modeller.redact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(dangerous_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous_map(_map);
+            }
+        }
+        if (has_dangerous != null) {
+            HasDangerousValue _r = Modeller.redact(has_dangerous, e);
+            if (_r != has_dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.has_dangerous(_r);
             }
-            _builder.dangerous_map(_map);
         }
-        if (has_dangerous != null) _builder.has_dangerous(Modeller.redact(has_dangerous, e));
         if (has_dangerous_list != null && !has_dangerous_list.isEmpty()) {
-            List<HasDangerousValue> _list = new ArrayList<>(has_dangerous_list.size());
-            for (HasDangerousValue _v : has_dangerous_list) {
-                _list.add(Modeller.redact(_v, e));
+            List<HasDangerousValue> _list = null;
+            for (int _i = 0, _n = has_dangerous_list.size(); _i < _n; _i++) {
+                HasDangerousValue _v = has_dangerous_list.get(_i);
+                HasDangerousValue _r = Modeller.redact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(has_dangerous_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.has_dangerous_list(_list);
             }
-            _builder.has_dangerous_list(_list);
         }
         if (has_dangerous_map != null && !has_dangerous_map.isEmpty()) {
-            Map<String,HasDangerousValue> _map = new HashMap<>(has_dangerous_map.size());
+            Map<String,HasDangerousValue> _map = null;
             for (Map.Entry<String,HasDangerousValue> _e : has_dangerous_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.redact(_e.getValue(), e));
+                HasDangerousValue _r = Modeller.redact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(has_dangerous_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.has_dangerous_map(_map);
+            }
+        }
+        if (interface_ != null) {
+            InterfaceExample _r = Modeller.redact(interface_, e);
+            if (_r != interface_) {
+                if (_builder == null) _builder = builder();
+                _builder.interface_(_r);
             }
-            _builder.has_dangerous_map(_map);
         }
-        if (interface_ != null) _builder.interface_(Modeller.redact(interface_, e));
         if (interface_list != null && !interface_list.isEmpty()) {
-            List<InterfaceExample> _list = new ArrayList<>(interface_list.size());
-            for (InterfaceExample _v : interface_list) {
-                _list.add(Modeller.redact(_v, e));
+            List<InterfaceExample> _list = null;
+            for (int _i = 0, _n = interface_list.size(); _i < _n; _i++) {
+                InterfaceExample _v = interface_list.get(_i);
+                InterfaceExample _r = Modeller.redact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(interface_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.interface_list(_list);
             }
-            _builder.interface_list(_list);
         }
         if (interface_map != null && !interface_map.isEmpty()) {
-            Map<String,InterfaceExample> _map = new HashMap<>(interface_map.size());
+            Map<String,InterfaceExample> _map = null;
             for (Map.Entry<String,InterfaceExample> _e : interface_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.redact(_e.getValue(), e));
+                InterfaceExample _r = Modeller.redact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(interface_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.interface_map(_map);
+            }
+        }
+        if (variety != null) {
+            VarietyExample _r = Modeller.redact(variety, e);
+            if (_r != variety) {
+                if (_builder == null) _builder = builder();
+                _builder.variety(_r);
             }
-            _builder.interface_map(_map);
         }
-        if (variety != null) _builder.variety(Modeller.redact(variety, e));
         if (variety_list != null && !variety_list.isEmpty()) {
-            List<VarietyExample> _list = new ArrayList<>(variety_list.size());
-            for (VarietyExample _v : variety_list) {
-                _list.add(Modeller.redact(_v, e));
+            List<VarietyExample> _list = null;
+            for (int _i = 0, _n = variety_list.size(); _i < _n; _i++) {
+                VarietyExample _v = variety_list.get(_i);
+                VarietyExample _r = Modeller.redact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(variety_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.variety_list(_list);
             }
-            _builder.variety_list(_list);
         }
         if (variety_map != null && !variety_map.isEmpty()) {
-            Map<String,VarietyExample> _map = new HashMap<>(variety_map.size());
+            Map<String,VarietyExample> _map = null;
             for (Map.Entry<String,VarietyExample> _e : variety_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.redact(_e.getValue(), e));
+                VarietyExample _r = Modeller.redact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(variety_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.variety_map(_map);
             }
-            _builder.variety_map(_map);
         }
-        return _builder.build();
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
     public ThingExample unredact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (dangerous != null) _builder.dangerous(Modeller.unredact(dangerous, e));
+        Builder _builder = null;
+        if (dangerous != null) {
+            String _r = Modeller.unredact(dangerous, e);
+            if (_r != dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous(_r);
+            }
+        }
         if (dangerous_list != null && !dangerous_list.isEmpty()) {
-            List<String> _list = new ArrayList<>(dangerous_list.size());
-            for (String _v : dangerous_list) {
-                _list.add(Modeller.unredact(_v, e));
+            List<String> _list = null;
+            for (int _i = 0, _n = dangerous_list.size(); _i < _n; _i++) {
+                String _v = dangerous_list.get(_i);
+                String _r = Modeller.unredact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(dangerous_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous_list(_list);
             }
-            _builder.dangerous_list(_list);
         }
         if (dangerous_map != null && !dangerous_map.isEmpty()) {
-            Map<String,String> _map = new HashMap<>(dangerous_map.size());
+            Map<String,String> _map = null;
             for (Map.Entry<String,String> _e : dangerous_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.unredact(_e.getValue(), e));
+                String _r = Modeller.unredact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(dangerous_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous_map(_map);
+            }
+        }
+        if (has_dangerous != null) {
+            HasDangerousValue _r = Modeller.unredact(has_dangerous, e);
+            if (_r != has_dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.has_dangerous(_r);
             }
-            _builder.dangerous_map(_map);
         }
-        if (has_dangerous != null) _builder.has_dangerous(Modeller.unredact(has_dangerous, e));
         if (has_dangerous_list != null && !has_dangerous_list.isEmpty()) {
-            List<HasDangerousValue> _list = new ArrayList<>(has_dangerous_list.size());
-            for (HasDangerousValue _v : has_dangerous_list) {
-                _list.add(Modeller.unredact(_v, e));
+            List<HasDangerousValue> _list = null;
+            for (int _i = 0, _n = has_dangerous_list.size(); _i < _n; _i++) {
+                HasDangerousValue _v = has_dangerous_list.get(_i);
+                HasDangerousValue _r = Modeller.unredact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(has_dangerous_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.has_dangerous_list(_list);
             }
-            _builder.has_dangerous_list(_list);
         }
         if (has_dangerous_map != null && !has_dangerous_map.isEmpty()) {
-            Map<String,HasDangerousValue> _map = new HashMap<>(has_dangerous_map.size());
+            Map<String,HasDangerousValue> _map = null;
             for (Map.Entry<String,HasDangerousValue> _e : has_dangerous_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.unredact(_e.getValue(), e));
+                HasDangerousValue _r = Modeller.unredact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(has_dangerous_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.has_dangerous_map(_map);
+            }
+        }
+        if (interface_ != null) {
+            InterfaceExample _r = Modeller.unredact(interface_, e);
+            if (_r != interface_) {
+                if (_builder == null) _builder = builder();
+                _builder.interface_(_r);
             }
-            _builder.has_dangerous_map(_map);
         }
-        if (interface_ != null) _builder.interface_(Modeller.unredact(interface_, e));
         if (interface_list != null && !interface_list.isEmpty()) {
-            List<InterfaceExample> _list = new ArrayList<>(interface_list.size());
-            for (InterfaceExample _v : interface_list) {
-                _list.add(Modeller.unredact(_v, e));
+            List<InterfaceExample> _list = null;
+            for (int _i = 0, _n = interface_list.size(); _i < _n; _i++) {
+                InterfaceExample _v = interface_list.get(_i);
+                InterfaceExample _r = Modeller.unredact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(interface_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.interface_list(_list);
             }
-            _builder.interface_list(_list);
         }
         if (interface_map != null && !interface_map.isEmpty()) {
-            Map<String,InterfaceExample> _map = new HashMap<>(interface_map.size());
+            Map<String,InterfaceExample> _map = null;
             for (Map.Entry<String,InterfaceExample> _e : interface_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.unredact(_e.getValue(), e));
+                InterfaceExample _r = Modeller.unredact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(interface_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.interface_map(_map);
+            }
+        }
+        if (variety != null) {
+            VarietyExample _r = Modeller.unredact(variety, e);
+            if (_r != variety) {
+                if (_builder == null) _builder = builder();
+                _builder.variety(_r);
             }
-            _builder.interface_map(_map);
         }
-        if (variety != null) _builder.variety(Modeller.unredact(variety, e));
         if (variety_list != null && !variety_list.isEmpty()) {
-            List<VarietyExample> _list = new ArrayList<>(variety_list.size());
-            for (VarietyExample _v : variety_list) {
-                _list.add(Modeller.unredact(_v, e));
+            List<VarietyExample> _list = null;
+            for (int _i = 0, _n = variety_list.size(); _i < _n; _i++) {
+                VarietyExample _v = variety_list.get(_i);
+                VarietyExample _r = Modeller.unredact(_v, e);
+                if (_r != _v && _list == null) _list = new ArrayList<>(variety_list);
+                if (_list != null) _list.set(_i, _r);
+            }
+            if (_list != null) {
+                if (_builder == null) _builder = builder();
+                _builder.variety_list(_list);
             }
-            _builder.variety_list(_list);
         }
         if (variety_map != null && !variety_map.isEmpty()) {
-            Map<String,VarietyExample> _map = new HashMap<>(variety_map.size());
+            Map<String,VarietyExample> _map = null;
             for (Map.Entry<String,VarietyExample> _e : variety_map.entrySet()) {
-                _map.put(_e.getKey(), Modeller.unredact(_e.getValue(), e));
+                VarietyExample _r = Modeller.unredact(_e.getValue(), e);
+                if (_r != _e.getValue() && _map == null) _map = new HashMap<>(variety_map);
+                if (_map != null) _map.put(_e.getKey(), _r);
+            }
+            if (_map != null) {
+                if (_builder == null) _builder = builder();
+                _builder.variety_map(_map);
             }
-            _builder.variety_map(_map);
         }
-        return _builder.build();
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
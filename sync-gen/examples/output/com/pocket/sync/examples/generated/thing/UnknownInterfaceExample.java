@@ -112,10 +112,15 @@ public final class UnknownInterfaceExample implements GraphQlSyncable, Interface
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else if (currentName.equals("dangerous")) {
-                builder.dangerous(Modeller.asDangerous(parser));
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                case "dangerous":
+                    builder.dangerous(Modeller.asDangerous(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
@@ -259,16 +264,28 @@ public final class UnknownInterfaceExample implements GraphQlSyncable, Interface
 
     @Override
     public UnknownInterfaceExample redact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (dangerous != null) _builder.dangerous(Modeller.redact(dangerous, e));
-        return _builder.build();
+        Builder _builder = null;
+        if (dangerous != null) {
+            String _r = Modeller.redact(dangerous, e);
+            if (_r != dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous(_r);
+            }
+        }
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
     public UnknownInterfaceExample unredact(StringEncrypter e) {
-        Builder _builder = builder();
-        if (dangerous != null) _builder.dangerous(Modeller.unredact(dangerous, e));
-        return _builder.build();
+        Builder _builder = null;
+        if (dangerous != null) {
+            String _r = Modeller.unredact(dangerous, e);
+            if (_r != dangerous) {
+                if (_builder == null) _builder = builder();
+                _builder.dangerous(_r);
+            }
+        }
+        return _builder != null ? _builder.build() : this;
     }
 
     @Override
@@ -101,8 +101,12 @@ public final class UnknownVarietyExample implements GraphQlSyncable, VarietyExam
             parser.nextToken();
             if (currentName == null) {
                 parser.skipChildren();
-            } else {
-                parser.skipChildren();
+                continue;
+            }
+            switch (currentName) {
+                default:
+                    parser.skipChildren();
+                    break;
             }
         }
         return builder.build();
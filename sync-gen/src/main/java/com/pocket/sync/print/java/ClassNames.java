@@ -66,6 +66,7 @@ public class ClassNames {
 	public static final ClassName NULL_NODE = 			ClassName.get("com.fasterxml.jackson.databind.node", "NullNode");
 	public static final ClassName JSON_TOKEN = 			ClassName.get("com.fasterxml.jackson.core", "JsonToken");
 	public static final ClassName JSON_PARSER = 		ClassName.get("com.fasterxml.jackson.core", "JsonParser");
+	public static final ClassName TOKEN_BUFFER = 		ClassName.get("com.fasterxml.jackson.databind.util", "TokenBuffer");
 	public static final ClassName JSON_UTIL = 			ClassName.get("com.pocket.util.java", "JsonUtil");
 	
 	public static final ClassName OBJECT_UTIL = 		ClassName.get("org.apache.commons.lang3", "ObjectUtils");
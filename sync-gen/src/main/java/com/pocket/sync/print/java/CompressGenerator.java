@@ -305,7 +305,13 @@ public class CompressGenerator {
 								.open(open -> code.add("$L.create(_in)", OpenTypes.creatorReference(open, config)))
 								.thing(t -> code.add("$T.uncompress(_in)", config.thing(t)))
 								.enumm(enumm -> code.add("$T.uncompress(_in)", config.enumm(enumm)))
-								.value(value -> code.add("$T.$N.create(_in)", config.modeller(), ModellerGenerator.byteCreatorName(value)))
+								.value(value -> {
+									if (GenUtil.isInterned(field, config)) {
+										code.add("$1T.intern($1T.$2N.create(_in))", config.modeller(), ModellerGenerator.byteCreatorName(value));
+									} else {
+										code.add("$T.$N.create(_in)", config.modeller(), ModellerGenerator.byteCreatorName(value));
+									}
+								})
 								.otherwiseIgnore();
 						code.add(");\n");
 					});
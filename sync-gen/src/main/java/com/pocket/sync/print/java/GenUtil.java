@@ -673,6 +673,16 @@ public class GenUtil {
 		return false;
 	}
 
+	/**
+	 * @return true if the field is marked with @intern, meaning parsers should pass its values through the modeller's intern method.
+	 * @throws RuntimeException if it is marked but isn't a String, since only Strings can be interned.
+	 */
+	public static boolean isInterned(Field field, Config config) {
+		if (!field.getInterned()) return false;
+		if (!ClassName.get(String.class).equals(toTypeName(field.getType(), config))) throw new RuntimeException("@intern is only supported on String fields, found on " + field);
+		return true;
+	}
+
 	public static boolean isOrIsCollectionOfDangerousValues(FieldType type, Config config) {
 		return WhenType.is(type, boolean.class)
 				.value(v -> config.value(v).isDangerous())
@@ -1,6 +1,5 @@
 package com.pocket.sync.print.java;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.pocket.sync.Figments;
 import com.pocket.sync.type.Auth;
 import com.pocket.sync.type.CollectionType;
@@ -302,7 +301,13 @@ public class SyncableGenerator {
 								.list(list -> code.add("$T.asList(value, ", config.modeller()).add(GenUtil.creatorFromJsonCode(list.getInner(), config)).add(GenUtil.addParamIfThing(list.getInner(), PARAM_JSON_CONFIG)).add(optionalAllowedParam.apply(list.getInner())).add(")"))
 								.open(open -> code.add(GenUtil.creatorFromJsonCode(open, config)).add(".create(value, $N, $N)", PARAM_JSON_CONFIG, allowed))
 								.thing(thing -> code.add("$T.from(value, $N, $N)", typeName, PARAM_JSON_CONFIG, allowed))
-								.value(value -> code.add("$T.as" + value.getName() + "(value)", config.modeller()))
+								.value(value -> {
+									if (GenUtil.isInterned(field, config)) {
+										code.add("$1T.intern($1T.as" + value.getName() + "(value))", config.modeller());
+									} else {
+										code.add("$T.as" + value.getName() + "(value)", config.modeller());
+									}
+								})
 								.otherwiseFail();
 							code.add(");\n");
 						});
@@ -345,7 +350,11 @@ public class SyncableGenerator {
 				.addStatement("final $1T $2L = $3L.getCurrentName()", String.class, currentName, parser)
 				.addStatement("$1L.nextToken()", parser)
 				.beginControlFlow("if ($L == null)", currentName)
-				.addStatement("$L.skipChildren()", parser);
+				.addStatement("$L.skipChildren()", parser)
+				.addStatement("continue")
+				.endControlFlow()
+				// A String switch compiles to a hashCode() lookup, so matching a name no longer compares it against every field in turn.
+				.beginControlFlow("switch ($L)", currentName);
 		
 		for (Field field : fields) {
 			String fieldName = GenUtil.toValidFieldName(field.getName());
@@ -356,40 +365,36 @@ public class SyncableGenerator {
 			if (field.getDerives().getRemap() != null) {
 				// We'll handle this as part of the field this remaps from.
 			} else if (!remaps.isEmpty()) {
-				code.nextControlFlow("else if ($1L.equals($2S))", currentName, field.getName())
-						.add("// WARNING: LEAVING STREAMING MODE\n")
-						.add("// To handle remaps we currently parse the field using the object mapper.\n")
-						.add("// This way we can iterate through the list multiple times, so we can build both\n")
-						.add("// the actual list and all the remapped lists.\n")
-						.add("// We could do it fully in streaming mode to make sure we get the best performance,\n")
-						.add("// but we would have to add fake fields to Item (or other remap targets) that aren't part of its state\n")
-						.add("// or figure out another way to pass these extra passed values to the parent thing (like Get)\n")
-						.add("// so it could build the remap fields from them.\n")
-						.addStatement("final $1T value = $2T.OBJECT_MAPPER.readTree($3L)",
-								JsonNode.class, config.modeller(), parser);
+				code.add("case $S: {\n", field.getName()).indent()
+						.add("// Remaps need to read the list more than once, to build both the actual list and all the remapped lists.\n")
+						.add("// Buffer its tokens once and replay them for each pass, which stays in streaming mode\n")
+						.add("// instead of building a tree of the whole list.\n")
+						.addStatement("final $1T value = $2T.buffer($3L)", ClassNames.TOKEN_BUFFER, config.modeller(), parser);
 				FieldType innerType = ((ListType) type).getInner();
-				code.add("if (value != null) builder.$N(", fieldName)
-						.add("$T.asList(value, ", config.modeller())
-						.add(GenUtil.creatorFromJsonCode(innerType, config))
+				code.add("builder.$N(", fieldName)
+						.add("$1T.asList($1T.replay(value), ", config.modeller())
+						.add(GenUtil.streamingCreatorFromJsonCode(innerType, config))
 						.add(GenUtil.addParamIfThing(innerType, PARAM_JSON_CONFIG))
 						.addStatement("))");
 				for (Field remapped : remaps) {
-					//List<SearchMatch> search_matches = Modeller.remap(value, "highlights", SearchMatch.JSON_CREATOR);
+					//List<SearchMatch> search_matches = Modeller.remap(Modeller.replay(value), "highlights", SearchMatch.STREAMING_JSON_CREATOR, _config);
 					//if (search_matches != null) builder.search_matches(search_matches);
 					String remapName = GenUtil.toValidFieldName(remapped.getName());
 					Remap remap = remapped.getDerives().getRemap();
 					FieldType remapType = ((ListType) remapped.getType()).getInner();
-					code.add("$T<$T> $N = $T.remap(value, $S, ",
-							ClassName.get(List.class), GenUtil.toTypeName(remapType, config), remapName, config.modeller(), remap.getField());
-					code.add(GenUtil.creatorFromJsonCode(remapType, config));
+					code.add("$T<$T> $N = $T.remap($T.replay(value), $S, ",
+							ClassName.get(List.class), GenUtil.toTypeName(remapType, config), remapName, config.modeller(), config.modeller(), remap.getField());
+					code.add(GenUtil.streamingCreatorFromJsonCode(remapType, config));
 					code.add(GenUtil.addParamIfThing(remapType, PARAM_JSON_CONFIG));
 					code.add(");\n");
 					code.addStatement("if ($1N != null) builder.$1N($1N)", remapName);
 				}
+				code.addStatement("break")
+						.unindent().add("}\n");
 				
 			} else {
 				
-				code.nextControlFlow("else if ($1L.equals($2S))", currentName, field.getName())
+				code.add("case $S:\n", field.getName()).indent()
 						.add("$1L.$2N(", builder, fieldName);
 
 				WhenType.is(type)
@@ -406,15 +411,25 @@ public class SyncableGenerator {
 						.open(open -> code.add("$1L.create($2L, $3N, $4N)", OpenTypes.creatorReference(open, config), parser, PARAM_JSON_CONFIG, allowed))
 						.enumm(enumm -> code.add("$1T.from($2L)", typeName, parser))
 						.thing(thing -> code.add("$1T.from($2L, $3N, $4N)", typeName, parser, PARAM_JSON_CONFIG, allowed))
-						.value(value -> code.add("$1T.as$2L($3L)", config.modeller(), value.getName(), parser))
+						.value(value -> {
+							if (GenUtil.isInterned(field, config)) {
+								code.add("$1T.intern($1T.as$2L($3L))", config.modeller(), value.getName(), parser);
+							} else {
+								code.add("$1T.as$2L($3L)", config.modeller(), value.getName(), parser);
+							}
+						})
 						.otherwiseFail();
 
-				code.addStatement(")");
+				code.addStatement(")")
+						.addStatement("break")
+						.unindent();
 			}
 		}
 		
-		code.nextControlFlow("else")
+		code.add("default:\n").indent()
 				.addStatement("$L.skipChildren()", parser)
+				.addStatement("break")
+				.unindent()
 				.endControlFlow()
 				.endControlFlow()
 				.addStatement("return builder.build()");
@@ -21,6 +21,7 @@ import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.WildcardTypeName;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -956,59 +957,62 @@ public class ThingGenerator extends ClassGenerator {
 				.returns(className);
 		
 		if (GenUtil.containsDangerousValues(model, config)) {
-			redact.addStatement("$T _builder = builder()", builderClassName);
-			unredact.addStatement("$T _builder = builder()", builderClassName);
-			List<Field> sorted = new ArrayList<>(activeFields);
-			sorted.sort((o1, o2) -> o1.getName().compareTo(o2.getName()));
-			for (Field field : sorted) {
-				String name = GenUtil.toValidFieldName(field);
-				if (GenUtil.containsDangerousValues(field.getType(), config)) {
-					WhenType.is(field.getType())
-							.list(list -> {
-								TypeName innerClass = GenUtil.toTypeName(list.getInner(), config);
-								redact.beginControlFlow("if ($1N != null && !$1N.isEmpty())", name);
-									redact.addStatement("$T<$T> _list = new $T<>($N.size())", List.class, innerClass, ArrayList.class, name);
-									redact.beginControlFlow("for ($T _v : $N)", innerClass, name);
-										redact.addStatement("_list.add($T.redact(_v, e))", config.modeller());
-									redact.endControlFlow();
-									redact.addStatement("_builder.$N(_list)", name);
-								redact.endControlFlow();
-
-								unredact.beginControlFlow("if ($1N != null && !$1N.isEmpty())", name);
-									unredact.addStatement("$T<$T> _list = new $T<>($N.size())", List.class, innerClass, ArrayList.class, name);
-									unredact.beginControlFlow("for ($T _v : $N)", innerClass, name);
-										unredact.addStatement("_list.add($T.unredact(_v, e))", config.modeller());
-									unredact.endControlFlow();
-									unredact.addStatement("_builder.$N(_list)", name);
-								unredact.endControlFlow();
-							})
-							.map(map -> {
-								TypeName innerClass = GenUtil.toTypeName(map.getInner(), config);
-								redact.beginControlFlow("if ($1N != null && !$1N.isEmpty())", name);
-									redact.addStatement("$T<$T,$T> _map = new $T<>($N.size())", Map.class, String.class, innerClass, HashMap.class, name);
-									redact.beginControlFlow("for ($T<$T,$T> _e : $N.entrySet())", Map.Entry.class, String.class, innerClass, name);
-										redact.addStatement("_map.put(_e.getKey(), $T.redact(_e.getValue(), e))", config.modeller());
-									redact.endControlFlow();
-									redact.addStatement("_builder.$N(_map)", name);
-								redact.endControlFlow();
-
-								unredact.beginControlFlow("if ($1N != null && !$1N.isEmpty())", name);
-									unredact.addStatement("$T<$T,$T> _map = new $T<>($N.size())", Map.class, String.class, innerClass, HashMap.class, name);
-									unredact.beginControlFlow("for ($T<$T,$T> _e : $N.entrySet())", Map.Entry.class, String.class, innerClass, name);
-										unredact.addStatement("_map.put(_e.getKey(), $T.unredact(_e.getValue(), e))", config.modeller());
-									unredact.endControlFlow();
-									unredact.addStatement("_builder.$N(_map)", name);
-								unredact.endControlFlow();
-							})
-							.otherwise(t -> {
-								redact.addStatement("if ($1N != null) _builder.$1N($2T.redact($1N, e))", name, config.modeller());
-								unredact.addStatement("if ($1N != null) _builder.$1N($2T.unredact($1N, e))", name, config.modeller());
-							});
+			// Only create a builder and copy collections once something actually changes,
+			// so things without any dangerous values set are returned as is.
+			for (MethodSpec.Builder method : Arrays.asList(redact, unredact)) {
+				String op = method == redact ? "redact" : "unredact";
+				method.addStatement("$T _builder = null", builderClassName);
+				List<Field> sorted = new ArrayList<>(activeFields);
+				sorted.sort((o1, o2) -> o1.getName().compareTo(o2.getName()));
+				for (Field field : sorted) {
+					String name = GenUtil.toValidFieldName(field);
+					if (GenUtil.containsDangerousValues(field.getType(), config)) {
+						WhenType.is(field.getType())
+								.list(list -> {
+									TypeName innerClass = GenUtil.toTypeName(list.getInner(), config);
+									method.beginControlFlow("if ($1N != null && !$1N.isEmpty())", name);
+										method.addStatement("$T<$T> _list = null", List.class, innerClass);
+										method.beginControlFlow("for (int _i = 0, _n = $N.size(); _i < _n; _i++)", name);
+											method.addStatement("$T _v = $N.get(_i)", innerClass, name);
+											method.addStatement("$T _r = $T.$N(_v, e)", innerClass, config.modeller(), op);
+											method.addStatement("if (_r != _v && _list == null) _list = new $T<>($N)", ArrayList.class, name);
+											method.addStatement("if (_list != null) _list.set(_i, _r)");
+										method.endControlFlow();
+										method.beginControlFlow("if (_list != null)");
+											method.addStatement("if (_builder == null) _builder = builder()");
+											method.addStatement("_builder.$N(_list)", name);
+										method.endControlFlow();
+									method.endControlFlow();
+								})
+								.map(map -> {
+									TypeName innerClass = GenUtil.toTypeName(map.getInner(), config);
+									method.beginControlFlow("if ($1N != null && !$1N.isEmpty())", name);
+										method.addStatement("$T<$T,$T> _map = null", Map.class, String.class, innerClass);
+										method.beginControlFlow("for ($T<$T,$T> _e : $N.entrySet())", Map.Entry.class, String.class, innerClass, name);
+											method.addStatement("$T _r = $T.$N(_e.getValue(), e)", innerClass, config.modeller(), op);
+											method.addStatement("if (_r != _e.getValue() && _map == null) _map = new $T<>($N)", HashMap.class, name);
+											method.addStatement("if (_map != null) _map.put(_e.getKey(), _r)");
+										method.endControlFlow();
+										method.beginControlFlow("if (_map != null)");
+											method.addStatement("if (_builder == null) _builder = builder()");
+											method.addStatement("_builder.$N(_map)", name);
+										method.endControlFlow();
+									method.endControlFlow();
+								})
+								.otherwise(t -> {
+									TypeName type = GenUtil.toTypeName(field.getType(), config);
+									method.beginControlFlow("if ($N != null)", name);
+										method.addStatement("$T _r = $T.$N($N, e)", type, config.modeller(), op, name);
+										method.beginControlFlow("if (_r != $N)", name);
+											method.addStatement("if (_builder == null) _builder = builder()");
+											method.addStatement("_builder.$N(_r)", name);
+										method.endControlFlow();
+									method.endControlFlow();
+								});
+					}
 				}
-				
+				method.addStatement("return _builder != null ? _builder.build() : this");
 			}
-			redact.addStatement("return _builder.build()");
-			unredact.addStatement("return _builder.build()");
 			
 		} else {
 			redact.addStatement("return this");
@@ -171,6 +171,8 @@ data class FieldData(
     val deprecated: Boolean,
     val localOnly: Boolean,
     val root: Boolean,
+    /** Values of this field repeat a lot across instances, so parsers should share equal instances instead of keeping a copy for each. */
+    val interned: Boolean = false,
     val derives: List<DeriveData>,
     val description: List<DescriptionData>,
     override val source: Source
@@ -317,6 +317,7 @@ class Field(override val data: FieldData, resolver: Resolver, override val conte
     val hashTarget = data.hashTarget
     val localOnly = data.localOnly
     val root = data.root
+    val interned = data.interned
     val description = NonInterfacedDescription(data.description, resolver, context)
     val type by resolver.resolve(this) { type(data.type, this) }
     val derives = Derive(data.derives, context, resolver)
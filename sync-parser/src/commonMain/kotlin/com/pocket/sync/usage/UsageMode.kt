@@ -16,7 +16,11 @@ enum class UsageMode {
     NORMAL,
     /** Deprecated, but it was previously used according to the [UsageFile], so should still support it or support it in a compat mode. */
     COMPAT,
-    /** Not used, can be safely excluded from your code generation. */
+    /**
+     * Not used, can be safely excluded from your code generation.
+     * Generated classes don't have a field for it, so it is skipped when parsing and never kept in memory or persisted.
+     * Identity fields are never skipped while their thing is used, see [UsageModeCalculator.mode].
+     */
     SKIP
 }
 
@@ -88,9 +92,14 @@ class UsageModeCalculator(val figments: Figments, private val compat: UsageFile)
         }.also { definitionModes[definition] = it }
     }
 
+    /**
+     * Fields that are part of a thing's identity are always [UsageMode.NORMAL] while the thing is used, even if the app never reads them,
+     * since idkeys and equality are based on them. They are added to the usage file if missing and excluding one is an error.
+     */
     fun mode(aspect: Aspect): UsageMode {
         val key = Pair(aspect.context.current, aspect)
         if (aspectModes.contains(key)) return aspectModes[key]!!
+        if (aspect is Field && (aspect.identifying || aspect.hashTarget) && compat.included(aspect.context.current)) return identityMode(aspect).also { aspectModes[key] = it }
         if (compat.excluded(aspect)) return UsageMode.SKIP
         return when {
             aspect.deprecated -> when {
@@ -104,6 +113,12 @@ class UsageModeCalculator(val figments: Figments, private val compat: UsageFile)
         }.also { aspectModes[key] = it }
     }
 
+    private fun identityMode(field: Field): UsageMode {
+        if (compat.excluded(field)) throw RuntimeException("$field is part of ${field.context.current.name}'s identity, so it can't be excluded in the usage file.")
+        compat.include(field)
+        return UsageMode.NORMAL
+    }
+
     /** See [UsageFile.commit] */
     fun commitUsageFile() = compat.commit()
 
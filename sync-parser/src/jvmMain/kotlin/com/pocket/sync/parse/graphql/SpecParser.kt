@@ -415,6 +415,7 @@ private fun GQLFieldDefinition.toFieldData(context: ContextData): FieldData {
         deprecated = deprecated,
         localOnly = directives.any { it.name == "local" },
         root = directives.any { it.name == "root_value" },
+        interned = directives.any { it.name == "intern" },
         derives = directives
             .asSequence()
             .filter { it.name == "derives" }
@@ -0,0 +1,68 @@
+package com.pocket.sync.usage
+
+import com.pocket.sync.Figments
+import com.pocket.sync.parse.graphql.SpecParser
+import okio.Path.Companion.toPath
+import okio.fakefilesystem.FakeFileSystem
+import kotlin.test.*
+
+class UsageModeCalculatorShould {
+    private val figments = Figments(SpecParser().parse("""
+        type Item {
+            url: String @id
+            title: String
+            lang: String
+        }
+    """.trimIndent()))
+
+    private val fs = FakeFileSystem()
+    private val path = "/usage.txt".toPath()
+
+    private fun calculator(usage: String): UsageModeCalculator {
+        fs.write(path) { writeUtf8(usage.trimIndent() + "\n") }
+        return UsageModeCalculator(figments, UsageFile(fs, path))
+    }
+
+    private fun field(name: String) = figments.things().first { it.name == "Item" }.fields.all.first { it.name == name }
+
+    @Test fun `skip fields excluded in the usage file`() {
+        val modes = calculator("""
+            thing Item
+            thing Item.url 1
+            thing Item.title 2
+            - thing Item.lang
+        """)
+
+        assertEquals(UsageMode.NORMAL, modes.mode(field("title")))
+        assertEquals(UsageMode.SKIP, modes.mode(field("lang")))
+        assertEquals(listOf("url", "title"), modes.getActiveFields(figments.things().first { it.name == "Item" }).map { it.name })
+    }
+
+    @Test fun `keep identity fields even if missing from the usage file`() {
+        val modes = calculator("""
+            thing Item
+            thing Item.title 1
+        """)
+
+        assertEquals(UsageMode.NORMAL, modes.mode(field("url")))
+        assertEquals(2, modes.id(field("url")), "gets the next id")
+    }
+
+    @Test fun `not allow excluding identity fields`() {
+        assertFailsWith<RuntimeException> {
+            calculator("""
+                thing Item
+                thing Item.title 1
+                - thing Item.url
+            """)
+        }
+    }
+
+    @Test fun `skip identity fields of things that aren't used`() {
+        val modes = calculator("""
+            - thing Item
+        """)
+
+        assertEquals(UsageMode.SKIP, modes.mode(field("url")))
+    }
+}
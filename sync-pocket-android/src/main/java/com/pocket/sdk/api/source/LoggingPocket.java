@@ -5,6 +5,7 @@ import com.pocket.sdk.Pocket;
 import com.pocket.sdk.api.generated.PocketRemoteStyle;
 import com.pocket.sync.action.Action;
 import com.pocket.sync.source.PendingResult;
+import com.pocket.sync.source.RemoteLane;
 import com.pocket.sync.source.result.RemotePriority;
 import com.pocket.sync.source.result.SyncException;
 import com.pocket.sync.source.subscribe.Changes;
@@ -117,13 +118,13 @@ public class LoggingPocket extends Pocket {
 	}
 
 	@Override
-	public <T extends Thing> PendingResult<T, SyncException> sync(T thing, Action... actions) {
-		return invoke("sync", () -> super.sync(thing, actions), thing, actions);
+	public <T extends Thing> PendingResult<T, SyncException> sync(RemoteLane lane, T thing, Action... actions) {
+		return invoke("sync", () -> super.sync(lane, thing, actions), thing, actions);
 	}
 	
 	@Override
-	public <T extends Thing> PendingResult<T, SyncException> syncRemote(T thing, Action... actions) {
-		return invoke("syncRemote", () -> super.syncRemote(thing, actions), thing, actions);
+	public <T extends Thing> PendingResult<T, SyncException> syncRemote(RemoteLane lane, T thing, Action... actions) {
+		return invoke("syncRemote", () -> super.syncRemote(lane, thing, actions), thing, actions);
 	}
 	
 	@Override
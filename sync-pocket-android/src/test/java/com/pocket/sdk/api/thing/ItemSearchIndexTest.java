@@ -0,0 +1,170 @@
+package com.pocket.sdk.api.thing;
+
+import com.pocket.sdk.api.generated.enums.ItemStatus;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.generated.thing.Saves;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sdk.api.value.Timestamp;
+import com.pocket.sdk.api.value.UrlString;
+import com.pocket.sync.space.Diff;
+import com.pocket.sync.space.Holder;
+import com.pocket.sync.space.Space;
+import com.pocket.sync.space.mutable.MutableSpace;
+import com.pocket.sync.space.persist.MemoryStorage;
+import com.pocket.sync.thing.Thing;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests {@link ItemSearchIndex} and how the {@link Saves} search derivation uses it.
+ */
+public class ItemSearchIndexTest {
+
+	private static final Holder HOLDER = Holder.persistent("test");
+	private static final String[] QUERIES = {
+			"a", "AR", "art", "ARTICLE", "article 1", "icle 12", "domain3.com/", "HTTPS://", "Ünïcode", "ünÏCODE",
+			"İstanbul", "istanbul", "straße", "STRASSE", "longer title", "nothing matches this", " ", "  ", "1", "99",
+	};
+
+	private final PocketSpec spec = new PocketSpec();
+
+	@Test
+	public void matches_the_same_as_checking_every_item() {
+		List<Item> items = items(300);
+		ItemSearchIndex index = new ItemSearchIndex();
+		index.update(added(items));
+
+		for (String query : QUERIES) {
+			Assert.assertEquals(query, idkeys(scan(items, query)), index.search(query));
+		}
+	}
+
+	@Test
+	public void follows_changes() {
+		List<Item> items = items(50);
+		ItemSearchIndex index = new ItemSearchIndex();
+		index.update(added(items));
+
+		Item renamed = items.get(3).builder().given_title("Renamed").resolved_title(null).build();
+		Item archived = items.get(4).builder().status(ItemStatus.ARCHIVED).build();
+		Diff.Builder changes = new Diff.Builder();
+		changes.changed(items.get(3), renamed);
+		changes.changed(items.get(4), archived);
+		index.update(changes.build());
+		items.set(3, renamed);
+		items.set(4, archived);
+
+		Assert.assertEquals(Collections.singleton(renamed.idkey()), index.search("renamed"));
+		Assert.assertTrue(index.search(archived.given_title).contains(archived.idkey()));
+		Assert.assertFalse(index.search("Article 3").contains(renamed.idkey()));
+		for (String query : QUERIES) {
+			Assert.assertEquals(query, idkeys(scan(items, query)), index.search(query));
+		}
+
+		index.removed(Collections.<Thing>singletonList(renamed));
+		items.remove(3);
+		Assert.assertTrue(index.search("renamed").isEmpty());
+
+		// Takes the place of the removed item in the index
+		Item added = items(51).get(50).builder().given_title("Added later").build();
+		index.update(added(Collections.singletonList(added)));
+		items.add(added);
+		Assert.assertEquals(Collections.singleton(added.idkey()), index.search("later"));
+		for (String query : QUERIES) {
+			Assert.assertEquals(query, idkeys(scan(items, query)), index.search(query));
+		}
+
+		index.clear();
+		Assert.assertTrue(index.search("article").isEmpty());
+	}
+
+	@Test
+	public void saves_search_uses_the_index() {
+		MemoryStorage storage = new MemoryStorage();
+		Space space = new MutableSpace(storage).setSpec(spec);
+		List<Item> items = items(100);
+		space.remember(HOLDER, items.toArray(new Thing[0]));
+		space.imprint(items);
+		assertSearch(space, items);
+
+		// Changes made after the index is created
+		Item renamed = items.get(10).builder().given_title("Renamed").build();
+		items.set(10, renamed);
+		space.imprint(renamed);
+		Item removed = items.remove(11);
+		space.forget(HOLDER, removed);
+		assertSearch(space, items);
+		Assert.assertEquals(1, search(space, "renamed").size());
+
+		// A new space restoring the same state rebuilds it
+		Space restored = new MutableSpace(storage).setSpec(spec);
+		assertSearch(restored, items);
+	}
+
+	private void assertSearch(Space space, List<Item> items) {
+		for (String query : QUERIES) {
+			if (StringUtils.isBlank(query)) continue; // Blank searches aren't searches
+			Assert.assertEquals(query, scan(items, query), new HashSet<>(search(space, query)));
+		}
+	}
+
+	private static List<Item> search(Space space, String query) {
+		return space.derive(new Saves.Builder().search(query).build()).list;
+	}
+
+	/** The search rules as they were before the index, checking every item. */
+	private static Set<Item> scan(List<Item> items, String query) {
+		Set<Item> found = new HashSet<>();
+		for (Item i : items) {
+			if (StringUtils.containsIgnoreCase(i.given_title, query)
+					|| StringUtils.containsIgnoreCase(i.resolved_title, query)
+					|| StringUtils.containsIgnoreCase(UrlString.asString(i.resolved_url), query)
+					|| StringUtils.containsIgnoreCase(UrlString.asString(i.given_url), query)) {
+				found.add(i);
+			}
+		}
+		return found;
+	}
+
+	private static Set<String> idkeys(Set<Item> items) {
+		Set<String> idkeys = new HashSet<>();
+		for (Item i : items) {
+			idkeys.add(i.idkey());
+		}
+		return idkeys;
+	}
+
+	private static Diff added(List<Item> items) {
+		Diff.Builder diff = new Diff.Builder();
+		for (Item item : items) {
+			diff.added(item);
+		}
+		return diff.build();
+	}
+
+	/** Items with a mix of titles, some missing, and some characters that only match ignoring case in special ways. */
+	private List<Item> items(int count) {
+		String[] special = {"Ünïcode title", "İSTANBUL guide", "Straße names", "ıstanbul dotless", null};
+		List<Item> items = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String domain = "domain" + (i % 10) + ".com";
+			items.add(ItemUtil.build("https://" + domain + "/article/" + i, spec)
+					.given_title(i % 7 == 0 ? special[i % special.length] : "Article " + i)
+					.resolved_title(i % 3 == 0 ? null : "A longer title for article " + i)
+					.resolved_url(i % 4 == 0 ? null : new UrlString("https://www." + domain + "/a/" + i))
+					.status(ItemStatus.UNREAD)
+					.time_added(new Timestamp(1_500_000_000L + i))
+					.build());
+		}
+		return items;
+	}
+
+}
@@ -2,11 +2,13 @@ package com.pocket.sync;
 
 
 import com.pocket.sync.action.Action;
+import com.pocket.sync.source.subscribe.Changes;
 import com.pocket.sync.space.Diff;
 import com.pocket.sync.space.Space;
 import com.pocket.sync.test.generated.SyncTestsApplier;
 import com.pocket.sync.test.generated.SyncTestsBaseSpec;
 import com.pocket.sync.test.generated.SyncTestsDerives;
+import com.pocket.sync.test.generated.thing.CascadeLink;
 import com.pocket.sync.test.generated.thing.ReactiveImplementation;
 import com.pocket.sync.test.generated.thing.ReactiveThing;
 import com.pocket.sync.thing.Thing;
@@ -79,6 +81,14 @@ public class SyncTestsSpec extends SyncTestsBaseSpec {
 			return now();
 		}
 
+		@Override
+		public Integer derive__CascadeLink__level(CascadeLink t, Diff diff, Space.Selector selector) {
+			if (t.level != null) return t.level;
+			if (t.depth == null || t.depth == 0) return 0;
+			boolean previousHasLevel = !diff.find(Changes.of(CascadeLink.class, l -> l.level != null && l.depth != null && l.depth == t.depth - 1)).isEmpty();
+			return previousHasLevel ? t.depth : null;
+		}
+
 		private String now() {
 			return System.nanoTime()+"";
 		}
@@ -10,11 +10,13 @@ import com.pocket.sync.space.Holder;
 import com.pocket.sync.space.mutable.MutableSpace;
 import com.pocket.sync.spec.Resolver;
 import com.pocket.sync.thing.Thing;
+import com.pocket.util.java.StopWatch;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AppSourceTest {
@@ -66,4 +68,63 @@ public class AppSourceTest {
 		// Finally await in a case where there should be no pending tasks, to make sure it doesn't infinitely hold in that case
 		source.await().get();
 	}
+	
+	@Test
+	public void interactiveLatencyIsBoundedUnderBackgroundLoad() throws Throwable {
+		// given
+		long remoteMillis = 200;
+		SyncTestsSpec spec = new SyncTestsSpec();
+		// This remote source takes a while to respond and then returns a successful response of whatever it was given.
+		FullResultSource remote = new FullResultSource() {
+			@Override
+			public <T extends Thing> SyncResult<T> syncFull(T thing, Action... actions) {
+				try {
+					Thread.sleep(remoteMillis);
+				} catch (InterruptedException ignore) {}
+				SyncResult.Builder<T> sr = new SyncResult.Builder<>(thing, actions);
+				if (thing != null) sr.thing(thing);
+				for (Action action : actions) {
+					sr.action(action, Status.SUCCESS, null, null);
+				}
+				return sr.build();
+			}
+		};
+		AppSource source = new AppSource(spec, new MutableSpace(null).setSpec(spec), remote, Resolver.BASIC, Publisher.CALLING_THREAD, new JavaThreadPools());
+		
+		// when
+		// Queue enough background work to keep every remote thread busy for several seconds
+		int background = 60;
+		AtomicInteger remaining = new AtomicInteger(background);
+		for (int i = 0; i < background; i++) {
+			source.syncRemote(RemoteLane.BACKGROUND, spec.things().somethingWithIdentity().id("background" + i).build())
+					.onSuccess(s -> remaining.decrementAndGet());
+		}
+		Thread.sleep(remoteMillis / 2);
+		
+		// Then make interactive requests one after another, like a user would
+		long slowest = 0;
+		for (int i = 0; i < 5; i++) {
+			long start = System.nanoTime();
+			source.syncRemote(RemoteLane.INTERACTIVE, spec.things().somethingWithIdentity().id("interactive" + i).build()).get();
+			slowest = Math.max(slowest, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+		
+		// then
+		// With a thread reserved for them, interactive requests never wait behind background ones.
+		// Without lanes, each would have waited for the whole background backlog, (60 * 200ms) / 4 threads = 3 seconds.
+		Assert.assertTrue("slowest interactive request took " + slowest + "ms", slowest < remoteMillis * 3);
+		Assert.assertTrue("background work is still waiting", remaining.get() > 0);
+		
+		StopWatch interactiveWait = source.queueWait(RemoteLane.INTERACTIVE);
+		StopWatch backgroundWait = source.queueWait(RemoteLane.BACKGROUND);
+		Assert.assertEquals(5, interactiveWait.intervals());
+		Assert.assertTrue(interactiveWait.max() < remoteMillis);
+		Assert.assertTrue(backgroundWait.max() > interactiveWait.max());
+		
+		// Background work still completes once there is nothing more urgent
+		source.await().get();
+		Assert.assertEquals(0, remaining.get());
+		Assert.assertEquals(background, source.queueWait(RemoteLane.BACKGROUND).intervals());
+		Assert.assertEquals(0, source.queueWait(RemoteLane.NORMAL).intervals());
+	}
 }
\ No newline at end of file
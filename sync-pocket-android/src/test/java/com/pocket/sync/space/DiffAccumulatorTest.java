@@ -0,0 +1,131 @@
+package com.pocket.sync.space;
+
+import com.pocket.sync.SyncTestsSpec;
+import com.pocket.sync.source.subscribe.Changes;
+import com.pocket.sync.space.mutable.MutableSpace;
+import com.pocket.sync.test.generated.thing.CascadeLink;
+import com.pocket.sync.test.generated.thing.SomethingWithIdentity;
+import com.pocket.sync.thing.Thing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests {@link DiffAccumulator} and how {@link MutableSpace} uses it to collect the changes of each imprint pass.
+ */
+public class DiffAccumulatorTest {
+
+	@Test
+	public void adding_keeps_the_first_previous_and_the_latest() {
+		SomethingWithIdentity v1 = thing("a", "1");
+		SomethingWithIdentity v2 = thing("a", "2");
+		SomethingWithIdentity v3 = thing("a", "3");
+		SomethingWithIdentity other = thing("b", "1");
+
+		DiffAccumulator acc = new DiffAccumulator();
+		acc.add(diff(v1, v2));
+		acc.add(diff(v2, v3));
+		acc.add(diff(null, other));
+
+		Diff expected = diff(v1, v2).add(diff(v2, v3)).add(diff(null, other));
+		Diff frozen = acc.freeze();
+		Assert.assertEquals(expected.changes.keySet(), frozen.changes.keySet());
+		Assert.assertSame(v1, frozen.find(v1).previous);
+		Assert.assertSame(v3, frozen.find(v1).latest);
+		Assert.assertNull(frozen.find(other).previous);
+	}
+
+	@Test
+	public void invalidated_follows_the_latest_state() {
+		SomethingWithIdentity a = thing("a", "1");
+		SomethingWithIdentity b = thing("b", "1");
+
+		DiffAccumulator acc = new DiffAccumulator();
+		acc.setInvalidated(a, true);
+		acc.setInvalidated(b, true);
+		acc.setInvalidated(a, false);
+
+		Assert.assertEquals(setOf(b), acc.freeze().invalidated);
+	}
+
+	@Test
+	public void find_matches_the_same_as_diff() {
+		DiffAccumulator acc = new DiffAccumulator();
+		acc.add(diff(null, thing("a", "1")));
+		Set<Change<SomethingWithIdentity>> found = new HashSet<>();
+		Assert.assertTrue(acc.find(Changes.of(SomethingWithIdentity.class), found));
+
+		// Adding more changes must refresh what it finds by type
+		acc.add(diff(thing("a", "1"), thing("a", "2")));
+		acc.add(diff(null, thing("b", "1")));
+		Changes<SomethingWithIdentity> matching = Changes.of(SomethingWithIdentity.class, t -> "1".equals(t.state));
+		found.clear();
+		Assert.assertTrue(acc.find(matching, found));
+		Assert.assertFalse(acc.find(Changes.of(CascadeLink.class), new HashSet<>()));
+
+		Diff frozen = acc.freeze();
+		Assert.assertEquals(frozen.find(matching), found);
+		Assert.assertEquals(1, found.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void frozen_cannot_change() {
+		DiffAccumulator acc = new DiffAccumulator();
+		acc.freeze();
+		acc.add(diff(null, thing("a", "1")));
+	}
+
+	@Test
+	public void imprint_collects_every_pass_of_a_cascade() {
+		Space space = new MutableSpace().setSpec(new SyncTestsSpec());
+		List<Thing> chain = chain(5);
+		space.remember(Holder.persistent("test"), chain.toArray(new Thing[0]));
+
+		space.startDiff();
+		space.imprint(chain);
+		Diff diff = space.endDiff();
+
+		Assert.assertEquals(chain.size(), diff.changes.size());
+		for (Thing t : chain) {
+			CascadeLink link = (CascadeLink) space.get(t);
+			Assert.assertEquals(link.depth, link.level);
+			Assert.assertNull(diff.find(t).previous);
+			Assert.assertEquals(link.level, ((CascadeLink) diff.find(t).latest).level);
+		}
+	}
+
+	/** @return A chain of {@link CascadeLink}s that takes one pass per link to derive. */
+	private static List<Thing> chain(int depth) {
+		List<Thing> things = new ArrayList<>(depth);
+		for (int i = 0; i < depth; i++) {
+			things.add(new CascadeLink.Builder().id("link" + i).depth(i).build());
+		}
+		return things;
+	}
+
+	private static SomethingWithIdentity thing(String id, String state) {
+		return new SomethingWithIdentity.Builder().id(id).state(state).build();
+	}
+
+	private static Diff diff(Thing previous, Thing latest) {
+		Diff.Builder b = new Diff.Builder();
+		if (previous != null) {
+			b.changed(previous, latest);
+		} else {
+			b.added(latest);
+		}
+		return b.build();
+	}
+
+	private static Set<Thing> setOf(Thing... things) {
+		Set<Thing> set = new HashSet<>();
+		for (Thing t : things) set.add(t);
+		return set;
+	}
+
+}
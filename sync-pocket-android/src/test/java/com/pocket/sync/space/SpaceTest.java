@@ -307,6 +307,73 @@ public abstract class SpaceTest {
 		assertReacted(true, result.reactive_self, start);
 	}
 	
+	/**
+	 * Verifies reactions are deferred while batching and then run once the batch ends, with all changes in one diff.
+	 */
+	@Test
+	public void batchDefersReactions() throws Exception {
+		// given
+		Space space = instance("r", new SyncTestsSpec());
+		Holder holder = Holder.persistent("holder");
+		ReactiveThing reactive = new ReactiveThing.Builder().id("reactive1").build();
+		ReactiveTarget target = new ReactiveTarget.Builder().id("target1").build();
+		ReactiveTarget target2 = new ReactiveTarget.Builder().id("target2").build();
+		space.remember(holder, reactive, target, target2);
+		space.imprint(target);
+		space.imprint(target2);
+		space.imprint(reactive);
+		long start = System.nanoTime();
+		
+		// when
+		space.startDiff();
+		space.startBatch();
+		space.imprint(target.builder().b("value").build());
+		space.imprint(target2.builder().b("value").build());
+		
+		// then
+		assertReacted(false, space.get(reactive).reactive_type, start);
+		
+		space.endBatch();
+		Diff diff = space.endDiff();
+		ReactiveThing result = space.get(reactive);
+		assertReacted(true, result.reactive_type, start);
+		Assert.assertEquals("value", space.get(target).b);
+		Assert.assertEquals("value", space.get(target2).b);
+		Assert.assertNotNull(diff.find(target));
+		Assert.assertNotNull(diff.find(target2));
+		Assert.assertEquals(result, diff.find(reactive).latest);
+	}
+	
+	/**
+	 * Verifies that things released during a batch are still cleaned up once the batch ends, even when the batch's reactions imprint more changes.
+	 */
+	@Test
+	public void batchCleansReleasedThings() throws Exception {
+		// given
+		Space space = instance("r", new SyncTestsSpec());
+		Holder holder = Holder.persistent("holder");
+		ReactiveThing reactive = new ReactiveThing.Builder().id("reactive1").build();
+		ReactiveTarget target = new ReactiveTarget.Builder().id("target1").build();
+		ReactiveTarget unheld = new ReactiveTarget.Builder().id("unheld").b("value").build();
+		space.remember(holder, reactive, target);
+		space.imprint(target);
+		space.imprint(reactive);
+		long start = System.nanoTime();
+		
+		// when
+		space.startBatch();
+		space.imprint(target.builder().b("value").build());
+		space.imprint(unheld);
+		
+		// then
+		Assert.assertNotNull("cleaning is deferred while batching", space.get(unheld));
+		
+		space.endBatch();
+		assertReacted(true, space.get(reactive).reactive_type, start);
+		Assert.assertNull("nothing holds it, so it should be cleaned when the batch ends", space.get(unheld));
+		Assert.assertEquals("value", space.get(target).b);
+	}
+	
 	/**
 	 * Verifies a field that is reactive to `Type.field` reacts properly.
 	 */
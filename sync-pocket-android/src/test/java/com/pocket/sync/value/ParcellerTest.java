@@ -0,0 +1,116 @@
+package com.pocket.sync.value;
+
+import android.content.Intent;
+import android.os.Bundle;
+
+import com.pocket.sdk.api.generated.thing.FeedItem;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sync.ThingMock;
+import com.pocket.sync.source.JsonConfig;
+import com.pocket.sync.spec.Syncable;
+import com.pocket.sync.thing.Thing;
+import com.pocket.sync.value.binary.ByteWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link Parceller} and compares its json and compressed forms.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ParcellerTest {
+
+	private static final JsonConfig JSON_CONFIG = Syncable.NO_ALIASES;
+
+	@Test
+	public void compressed_things_come_back_the_same() throws Exception {
+		List<Item> items = items();
+		Bundle bundle = new Bundle();
+		Parceller.putCompressed(bundle, "item", items.get(0));
+		Parceller.putCompressed(bundle, "items", items);
+
+		assertSameState(items.get(0), Parceller.get(bundle, "item", Item.BYTE_CREATOR, Item.JSON_CREATOR));
+		List<Item> list = Parceller.getList(bundle, "items", Item.BYTE_CREATOR, Item.JSON_CREATOR);
+		Assert.assertEquals(items.size(), list.size());
+		for (int i = 0; i < items.size(); i++) {
+			assertSameState(items.get(i), list.get(i));
+		}
+	}
+
+	@Test
+	public void compressed_lists_keep_nulls() throws Exception {
+		List<Item> items = new ArrayList<>(items().subList(0, 2));
+		items.add(1, null);
+		Intent intent = new Intent();
+		Parceller.putCompressed(intent, "items", items);
+
+		List<Item> list = Parceller.getList(intent, "items", Item.BYTE_CREATOR, Item.JSON_CREATOR);
+		Assert.assertEquals(3, list.size());
+		Assert.assertNull(list.get(1));
+		assertSameState(items.get(2), list.get(2));
+	}
+
+	@Test
+	public void reads_json_written_before_compressing() throws Exception {
+		List<Item> items = items();
+		Intent intent = new Intent();
+		Parceller.put(intent, "item", items.get(0));
+		Parceller.put(intent, "items", items);
+
+		Item json = Parceller.get(intent, "item", Item.JSON_CREATOR);
+		Assert.assertTrue(json.equals(Thing.Equality.STATE, Parceller.get(intent, "item", Item.BYTE_CREATOR, Item.JSON_CREATOR)));
+		Assert.assertEquals(items.size(), Parceller.getList(intent, "items", Item.BYTE_CREATOR, Item.JSON_CREATOR).size());
+	}
+
+	@Test
+	public void missing_values_are_null() {
+		Assert.assertNull(Parceller.get((Bundle) null, "item", Item.BYTE_CREATOR, Item.JSON_CREATOR));
+		Assert.assertNull(Parceller.get(new Bundle(), "item", Item.BYTE_CREATOR, Item.JSON_CREATOR));
+		Assert.assertNull(Parceller.getList(new Intent(), "items", Item.BYTE_CREATOR, Item.JSON_CREATOR));
+	}
+
+	@Test
+	public void compressed_is_smaller() throws Exception {
+		List<Item> items = items();
+		Assert.assertTrue(compressedSize(items) < jsonSize(items));
+	}
+
+	/** Items with lots of state, like the ones shown in lists. */
+	private static List<Item> items() throws Exception {
+		List<Item> items = new ArrayList<>();
+		for (FeedItem f : ThingMock.thing().feed().feed) {
+			if (f.item != null) items.add(f.item);
+		}
+		Assert.assertTrue(items.size() > 2);
+		return items;
+	}
+
+	private static void assertSameState(Item expected, Item actual) {
+		Assert.assertTrue(expected.equals(Thing.Equality.STATE, actual));
+	}
+
+	private static int jsonSize(List<Item> items) {
+		int size = 0;
+		for (Item item : items) {
+			size += item.toJson(JSON_CONFIG).toString().getBytes(StandardCharsets.UTF_8).length;
+		}
+		return size;
+	}
+
+	private static int compressedSize(List<Item> items) {
+		int size = 0;
+		for (Item item : items) {
+			ByteWriter out = new ByteWriter();
+			item.compress(out);
+			size += out.readByteArray().length;
+		}
+		return size;
+	}
+
+}
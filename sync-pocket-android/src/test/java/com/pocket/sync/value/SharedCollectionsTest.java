@@ -0,0 +1,113 @@
+package com.pocket.sync.value;
+
+import com.pocket.sdk.api.generated.enums.ItemContentType;
+import com.pocket.sdk.api.generated.enums.ItemStatus;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.generated.thing.Saves;
+import com.pocket.sdk.api.spec.PocketSpec;
+import com.pocket.sdk.api.thing.ItemUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link SharedList} and {@link SharedMap} and how generated things use them.
+ */
+public class SharedCollectionsTest {
+
+	private final PocketSpec spec = new PocketSpec();
+
+	@Test
+	public void builders_share_lists_without_copying() {
+		Saves saves = saves(100);
+		Assert.assertTrue(saves.list instanceof SharedList);
+
+		Saves rebuilt = saves.builder().list(saves.list).build();
+		Assert.assertSame(saves.list, rebuilt.list);
+		Assert.assertSame(saves.list, new Saves.Builder().list(saves.list).build().list);
+	}
+
+	@Test
+	public void builders_copy_mutable_lists() {
+		List<String> mutable = new ArrayList<>(Arrays.asList("a", "b"));
+		List<String> immutable = BaseModeller.immutable(mutable);
+		mutable.set(0, "changed");
+		Assert.assertEquals(Arrays.asList("a", "b"), immutable);
+	}
+
+	@Test
+	public void replacing_an_element_only_changes_that_element() {
+		Saves saves = saves(10);
+		Item replacement = saves.list.get(3).builder().status(ItemStatus.ARCHIVED).build();
+
+		List<Item> replaced = BaseModeller.replaceElement(saves.list, 3, replacement);
+
+		Assert.assertTrue(replaced instanceof SharedList);
+		Assert.assertSame(replacement, replaced.get(3));
+		Assert.assertNotSame(replacement, saves.list.get(3));
+		for (int i = 0; i < replaced.size(); i++) {
+			if (i != 3) Assert.assertSame(saves.list.get(i), replaced.get(i));
+		}
+		Assert.assertSame(replaced, saves.builder().list(replaced).build().list);
+	}
+
+	@Test
+	public void lists_equal_other_lists() {
+		List<String> shared = SharedList.copyOf(Arrays.asList("a", null, "c"));
+		Assert.assertEquals(Arrays.asList("a", null, "c"), shared);
+		Assert.assertEquals(shared, Arrays.asList("a", null, "c"));
+		Assert.assertEquals(Arrays.asList("a", null, "c").hashCode(), shared.hashCode());
+		Assert.assertEquals(1, shared.indexOf(null));
+		Assert.assertSame(shared, SharedList.copyOf(shared));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void lists_are_immutable() {
+		SharedList.copyOf(Arrays.asList("a", "b")).set(0, "c");
+	}
+
+	@Test
+	public void maps_keep_order_and_share() {
+		Map<String, String> source = new LinkedHashMap<>();
+		source.put("z", "1");
+		source.put("a", "2");
+		source.put("m", "3");
+
+		Map<String, String> shared = BaseModeller.immutable(source);
+		Assert.assertEquals(Arrays.asList("z", "a", "m"), new ArrayList<>(shared.keySet()));
+		Assert.assertSame(shared, BaseModeller.immutable(shared));
+
+		Map<String, String> replaced = SharedMap.replacing(shared, "a", "changed");
+		Assert.assertEquals(Arrays.asList("z", "a", "m"), new ArrayList<>(replaced.keySet()));
+		Assert.assertEquals("changed", replaced.get("a"));
+		Assert.assertEquals("2", shared.get("a"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void maps_are_immutable() {
+		Map<String, String> source = new LinkedHashMap<>();
+		source.put("a", "1");
+		BaseModeller.immutable(source).put("a", "2");
+	}
+
+	private Saves saves(int size) {
+		List<Item> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(ItemUtil.build("http://getpocket.com/item" + i, spec)
+					.status(ItemStatus.UNREAD)
+					.is_article(true)
+					.build());
+		}
+		return new Saves.Builder()
+				.list(list)
+				.contentType(ItemContentType.ARTICLE)
+				.build();
+	}
+
+}
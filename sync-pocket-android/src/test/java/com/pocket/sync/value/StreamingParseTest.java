@@ -0,0 +1,88 @@
+package com.pocket.sync.value;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pocket.sdk.api.generated.thing.Get;
+import com.pocket.sync.source.JsonConfig;
+import com.pocket.sync.spec.Syncable;
+import com.pocket.util.java.JsonUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the generated streaming parsers, the from(JsonParser) methods, against a large v3 get response.
+ */
+public class StreamingParseTest {
+
+	/** For testing purposes, no special Json parsing configuration rules are used here */
+	private static final JsonConfig JSON_CONFIG = Syncable.NO_ALIASES;
+
+	private final ObjectMapper mapper = JsonUtil.getObjectMapper();
+	private final JsonFactory jsonFactory = mapper.getFactory();
+
+	@Test
+	public void streaming_matches_tree() throws Exception {
+		String json = getResponse(200).toString();
+
+		Get fromParser = Get.from(jsonFactory.createParser(json), JSON_CONFIG);
+		Get fromTree = Get.from(mapper.readTree(json), JSON_CONFIG);
+
+		Assert.assertEquals(200, fromParser.list.size());
+		Assert.assertEquals(fromTree.toJson(JSON_CONFIG), fromParser.toJson(JSON_CONFIG));
+	}
+
+	@Test
+	public void remaps_in_streaming_mode() throws Exception {
+		Get get = Get.from(jsonFactory.createParser(getResponse(50).toString()), JSON_CONFIG);
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			expected.add(i);
+		}
+		Assert.assertEquals(expected, get.sort_ids);
+		Assert.assertEquals("1000", get.list.get(0).item_id);
+	}
+
+	/**
+	 * Builds a response like v3/get returns, with its list of items as a key:value object.
+	 */
+	private ObjectNode getResponse(int count) {
+		ObjectNode response = mapper.createObjectNode();
+		response.put("status", 1);
+		response.put("complete", 1);
+		response.put("since", 1500000000);
+		ObjectNode list = response.putObject("list");
+		for (int i = 0; i < count; i++) {
+			String id = String.valueOf(1000 + i);
+			ObjectNode item = list.putObject(id);
+			item.put("item_id", id);
+			item.put("resolved_id", id);
+			item.put("given_url", "https://example.com/article/" + i);
+			item.put("given_title", "Article " + i);
+			item.put("resolved_url", "https://example.com/article/" + i);
+			item.put("resolved_title", "An article about the number " + i);
+			item.put("favorite", "0");
+			item.put("status", "0");
+			item.put("time_added", String.valueOf(1500000000 + i));
+			item.put("time_updated", String.valueOf(1500000000 + i));
+			item.put("sort_id", i);
+			item.put("is_article", "1");
+			item.put("has_video", "0");
+			item.put("has_image", "1");
+			item.put("word_count", String.valueOf(100 + i));
+			item.put("lang", "en");
+			item.put("time_to_read", 5);
+			item.put("top_image_url", "https://example.com/images/" + i + ".jpg");
+			item.put("listen_duration_estimate", 120);
+			ObjectNode tags = item.putObject("tags");
+			tags.putObject("tag" + (i % 10)).put("item_id", id).put("tag", "tag" + (i % 10));
+		}
+		return response;
+	}
+
+}
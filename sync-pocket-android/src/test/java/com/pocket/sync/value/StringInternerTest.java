@@ -0,0 +1,115 @@
+package com.pocket.sync.value;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sync.source.JsonConfig;
+import com.pocket.sync.spec.Syncable;
+import com.pocket.sync.value.binary.ByteReader;
+import com.pocket.sync.value.binary.ByteWriter;
+import com.pocket.util.java.JsonUtil;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link StringInterner} and how generated things use it for fields marked with @intern.
+ */
+public class StringInternerTest {
+
+	/** For testing purposes, no special Json parsing configuration rules are used here */
+	private static final JsonConfig JSON_CONFIG = Syncable.NO_ALIASES;
+
+	private final ObjectMapper mapper = JsonUtil.getObjectMapper();
+
+	@After
+	public void tearDown() {
+		BaseModeller.setInterner(null);
+	}
+
+	@Test
+	public void shares_equal_values() {
+		StringInterner interner = new StringInterner(16);
+		String first = interner.intern(new String("example.com"));
+		String second = interner.intern(new String("example.com"));
+		Assert.assertSame(first, second);
+		Assert.assertNull(interner.intern(null));
+	}
+
+	@Test
+	public void stays_bounded() {
+		StringInterner interner = new StringInterner(4);
+		String first = interner.intern(new String("value0"));
+		for (int i = 1; i < 1000; i++) {
+			Assert.assertEquals("value" + i, interner.intern("value" + i));
+		}
+		// Evicted values are still returned correctly, just not shared anymore.
+		Assert.assertEquals(first, interner.intern(new String("value0")));
+	}
+
+	@Test
+	public void parsing_shares_marked_fields_when_enabled() throws Exception {
+		BaseModeller.setInterner(new StringInterner(64));
+		List<Item> items = parse(items(2));
+		Assert.assertSame(items.get(0).mime_type, items.get(1).mime_type);
+		Assert.assertSame(items.get(0).resolved_domain, items.get(1).resolved_domain);
+		Assert.assertNotSame("unmarked fields are left alone", items.get(0).given_title, items.get(1).given_title);
+	}
+
+	@Test
+	public void parsing_does_not_share_when_disabled() throws Exception {
+		List<Item> items = parse(items(2));
+		Assert.assertEquals(items.get(0).mime_type, items.get(1).mime_type);
+		Assert.assertNotSame(items.get(0).mime_type, items.get(1).mime_type);
+	}
+
+	@Test
+	public void uncompress_shares_marked_fields_when_enabled() throws Exception {
+		List<Item> parsed = parse(items(2));
+		BaseModeller.setInterner(new StringInterner(64));
+		Item first = uncompress(parsed.get(0));
+		Item second = uncompress(parsed.get(1));
+		Assert.assertSame(first.mime_type, second.mime_type);
+		Assert.assertSame(first.resolved_domain, second.resolved_domain);
+	}
+
+	private List<Item> parse(ArrayNode json) throws Exception {
+		List<Item> items = new ArrayList<>(json.size());
+		for (int i = 0; i < json.size(); i++) {
+			// Parse each separately, like separate responses would, so values aren't shared by the json itself.
+			items.add(Item.from(mapper.getFactory().createParser(mapper.writeValueAsBytes(json.get(i))), JSON_CONFIG));
+		}
+		return items;
+	}
+
+	private Item uncompress(Item item) {
+		ByteWriter out = new ByteWriter();
+		item.compress(out);
+		return Item.uncompress(new ByteReader(out.readByteArray()));
+	}
+
+	/**
+	 * Items like a large account would have, where a few domains, mime types and tags repeat across most of them.
+	 */
+	private ArrayNode items(int count) {
+		ArrayNode list = mapper.createArrayNode();
+		for (int i = 0; i < count; i++) {
+			ObjectNode item = list.addObject();
+			String domain = "domain" + (i % 50) + ".com";
+			item.put("item_id", String.valueOf(i));
+			item.put("given_url", "https://" + domain + "/article/" + i);
+			item.put("given_title", "Article " + i);
+			item.put("resolved_domain", domain);
+			item.put("mime_type", "text/html");
+			ArrayNode tags = item.putArray("tags");
+			tags.addObject().put("tag", "tag" + (i % 20));
+		}
+		return list;
+	}
+
+}
@@ -29,6 +29,7 @@ import com.pocket.sync.action.Action;
 import com.pocket.sync.source.AppSource;
 import com.pocket.sync.source.AsyncClientSource;
 import com.pocket.sync.source.PendingResult;
+import com.pocket.sync.source.RemoteLane;
 import com.pocket.sync.source.Source;
 import com.pocket.sync.source.result.RemotePriority;
 import com.pocket.sync.source.result.Result;
@@ -177,17 +178,38 @@ public class Pocket implements AsyncClientSource {
 	
 	@Override
 	public <T extends Thing> PendingResult<T, SyncException> sync(T thing, Action... actions) {
-		return source().sync(blockLogins(thing), actions);
+		return sync(RemoteLane.NORMAL, thing, actions);
+	}
+	
+	/** Same as {@link #sync(Thing, Action...)} but in a specific {@link RemoteLane}. See {@link AppSource#sync(RemoteLane, Thing, Action...)}. */
+	public <T extends Thing> PendingResult<T, SyncException> sync(RemoteLane lane, T thing, Action... actions) {
+		return source().sync(lane, blockLogins(thing), track(actions));
 	}
 	
 	@Override
 	public <T extends Thing> PendingResult<T, SyncException> syncRemote(T thing, Action... actions) {
-		return source().syncRemote(blockLogins(thing), actions);
+		return syncRemote(RemoteLane.NORMAL, thing, actions);
+	}
+	
+	/** Same as {@link #syncRemote(Thing, Action...)} but in a specific {@link RemoteLane}. See {@link AppSource#syncRemote(RemoteLane, Thing, Action...)}. */
+	public <T extends Thing> PendingResult<T, SyncException> syncRemote(RemoteLane lane, T thing, Action... actions) {
+		return source().syncRemote(lane, blockLogins(thing), track(actions));
 	}
 	
 	@Override
 	public <T extends Thing> PendingResult<T, SyncException> syncLocal(T thing, Action... actions) {
-		return source().syncLocal(blockLogins(thing), actions);
+		return source().syncLocal(blockLogins(thing), track(actions));
+	}
+	
+	/**
+	 * Hands analytics events to the remote's event queue when it has one, so they don't add to pending actions or the time it takes to sync them.
+	 * See {@link PocketRemoteSource#track(Action...)}.
+	 * @return The rest of the actions.
+	 */
+	private Action[] track(Action[] actions) {
+		if (actions.length == 0) return actions;
+		source(); // Make sure credentials are set up first
+		return config.remote.track(actions);
 	}
 	
 	@Override
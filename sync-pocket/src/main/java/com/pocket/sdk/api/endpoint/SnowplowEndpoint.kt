@@ -17,6 +17,11 @@ object SnowplowEndpoint {
                 .setHeader("User-Agent", Endpoint.userAgent(request.app, request.device))
             if (request.json != null) {
                 httpRequest.json = request.json.toString()
+            } else if (request.body != null) {
+                httpRequest.json = request.body
+            }
+            if (request.gzip) {
+                httpRequest.setHeader("Content-Encoding", "gzip")
             }
 
             val response = httpClient.post(httpRequest, null)
@@ -36,7 +41,12 @@ object SnowplowEndpoint {
         val app: AppInfo,
         val device: DeviceInfo,
         var json: ObjectNode? = null,
-    )
+    ) {
+        /** An already serialized json body, used if [json] isn't set. */
+        var body: String? = null
+        /** Whether to gzip the body. */
+        var gzip: Boolean = false
+    }
 }
 
 data class SnowplowApiException(
@@ -2,6 +2,7 @@ package com.pocket.sdk.api.source;
 
 import com.pocket.sdk.api.endpoint.Credentials;
 import com.pocket.sdk.api.generated.PocketRemoteStyle;
+import com.pocket.sdk.api.generated.action.SnowplowEvent;
 import com.pocket.sdk.api.generated.enums.SnowplowAppId;
 import com.pocket.sdk.api.generated.thing.ArticleView;
 import com.pocket.sdk.network.eclectic.EclecticHttp;
@@ -81,6 +82,26 @@ public class PocketRemoteSource implements SynchronousSource, FullResultSource,
 		return this;
 	}
 	
+	/**
+	 * If Snowplow events are sent from a queue, see {@link SnowplowSource.Config}, this adds any in these actions to it,
+	 * so they don't need to go through the sync engine's pending actions.
+	 * @return The actions that weren't queued and still need to be synced.
+	 */
+	public Action[] track(Action... actions) {
+		if (!snowplow.isQueued()) return actions;
+		List<SnowplowEvent> events = new ArrayList<>();
+		List<Action> remaining = new ArrayList<>();
+		for (Action a : actions) {
+			if (a instanceof SnowplowEvent) {
+				events.add((SnowplowEvent) a);
+			} else {
+				remaining.add(a);
+			}
+		}
+		if (events.isEmpty() || !snowplow.track(events)) return actions;
+		return remaining.toArray(new Action[0]);
+	}
+	
 	@Override
 	public synchronized <T extends Thing> T sync(T requested, Action... actions) throws SyncException {
 		SyncResult<T> r = syncFull(requested, actions);
@@ -0,0 +1,208 @@
+package com.pocket.sdk.api.source
+
+import java.io.BufferedInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.RandomAccessFile
+
+/** Once this many bytes at the start of the file have been sent, the rest is copied to a new file. */
+private const val COMPACT_BYTES = 256 * 1024L
+/** The most bytes of unsent events to keep. If the collector is unreachable for a long time, the oldest events are dropped. */
+private const val MAX_BYTES = 5 * 1024 * 1024L
+private const val NEWLINE = '\n'.code
+
+/**
+ * A durable, append-only queue of Snowplow event payloads on disk, so analytics can be
+ * tracked without going through the sync engine's pending actions and survive restarts until
+ * [SnowplowEventSender] sends them.
+ *
+ * Each event is a line of json in an `events-<generation>` file. A small `cursor` file holds the
+ * generation and the byte offset of the first event that hasn't been sent yet, so removing sent
+ * events only rewrites the cursor. When everything is sent, or the sent part grows past
+ * [COMPACT_BYTES], the unsent events are copied to a file of the next generation and the cursor is
+ * switched over to it, so the queue is never left pointing into a file that doesn't match.
+ * A partially written last line, from the process dying mid write, is dropped when the queue opens.
+ * [add] syncs the file before it returns, so events it accepted survive the process or device dying right after.
+ *
+ * Thread safe, [SnowplowEventSender] adds events from one thread while it sends them from another.
+ */
+class SnowplowEventQueue(private val dir: File) {
+
+    /** A run of events from the start of the queue. Pass to [remove] once sent. */
+    class Batch internal constructor(
+        val payloads: List<String>,
+        /** Uncompressed size of the payloads. */
+        val bytes: Int,
+        internal val generation: Long,
+        internal val start: Long,
+        internal val end: Long,
+    )
+
+    private val cursor = File(dir, "cursor")
+    private var generation = 0L
+    private var offset = 0L
+    private var length = 0L
+
+    /** The number of events waiting to be sent. */
+    @get:Synchronized var size = 0
+        private set
+
+    init {
+        dir.mkdirs()
+        cursor.takeIf { it.exists() }?.readText()?.trim()?.split(' ')?.let {
+            generation = it.getOrNull(0)?.toLongOrNull() ?: 0
+            offset = it.getOrNull(1)?.toLongOrNull() ?: 0
+        }
+        dir.listFiles()?.forEach {
+            if (it.name.startsWith("events-") && it != events()) it.delete() // Left over from an interrupted compaction
+        }
+        length = dropPartialLine(events())
+        offset = offset.coerceIn(0, length)
+        size = countLines(offset)
+    }
+
+    /**
+     * Append events to the end of the queue.
+     * @param payloads Json objects, which can't contain line breaks.
+     */
+    @Synchronized
+    fun add(payloads: List<String>) {
+        if (payloads.isEmpty()) return
+        val out = ByteArrayOutputStream()
+        for (payload in payloads) {
+            require(payload.indexOf('\n') < 0) { "payload can't contain line breaks" }
+            out.write(payload.toByteArray())
+            out.write(NEWLINE)
+        }
+        FileOutputStream(events(), true).use {
+            out.writeTo(it)
+            it.fd.sync()
+        }
+        length += out.size()
+        size += payloads.size
+
+        while (length - offset > MAX_BYTES && size > 0) {
+            remove(peek(100, Int.MAX_VALUE))
+        }
+    }
+
+    /**
+     * The oldest events, without removing them.
+     * @param maxEvents The most events to include.
+     * @param maxBytes The most bytes of payloads to include, though it always includes at least one event if there are any.
+     */
+    @Synchronized
+    fun peek(maxEvents: Int, maxBytes: Int): Batch {
+        val payloads = mutableListOf<String>()
+        var bytes = 0
+        var end = offset
+        if (size > 0) {
+            FileInputStream(events()).use { file ->
+                file.channel.position(offset)
+                val input = BufferedInputStream(file)
+                val line = ByteArrayOutputStream()
+                while (payloads.size < maxEvents && end < length) {
+                    line.reset()
+                    var b = input.read()
+                    while (b != NEWLINE && b >= 0) {
+                        line.write(b)
+                        b = input.read()
+                    }
+                    if (b < 0) break
+                    if (payloads.isNotEmpty() && bytes + line.size() > maxBytes) break
+                    payloads.add(line.toString(Charsets.UTF_8.name()))
+                    bytes += line.size()
+                    end += line.size() + 1
+                }
+            }
+        }
+        return Batch(payloads, bytes, generation, offset, end)
+    }
+
+    /**
+     * Remove events returned by [peek], once they don't need to be sent anymore.
+     */
+    @Synchronized
+    fun remove(batch: Batch) {
+        if (batch.generation != generation || batch.end <= offset) return // Already removed
+        val partial = batch.start != offset // Some of it was dropped by [add] to stay under MAX_BYTES since it was peeked
+        offset = batch.end
+        size = if (partial) countLines(offset) else size - batch.payloads.size
+        if (offset >= length || offset >= COMPACT_BYTES) {
+            compact()
+        } else {
+            writeCursor()
+        }
+    }
+
+    /**
+     * Move events returned by [peek] to the end of the queue, behind everything added since,
+     * so events that can't be sent right now don't hold up the rest.
+     */
+    @Synchronized
+    fun moveToBack(batch: Batch) {
+        if (batch.generation != generation || batch.start != offset) return // Already removed
+        add(batch.payloads)
+        remove(batch)
+    }
+
+    /** Copy the unsent events to a file of the next generation and drop the old one. */
+    private fun compact() {
+        val old = events()
+        val next = File(dir, "events-${generation + 1}")
+        FileOutputStream(next).use { out ->
+            FileInputStream(old).use { input ->
+                input.channel.transferTo(offset, length - offset, out.channel)
+            }
+            out.fd.sync()
+        }
+        generation++
+        length -= offset
+        offset = 0
+        writeCursor()
+        old.delete()
+    }
+
+    private fun writeCursor() {
+        val temp = File(dir, "cursor.tmp")
+        temp.writeText("$generation $offset")
+        if (!temp.renameTo(cursor)) {
+            cursor.delete()
+            temp.renameTo(cursor)
+        }
+    }
+
+    private fun events() = File(dir, "events-$generation")
+
+    /** @return The length of the file, after truncating anything after its last line break. */
+    private fun dropPartialLine(file: File): Long {
+        if (!file.exists()) return 0
+        RandomAccessFile(file, "rw").use { raf ->
+            var end = raf.length()
+            while (end > 0) {
+                raf.seek(end - 1)
+                if (raf.read() == NEWLINE) break
+                end--
+            }
+            if (end != raf.length()) raf.setLength(end)
+            return end
+        }
+    }
+
+    private fun countLines(from: Long): Int {
+        if (from >= length) return 0
+        var lines = 0
+        FileInputStream(events()).use { file ->
+            file.channel.position(from)
+            val input = BufferedInputStream(file)
+            var b = input.read()
+            while (b >= 0) {
+                if (b == NEWLINE) lines++
+                b = input.read()
+            }
+        }
+        return lines
+    }
+}
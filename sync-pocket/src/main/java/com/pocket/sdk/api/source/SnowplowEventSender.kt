@@ -0,0 +1,198 @@
+package com.pocket.sdk.api.source
+
+import com.pocket.sdk.api.endpoint.Credentials
+import com.pocket.sdk.api.endpoint.SnowplowEndpoint
+import com.pocket.sdk.api.endpoint.unwrapSnowplowApiException
+import com.pocket.sdk.api.value.Timestamp
+import com.pocket.sdk.network.eclectic.EclecticHttp
+import org.apache.commons.lang3.exception.ExceptionUtils
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+private const val MIN_BATCH_BYTES = 4 * 1024
+private const val INITIAL_BATCH_BYTES = 32 * 1024
+private const val MAX_BATCH_BYTES = 256 * 1024
+/** How many times in a row a single event can fail to be sent, other than by a connection problem, before it is moved to the back of the queue. */
+private const val MAX_ATTEMPTS = 5
+
+/**
+ * Sends the events in a [SnowplowEventQueue] to the collector on its own thread,
+ * so analytics never wait on, or hold up, syncing with Pocket's servers.
+ * Events are also written to the queue on a thread of their own, so tracking doesn't wait on the disk.
+ *
+ * ## Batching
+ * Batches are limited by [maxEvents] and by a budget of uncompressed payload bytes.
+ * The budget starts at [INITIAL_BATCH_BYTES], doubles after each batch the collector accepts and
+ * halves after each failure, between [MIN_BATCH_BYTES] and [MAX_BATCH_BYTES].
+ * A batch always has at least one event.
+ *
+ * ## Retries
+ * Failures that might succeed later (no connection, 408, 429, 5xx) keep the batch in the queue
+ * and try again after an exponential [Backoff], so events are still sent in order once the collector can be reached.
+ * A batch the collector rejects for any other reason is dropped, since sending it again won't help.
+ * A batch that is too large (413) is split up.
+ *
+ * A batch that fails without a response, but not because of the connection, has something in it that keeps
+ * the request from being made. It is split in half, until the event causing it is on its own. If that
+ * event still fails [MAX_ATTEMPTS] times in a row, it is moved to the back of the queue, so it doesn't hold up
+ * everything tracked after it.
+ *
+ * Bodies are gzipped. If the collector doesn't accept that (415) it falls back to plain json.
+ *
+ * Nothing is sent until [credentials] are set.
+ */
+class SnowplowEventSender(
+    dir: File,
+    private val httpClient: EclecticHttp,
+    private val collectorUrl: String,
+    private val backoff: Backoff = Backoff(),
+) {
+
+    /**
+     * How long to wait before retrying after consecutive failures.
+     * @param initial Milliseconds to wait after the first failure, doubled after each one after that.
+     * @param max The most milliseconds to wait.
+     */
+    class Backoff @JvmOverloads constructor(
+        private val initial: Long = 5_000,
+        private val max: Long = 5 * 60_000,
+    ) {
+        fun delay(failures: Int) = (initial shl (failures - 1).coerceIn(0, 20)).coerceAtMost(max)
+    }
+
+    private enum class Outcome { SENT, REJECTED, TOO_LARGE, UNSUPPORTED_ENCODING, RETRY, BROKEN }
+
+    private val executor: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor { r ->
+        Thread(r, "snowplow").apply { isDaemon = true }
+    }
+    private val writer: ExecutorService = Executors.newSingleThreadExecutor { r ->
+        Thread(r, "snowplow-queue").apply { isDaemon = true }
+    }
+    private val queue by lazy { SnowplowEventQueue(dir) }
+
+    // Only accessed from the executor's thread
+    private var retry: Future<*>? = null
+    private var failures = 0
+    private var attempts = 0 // Of the event at the front of the queue that is [Outcome.BROKEN] on its own
+    private var batchBytes = INITIAL_BATCH_BYTES
+    private var batchEvents = Int.MAX_VALUE // Lowered to split up an [Outcome.BROKEN] batch
+    private var gzip = true
+
+    @Volatile var credentials: Credentials? = null
+        set(value) {
+            field = value
+            if (value != null) send()
+        }
+
+    @Volatile var maxEvents = 25
+
+    /** The number of events the collector has accepted. */
+    @Volatile var sent = 0L
+        private set
+    /** The number of events dropped because the collector rejected them. */
+    @Volatile var dropped = 0L
+        private set
+
+    /**
+     * Queue events and start sending them once they are written to disk, which happens on a thread of its own.
+     * @param payloads The json payload of each event. See [SnowplowEventQueue.add].
+     * @return Completes once they are written to disk.
+     */
+    fun add(payloads: List<String>): Future<*> = writer.submit {
+        queue.add(payloads)
+        send()
+    }
+
+    /** Send anything waiting in the queue, unless it is already waiting to retry. */
+    fun send() {
+        executor.execute { drain() }
+    }
+
+    /** @return The number of events waiting to be sent, once events added so far are written to disk. */
+    fun size(): Int = writer.submit(Callable { queue.size }).get()
+
+    /** Stop sending. Anything not sent yet stays on disk for the next sender of this directory. */
+    fun stop() {
+        writer.shutdown() // Finish writing what was already added
+        writer.awaitTermination(10, TimeUnit.SECONDS)
+        executor.shutdownNow()
+        executor.awaitTermination(10, TimeUnit.SECONDS)
+    }
+
+    private fun drain() {
+        if (retry != null) return // Wait for the backoff
+        val credentials = credentials ?: return
+        while (!Thread.currentThread().isInterrupted) {
+            val batch = queue.peek(minOf(maxEvents, batchEvents), batchBytes)
+            if (batch.payloads.isEmpty()) return
+
+            val outcome = post(batch, credentials)
+            if (outcome != Outcome.BROKEN) attempts = 0
+            when (outcome) {
+                Outcome.SENT -> {
+                    queue.remove(batch)
+                    sent += batch.payloads.size
+                    failures = 0
+                    batchEvents = Int.MAX_VALUE
+                    batchBytes = (batchBytes * 2).coerceAtMost(MAX_BATCH_BYTES)
+                }
+                Outcome.REJECTED -> {
+                    queue.remove(batch)
+                    dropped += batch.payloads.size
+                }
+                Outcome.TOO_LARGE -> {
+                    if (batch.payloads.size == 1) {
+                        queue.remove(batch)
+                        dropped++
+                    } else {
+                        batchBytes = (batch.bytes / 2).coerceAtLeast(1) // Smaller than the usual minimum, to make sure the next batch is smaller
+                    }
+                }
+                Outcome.UNSUPPORTED_ENCODING -> gzip = false
+                Outcome.RETRY, Outcome.BROKEN -> {
+                    failures++
+                    if (outcome == Outcome.RETRY) {
+                        batchBytes = (batchBytes / 2).coerceAtLeast(MIN_BATCH_BYTES)
+                    } else if (batch.payloads.size > 1) {
+                        batchEvents = batch.payloads.size / 2 // Split it up to find the event causing it
+                    } else if (++attempts >= MAX_ATTEMPTS) {
+                        queue.moveToBack(batch)
+                        attempts = 0
+                        batchEvents = Int.MAX_VALUE
+                    }
+                    retry = executor.schedule(Runnable {
+                        retry = null
+                        drain()
+                    }, backoff.delay(failures), TimeUnit.MILLISECONDS)
+                    return
+                }
+            }
+        }
+    }
+
+    private fun post(batch: SnowplowEventQueue.Batch, credentials: Credentials): Outcome {
+        return try {
+            val request = SnowplowEndpoint.Request(collectorUrl, credentials.app, credentials.device)
+            request.body = batchJson(batch.payloads, Timestamp.now().millis())
+            request.gzip = gzip
+            SnowplowEndpoint.execute(request, httpClient)
+            Outcome.SENT
+        } catch (throwable: Throwable) {
+            val code = unwrapSnowplowApiException(throwable)?.httpStatusCode ?: 0
+            when {
+                code == 0 && ExceptionUtils.indexOfType(throwable, IOException::class.java) >= 0 -> Outcome.RETRY // No connection
+                code == 0 -> Outcome.BROKEN
+                code == 408 || code == 429 || code >= 500 -> Outcome.RETRY
+                code == 413 -> Outcome.TOO_LARGE
+                code == 415 && gzip -> Outcome.UNSUPPORTED_ENCODING
+                else -> Outcome.REJECTED
+            }
+        }
+    }
+}
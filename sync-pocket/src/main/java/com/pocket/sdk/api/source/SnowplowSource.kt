@@ -26,6 +26,9 @@ import com.pocket.sync.spec.Syncable
 import com.pocket.sync.thing.Thing
 import com.pocket.sync.value.StringEnum
 import okio.ByteString
+import java.io.File
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
 
 private const val TRACKER_VERSION = "pkt-andr"
 private const val EVENT_TYPE_UNSTRUCTURED = "ue"
@@ -201,6 +204,13 @@ private const val MAX_ACTIONS_LIMIT = 25
  * https://github.com/snowplow/snowplow-java-tracker/blob/b6959231a0128f31003f2fdc6da334d3bbdea5a6/src/main/java/com/snowplowanalytics/snowplow/tracker/payload/TrackerPayload.java#L91
  * Looks like it uses UTF-8 encoding when serialising JSON to a string and then the
  * Base64 encoding uses a "single-line non-chunking" method.
+ *
+ * ## Event queue
+ *
+ * If [Config.queue] is set, events don't wait in the sync engine's pending actions for a remote sync.
+ * [track] and [syncFull] write them to a [SnowplowEventQueue] on disk and a [SnowplowEventSender]
+ * sends them from there on its own thread, see those classes for how batches and retries work.
+ * The send time (`stm`) is added to each event as its batch is sent.
  */
 class SnowplowSource(
     private val httpClient: EclecticHttp,
@@ -217,8 +227,20 @@ class SnowplowSource(
 
     /**
      * @param collector The domain hosting the collector endpoint to send events to.
+     * @param queue If set, a directory to queue events in and send them from, rather than sending them as part of a sync. See "Event queue" above.
+     * @param backoff If using a [queue], how long to wait before retrying after failures.
      */
-    class Config(internal val collector: String, internal val collectorPostPath: String, internal val appId: SnowplowAppId)
+    class Config @JvmOverloads constructor(
+        internal val collector: String,
+        internal val collectorPostPath: String,
+        internal val appId: SnowplowAppId,
+        internal val queue: File? = null,
+        internal val backoff: SnowplowEventSender.Backoff = SnowplowEventSender.Backoff(),
+    )
+
+    private val sender = config.queue?.let {
+        SnowplowEventSender(it, httpClient, "${config.collector}/${config.collectorPostPath}", config.backoff)
+    }
     
     var maxActions: Int = MAX_ACTIONS_DEFAULT
         set(value) {
@@ -227,16 +249,64 @@ class SnowplowSource(
                 value > MAX_ACTIONS_LIMIT -> MAX_ACTIONS_LIMIT
                 else -> value
             }
+            sender?.maxEvents = field
         }
 
     var credentials: Credentials? = null
+        set(value) {
+            field = value
+            sender?.credentials = value
+        }
+
+    /** Whether events are sent from a queue, see "Event queue" above. */
+    val isQueued get() = sender != null
+
+    /**
+     * If [isQueued], add the events to the queue to be sent in the background.
+     * They are written to disk on the queue's own thread, so this doesn't wait on the disk.
+     * @return true if they were queued, false if they were not queued and need to be sent through [syncFull] instead.
+     */
+    fun track(events: List<SnowplowEvent>): Boolean = queue(events) != null
+
+    /** Like [track], but @return Completes once they are written to disk, or null if they were not queued. */
+    private fun queue(events: List<SnowplowEvent>): Future<*>? {
+        val sender = sender ?: return null
+        val lang = credentials?.device?.locale ?: return null
+        return sender.add(events.map { payload(it, config.appId, lang, null).toString() })
+    }
+
+    /** The number of events waiting in the queue, once the ones tracked so far are written to disk. */
+    fun queued() = sender?.size() ?: 0
+
+    /** If [isQueued], stop sending events. Anything not sent yet stays in the queue. */
+    fun stop() {
+        sender?.stop()
+    }
     
     override fun <T : Thing?> syncFull(thing: T, vararg actions: Action): SyncResult<T> {
         val supported = actions.filterIsInstance(SnowplowEvent::class.java)
         val (_, _, device, app) = credentials ?: throw RuntimeException("missing credentials")
         val result = SyncResult.Builder(thing, actions)
+
+        val written = queue(supported)
+        val batches = if (written != null) {
+            // Pending from before the queue was set up, or tracked in a way that didn't go through track().
+            // They only succeed once they are on disk, otherwise they stay pending to try again.
+            val error = try {
+                written.get()
+                null
+            } catch (e: ExecutionException) {
+                e.cause ?: e
+            }
+            for (action in supported) {
+                if (error == null) result.action(action, Status.SUCCESS) else result.action(action, Status.FAILED, error)
+            }
+            emptyList<List<SnowplowEvent>>()
+        } else {
+            supported.chunked(maxActions)
+        }
     
-        for (batch in supported.chunked(maxActions)) {
+        for (batch in batches) {
             try {
                 val collectorUrl = "${config.collector}/${config.collectorPostPath}"
                 val request = SnowplowEndpoint.Request(collectorUrl, app, device)
@@ -245,7 +315,7 @@ class SnowplowSource(
                     put(Fields.SCHEMA, Schemas.PAYLOAD_DATA)
                     putArray("data").apply {
                         for (action in batch) {
-                            add(payload(action, config.appId, device.locale))
+                            add(payload(action, config.appId, device.locale, Timestamp.now()))
                         }
                     }
                 }
@@ -286,7 +356,10 @@ class SnowplowSource(
     override fun isSupported(syncable: Syncable) = syncable is SnowplowEvent
 }
 
-private fun payload(action: SnowplowEvent, appId: SnowplowAppId, lang: String) = jsonObject {
+/**
+ * @param sendTime When the event is being sent, or null if it is being queued and will be added by [batchJson].
+ */
+private fun payload(action: SnowplowEvent, appId: SnowplowAppId, lang: String, sendTime: Timestamp?) = jsonObject {
     // Constant values, same for every action.
     put(Fields.PLATFORM, SnowplowPlatform.MOB)
     put(Fields.TRACKER_VERSION, TRACKER_VERSION)
@@ -295,7 +368,7 @@ private fun payload(action: SnowplowEvent, appId: SnowplowAppId, lang: String) =
     put(Fields.BR_LANG, lang)
 
     // Values added by the source at the time of sending.
-    put(Fields.SEND_TIME, Timestamp.now().millis().toString())
+    if (sendTime != null) put(Fields.SEND_TIME, sendTime.millis().toString())
 
     // Values declared by the action.
     put(Fields.EVENT_ID, action._eid())
@@ -304,6 +377,19 @@ private fun payload(action: SnowplowEvent, appId: SnowplowAppId, lang: String) =
     put(Fields.DEVICE_TIME, (action.time() as? Timestamp)?.millis().toString())
 }
 
+/**
+ * The body for a batch of queued payloads, adding the send time to each.
+ * @param payloads Payloads created without a send time, see [payload].
+ */
+internal fun batchJson(payloads: List<String>, sendTime: Long): String {
+    val stm = "{\"${Fields.SEND_TIME}\":\"$sendTime\","
+    return payloads.joinToString(
+        separator = ",",
+        prefix = "{\"${Fields.SCHEMA}\":\"${Schemas.PAYLOAD_DATA}\",\"${Fields.DATA}\":[",
+        postfix = "]}",
+    ) { stm + it.substring(1) }
+}
+
 private fun List<SnowplowEntity>.toSnowplowJson(): ObjectNode {
     val fields = this.map { it.toSnowplowJson() }
     
@@ -52,11 +52,11 @@ import com.pocket.sdk.api.generated.thing.Tags;
 import com.pocket.sdk.api.generated.thing.Unleash;
 import com.pocket.sdk.api.generated.thing.UnleashAssignment;
 import com.pocket.sdk.api.generated.thing.UserFollow;
+import com.pocket.sdk.api.thing.ItemSearchIndex;
 import com.pocket.sdk.api.thing.ItemUtil;
 import com.pocket.sdk.api.thing.ItemUtil2Kt;
 import com.pocket.sdk.api.thing.TagUtil;
 import com.pocket.sdk.api.value.Timestamp;
-import com.pocket.sdk.api.value.UrlString;
 import com.pocket.sync.source.subscribe.Changes;
 import com.pocket.sync.space.Change;
 import com.pocket.sync.space.Diff;
@@ -443,7 +443,17 @@ public class Deriver extends PocketDerives {
 					// TODO Optimizations:
 					// 1. If already derived once, we could look at the diff, and if the item changes aren't ones that would add/remove or re-sort, then nothing will change in the list here, so we could just return the current list and avoid all this work.
 					// 2. Looks like 80% of this time is spent sorting. Maybe there is a way to avoid getting a randomized list every time, so sorting can be faster
-					List<Item> items = s.getOfType(Item.THING_TYPE, Item.class);
+					// With a search, only look at what it matched instead of every item.
+					List<Item> items;
+					if (StringUtils.isBlank(thing.search)) {
+						items = s.getOfType(Item.THING_TYPE, Item.class);
+					} else {
+						Set<String> found = s.index(ItemSearchIndex.class, ItemSearchIndex::new).search(thing.search);
+						items = new ArrayList<>(found.size());
+						for (String idkey : found) {
+							items.add((Item) s.get(idkey));
+						}
+					}
 					Iterator<Item> it = items.iterator();
 					while (it.hasNext()) {
 						Item i = it.next();
@@ -501,15 +511,6 @@ public class Deriver extends PocketDerives {
 							it.remove();
 							continue;
 						}
-						if (!StringUtils.isBlank(thing.search)) {
-							if (!StringUtils.containsIgnoreCase(i.given_title, thing.search)
-								&& !StringUtils.containsIgnoreCase(i.resolved_title, thing.search)
-								&& !StringUtils.containsIgnoreCase(UrlString.asString(i.resolved_url), thing.search)
-								&& !StringUtils.containsIgnoreCase(UrlString.asString(i.given_url), thing.search)) {
-									it.remove();
-									continue;
-							}
-						}
 						if (thing.tag != null && !ItemUtil.matchesTag(i, thing.tag)) {
 							it.remove();
 							continue;
@@ -0,0 +1,236 @@
+package com.pocket.sdk.api.thing;
+
+import com.pocket.sdk.api.generated.thing.Item;
+import com.pocket.sdk.api.value.UrlString;
+import com.pocket.sync.space.Change;
+import com.pocket.sync.space.Diff;
+import com.pocket.sync.space.mutable.SpaceIndex;
+import com.pocket.sync.thing.Thing;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A trigram index of the text fields that local search looks at in {@link Item}s, so searching a large library only has to
+ * check the few items that could match, rather than every item.
+ * <p>
+ * Results are the same as checking every item with {@link #matches(Item, String)}:
+ * the index narrows down the candidates to items that have every trigram of the query and those are then checked with it.
+ * Queries shorter than a trigram check every item.
+ * <p>
+ * To keep it small for large libraries, it doesn't hold on to items. Each indexed item gets an int id, which postings
+ * are kept as sorted arrays of, and only its idkey and the searched text are kept. Search results are idkeys to get
+ * the items from the space with.
+ * <p>
+ * Kept up to date by the space it was requested from, see {@link SpaceIndex}.
+ */
+public class ItemSearchIndex implements SpaceIndex {
+
+	private static final int GRAM = 3;
+
+	/** Each trigram, to the ids of the items that have it in one of their searched fields. */
+	private final Map<Long, Posting> postings = new HashMap<>();
+	/** Each indexed item's idkey, to its id. */
+	private final Map<String, Integer> ids = new HashMap<>();
+	/** By id, the idkey of the item, or null if the id is free. */
+	private String[] idkeys = new String[16];
+	/** By id, the searched fields of the item, see {@link #text(Item)}. */
+	private String[][] texts = new String[16][];
+	/** Ids of removed items, to reuse before new ones. */
+	private int[] free = new int[16];
+	private int freeCount;
+	/** The next id that has never been used. */
+	private int nextId;
+
+	/**
+	 * The local search rules. True if any of the title or url fields contain the query, ignoring case.
+	 */
+	public static boolean matches(Item item, String query) {
+		return matches(text(item), query);
+	}
+
+	private static boolean matches(String[] text, String query) {
+		for (String field : text) {
+			if (StringUtils.containsIgnoreCase(field, query)) return true;
+		}
+		return false;
+	}
+
+	/** @return The fields that {@link #matches(Item, String)} looks at. */
+	private static String[] text(Item item) {
+		return new String[] {
+				item.given_title,
+				item.resolved_title,
+				UrlString.asString(item.resolved_url),
+				UrlString.asString(item.given_url)};
+	}
+
+	/**
+	 * @return The idkeys of the items that {@link #matches(Item, String)} the query, in the state they are in the space.
+	 */
+	public Set<String> search(String query) {
+		Set<Long> grams = new HashSet<>();
+		grams(query, grams);
+		Set<String> found = new HashSet<>();
+		if (grams.isEmpty()) {
+			for (int id = 0; id < nextId; id++) {
+				if (idkeys[id] != null && matches(texts[id], query)) found.add(idkeys[id]);
+			}
+			return found;
+		}
+
+		// Start from the rarest trigram, any item that has all of them has it too.
+		Posting[] required = new Posting[grams.size()];
+		Posting rarest = null;
+		int i = 0;
+		for (Long gram : grams) {
+			Posting posting = postings.get(gram);
+			if (posting == null) return found;
+			if (rarest == null || posting.size < rarest.size) rarest = posting;
+			required[i++] = posting;
+		}
+		candidates:
+		for (int c = 0; c < rarest.size; c++) {
+			int id = rarest.ids[c];
+			for (Posting posting : required) {
+				if (posting != rarest && !posting.contains(id)) continue candidates;
+			}
+			if (matches(texts[id], query)) found.add(idkeys[id]);
+		}
+		return found;
+	}
+
+	@Override
+	public void update(Diff diff) {
+		for (Change<?> change : diff.changes.values()) {
+			if (change.latest instanceof Item) {
+				index((Item) change.latest);
+			}
+		}
+	}
+
+	@Override
+	public void removed(Collection<Thing> things) {
+		for (Thing thing : things) {
+			if (thing instanceof Item) {
+				Integer id = ids.remove(thing.idkey());
+				if (id != null) {
+					post(id, texts[id], false);
+					idkeys[id] = null;
+					texts[id] = null;
+					if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+					free[freeCount++] = id;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		postings.clear();
+		ids.clear();
+		Arrays.fill(idkeys, null);
+		Arrays.fill(texts, null);
+		freeCount = 0;
+		nextId = 0;
+	}
+
+	private void index(Item item) {
+		String idkey = item.idkey();
+		String[] text = text(item);
+		Integer existing = ids.get(idkey);
+		int id;
+		if (existing != null) {
+			id = existing;
+			if (Arrays.equals(texts[id], text)) return; // Most changes, like archiving, don't touch the searched fields.
+			post(id, texts[id], false);
+		} else {
+			id = newId();
+			ids.put(idkey, id);
+			idkeys[id] = idkey;
+		}
+		texts[id] = text;
+		post(id, text, true);
+	}
+
+	private int newId() {
+		if (freeCount > 0) return free[--freeCount];
+		if (nextId == idkeys.length) {
+			idkeys = Arrays.copyOf(idkeys, nextId * 2);
+			texts = Arrays.copyOf(texts, nextId * 2);
+		}
+		return nextId++;
+	}
+
+	/** Adds or removes the id from the postings of each trigram in these searched fields. */
+	private void post(int id, String[] text, boolean add) {
+		Set<Long> grams = new HashSet<>();
+		for (String field : text) {
+			grams(field, grams);
+		}
+		for (Long gram : grams) {
+			Posting posting = postings.get(gram);
+			if (add) {
+				if (posting == null) {
+					posting = new Posting();
+					postings.put(gram, posting);
+				}
+				posting.add(id);
+			} else if (posting != null) {
+				posting.remove(id);
+				if (posting.size == 0) postings.remove(gram);
+			}
+		}
+	}
+
+	/**
+	 * Adds each trigram of the text to the set, packed into a long.
+	 * Characters are folded the same way {@link StringUtils#containsIgnoreCase(CharSequence, CharSequence)} compares them,
+	 * so a text that contains a query ignoring case also has all of its trigrams.
+	 */
+	private static void grams(String text, Set<Long> into) {
+		if (text == null || text.length() < GRAM) return;
+		long gram = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = Character.toLowerCase(Character.toUpperCase(text.charAt(i)));
+			gram = ((gram << 16) | c) & 0xFFFF_FFFF_FFFFL;
+			if (i >= GRAM - 1) into.add(gram);
+		}
+	}
+
+	/** The ids of the items that have a trigram, sorted, so checking for one is a binary search. */
+	private static final class Posting {
+
+		private int[] ids = new int[2];
+		private int size;
+
+		boolean contains(int id) {
+			return Arrays.binarySearch(ids, 0, size, id) >= 0;
+		}
+
+		void add(int id) {
+			int at = Arrays.binarySearch(ids, 0, size, id);
+			if (at >= 0) return;
+			at = -at - 1;
+			if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+			System.arraycopy(ids, at, ids, at + 1, size - at);
+			ids[at] = id;
+			size++;
+		}
+
+		void remove(int id) {
+			int at = Arrays.binarySearch(ids, 0, size, id);
+			if (at < 0) return;
+			System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+			size--;
+		}
+
+	}
+
+}
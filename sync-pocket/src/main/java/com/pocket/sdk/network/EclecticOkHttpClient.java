@@ -8,6 +8,7 @@ import com.pocket.sdk.network.eclectic.KeyValue;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.CookieHandler;
 import java.net.CookieManager;
@@ -29,7 +30,11 @@ import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
 import okio.BufferedSource;
+import okio.GzipSink;
+import okio.Okio;
 
 /**
  * An {@link EclecticHttp} powered by OkHttp.
@@ -92,11 +97,18 @@ public class EclecticOkHttpClient implements EclecticHttp {
         return execute(okHttpRequestBuilder.build(), parser);
     }
 
-    private RequestBody body(EclecticHttpRequest request, List<KeyValue> params) {
+    private RequestBody body(EclecticHttpRequest request, List<KeyValue> params) throws IOException {
         // Post body
         if (request.getJson() != null) {
             // JSON body
             final MediaType mediaType = MediaType.parse("application/json");
+            if (isGzipped(request)) {
+                Buffer gzipped = new Buffer();
+                try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+                    sink.writeUtf8(request.getJson());
+                }
+                return RequestBody.create(gzipped.readByteString(), mediaType);
+            }
             return RequestBody.create(request.getJson(), mediaType);
     
             // TODO what if someone adds JSON and files and params? throw? or figure out how to support?
@@ -144,6 +156,16 @@ public class EclecticOkHttpClient implements EclecticHttp {
         }
     }
 
+    /** Whether the request declared its body as gzipped, in which case it is up to this client to compress it. */
+    private static boolean isGzipped(EclecticHttpRequest request) {
+        for (KeyValue header : request.getHeaders()) {
+            if (StringUtils.equalsIgnoreCase(header.key, "Content-Encoding") && StringUtils.equalsIgnoreCase(header.value, "gzip")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public Response get(EclecticHttpRequest request, ResponseParser parser) throws Exception {
         checkEnabled();
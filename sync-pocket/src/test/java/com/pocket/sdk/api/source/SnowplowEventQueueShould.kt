@@ -0,0 +1,104 @@
+package com.pocket.sdk.api.source
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class SnowplowEventQueueShould {
+
+    @get:Rule val tmp = TemporaryFolder()
+
+    private fun payloads(range: IntRange, padding: Int = 0) = range.map { """{"eid":"$it","pad":"${"x".repeat(padding)}"}""" }
+
+    @Test
+    fun `hand out events in the order they were added`() {
+        val queue = SnowplowEventQueue(tmp.root)
+        queue.add(payloads(1..3))
+        queue.add(payloads(4..10))
+
+        assertEquals(10, queue.size)
+        assertEquals(payloads(1..4), queue.peek(4, Int.MAX_VALUE).payloads)
+        assertEquals(payloads(1..10), queue.peek(100, Int.MAX_VALUE).payloads)
+    }
+
+    @Test
+    fun `limit batches by bytes but always include an event`() {
+        val queue = SnowplowEventQueue(tmp.root)
+        queue.add(payloads(1..10, padding = 100))
+        val one = payloads(1..1, padding = 100).first().length
+
+        assertEquals(3, queue.peek(100, one * 3 + 1).payloads.size)
+        assertEquals(one * 3, queue.peek(100, one * 3 + 1).bytes)
+        assertEquals(1, queue.peek(100, 1).payloads.size)
+    }
+
+    @Test
+    fun `remove only what was sent`() {
+        val queue = SnowplowEventQueue(tmp.root)
+        queue.add(payloads(1..10))
+        val sent = queue.peek(4, Int.MAX_VALUE)
+        queue.add(payloads(11..12))
+        queue.remove(sent)
+        queue.remove(sent) // Removing twice has no effect
+
+        assertEquals(8, queue.size)
+        assertEquals(payloads(5..12), queue.peek(100, Int.MAX_VALUE).payloads)
+    }
+
+    @Test
+    fun `move events to the back`() {
+        val queue = SnowplowEventQueue(tmp.root)
+        queue.add(payloads(1..10))
+        val failed = queue.peek(3, Int.MAX_VALUE)
+        queue.add(payloads(11..12))
+        queue.moveToBack(failed)
+        queue.moveToBack(failed) // Moving twice has no effect
+
+        assertEquals(12, queue.size)
+        assertEquals(payloads(4..12) + payloads(1..3), SnowplowEventQueue(tmp.root).peek(100, Int.MAX_VALUE).payloads)
+    }
+
+    @Test
+    fun `keep unsent events when reopened`() {
+        SnowplowEventQueue(tmp.root).apply {
+            add(payloads(1..10))
+            remove(peek(3, Int.MAX_VALUE))
+        }
+
+        val reopened = SnowplowEventQueue(tmp.root)
+        assertEquals(7, reopened.size)
+        assertEquals(payloads(4..10), reopened.peek(100, Int.MAX_VALUE).payloads)
+    }
+
+    @Test
+    fun `drop an event that was only partially written`() {
+        SnowplowEventQueue(tmp.root).add(payloads(1..3))
+        File(tmp.root, "events-0").appendText("""{"eid":"4","pa""")
+
+        val reopened = SnowplowEventQueue(tmp.root)
+        assertEquals(payloads(1..3), reopened.peek(100, Int.MAX_VALUE).payloads)
+        reopened.add(payloads(5..5))
+        assertEquals(payloads(1..3) + payloads(5..5), SnowplowEventQueue(tmp.root).peek(100, Int.MAX_VALUE).payloads)
+    }
+
+    @Test
+    fun `start a new file once enough was sent`() {
+        val queue = SnowplowEventQueue(tmp.root)
+        queue.add(payloads(1..1000, padding = 500))
+        queue.remove(queue.peek(990, Int.MAX_VALUE))
+
+        val files = tmp.root.listFiles()!!.filter { it.name.startsWith("events-") }
+        assertEquals(listOf("events-1"), files.map { it.name })
+        assertTrue(files.first().length() < 10 * 1024)
+        assertEquals(payloads(991..1000, padding = 500), SnowplowEventQueue(tmp.root).peek(100, Int.MAX_VALUE).payloads)
+
+        // And when everything was sent
+        queue.remove(queue.peek(100, Int.MAX_VALUE))
+        assertEquals(0, queue.size)
+        assertEquals(0, File(tmp.root, "events-2").length())
+        assertEquals(0, SnowplowEventQueue(tmp.root).size)
+    }
+}
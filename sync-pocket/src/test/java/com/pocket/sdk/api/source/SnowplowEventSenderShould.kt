@@ -0,0 +1,172 @@
+package com.pocket.sdk.api.source
+
+import com.pocket.sdk.api.endpoint.Credentials
+import com.pocket.sdk.api.generated.action.PvWt
+import com.pocket.sdk.api.generated.action.TrackAppOpen_1_0_0
+import com.pocket.sdk.api.generated.enums.SnowplowAppId.POCKET_ANDROID_DEV
+import com.pocket.sdk.api.generated.thing.ApiUserEntity_1_0_1
+import com.pocket.sdk.api.value.Timestamp
+import com.pocket.sdk.network.toEclecticOkHttpClient
+import okhttp3.OkHttpClient
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class SnowplowEventSenderShould {
+
+    @get:Rule val tmp = TemporaryFolder()
+
+    private val httpClient = OkHttpClient().toEclecticOkHttpClient()
+    private val credentials = Credentials(null, "fake-guid", DEVICE_INFO, APP_INFO)
+    private val collector = StubCollector()
+    private val sources = mutableListOf<SnowplowSource>()
+
+    @AfterTest fun tearDown() {
+        sources.forEach { it.stop() }
+        collector.shutdown()
+    }
+
+    private fun source(dir: File = tmp.root, maxActions: Int = 25) = SnowplowSource(
+        httpClient,
+        SnowplowSource.Config(collector.url, SnowplowSource.DEV_POST_PATH, POCKET_ANDROID_DEV, dir, SnowplowEventSender.Backoff(10, 50))
+    ).apply {
+        credentials = this@SnowplowEventSenderShould.credentials
+        this.maxActions = maxActions
+        sources.add(this)
+    }
+
+    private fun events(range: IntRange) = range.map {
+        TrackAppOpen_1_0_0.Builder()
+            .eid("event-$it")
+            .time(Timestamp.now())
+            .entities(listOf(ApiUserEntity_1_0_1.Builder().api_id(42).build()))
+            .build()
+    }
+
+    private fun eids(range: IntRange) = range.map { "event-$it" }
+
+    @Test
+    fun `send events in the order they were tracked`() {
+        val source = source(maxActions = 10)
+        (1..250).chunked(7).forEach { source.track(events(it.first()..it.last())) }
+
+        val received = collector.await(250)
+        assertEquals(eids(1..250), received.map { it["eid"].asText() })
+        assertTrue(received.all { it.has("stm") && it.has("dtm") }, "send and device times")
+        assertTrue(collector.requests.get() >= 25, "batches of at most 10")
+        assertEquals(collector.requests.get(), collector.gzipped.get(), "gzipped")
+    }
+
+    @Test
+    fun `not lose events across restarts`() {
+        collector.fail = { 503 }
+        source().apply {
+            track(events(1..60))
+            track(events(61..100))
+            assertEquals(100, queued())
+            stop()
+        }
+        assertTrue(collector.events().isEmpty())
+
+        collector.fail = { null }
+        source()
+        collector.await(100)
+        Thread.sleep(200) // Give it a chance to send anything twice
+        assertEquals(eids(1..100), collector.eids())
+    }
+
+    @Test
+    fun `retry failures that might work later`() {
+        collector.fail = { request ->
+            when (request) {
+                1 -> StubCollector.DISCONNECT
+                2 -> 500
+                3 -> 429
+                else -> null
+            }
+        }
+        source().track(events(1..50))
+
+        collector.await(50)
+        assertEquals(eids(1..50), collector.eids())
+    }
+
+    @Test
+    fun `have tracked events on disk once they are written`() {
+        collector.fail = { 503 }
+        val source = source()
+        source.track(events(1..10))
+
+        assertEquals(10, source.queued(), "waits for the write")
+        assertEquals(10, SnowplowEventQueue(tmp.root).size)
+    }
+
+    @Test
+    fun `keep events in order while the collector can't be reached`() {
+        collector.fail = { request -> if (request <= 12) StubCollector.DISCONNECT else null }
+        source(maxActions = 5).track(events(1..10))
+
+        collector.await(10)
+        assertEquals(eids(1..10), collector.eids())
+    }
+
+    @Test
+    fun `not let an event that can't be sent hold up the rest`() {
+        SnowplowEventQueue(tmp.root).add(listOf("")) // Not an event, like a line left by a corrupted write
+        source(maxActions = 5).track(events(1..10))
+
+        collector.await(10)
+        assertEquals(eids(1..10), collector.eids())
+    }
+
+    @Test
+    fun `drop batches the collector rejects`() {
+        collector.fail = { request -> if (request == 1) 400 else null }
+        val source = source()
+        source.track(events(1..5))
+        source.track(events(6..10))
+
+        collector.await(5)
+        assertEquals(eids(6..10), collector.eids())
+    }
+
+    @Test
+    fun `fall back to plain json if the collector doesn't accept gzip`() {
+        collector.acceptsGzip = false
+        source().track(events(1..10))
+
+        collector.await(10)
+        assertEquals(eids(1..10), collector.eids())
+        assertEquals(0, collector.gzipped.get())
+    }
+
+    @Test
+    fun `take events out of the sync engine's actions`() {
+        val remote = PocketRemoteSource(
+            httpClient,
+            collector.url,
+            collector.url,
+            SnowplowSource.Config(collector.url, SnowplowSource.DEV_POST_PATH, POCKET_ANDROID_DEV, tmp.root)
+        ).setCredentials(credentials)
+        val v3Action = PvWt.Builder().time(Timestamp.now()).build()
+        val event = events(1..1).first()
+
+        assertEquals(listOf(v3Action), remote.track(v3Action, event).toList())
+        collector.await(1)
+        assertEquals(eids(1..1), collector.eids())
+    }
+
+    @Test
+    fun `keep up with a lot of events`() {
+        val count = 10_000
+        val source = source()
+        (1..count).chunked(100).forEach { source.track(events(it.first()..it.last())) }
+
+        collector.await(count, timeoutMillis = 120_000)
+        assertEquals(eids(1..count), collector.eids())
+    }
+}
@@ -0,0 +1,84 @@
+package com.pocket.sdk.api.source
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.pocket.sdk.api.generated.Modeller
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okhttp3.mockwebserver.SocketPolicy
+import okio.GzipSource
+import okio.buffer
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.fail
+
+/**
+ * A local stand in for the Snowplow collector.
+ * Records the events it accepts in the order it accepted them, and can be told to fail requests.
+ */
+class StubCollector {
+
+    private val accepted = mutableListOf<JsonNode>()
+
+    /** How many requests it received, including ones it failed. */
+    val requests = AtomicInteger()
+    /** How many of the accepted requests had a gzipped body. */
+    val gzipped = AtomicInteger()
+
+    /**
+     * Invoked with the number of each request (starting at 1) to decide how to respond.
+     * Return an http status code to fail with, [DISCONNECT] to drop the connection, or null to accept the events.
+     */
+    @Volatile var fail: (Int) -> Int? = { null }
+    @Volatile var acceptsGzip = true
+
+    private val server = MockWebServer().apply {
+        dispatcher = object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest): MockResponse {
+                when (val status = fail(requests.incrementAndGet())) {
+                    null -> {}
+                    DISCONNECT -> return MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST)
+                    else -> return MockResponse().setResponseCode(status)
+                }
+
+                val gzip = request.getHeader("Content-Encoding") == "gzip"
+                if (gzip && !acceptsGzip) return MockResponse().setResponseCode(415)
+                val body = if (gzip) GzipSource(request.body).buffer().readUtf8() else request.body.readUtf8()
+                val events = Modeller.OBJECT_MAPPER.readTree(body)["data"]
+                synchronized(accepted) {
+                    events.forEach { accepted.add(it) }
+                }
+                if (gzip) gzipped.incrementAndGet()
+                return MockResponse().setResponseCode(200)
+            }
+        }
+    }
+
+    /** The collector's domain, see [SnowplowSource.Config]. */
+    val url: String = server.url("").toString()
+
+    /** The events it accepted so far. */
+    fun events(): List<JsonNode> = synchronized(accepted) { accepted.toList() }
+
+    /** The event ids of the events it accepted so far. */
+    fun eids() = events().map { it["eid"].asText() }
+
+    /** Wait until it has accepted at least this many events. */
+    fun await(count: Int, timeoutMillis: Long = 30_000): List<JsonNode> {
+        val until = System.currentTimeMillis() + timeoutMillis
+        while (System.currentTimeMillis() < until) {
+            val events = events()
+            if (events.size >= count) return events
+            Thread.sleep(10)
+        }
+        fail("Expected $count events, but only received ${events().size}")
+    }
+
+    fun shutdown() {
+        server.shutdown()
+    }
+
+    companion object {
+        const val DISCONNECT = -1
+    }
+}
@@ -0,0 +1,115 @@
+package com.pocket.sync.source
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.mock
+import com.pocket.sdk.api.generated.thing.Item
+import com.pocket.sync.source.subscribe.Subscriber
+import com.pocket.sync.source.subscribe.Subscription
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.takeWhile
+import kotlinx.coroutines.flow.transformWhile
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class BindLocalAsFlowShould {
+
+    private val subscribed = CountDownLatch(1)
+    @Volatile private var subscriber: Subscriber<Item>? = null
+    @Volatile private var active = true
+    private val subscription = object : Subscription {
+        override fun isActive() = active
+        override fun stop() {
+            active = false
+        }
+    }
+    private val source = mock<AsyncClientSource> {
+        on { bindLocal(any<Item>(), any(), any()) } doAnswer {
+            @Suppress("UNCHECKED_CAST")
+            subscriber = it.arguments[1] as Subscriber<Item>
+            subscribed.countDown()
+            subscription
+        }
+    }
+
+    @Test
+    fun `not block the publisher when the collector is slow`() = runBlocking {
+        val received = mutableListOf<String>()
+        val collector = launch(Dispatchers.Default) {
+            source.bindLocalAsFlow(ITEM)
+                .transformWhile {
+                    emit(it)
+                    it.title != "${UPDATES - 1}"
+                }
+                .collect {
+                    received.add(it.title!!)
+                    delay(50) // Much slower than the publisher
+                }
+        }
+        assertTrue(subscribed.await(1, TimeUnit.SECONDS))
+
+        val elapsed = publish(UPDATES)
+
+        // If each update had to wait for the collector this would take at least UPDATES * 50ms.
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1), "publishing blocked for ${TimeUnit.NANOSECONDS.toMillis(elapsed)}ms")
+        withTimeout(5_000) { collector.join() }
+        assertTrue(received.size < UPDATES, "slow collector should only see the latest updates, saw ${received.size}")
+        assertEquals("${UPDATES - 1}", received.last(), "slow collector should end up with the latest update")
+        assertFalse(active, "subscription should stop when the flow completes")
+    }
+
+    @Test
+    fun `only emit projections when they change`() = runBlocking {
+        val received = mutableListOf<String?>()
+        val firstReceived = CountDownLatch(1)
+        val collector = launch(Dispatchers.Default) {
+            source.bindLocalAsFlow(ITEM) { it.domain }
+                .takeWhile { it != LAST }
+                .collect {
+                    received.add(it)
+                    firstReceived.countDown()
+                }
+        }
+        assertTrue(subscribed.await(1, TimeUnit.SECONDS))
+
+        subscriber!!.onUpdate(ITEM.builder().domain("example.com").build())
+        assertTrue(firstReceived.await(1, TimeUnit.SECONDS))
+        for (title in 0 until UPDATES) {
+            // Only the title changes, which isn't part of the projection.
+            subscriber!!.onUpdate(ITEM.builder().title("$title").domain("example.com").build())
+        }
+        subscriber!!.onUpdate(ITEM.builder().domain(LAST).build())
+
+        withTimeout(5_000) { collector.join() }
+        assertEquals(listOf<String?>("example.com"), received)
+    }
+
+    /** Publishes updates from a separate thread, like a source's publisher would, and returns how long it was blocked. */
+    private fun publish(count: Int): Long {
+        var elapsed = 0L
+        val thread = Thread {
+            val start = System.nanoTime()
+            for (i in 0 until count) {
+                subscriber!!.onUpdate(ITEM.builder().title("$i").build())
+            }
+            elapsed = System.nanoTime() - start
+        }
+        thread.start()
+        thread.join()
+        return elapsed
+    }
+
+    companion object {
+        private const val UPDATES = 200
+        private const val LAST = "last"
+        private val ITEM = Item.Builder().title("0").build()
+    }
+}
@@ -20,6 +20,8 @@ import com.pocket.sync.spec.Resolver;
 import com.pocket.sync.spec.Spec;
 import com.pocket.sync.thing.Thing;
 import com.pocket.util.java.Logs;
+import com.pocket.util.java.StartupTrace;
+import com.pocket.util.java.StopWatch;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -100,6 +102,12 @@ import java.util.concurrent.atomic.AtomicReference;
  * backlog of remote work waiting to be done. However, if there are actions waiting to go out, it will only allow one
  * remote thread at a time. Once all actions have been sent to the remote, then it allows multiple threads to grab things
  * from the remote. If there is no remote work, those threads will be spun back down.
+ * <p>
+ * Remote work waits in one of three {@link RemoteLane}s, chosen per call with {@link #sync(RemoteLane, Thing, Action...)} or {@link #syncRemote(RemoteLane, Thing, Action...)}.
+ * Free remote threads take {@link RemoteLane#INTERACTIVE} work first, then {@link RemoteLane#NORMAL} and then {@link RemoteLane#BACKGROUND},
+ * and one thread is kept for interactive work, so a backlog of background work doesn't hold up what the user is waiting on.
+ * How long work waited in each lane is available from {@link #queueWait(RemoteLane)}.
+ * Note that actions waiting to go out still limit remote work to one thread at a time, in all lanes.
  *
  * <h3>Callbacks</h3>
  * To control what thread callbacks, such as {@link PendingResult.SuccessCallback}, {@link PendingResult.ErrorCallback}, {@link Subscriber}, and {@link BindingErrorCallback}
@@ -126,6 +134,9 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class AppSource implements AsyncClientSource {
 	private static final String APP_SOURCE_THREAD_PREFIX = "as_";
+	private static final int REMOTE_THREADS = 4;
+	/** How many of the remote threads only {@link RemoteLane#INTERACTIVE} work may use. */
+	private static final int INTERACTIVE_REMOTE_THREADS = 1;
 
 	private final Spec spec;
 	private final Resolver resolver;
@@ -144,8 +155,8 @@ public class AppSource implements AsyncClientSource {
 	/** Tracks what work is currently active. */
 	private final WorkTracker workTracker = new WorkTracker();
 	
-	/** The remote task queue. Managed by {@link #syncRemote(int, Thing, RemoteCallback)}. */
-	private final ThreadPools.PrioritizedPool remoteThreadPool;
+	/** The remote task queues. Managed by {@link #syncRemote(int, RemoteLane, Thing, RemoteCallback)}. */
+	private final RemoteLanes remoteLanes;
 	/** The remote source. Should only be accessed from the remote threads. Only {@link com.pocket.sync.source.SynchronousSource} or {@link FullResultSource} are supported. */
 	private final Source remote;
 	
@@ -176,8 +187,10 @@ public class AppSource implements AsyncClientSource {
 		if (space == null) throw new NullPointerException("space may not be null");
 		if (remote == null) throw new NullPointerException("remote may not be null");
 		if (!(remote instanceof SynchronousSource) && !(remote instanceof FullResultSource)) throw new NullPointerException("this type of source is not supported as a remote yet."); // If you hit this error, you can add new sources down in syncRemote()
+		StartupTrace.Span trace = StartupTrace.begin("AppSource pools");
 		this.localThread = queue(1, APP_SOURCE_THREAD_PREFIX + "local", pools);
-		this.remoteThreadPool = queue(4, APP_SOURCE_THREAD_PREFIX + "remote", pools);
+		this.remoteLanes = new RemoteLanes(queue(REMOTE_THREADS, APP_SOURCE_THREAD_PREFIX + "remote", pools), REMOTE_THREADS, INTERACTIVE_REMOTE_THREADS);
+		trace.end();
 		this.spec = spec;
 		this.resolver = resolver != null ? resolver : Resolver.BASIC;
 		this.space = space;
@@ -230,6 +243,15 @@ public class AppSource implements AsyncClientSource {
 		/** An exception occurred during one of the operations. This is invoked within the provided {@link Publisher}. */
 		void onError(Throwable e);
 	}
+	
+	/**
+	 * How long remote work in a lane has waited for a remote thread, from being queued to starting, since this source was created.
+	 * Each remote request is a lap, including retries.
+	 * @return A copy, it won't update.
+	 */
+	public StopWatch queueWait(RemoteLane lane) {
+		return remoteLanes.queueWait(lane);
+	}
 
 	/**
 	 * Invokes {@link Subscription#stop()} on all subscribers created by this source.
@@ -343,7 +365,8 @@ public class AppSource implements AsyncClientSource {
 			// Apply Actions, if any are remote, mark them as failed
 			boolean containsSoonActions = false;
 			space.startDiff();
-			if (actions.length > 0) {
+			if (actions.length > 1) space.startBatch(); // One transaction for bulk edits, see Space.startBatch()
+			try {
 				for (Action action : actions) {
 					try {
 						if (action.priority() == RemotePriority.REMOTE || action.priority() == RemotePriority.REMOTE_RETRYABLE) throw new RuntimeException("syncLocal does not support remote actions");
@@ -361,6 +384,8 @@ public class AppSource implements AsyncClientSource {
 						results.action(action, s != null ? s : Status.FAILED, t, null);
 					}
 				}
+			} finally {
+				space.endBatch();
 			}
 			Diff diff = space.endDiff();
 			subscribers.publish(diff);
@@ -414,14 +439,23 @@ public class AppSource implements AsyncClientSource {
 	 */
 	@Override
 	public <T extends Thing> PendingResult<T, SyncException> syncRemote(T thing, Action... actions) {
-		return syncRemote(null, thing, actions);
+		return syncRemote(RemoteLane.NORMAL, thing, actions);
+	}
+	
+	/**
+	 * Same as {@link #syncRemote(Thing, Action...)} but with control over when its remote work runs compared to other remote work.
+	 * @param lane See {@link RemoteLane}.
+	 */
+	public <T extends Thing> PendingResult<T, SyncException> syncRemote(RemoteLane lane, T thing, Action... actions) {
+		return syncRemote(null, lane, thing, actions);
 	}
 	
 	/**
 	 * {@link #syncRemote(Thing, Action...)}'s implementation as a separate method so sync() can also invoke it from with an operation.
 	 * @param queueId null to add this to the end of the local queue, or an existing id to continue the work of another task. See {@link #locally(Integer, Task, TaskError)}'s id parameter.
+	 * @param lane Which remote queue to wait in.
 	 */
-	private <T extends Thing> PendingResult<T, SyncException> syncRemote(Integer queueId, T thing, Action... actions) {
+	private <T extends Thing> PendingResult<T, SyncException> syncRemote(Integer queueId, RemoteLane lane, T thing, Action... actions) {
 		Pending<T,SyncException> pending = new Pending<>(publisher);
 		SyncResult.Builder<T> results = new SyncResult.Builder<>(thing, actions);
 		AtomicReference<Holder> holder = new AtomicReference<>();
@@ -432,7 +466,8 @@ public class AppSource implements AsyncClientSource {
 			
 			// Apply Actions Locally
 			space.startDiff();
-			if (actions.length > 0) {
+			if (actions.length > 1) space.startBatch();
+			try {
 				for (Action action : actions) {
 					try {
 						if (action.time() == null) throw new RuntimeException("action is missing time");
@@ -449,6 +484,8 @@ public class AppSource implements AsyncClientSource {
 						results.action(action, s != null ? s : Status.FAILED, t, null);
 					}
 				}
+			} finally {
+				space.endBatch();
 			}
 			Diff diff = space.endDiff();
 			subscribers.publish(diff);
@@ -497,7 +534,7 @@ public class AppSource implements AsyncClientSource {
 								// Cannot be trusted, must retry before imprinting.
 								if (retry < 3) { // Fail safe to avoid a loop that continually hits a remote.
 									retry++;
-									syncRemote(localId, thing, self);
+									syncRemote(localId, lane, thing, self);
 								} else {
 									// TODO Saw this can actually happen during offline downloading for article views,
 									// since there are so many downloaders and so many update_offline_status actions.
@@ -547,7 +584,7 @@ public class AppSource implements AsyncClientSource {
 					});
 				}
 			};
-			syncRemote(localId, thing, processor);
+			syncRemote(localId, lane, thing, processor);
 			
 			if (autoSyncInvalidated && !diff.invalidated.isEmpty()) syncInvalidated();
 			
@@ -565,14 +602,15 @@ public class AppSource implements AsyncClientSource {
 	}
 	
 	/**
-	 * Only intended for {@link #syncRemote(Integer, Thing, Action...)}'s use.
+	 * Only intended for {@link #syncRemote(Integer, RemoteLane, Thing, Action...)}'s use.
 	 * Performs a remote sync on a remote thread and returns the result to the callback
 	 * @param parentId The id of the local task that trigger this
+	 * @param lane Which remote queue to wait in
 	 * @param thing The requested thing
 	 * @param callback Where to return the result
 	 */
-	private void syncRemote(int parentId, Thing thing, RemoteCallback callback) {
-		remoteThreadPool.submit(new TaskWrapper(parentId, id -> {
+	private void syncRemote(int parentId, RemoteLane lane, Thing thing, RemoteCallback callback) {
+		remoteLanes.submit(lane, new TaskWrapper(parentId, id -> {
 			// Grab any actions that need to be sent to the remote.
 			// This will include local pending ones and any remote-only ones waiting to go out.
 			PendingActions.Payload pending = null;
@@ -762,6 +800,14 @@ public class AppSource implements AsyncClientSource {
 	 */
 	@Override
 	public <T extends Thing> PendingResult<T, SyncException> sync(T thing, Action... actions) {
+		return sync(RemoteLane.NORMAL, thing, actions);
+	}
+	
+	/**
+	 * Same as {@link #sync(Thing, Action...)} but with control over when any remote work it needs runs compared to other remote work.
+	 * @param lane See {@link RemoteLane}.
+	 */
+	public <T extends Thing> PendingResult<T, SyncException> sync(RemoteLane lane, T thing, Action... actions) {
 		boolean remoteActions = false;
 		for (Action a : actions) {
 			if (a.priority() == RemotePriority.REMOTE || a.priority() == RemotePriority.REMOTE_RETRYABLE) {
@@ -770,7 +816,7 @@ public class AppSource implements AsyncClientSource {
 			}
 		}
 		if (remoteActions) {
-			return syncRemote(thing, actions);
+			return syncRemote(lane, thing, actions);
 			
 		} else {
 			// Attempt a syncLocal first
@@ -797,7 +843,7 @@ public class AppSource implements AsyncClientSource {
 						pending.success(r);
 
 					} else {
-						remote.set((Pending<T, SyncException>) syncRemote(local.get().queueId, thing));
+						remote.set((Pending<T, SyncException>) syncRemote(local.get().queueId, lane, thing));
 						remote.get().setAsProxy()
 								.onSuccess(pending::success)
 								.onFailure(pending::fail);
@@ -842,7 +888,7 @@ public class AppSource implements AsyncClientSource {
 	}
 	
 	/**
-	 * Invokes a {@link #syncRemote(Thing, Action...)} for any Things that are currently returned in {@link Space#getInvalid()}.
+	 * Invokes a {@link #syncRemote(RemoteLane, Thing, Action...)} in the {@link RemoteLane#BACKGROUND} lane for any Things that are currently returned in {@link Space#getInvalid()}.
 	 * This does not provide any success or error callbacks for these requests, this is just a best attempt with no feedback on results. (if need this could be implemented, but to keep it simple, this isn't available yet)
 	 */
 	private void syncInvalidated() {
@@ -854,7 +900,7 @@ public class AppSource implements AsyncClientSource {
 						revalidating.addAll(invalid);
 					}
 					for (Thing t : invalid) {
-						syncRemote(t).onComplete(() -> {
+						syncRemote(RemoteLane.BACKGROUND, t).onComplete(() -> {
 							synchronized (revalidating) {
 								revalidating.remove(t);
 							}
@@ -5,18 +5,38 @@ import com.pocket.sync.await
 import com.pocket.sync.source.threads.PendingImpl
 import com.pocket.sync.source.threads.Publisher
 import com.pocket.sync.thing.Thing
-import kotlinx.coroutines.cancel
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.FlowPreview
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.awaitClose
-import kotlinx.coroutines.channels.trySendBlocking
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.callbackFlow
-import kotlin.coroutines.cancellation.CancellationException
+import kotlinx.coroutines.flow.conflate
+import kotlinx.coroutines.flow.debounce
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlin.coroutines.CoroutineContext
+import kotlin.time.Duration
 
-fun <T : Thing> AsyncClientSource.bindLocalAsFlow(thing: T): Flow<T> = callbackFlow {
+/**
+ * Binds to [thing] locally as a [Flow].
+ *
+ * The flow is conflated: updates are handed off without ever blocking the thread the source publishes on
+ * (often the UI thread), and a collector that is slower than the updates only receives the latest version.
+ *
+ * @param debounce If positive, only emit once updates have settled for this long.
+ */
+fun <T : Thing> AsyncClientSource.bindLocalAsFlow(
+    thing: T,
+    debounce: Duration = Duration.ZERO,
+): Flow<T> = callbackFlow {
     val subscription = bindLocal(
         thing,
         { item ->
-            trySendBlocking(item)
+            // Never fails or suspends, the channel is conflated below.
+            trySend(item)
         },
         { syncException, _ ->
             //TODO the bind is still emitting values so don't cancel the flow.  What should we do
@@ -27,7 +47,32 @@ fun <T : Thing> AsyncClientSource.bindLocalAsFlow(thing: T): Flow<T> = callbackF
         subscription.stop()
     }
 }
+    .buffer(Channel.CONFLATED)
+    .debounceIfPositive(debounce)
+
+/**
+ * Binds to [thing] locally, emitting only the part of it selected by [projection], and only when that part changes.
+ * For example `bindLocalAsFlow(home) { it.homeSlateLineup }`.
+ *
+ * Like the unprojected [bindLocalAsFlow] this is conflated and never blocks the publisher.
+ * [projection] and the change comparison run on [context], off the publishing thread.
+ *
+ * @param debounce If positive, only project once updates have settled for this long.
+ */
+fun <T : Thing, R> AsyncClientSource.bindLocalAsFlow(
+    thing: T,
+    debounce: Duration = Duration.ZERO,
+    context: CoroutineContext = Dispatchers.Default,
+    projection: (T) -> R,
+): Flow<R> = bindLocalAsFlow(thing, debounce)
+    .map(projection)
+    .distinctUntilChanged()
+    .flowOn(context)
+    .conflate()
 
+@OptIn(FlowPreview::class)
+private fun <T> Flow<T>.debounceIfPositive(timeout: Duration): Flow<T> =
+    if (timeout.isPositive()) debounce(timeout) else this
 
 /**
  * Allows to call suspending versions of [AppSource] functions
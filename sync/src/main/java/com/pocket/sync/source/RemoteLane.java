@@ -0,0 +1,25 @@
+package com.pocket.sync.source;
+
+import com.pocket.sync.action.Action;
+import com.pocket.sync.thing.Thing;
+
+/**
+ * How urgently an {@link AppSource} call needs its remote work done, compared to other remote work that is waiting.
+ * See {@link AppSource#sync(RemoteLane, Thing, Action...)} and {@link AppSource#syncRemote(RemoteLane, Thing, Action...)}.
+ * <p>
+ * This only decides the order in which waiting remote work starts. Remote work that has started is never interrupted.
+ */
+public enum RemoteLane {
+	/**
+	 * Someone is waiting on this, like a pull to refresh or opening something that isn't available locally.
+	 * Starts before any other waiting work and part of the remote threads are reserved for it, so it never waits behind other lanes.
+	 */
+	INTERACTIVE,
+	/** The default, anything that doesn't declare a lane. Starts before {@link #BACKGROUND} work. */
+	NORMAL,
+	/**
+	 * Nobody is waiting on this, like downloading for offline or refreshing invalidated things.
+	 * Only starts when no other work is waiting, and can be overtaken by other lanes for as long as it is waiting.
+	 */
+	BACKGROUND
+}
@@ -0,0 +1,133 @@
+package com.pocket.sync.source;
+
+import com.pocket.sync.source.threads.ThreadPools;
+import com.pocket.util.java.StopWatch;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Decides which waiting remote task {@link AppSource}'s remote threads start next, based on its {@link RemoteLane}.
+ * <p>
+ * Each lane has its own queue, ordered by id like the rest of {@link AppSource}'s queues, so continuations of earlier work still go first within a lane.
+ * Whenever a thread is free it takes the next {@link RemoteLane#INTERACTIVE} task, then {@link RemoteLane#NORMAL} and then {@link RemoteLane#BACKGROUND}.
+ * The other lanes may only use {@code threads - reserved} threads at a time, so a burst of them can't leave interactive work waiting for a slow remote call to finish.
+ * <p>
+ * Tasks only enter the underlying pool once they are picked, so they can't get stuck in its queue behind work from another lane.
+ * How long each task waited to start is recorded per lane, see {@link #queueWait(RemoteLane)}.
+ */
+class RemoteLanes {
+
+	private final ThreadPools.PrioritizedPool pool;
+	private final int threads;
+	/** How many threads the lanes other than {@link RemoteLane#INTERACTIVE} may use at a time. */
+	private final int shared;
+
+	private final Map<RemoteLane, PriorityQueue<Queued>> waiting = new EnumMap<>(RemoteLane.class);
+	private final Map<RemoteLane, Integer> running = new EnumMap<>(RemoteLane.class);
+	private final Map<RemoteLane, StopWatch> waits = new EnumMap<>(RemoteLane.class);
+	/** Tasks given to the pool that haven't picked what to run yet. */
+	private int starting;
+	/** Breaks ties between tasks with the same id, so they run in the order they were submitted. */
+	private long sequence;
+
+	/**
+	 * @param pool Where to run tasks, it should have {@code threads} threads.
+	 * @param threads How many tasks may run at once.
+	 * @param reserved How many of those threads only {@link RemoteLane#INTERACTIVE} tasks may use.
+	 */
+	RemoteLanes(ThreadPools.PrioritizedPool pool, int threads, int reserved) {
+		if (reserved >= threads) throw new IllegalArgumentException("at least one thread must be available to all lanes");
+		this.pool = pool;
+		this.threads = threads;
+		this.shared = threads - reserved;
+		for (RemoteLane lane : RemoteLane.values()) {
+			waiting.put(lane, new PriorityQueue<>());
+			running.put(lane, 0);
+			waits.put(lane, new StopWatch());
+		}
+	}
+
+	/**
+	 * Queue a task to run when its lane is next.
+	 * @param id Tasks with a lower id are run before others in the same lane.
+	 */
+	synchronized void submit(RemoteLane lane, Runnable task, int id) {
+		waiting.get(lane).add(new Queued(lane, id, sequence++, task));
+		dispatch();
+	}
+
+	/** @return A copy of the time tasks in this lane have waited between being submitted and starting. */
+	synchronized StopWatch queueWait(RemoteLane lane) {
+		StopWatch copy = new StopWatch();
+		copy.merge(waits.get(lane));
+		return copy;
+	}
+
+	/** Make sure there is a task in the pool for each task that can start right now. */
+	private void dispatch() {
+		while (starting < startable()) {
+			starting++;
+			pool.submit(this::runNext, 0);
+		}
+	}
+
+	private int startable() {
+		int busy = 0;
+		for (int count : running.values()) busy += count;
+		int others = waiting.get(RemoteLane.NORMAL).size() + waiting.get(RemoteLane.BACKGROUND).size();
+		int othersAllowed = Math.max(0, shared - running.get(RemoteLane.NORMAL) - running.get(RemoteLane.BACKGROUND));
+		return Math.min(threads - busy, waiting.get(RemoteLane.INTERACTIVE).size() + Math.min(others, othersAllowed));
+	}
+
+	private synchronized Queued next() {
+		starting--;
+		Queued next = waiting.get(RemoteLane.INTERACTIVE).poll();
+		if (next == null && running.get(RemoteLane.NORMAL) + running.get(RemoteLane.BACKGROUND) < shared) {
+			next = waiting.get(RemoteLane.NORMAL).poll();
+			if (next == null) next = waiting.get(RemoteLane.BACKGROUND).poll();
+		}
+		if (next != null) {
+			running.put(next.lane, running.get(next.lane) + 1);
+			waits.get(next.lane).addLap(System.nanoTime() - next.queuedAt);
+		}
+		return next;
+	}
+
+	private synchronized void finished(Queued task) {
+		running.put(task.lane, running.get(task.lane) - 1);
+		dispatch();
+	}
+
+	private void runNext() {
+		Queued task = next();
+		if (task == null) return; // Another thread already took the work this was started for
+		try {
+			task.task.run();
+		} finally {
+			finished(task);
+		}
+	}
+
+	private static class Queued implements Comparable<Queued> {
+		final RemoteLane lane;
+		final int id;
+		final long sequence;
+		final Runnable task;
+		final long queuedAt = System.nanoTime();
+
+		Queued(RemoteLane lane, int id, long sequence, Runnable task) {
+			this.lane = lane;
+			this.id = id;
+			this.sequence = sequence;
+			this.task = task;
+		}
+
+		@Override
+		public int compareTo(Queued o) {
+			int compare = Integer.compare(id, o.id);
+			return compare != 0 ? compare : Long.compare(sequence, o.sequence);
+		}
+	}
+}
@@ -42,21 +42,40 @@ public class Diff {
 	}
 	
 	public final Map<Thing, Change<?>> changes;
-	public final ListMultimap<Class<? extends Thing>, Change<?>> byType;
 	public final Set<Thing> invalidated;
+	/** Lazily built by {@link #byType()}, since many diffs are only ever queried by identity, if at all. */
+	private volatile ListMultimap<Class<? extends Thing>, Change<?>> byType;
 	
 	public Diff() {
 		this(new HashMap<>(), new HashSet<>());
 	}
 	
+	/**
+	 * Wraps, rather than copies, the provided collections, so they must not be modified afterwards.
+	 */
 	public Diff(Map<Thing, Change<?>> changes, Set<Thing> invalidated) {
 		this.invalidated = Collections.unmodifiableSet(invalidated);
 		this.changes = Collections.unmodifiableMap(changes);
+	}
+	
+	/**
+	 * @return The changes grouped by the class of thing that changed.
+	 */
+	public ListMultimap<Class<? extends Thing>, Change<?>> byType() {
+		ListMultimap<Class<? extends Thing>, Change<?>> v = byType;
+		if (v == null) {
+			v = byType(changes);
+			byType = v;
+		}
+		return v;
+	}
+	
+	static ListMultimap<Class<? extends Thing>, Change<?>> byType(Map<Thing, Change<?>> changes) {
 		ListMultimap<Class<? extends Thing>, Change<?>> byType = MultimapBuilder.hashKeys().arrayListValues().build();
-		for (Map.Entry<Thing, Change<?>> t : this.changes.entrySet()) {
+		for (Map.Entry<Thing, Change<?>> t : changes.entrySet()) {
 			byType.put(t.getKey().getClass(), t.getValue());
 		}
-		this.byType = ImmutableListMultimap.copyOf(byType);
+		return ImmutableListMultimap.copyOf(byType);
 	}
 	
 	/**
@@ -109,27 +128,25 @@ public class Diff {
 		Set<Change<T>> matches = new HashSet<>();
 		if (changes.identity != null) {
 			Change<T> c = (Change<T>) this.changes.get(changes.identity);
-			if (c != null) {
-				if (changes.match == null || changes.match.matches(c.latest)) {
-					if (changes.change == null || changes.change.matches(c.previous, c.latest)) {
-						matches.add(c);
-					}
-				}
+			if (c != null && matches(changes, c)) {
+				matches.add(c);
 			}
 		} else {
-			List<Change<?>> t = byType.get(changes.type);
+			List<Change<?>> t = byType().get(changes.type);
 			for (Change<?> c : t) {
-				Change<T> cast = (Change<T>) c;
-				if (changes.match == null || changes.match.matches(cast.latest)) {
-					if (changes.change == null || changes.change.matches(cast.previous, cast.latest)) {
-						matches.add((Change<T>) c);
-					}
+				if (matches(changes, (Change<T>) c)) {
+					matches.add((Change<T>) c);
 				}
 			}
 		}
 		return matches;
 	}
 	
+	static <T extends Thing> boolean matches(Changes<T> changes, Change<T> c) {
+		return (changes.match == null || changes.match.matches(c.latest))
+				&& (changes.change == null || changes.change.matches(c.previous, c.latest));
+	}
+	
 	/**
 	 * @return If part of this diff, a change to this thing, or null.
 	 */
@@ -0,0 +1,130 @@
+package com.pocket.sync.space;
+
+import com.google.common.collect.ListMultimap;
+import com.pocket.sync.source.subscribe.Changes;
+import com.pocket.sync.thing.Thing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable {@link Diff}, for collecting changes over many steps, such as each pass of reactions during an imprint.
+ * {@link Diff#add(Diff)} copies everything collected so far on each step, this only does work proportional to what is added.
+ * <p>
+ * Use {@link #freeze()} once done, to get the immutable {@link Diff}. After that, this can no longer be changed.
+ * Not thread safe.
+ */
+public class DiffAccumulator {
+
+	private final Map<Thing, Change<?>> changes = new HashMap<>();
+	private final Set<Thing> invalidated = new HashSet<>();
+	/** Lazily built by {@link #find(Changes, Collection)} and dropped when changes are added. */
+	private ListMultimap<Class<? extends Thing>, Change<?>> byType;
+	private boolean frozen;
+
+	/**
+	 * Includes these additional changes.
+	 * Where there are existing changes, it will keep the existing {@link Change#previous} and the new {@link Change#latest}.
+	 * Same as {@link Diff#add(Diff)}.
+	 */
+	public void add(Diff diff) {
+		add(diff.changes, diff.invalidated);
+	}
+
+	/** Same as {@link #add(Diff)}. */
+	public void add(DiffAccumulator diff) {
+		add(diff.changes, diff.invalidated);
+	}
+
+	private void add(Map<Thing, Change<?>> add, Set<Thing> invalid) {
+		checkNotFrozen();
+		for (Map.Entry<Thing, Change<?>> e : add.entrySet()) {
+			Change<?> existing = changes.get(e.getKey());
+			if (existing != null) {
+				changes.put(e.getKey(), new Change<>(existing.previous, e.getValue().latest));
+			} else {
+				changes.put(e.getKey(), e.getValue());
+			}
+		}
+		invalidated.addAll(invalid);
+		if (!add.isEmpty()) byType = null;
+	}
+
+	/**
+	 * Changes the invalidation state of this thing. Same as {@link Diff#setInvalidated(Thing, boolean)}.
+	 */
+	public void setInvalidated(Thing thing, boolean invalid) {
+		checkNotFrozen();
+		if (invalid) {
+			invalidated.add(thing);
+		} else {
+			invalidated.remove(thing);
+		}
+	}
+
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	/**
+	 * @return If part of this diff, a change to this thing, or null.
+	 */
+	public <T extends Thing> Change<T> find(T t) {
+		return (Change<T>) changes.get(t);
+	}
+
+	/**
+	 * Looks for changes that match the provided criteria, like {@link Diff#find(Changes)},
+	 * but adds them to a collection of your choosing, so it doesn't need to allocate anything itself.
+	 * @return true if any matched
+	 */
+	public <T extends Thing> boolean find(Changes<T> of, Collection<? super Change<T>> into) {
+		boolean found = false;
+		if (of.identity != null) {
+			Change<T> c = (Change<T>) changes.get(of.identity);
+			if (c != null && Diff.matches(of, c)) {
+				into.add(c);
+				found = true;
+			}
+		} else {
+			if (byType == null) byType = Diff.byType(changes);
+			for (Change<?> c : byType.get(of.type)) {
+				if (Diff.matches(of, (Change<T>) c)) {
+					into.add((Change<T>) c);
+					found = true;
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * @return The {@link Change#latest} of all things that changed. Same as {@link Diff#all()}.
+	 */
+	public Collection<Thing> all() {
+		List<Thing> all = new ArrayList<>(changes.size());
+		for (Change<?> c : changes.values()) {
+			all.add(c.latest);
+		}
+		return all;
+	}
+
+	/**
+	 * @return An immutable {@link Diff} of everything collected. This hands over what it collected rather than copying it,
+	 * 			so this accumulator can't be changed afterwards.
+	 */
+	public Diff freeze() {
+		frozen = true;
+		return new Diff(changes, invalidated);
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) throw new IllegalStateException("already frozen");
+	}
+
+}
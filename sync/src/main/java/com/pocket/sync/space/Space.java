@@ -122,6 +122,22 @@ public interface Space {
 	 * Returns empty diff if no recording was started.
 	 */
 	Diff endDiff();
+	
+	/**
+	 * Begin a batch of changes, such as applying many actions at once, that will be treated as one transaction.
+	 * Until {@link #endBatch()}, imprints still update things right away, but reactions/rederives and clean up
+	 * of released things are deferred and then run once for the whole batch, and any persistence is written once at the end.
+	 * <p>
+	 * While batching, derived fields of things may be out of date. Don't start a batch around work that depends on them.
+	 * Batches can't be nested.
+	 */
+	void startBatch();
+	
+	/**
+	 * Ends the batch started by {@link #startBatch()}, running deferred reactions and clean up and persisting its changes.
+	 * Does nothing if no batch was started. Be sure to call this in a finally block.
+	 */
+	void endBatch();
 
 	/**
 	 * Returns the number of things in this space.
@@ -7,6 +7,7 @@ import com.pocket.sync.action.Action;
 import com.pocket.sync.source.result.RemotePriority;
 import com.pocket.sync.space.Change;
 import com.pocket.sync.space.Diff;
+import com.pocket.sync.space.DiffAccumulator;
 import com.pocket.sync.space.Holder;
 import com.pocket.sync.space.Space;
 import com.pocket.sync.space.persist.DumbStorage;
@@ -18,6 +19,7 @@ import com.pocket.sync.thing.ThingUtil;
 import com.pocket.sync.value.Include;
 import com.pocket.util.java.Logs;
 import com.pocket.util.java.KeyLatch;
+import com.pocket.util.java.StartupTrace;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -74,7 +76,11 @@ public class MutableSpace implements Space {
 	private final Map<Action, RemotePriority> actions = new HashMap<>();
 	
 	/** Used to implement {@link #startDiff()} and {@link #endDiff()} */
-	private Diff openDiff;
+	private DiffAccumulator openDiff;
+	/** While a batch is open, see {@link #startBatch()}, changes whose reactions haven't run yet. Null if not batching. */
+	private Map<Thing, Change<?>> batchChanges;
+	/** While a batch is open, things invalidated by its changes, passed along with {@link #batchChanges} when the batch ends. */
+	private Set<Thing> batchInvalidated;
 	
 	private Spec spec;
 	
@@ -92,6 +98,9 @@ public class MutableSpace implements Space {
 	/** An index of what things reference each other. */
 	private final References<MutableThing> references = new References<>();
 	
+	/** Additional indexes created through {@link Selector#index(Class, SpaceIndex.Factory)}, keyed by their class. */
+	private final Map<Class<?>, SpaceIndex> indexes = new HashMap<>();
+	
 	/** Things that have flat changes since the last {@link #endDiff()} call. */
 	private final Set<MutableThing> changed = new HashSet<>();
 	
@@ -149,7 +158,9 @@ public class MutableSpace implements Space {
 	private <R> R transaction(Transaction<R> task) {
 		// First make sure we loaded in any persisted data. This only needs to happen once at start
 		if (!isWarmedUp && persistence != null) {
+			StartupTrace.Span trace = StartupTrace.begin("MutableSpace restore");
 			try {
+				StartupTrace.Span storage = StartupTrace.begin("storage");
 				persistence.restore(spec,
 						thing -> {
 							synchronized (things) {
@@ -171,8 +182,10 @@ public class MutableSpace implements Space {
 						},
 						this.actions::putAll,
 						this.invalid::addAll);
+				storage.end();
 				
 				// We can assume no reactions or cleaning are needs, so just load up indexes.
+				StartupTrace.Span index = StartupTrace.begin("index");
 				for (MutableThing t : changed) {
 					Thing value = t.build();
 					t.previous(); // Release a previous instance if it was created
@@ -182,15 +195,19 @@ public class MutableSpace implements Space {
 				changedRefs.clear();
 				pendingClean.clear();
 				forgetSessionInternal(); // Remove session holders and their things from previous session
+				index.end();
 			} catch (Throwable t) {
 				throw new SpaceRestoreException(t);
+			} finally {
+				trace.end();
 			}
 			isWarmedUp = true;
 		}
 		
 		// Run the provided transaction
-		transactionDiff.reset(); // Ensure, just in case the previous transaction broke
+		if (batchChanges == null) transactionDiff.reset(); // Ensure, just in case the previous transaction broke
 		R result = task.run();
+		if (batchChanges != null) return result; // Keep accumulating changes, they are persisted once when the batch ends
 		
 		// Async persist changes if needed
 		if (persistence != null) {
@@ -357,6 +374,11 @@ public class MutableSpace implements Space {
 			
 		} while (!things.isEmpty());
 		
+		if (!removed.isEmpty()) {
+			for (SpaceIndex index : indexes.values()) {
+				index.removed(removed);
+			}
+		}
 		transactionDiff.remove(removed);
 	}
 	
@@ -407,13 +429,21 @@ public class MutableSpace implements Space {
 	
 	/** Internal implementation of {@link #imprint(Collection)}, only meant to be used within an existing transaction. */
 	private void imprintInternal(Collection<? extends Thing> things) {
+		imprintInternal(things, Collections.emptySet());
+	}
+	
+	/**
+	 * @param released Things already known to possibly need cleaning, such as ones released during a batch, checked along with anything this imprint releases.
+	 */
+	private void imprintInternal(Collection<? extends Thing> things, Collection<MutableThing> released) {
 		List<Thing> imprints = new ArrayList<>(things);
-		Diff fullDiff = new Diff();
+		DiffAccumulator fullDiff = new DiffAccumulator(); // Mutable, so each pass only adds its own changes rather than copying all previous ones
 
 		// Also double check our trackers are cleared
 		changed.clear();
 		changedRefs.clear();
-		pendingClean.clear();
+		if (batchChanges == null) pendingClean.clear(); // While batching, these accumulate until the batch ends
+		pendingClean.addAll(released);
 		
 		while (!imprints.isEmpty()) {
 			// Apply changes
@@ -464,33 +494,54 @@ public class MutableSpace implements Space {
 			pendingClean.addAll(references.dirty()); // Flag anything that had references released as possible cleanup
 			
 			Diff diff = db.build();
-			fullDiff = fullDiff.add(diff);
-			
-			// Check for rederives
-			Reactions reactions = new Reactions();
-			for (Change c : diff.changes.values()) {
-				c.latest.reactions(c.previous, c.latest, diff, reactions);
-			}
-			// Convert all types and fields to concrete things and fields
-			for (Map.Entry<String, Collection<String>> e : reactions.typesAndFields().asMap().entrySet()) {
-				reactions.things(new HashSet<>(typeIndex.get(e.getKey())), e.getValue());
+			fullDiff.add(diff);
+			for (SpaceIndex index : indexes.values()) {
+				index.update(diff);
 			}
 			
-			// Iterate through all changes, track anything we need to imprint as a result
-			imprints.clear();
-			for (Map.Entry<Thing, Collection<String>> e : reactions.thingsAndFields().asMap().entrySet()) {
-				Thing t = getInternal(e.getKey()); // TODO can we just use this value if it is from diff? rather than looking up
-				Thing t2 = spec.derive().rederive(t, e.getValue(), diff, selector);
-				if (!t.equals(Thing.Equality.FLAT, t2)) {
-					// Imprint changes in the next loop
-					imprints.add(t2);
+			if (batchChanges != null) {
+				// Reactions run once for the whole batch in endBatch()
+				for (Map.Entry<Thing, Change<?>> e : diff.changes.entrySet()) {
+					Change<?> existing = batchChanges.get(e.getKey());
+					batchChanges.put(e.getKey(), existing != null ? new Change<>(existing.previous, e.getValue().latest) : e.getValue());
 				}
+				batchInvalidated.addAll(diff.invalidated);
+				break;
 			}
+			
+			// Iterate through all changes, track anything we need to imprint as a result
+			imprints = rederive(diff);
 		}
 		
-		if (openDiff != null) openDiff = openDiff.add(fullDiff);
+		if (openDiff != null) openDiff.add(fullDiff);
 		transactionDiff.add(fullDiff.all());
-		clean(pendingClean);
+		if (batchChanges == null) clean(pendingClean);
+	}
+	
+	/**
+	 * Checks for reactions to the changes in the diff and rederives the affected things.
+	 * @return The rederived things that changed and need to be imprinted.
+	 */
+	private List<Thing> rederive(Diff diff) {
+		Reactions reactions = new Reactions();
+		for (Change c : diff.changes.values()) {
+			c.latest.reactions(c.previous, c.latest, diff, reactions);
+		}
+		// Convert all types and fields to concrete things and fields
+		for (Map.Entry<String, Collection<String>> e : reactions.typesAndFields().asMap().entrySet()) {
+			reactions.things(new HashSet<>(typeIndex.get(e.getKey())), e.getValue());
+		}
+		
+		List<Thing> imprints = new ArrayList<>();
+		for (Map.Entry<Thing, Collection<String>> e : reactions.thingsAndFields().asMap().entrySet()) {
+			Thing t = getInternal(e.getKey()); // TODO can we just use this value if it is from diff? rather than looking up
+			Thing t2 = spec.derive().rederive(t, e.getValue(), diff, selector);
+			if (!t.equals(Thing.Equality.FLAT, t2)) {
+				// Imprint changes in the next loop
+				imprints.add(t2);
+			}
+		}
+		return imprints;
 	}
 	
 	private <T extends Thing> MutableThing<T> imprint(T value, MutableThing root) {
@@ -632,19 +683,49 @@ public class MutableSpace implements Space {
 	@Override
 	public synchronized void startDiff() {
 		transaction(() -> {
-			openDiff = new Diff();
+			openDiff = new DiffAccumulator();
 		});
 	}
 	
 	@Override
 	public synchronized Diff endDiff() {
 		return transaction(() -> {
-			Diff r = openDiff != null ? openDiff : new Diff();
+			Diff r = openDiff != null ? openDiff.freeze() : new Diff();
 			openDiff = null;
 			return r;
 		});
 	}
 	
+	@Override
+	public synchronized void startBatch() {
+		transaction(() -> {
+			if (batchChanges != null) throw new IllegalStateException("already in a batch");
+			batchChanges = new HashMap<>();
+			batchInvalidated = new HashSet<>();
+		});
+	}
+	
+	@Override
+	public synchronized void endBatch() {
+		transaction(() -> {
+			if (batchChanges == null) return;
+			Map<Thing, Change<?>> changes = batchChanges;
+			Set<Thing> invalidated = batchInvalidated;
+			Set<MutableThing> released = new HashSet<>(pendingClean);
+			batchChanges = null;
+			batchInvalidated = null;
+			pendingClean.clear();
+			
+			// Now run the reactions for everything that changed during the batch, once.
+			List<Thing> rederived = changes.isEmpty() ? Collections.emptyList() : rederive(new Diff(changes, invalidated));
+			if (!rederived.isEmpty()) {
+				imprintInternal(rederived, released); // Also cleans up what the batch released
+			} else {
+				clean(released);
+			}
+		});
+	}
+	
 	@Override
 	public synchronized Thing where(String thingType, String field, String value) {
 		return transaction(() -> {
@@ -701,6 +782,9 @@ public class MutableSpace implements Space {
 		changed.clear();
 		holdersToIdkeys.clear();
 		holdersToMatches.clear();
+		for (SpaceIndex index : indexes.values()) {
+			index.clear();
+		}
 		if (persistence != null) persistence.clear(null, null);
 	}
 
@@ -740,7 +824,7 @@ public class MutableSpace implements Space {
 		if (getInternal(thing) == null) return;
 		Thing id = thing.identity();
 		invalid.add(id.idkey());
-		if (openDiff != null) openDiff = openDiff.setInvalidated(id, true);
+		if (openDiff != null) openDiff.setInvalidated(id, true);
 		transactionDiff.add(id.idkey());
 	}
 	
@@ -761,7 +845,7 @@ public class MutableSpace implements Space {
 		transaction(() -> {
 			for (Thing t : things) {
 				invalid.remove(t.idkey());
-				if (openDiff != null) openDiff = openDiff.setInvalidated(t, false);
+				if (openDiff != null) openDiff.setInvalidated(t, false);
 				transactionDiff.remove(t.idkey());
 			}
 		});
@@ -803,6 +887,11 @@ public class MutableSpace implements Space {
 			return space.getInternal(thing);
 		}
 		
+		/** Same as {@link MutableSpace#get(String)} */
+		public Thing get(String idkey) {
+			return space.getInternal(idkey);
+		}
+		
 		public Collection<Thing> get(Collection<Thing> collection) {
 			List<Thing> all = new ArrayList<>(collection.size());
 			for (Thing t : collection) {
@@ -823,6 +912,24 @@ public class MutableSpace implements Space {
 			return c;
 		}
 		
+		/**
+		 * @return The index of this type, creating it and filling it with what is currently in the space if this is the first time it is requested.
+		 * 			From then on, the space keeps it up to date, see {@link SpaceIndex}.
+		 */
+		public <I extends SpaceIndex> I index(Class<I> type, SpaceIndex.Factory<I> factory) {
+			SpaceIndex index = space.indexes.get(type);
+			if (index == null) {
+				index = factory.create();
+				Diff.Builder all = new Diff.Builder();
+				for (Thing t : space.typeIndex.values()) {
+					all.added(t);
+				}
+				index.update(all.build());
+				space.indexes.put(type, index);
+			}
+			return (I) index;
+		}
+		
 		@Override
 		public void addInvalid(Thing thing) {
 			space.addInvalidInternal(thing);
@@ -925,6 +1032,8 @@ public class MutableSpace implements Space {
 		final Set<String> removeInvalids = new HashSet<>();
 		
 		public void add(Collection<Thing> things) {
+			// Things are equal by identity, so remove first to replace any older state of the same thing, such as from earlier in a batch
+			for (Thing thing : things) addThings.remove(thing);
 			addThings.addAll(things);
 			removeThings.removeAll(things);
 		}
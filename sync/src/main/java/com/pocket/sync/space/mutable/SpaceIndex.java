@@ -0,0 +1,40 @@
+package com.pocket.sync.space.mutable;
+
+import com.pocket.sync.space.Diff;
+import com.pocket.sync.thing.Thing;
+
+import java.util.Collection;
+
+/**
+ * An additional index over the things in a {@link MutableSpace}, for derivations that would otherwise have to look at every thing of a type,
+ * such as searching. Get or create one with {@link MutableSpace.Selector#index(Class, Factory)}.
+ * <p>
+ * Once created, the space keeps it up to date as things change. Indexes are only kept in memory,
+ * the space rebuilds them from what it holds the first time they are requested after it restores.
+ * Methods are only invoked from within the space's transactions, so implementations don't need to synchronize on their own.
+ */
+public interface SpaceIndex {
+
+	/**
+	 * Things were added or changed.
+	 * Invoked for each pass of an imprint, before reactions to it are derived, so derivations can rely on the index being current.
+	 * When the index is created, invoked once with everything already in the space.
+	 * @param diff The {@link com.pocket.sync.space.Change#latest} of each change is the state now in the space. {@link com.pocket.sync.space.Change#previous} is null for things that were added.
+	 */
+	void update(Diff diff);
+
+	/**
+	 * These things were removed from the space.
+	 */
+	void removed(Collection<Thing> things);
+
+	/**
+	 * Everything was removed from the space.
+	 */
+	void clear();
+
+	interface Factory<I extends SpaceIndex> {
+		I create();
+	}
+
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.pocket.sync.source.JsonConfig;
 import com.pocket.sync.source.subscribe.Changes;
 import com.pocket.sync.thing.Thing;
@@ -19,7 +20,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,6 +33,9 @@ public class BaseModeller {
 
 	public static final ObjectMapper OBJECT_MAPPER = JsonUtil.getObjectMapper();
 	
+	/** See {@link #setInterner(StringInterner)} */
+	private static volatile StringInterner interner;
+	
 	/**
 	 * Create a [Type]
 	 * @return a mutable list. doesn't do anything to ensure immutability since our current use case passes this value directly to a builder which will handle converting to an immutable value.
@@ -199,6 +202,78 @@ public class BaseModeller {
 		return declared ? list : null;
 	}
 	
+	/**
+	 * Implements a remap as described in the sync docs, reading from a parser positioned at the start of the list.
+	 * Same as {@link #remap(JsonNode, String, TypeParser)} but in streaming mode.
+	 * The list is consumed, so use {@link #buffer(JsonParser)} and {@link #replay(TokenBuffer)} to also read the list itself.
+	 * @return A list of extracted values as a mutable list. doesn't do anything to ensure immutability since our current use case passes this value directly to a builder which will handle converting to an immutable value.
+	 */
+	public static <T> List<T> remap(JsonParser parser, String field, StreamingTypeParser<T> creator) throws IOException {
+		if (parser.currentToken() == null || parser.currentToken() == JsonToken.VALUE_NULL) return null;
+		
+		final JsonToken end;
+		if (parser.isExpectedStartObjectToken()) {
+			end = JsonToken.END_OBJECT; // Since v3 sometimes returns lists as key:value
+		} else if (parser.isExpectedStartArrayToken()) {
+			end = JsonToken.END_ARRAY;
+		} else {
+			throw new RuntimeException("Unable to parse as list.");
+		}
+		
+		boolean declared = false;
+		ArrayList<T> list = new ArrayList<>();
+		while (parser.nextToken() != end) {
+			if (end == JsonToken.END_OBJECT) parser.nextToken(); // Skip the key
+			
+			T value = null;
+			if (parser.isExpectedStartObjectToken()) {
+				while (parser.nextToken() != JsonToken.END_OBJECT) {
+					String name = parser.getCurrentName();
+					parser.nextToken();
+					if (field.equals(name)) {
+						value = creator.create(parser);
+						declared = true;
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+			list.add(value);
+		}
+		return declared ? list : null;
+	}
+	
+	/**
+	 * Implements a remap as described in the sync docs, reading from a parser positioned at the start of the list.
+	 * Same as {@link #remap(JsonNode, String, SyncableParser, JsonConfig, Allow...)} but in streaming mode.
+	 * The list is consumed, so use {@link #buffer(JsonParser)} and {@link #replay(TokenBuffer)} to also read the list itself.
+	 * @return A list of extracted values as a mutable list. doesn't do anything to ensure immutability since our current use case passes this value directly to a builder which will handle converting to an immutable value.
+	 */
+	public static <T> List<T> remap(JsonParser parser, String field, StreamingThingParser<T> creator, JsonConfig config, Allow... allowed) throws IOException {
+		return remap(parser, field, p -> creator.create(p, config, allowed));
+	}
+	
+	/**
+	 * Copies the current value of the parser, including all of its children, into a buffer that can be read multiple times with {@link #replay(TokenBuffer)}.
+	 * This is much cheaper than reading it into a {@link JsonNode} tree. Moves the parser to the end of the value.
+	 */
+	public static TokenBuffer buffer(JsonParser parser) throws IOException {
+		TokenBuffer buffer = new TokenBuffer(parser);
+		buffer.copyCurrentStructure(parser);
+		return buffer;
+	}
+	
+	/**
+	 * @return A new parser that reads the value copied by {@link #buffer(JsonParser)}, already positioned at its first token like the original parser was.
+	 */
+	public static JsonParser replay(TokenBuffer buffer) throws IOException {
+		JsonParser parser = buffer.asParser();
+		parser.nextToken();
+		return parser;
+	}
+	
 	/**
 	 * Create a Map<Type>
 	 * @return a mutable map. doesn't do anything to ensure immutability since our current use case passes this value directly to a builder which will handle converting to an immutable value.
@@ -388,6 +463,22 @@ public class BaseModeller {
 		throw new RuntimeException("Not a string " + JsonUtil.errorLocation(parser));
 	}
 	
+	/**
+	 * Turns on sharing equal instances of values of fields marked with @intern as they are parsed or uncompressed. Off by default.
+	 * @param value The pool to use, or null to turn it off again.
+	 */
+	public static void setInterner(StringInterner value) {
+		interner = value;
+	}
+	
+	/**
+	 * @return A shared instance equal to this value if {@link #setInterner(StringInterner)} turned interning on, otherwise the value as is.
+	 */
+	public static String intern(String value) {
+		StringInterner pool = interner;
+		return pool != null ? pool.intern(value) : value;
+	}
+	
 	/** Returns a value that can be safely assumed not to change. Might be the same instance of a copy. */
 	public static <T> List<T> immutable(List<T> value) {
 		if (value == null) {
@@ -395,7 +486,7 @@ public class BaseModeller {
 		} else if (value.isEmpty()) {
 			return Collections.emptyList();
 		} else {
-			return Collections.unmodifiableList(new ArrayList<>(value)); // We have to make a copy to ensure that no one has a reference to the backing list, since Collections.unmodifiable just wraps it, doesn't protect against changes made to the original collection, just future changes to this new wrapped instance.
+			return SharedList.copyOf(value); // Only copies if it isn't already a SharedList. Collections.unmodifiable wouldn't be enough since it just wraps it, it doesn't protect against changes made to the original collection by whoever still has a reference to it.
 		}
 	}
 	
@@ -406,7 +497,7 @@ public class BaseModeller {
 		} else if (value.isEmpty()) {
 			return Collections.emptyMap();
 		} else {
-			return Collections.unmodifiableMap(new LinkedHashMap<>(value)); // We have to make a copy to ensure that no one has a reference to the backing list, since Collections.unmodifiable just wraps it, doesn't protect against changes made to the original collection, just future changes to this new wrapped instance.
+			return SharedMap.copyOf(value); // Only copies if it isn't already a SharedMap, see the List version above.
 		}
 	}
 	
@@ -503,21 +594,19 @@ public class BaseModeller {
 
 
 	/**
-	 * @return A copy of the list with the provided element at the specified position.
+	 * @return An immutable copy of the list with the provided element at the specified position.
+	 * 		Can be passed to a builder as is, without {@link #immutable(List)} copying it again.
 	 */
 	public static <T extends Thing> List<T> replaceElement(List<T> list, int at, T replacement) {
-		List<T> mod = new ArrayList<>(list);
-		mod.set(at, replacement);
-		return mod;
+		return SharedList.replacing(list, at, replacement);
 	}
 	
 	/**
-	 * @return A copy of the map with the provided element at the specified key.
+	 * @return An immutable copy of the map with the provided element at the specified key.
+	 * 		Can be passed to a builder as is, without {@link #immutable(Map)} copying it again.
 	 */
 	public static <T extends Thing> Map<String, T> replaceElement(Map<String, T> list, String at, T replacement) {
-		Map<String, T> mod = new HashMap<>(list);
-		mod.put(at, replacement);
-		return mod;
+		return SharedMap.replacing(list, at, replacement);
 	}
 	
 	public static Map<String, String> asMap(String... keyvals) {
@@ -0,0 +1,101 @@
+package com.pocket.sync.value;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list used for the list fields of {@link com.pocket.sync.thing.Thing}s.
+ * <p>
+ * Since nothing can change its contents after it is created, the same instance can be shared between builders and
+ * the things they build, and between a thing and copies of it, without the defensive copy that
+ * {@link BaseModeller#immutable(List)} would otherwise have to make each time it is set on a builder.
+ * <p>
+ * Unlike {@link java.util.Collections#unmodifiableList(List)} this doesn't wrap a list someone else might still
+ * hold a reference to, it owns its backing array. Null elements are allowed.
+ * Use {@link #with(int, Object)} to create a modified copy.
+ */
+public final class SharedList<T> extends AbstractList<T> implements RandomAccess {
+
+	private final Object[] elements;
+
+	private SharedList(Object[] elements) {
+		this.elements = elements;
+	}
+
+	/**
+	 * @return An immutable list with the same elements as the provided collection.
+	 * 		If it is already a {@link SharedList} the same instance is returned without copying.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> SharedList<T> copyOf(Collection<? extends T> value) {
+		if (value instanceof SharedList) return (SharedList<T>) value;
+		return new SharedList<>(value.toArray());
+	}
+
+	/**
+	 * @return A copy of the list with the provided element at the specified position, only copying the list once.
+	 * 		If the list is a {@link SharedList} this is the same as {@link #with(int, Object)}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> SharedList<T> replacing(List<? extends T> value, int at, T replacement) {
+		if (value instanceof SharedList) return ((SharedList<T>) value).with(at, replacement);
+		Object[] elements = value.toArray();
+		elements[at] = replacement;
+		return new SharedList<>(elements);
+	}
+
+	/**
+	 * @return A copy of this list with the provided element at the specified position, or this same instance if that element is already there.
+	 */
+	public SharedList<T> with(int at, T replacement) {
+		if (elements[at] == replacement) return this;
+		Object[] copy = elements.clone();
+		copy[at] = replacement;
+		return new SharedList<>(copy);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T get(int index) {
+		return (T) elements[index];
+	}
+
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	@Override
+	public Object[] toArray() {
+		return elements.clone();
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for (int i = 0; i < elements.length; i++) {
+			if (o == null ? elements[i] == null : o.equals(elements[i])) return i;
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(elements);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) return true;
+		if (o instanceof SharedList) return Arrays.equals(elements, ((SharedList<?>) o).elements);
+		return super.equals(o);
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.pocket.sync.value;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable map used for the map fields of {@link com.pocket.sync.thing.Thing}s.
+ * The {@link Map} equivalent of {@link SharedList}, see its docs for why this exists.
+ * Keeps the iteration order of the map it was created from.
+ */
+public final class SharedMap<V> extends AbstractMap<String, V> {
+
+	private final Map<String, V> map;
+
+	private SharedMap(LinkedHashMap<String, V> owned) {
+		this.map = Collections.unmodifiableMap(owned);
+	}
+
+	/**
+	 * @return An immutable map with the same entries as the provided map.
+	 * 		If it is already a {@link SharedMap} the same instance is returned without copying.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> SharedMap<V> copyOf(Map<String, ? extends V> value) {
+		if (value instanceof SharedMap) return (SharedMap<V>) value;
+		return new SharedMap<>(new LinkedHashMap<>(value));
+	}
+
+	/**
+	 * @return A copy of the map with the provided element at the specified key, only copying the map once.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> SharedMap<V> replacing(Map<String, ? extends V> value, String at, V replacement) {
+		if (value instanceof SharedMap && value.get(at) == replacement && value.containsKey(at)) return (SharedMap<V>) value;
+		LinkedHashMap<String, V> copy = new LinkedHashMap<>(value);
+		copy.put(at, replacement);
+		return new SharedMap<>(copy);
+	}
+
+	/**
+	 * @return A copy of this map with the provided element at the specified key, or this same instance if that element is already there.
+	 */
+	public SharedMap<V> with(String at, V replacement) {
+		return replacing(this, at, replacement);
+	}
+
+	@Override
+	public V get(Object key) {
+		return map.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return map.keySet();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return map.values();
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet() {
+		return map.entrySet();
+	}
+
+}
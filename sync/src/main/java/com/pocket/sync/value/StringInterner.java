@@ -0,0 +1,43 @@
+package com.pocket.sync.value;
+
+/**
+ * A fixed size pool of Strings, used to share one instance of values that repeat a lot across things, such as domains,
+ * tags or mime types, instead of keeping a separate copy for every thing they were parsed into.
+ * <p>
+ * Each String has one slot, picked by its hash. A value whose slot holds an equal String gets that instance back,
+ * otherwise it replaces whatever was in the slot. So the pool never holds more than its size and frequently
+ * repeated values tend to stay in it, while a rare value just evicts another one. There is no locking, since a
+ * race at worst means a value isn't shared.
+ * <p>
+ * Generated code uses this through {@link BaseModeller#intern(String)} for fields marked with the @intern directive.
+ */
+public final class StringInterner {
+
+	private final String[] slots;
+	private final int mask;
+
+	/**
+	 * @param size The number of Strings to keep, rounded up to a power of two.
+	 */
+	public StringInterner(int size) {
+		if (size <= 0) throw new IllegalArgumentException("size must be greater than 0");
+		int capacity = Integer.highestOneBit(size);
+		if (capacity < size) capacity <<= 1;
+		slots = new String[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * @return An equal String from the pool if there is one, otherwise the same value, which is then added to the pool.
+	 */
+	public String intern(String value) {
+		if (value == null) return null;
+		int hash = value.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		String pooled = slots[slot];
+		if (pooled != null && pooled.equals(value)) return pooled;
+		slots[slot] = value;
+		return value;
+	}
+
+}
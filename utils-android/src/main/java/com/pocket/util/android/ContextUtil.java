@@ -1,10 +1,15 @@
 package com.pocket.util.android;
 
 import android.app.Activity;
+import android.app.ActivityManager;
+import android.app.Application;
 import android.content.Context;
 import android.content.ContextWrapper;
+import android.os.Process;
 import android.view.View;
 
+import java.util.List;
+
 /**s
  * Helper methods related to {@link Context}
  */
@@ -46,4 +51,23 @@ public abstract class ContextUtil {
             return null;
         }
     }
+
+    /**
+     * @return true if this is the app's default process, false if it is one of the others that components can run in with android:process.
+     */
+    public static boolean isMainProcess(Context context) {
+        String name = null;
+        if (ApiLevel.isPOrGreater()) {
+            name = Application.getProcessName();
+        } else {
+            ActivityManager manager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            List<ActivityManager.RunningAppProcessInfo> processes = manager != null ? manager.getRunningAppProcesses() : null;
+            if (processes != null) {
+                for (ActivityManager.RunningAppProcessInfo process : processes) {
+                    if (process.pid == Process.myPid()) name = process.processName;
+                }
+            }
+        }
+        return name == null || name.equals(context.getPackageName());
+    }
 }
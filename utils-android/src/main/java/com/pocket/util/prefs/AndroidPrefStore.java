@@ -14,9 +14,11 @@ import io.reactivex.Observable;
 public class AndroidPrefStore implements Store {
 		
 	private final SharedPreferences prefs;
+	private final KeyChanges keyChanges;
 	
 	public AndroidPrefStore(SharedPreferences prefs) {
 		this.prefs = prefs;
+		this.keyChanges = new KeyChanges(changes());
 	}
 	
 	@Override
@@ -31,16 +33,6 @@ public class AndroidPrefStore implements Store {
 		});
 	}
 	
-	private <T> Observable<T> changes(String key, Get<T> getter) {
-		return changes()
-				.filter(changed -> changed.equals(key))
-				.map(k -> getter.get(key));
-	}
-	
-	interface Get<T> {
-		T get(String key);
-	}
-	
 	@Override
 	public boolean contains(String key) {
 		return prefs.contains(key);
@@ -68,7 +60,7 @@ public class AndroidPrefStore implements Store {
 	
 	@Override
 	public Observable<String> stringChanges(String key) {
-		return changes(key, this::getString);
+		return keyChanges.changes(key, String.class, this::getString);
 	}
 	
 	
@@ -86,7 +78,7 @@ public class AndroidPrefStore implements Store {
 	
 	@Override
 	public Observable<Set<String>> stringSetChanges(String key) {
-		return changes(key, this::getStringSet);
+		return keyChanges.changes(key, Set.class, this::getStringSet);
 	}
 	
 	
@@ -102,7 +94,7 @@ public class AndroidPrefStore implements Store {
 	
 	@Override
 	public Observable<Integer> intChanges(String key) {
-		return changes(key, this::getInt);
+		return keyChanges.changes(key, Integer.class, this::getInt);
 	}
 	
 	
@@ -118,7 +110,7 @@ public class AndroidPrefStore implements Store {
 	
 	@Override
 	public Observable<Float> floatChanges(String key) {
-		return changes(key, this::getFloat);
+		return keyChanges.changes(key, Float.class, this::getFloat);
 	}
 	
 	
@@ -134,7 +126,7 @@ public class AndroidPrefStore implements Store {
 	
 	@Override
 	public Observable<Long> longChanges(String key) {
-		return changes(key, this::getLong);
+		return keyChanges.changes(key, Long.class, this::getLong);
 	}
 	
 	
@@ -150,7 +142,7 @@ public class AndroidPrefStore implements Store {
 	
 	@Override
 	public Observable<Boolean> booleanChanges(String key) {
-		return changes(key, this::getBoolean);
+		return keyChanges.changes(key, Boolean.class, this::getBoolean);
 	}
 	
 	@Override
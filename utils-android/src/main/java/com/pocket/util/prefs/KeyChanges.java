@@ -0,0 +1,56 @@
+package com.pocket.util.prefs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * Helps {@link Store} implementations provide their per key observables, like {@link Store#stringChanges(String)}.
+ * <p>
+ * Instead of each per key subscription observing {@link Store#changes()} and filtering out every other key,
+ * this observes it once, only while at least one per key subscription is active, and hands each change
+ * to the observers of that key through a map lookup. The new value is read once per change and shared
+ * by all observers of that key and type.
+ */
+final class KeyChanges {
+
+	interface Get<T> {
+		T get(String key);
+	}
+
+	/** Observes the store's changes while anything is subscribed to it, and dispatches each one to its key's subject. */
+	private final Observable<String> dispatcher;
+	private final Map<String, Subject<String>> keys = new ConcurrentHashMap<>();
+	/** Per key and type observables, so observers of the same value share one read of it. */
+	private final Map<String, Observable<?>> values = new ConcurrentHashMap<>();
+
+	KeyChanges(Observable<String> changes) {
+		this.dispatcher = changes
+				.doOnNext(key -> {
+					Subject<String> subject = keys.get(key);
+					if (subject != null) subject.onNext(key);
+				})
+				.share();
+	}
+
+	/**
+	 * @param key The key to observe
+	 * @param type The type of value, observables of the same key and type are shared.
+	 * @param getter Reads the current value of the key
+	 * @return An observable that emits the new value each time the key changes.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> Observable<T> changes(String key, Class<?> type, Get<T> getter) {
+		return (Observable<T>) values.computeIfAbsent(type.getName() + ":" + key, k -> {
+			Subject<String> subject = keys.computeIfAbsent(key, __ -> PublishSubject.<String>create().toSerialized());
+			return subject
+					.map(getter::get)
+					.mergeWith(dispatcher.ignoreElements()) // Keeps the store observed while this is subscribed to.
+					.share();
+		});
+	}
+
+}
@@ -0,0 +1,559 @@
+package com.pocket.util.prefs;
+
+import android.content.SharedPreferences;
+
+import com.pocket.util.java.Logs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * A {@link Store} that keeps its values in memory and persists them as an append-only log in a memory-mapped file.
+ * <p>
+ * Compared to {@link AndroidPrefStore}, opening only scans a compact binary file instead of parsing xml, and each change
+ * appends one small record to the mapped file instead of rewriting the whole file. Once most of the log's records have
+ * been overwritten by later ones, it is compacted by writing just the current values to a new file and renaming it
+ * over the old one. Compacting happens on the provided executor, so writers don't wait on it. Changes made while it
+ * runs are appended to the new file once it is in place. If it fails, they are kept and it is tried again.
+ * <p>
+ * Every record has a checksum. If the process dies in the middle of a write, loading keeps everything before the
+ * first incomplete or corrupt record and drops the rest. Like {@link SharedPreferences.Editor#apply()}, writes
+ * survive the process being killed, since they are in the OS's page cache, but not necessarily a power loss.
+ * <p>
+ * File format: {@link #MAGIC}, then records of [int length][byte type][key][value][int crc32 of type, key and value],
+ * then zeros. Strings are an int byte count followed by utf-8 bytes.
+ * <p>
+ * Only one instance, in one process, should use a file at a time. Nothing coordinates writes between processes.
+ */
+public class MappedPrefStore implements Store {
+
+	private static final int MAGIC = 0x504b5631;
+	private static final int HEADER = 4;
+	private static final int MIN_CAPACITY = 16 * 1024;
+	/** Don't bother compacting until there are at least this many overwritten records. */
+	private static final int MIN_GARBAGE = 256;
+	/** How many times in a row compacting is tried before waiting for the next write to try again. */
+	private static final int MAX_COMPACT_ATTEMPTS = 3;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final byte STRING = 1;
+	private static final byte STRING_SET = 2;
+	private static final byte INT = 3;
+	private static final byte FLOAT = 4;
+	private static final byte LONG = 5;
+	private static final byte BOOLEAN = 6;
+	private static final byte REMOVE = 7;
+	private static final byte CLEAR = 8;
+
+	/**
+	 * Where to move values from the first time a {@link MappedPrefStore} is created.
+	 */
+	public interface Legacy {
+		/** @return All of its values. Only invoked if the store's file doesn't exist yet. */
+		Map<String, ?> values();
+		/** Invoked once its values have been written to the new store's file. Does nothing by default, leaving them in place. */
+		default void clear() {}
+	}
+
+	/**
+	 * @return A {@link Legacy} that copies all values out of these {@link SharedPreferences}.
+	 * 			They are left in place, so a version that still reads them finds them after a downgrade.
+	 */
+	public static Legacy legacy(SharedPreferences prefs) {
+		return prefs::getAll;
+	}
+
+	private final File file;
+	private final File temp;
+	private final Map<String, Object> values = new ConcurrentHashMap<>();
+	private final Subject<String> changes = PublishSubject.<String>create().toSerialized();
+	private final KeyChanges keyChanges = new KeyChanges(changes);
+	private final Executor compactor;
+
+	/** The following are only accessed while holding this object's lock. */
+	private FileChannel channel;
+	private MappedByteBuffer log;
+	/** How many records are in the log, including ones overwritten by later records. */
+	private int records;
+	/** While a compaction is running, the records written since it took its snapshot of the values. Null otherwise. */
+	private List<byte[]> sinceCompaction;
+	/** Compacting failed {@link #MAX_COMPACT_ATTEMPTS} times in a row. {@link #sinceCompaction} still holds what it couldn't persist. */
+	private boolean compactFailed;
+
+	public MappedPrefStore(File file) throws IOException {
+		this(file, null);
+	}
+
+	/** Like {@link #MappedPrefStore(File, Legacy, Executor)}, but compacts on whichever thread is writing. */
+	public MappedPrefStore(File file, Legacy legacy) throws IOException {
+		this(file, legacy, Runnable::run);
+	}
+
+	/**
+	 * @param file Where to persist values. Created if it doesn't exist yet.
+	 * @param legacy If the file doesn't exist yet, its values are copied into this store. May be null.
+	 * @param compactor Where to compact the log, usually a background thread.
+	 * @throws IOException If the file couldn't be opened or created.
+	 */
+	public MappedPrefStore(File file, Legacy legacy, Executor compactor) throws IOException {
+		this.file = file;
+		this.temp = new File(file.getPath() + ".tmp");
+		this.compactor = compactor;
+		File dir = file.getParentFile();
+		if (dir != null && !dir.exists() && !dir.mkdirs()) throw new IOException("couldn't create " + dir);
+		if (temp.exists() && !temp.delete()) throw new IOException("couldn't delete " + temp); // Left from an interrupted compaction, the file is still intact.
+
+		synchronized (this) {
+			if (file.exists()) {
+				load();
+			} else {
+				if (legacy != null) {
+					for (Map.Entry<String, ?> entry : legacy.values().entrySet()) {
+						Object value = importable(entry.getValue());
+						if (entry.getKey() != null && value != null) values.put(entry.getKey(), value);
+					}
+				}
+				rewrite();
+				if (legacy != null) legacy.clear();
+			}
+		}
+	}
+
+	private static Object importable(Object value) {
+		if (value instanceof Set) {
+			Set<String> set = new HashSet<>();
+			for (Object v : (Set<?>) value) {
+				if (v instanceof String) set.add((String) v);
+			}
+			return Collections.unmodifiableSet(set);
+		} else if (value instanceof String || value instanceof Integer || value instanceof Float || value instanceof Long || value instanceof Boolean) {
+			return value;
+		} else {
+			return null;
+		}
+	}
+
+	/** Maps the file and replays its log into {@link #values}. */
+	private void load() throws IOException {
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		long size = channel.size();
+		log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, MIN_CAPACITY));
+		if (size < HEADER || log.getInt(0) != MAGIC) {
+			rewrite(); // Never finished being created, start over empty.
+			return;
+		}
+
+		log.position(HEADER);
+		boolean corrupt = false;
+		CRC32 crc = new CRC32();
+		while (log.remaining() >= 4) {
+			int start = log.position();
+			int length = log.getInt();
+			if (length == 0) {
+				log.position(start);
+				break;
+			}
+			if (length < 0 || length > log.remaining() - 4) {
+				corrupt = true;
+				break;
+			}
+			byte[] body = new byte[length];
+			log.get(body);
+			crc.reset();
+			crc.update(body, 0, length);
+			if (log.getInt() != (int) crc.getValue() || !replay(ByteBuffer.wrap(body))) {
+				corrupt = true;
+				break;
+			}
+			records++;
+		}
+		if (corrupt) {
+			rewrite(); // Drop the partially written tail so later appends don't land after garbage.
+		}
+	}
+
+	/** Applies one record to {@link #values}. @return false if it isn't a valid record. */
+	private boolean replay(ByteBuffer in) {
+		try {
+			byte type = in.get();
+			String key = readString(in);
+			switch (type) {
+				case STRING: values.put(key, readString(in)); break;
+				case STRING_SET:
+					int size = in.getInt();
+					Set<String> set = new HashSet<>(size);
+					for (int i = 0; i < size; i++) {
+						set.add(readString(in));
+					}
+					values.put(key, Collections.unmodifiableSet(set));
+					break;
+				case INT: values.put(key, in.getInt()); break;
+				case FLOAT: values.put(key, in.getFloat()); break;
+				case LONG: values.put(key, in.getLong()); break;
+				case BOOLEAN: values.put(key, in.get() != 0); break;
+				case REMOVE: values.remove(key); break;
+				case CLEAR: values.clear(); break;
+				default: return false;
+			}
+			return !in.hasRemaining();
+		} catch (RuntimeException e) {
+			return false; // Lengths that don't fit, negative sizes, etc.
+		}
+	}
+
+	private static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	private static byte[] record(String key, Object value) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(0); // Length, filled in below
+			if (value == null) {
+				out.writeByte(REMOVE);
+				writeString(out, key);
+			} else if (value instanceof String) {
+				out.writeByte(STRING);
+				writeString(out, key);
+				writeString(out, (String) value);
+			} else if (value instanceof Set) {
+				out.writeByte(STRING_SET);
+				writeString(out, key);
+				Set<?> set = (Set<?>) value;
+				out.writeInt(set.size());
+				for (Object v : set) {
+					writeString(out, (String) v);
+				}
+			} else if (value instanceof Integer) {
+				out.writeByte(INT);
+				writeString(out, key);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Float) {
+				out.writeByte(FLOAT);
+				writeString(out, key);
+				out.writeFloat((Float) value);
+			} else if (value instanceof Long) {
+				out.writeByte(LONG);
+				writeString(out, key);
+				out.writeLong((Long) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN);
+				writeString(out, key);
+				out.writeBoolean((Boolean) value);
+			} else {
+				throw new IllegalArgumentException("unsupported value " + value.getClass());
+			}
+			out.writeInt(0); // Checksum, filled in below
+		} catch (IOException e) {
+			throw new RuntimeException(e); // Not possible when writing to memory
+		}
+		return seal(bytes.toByteArray());
+	}
+
+	private static byte[] clearRecord() {
+		ByteBuffer out = ByteBuffer.allocate(4 + 1 + 4 + 4);
+		out.putInt(0);
+		out.put(CLEAR);
+		out.putInt(0); // Empty key
+		out.putInt(0);
+		return seal(out.array());
+	}
+
+	/** Fills in the length and checksum of a record. */
+	private static byte[] seal(byte[] record) {
+		int length = record.length - 8;
+		CRC32 crc = new CRC32();
+		crc.update(record, 4, length);
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		buffer.putInt(0, length);
+		buffer.putInt(record.length - 4, (int) crc.getValue());
+		return record;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Appends a record to the log. {@link #values} must already include the change.
+	 * If the file is full or is mostly overwritten records, it is compacted.
+	 * While a compaction is running, the record is also kept to be appended to the new file.
+	 * If compacting failed, it is tried again.
+	 */
+	private void append(byte[] record) {
+		if (sinceCompaction != null) sinceCompaction.add(record);
+		if (compactFailed) {
+			compact(1); // Since values already include this change, this persists it too.
+			return;
+		}
+		if (log.remaining() < record.length) {
+			if (sinceCompaction == null) compact(1); // Since values already include this change, this persists it too.
+			return;
+		}
+		log.put(record);
+		records++;
+		int garbage = records - values.size();
+		if (sinceCompaction == null && garbage > MIN_GARBAGE && garbage > values.size()) {
+			compact(1);
+		}
+	}
+
+	/**
+	 * Snapshots the current values and writes them to a new log on {@link #compactor}.
+	 * If that fails, it is tried again, up to {@link #MAX_COMPACT_ATTEMPTS} times and then on the next write.
+	 * Until then, records that were written meanwhile are kept, since they may not be in the log.
+	 * Must be invoked while holding this object's lock.
+	 * @param attempt How many times in a row this has been tried, including this one.
+	 */
+	private void compact(int attempt) {
+		byte[] snapshot = snapshot();
+		int count = values.size();
+		sinceCompaction = new ArrayList<>(); // Any records kept from a failed attempt are in the snapshot.
+		compactFailed = false;
+		compactor.execute(() -> {
+			try {
+				int capacity = capacity(snapshot.length);
+				writeTemp(snapshot, capacity); // Without holding the lock, this is the slow part
+				synchronized (this) {
+					replace(capacity, snapshot.length, count);
+					List<byte[]> pending = sinceCompaction;
+					sinceCompaction = null;
+					for (byte[] record : pending) {
+						append(record);
+					}
+				}
+			} catch (IOException e) {
+				Logs.printStackTrace(e); // Like SharedPreferences, keep the values in memory even if they couldn't be persisted.
+				synchronized (this) {
+					if (attempt < MAX_COMPACT_ATTEMPTS) {
+						compact(attempt + 1);
+					} else {
+						compactFailed = true; // The next write tries again.
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Writes only the current values to a new file, syncs it and renames it over the log, then maps it, all on this thread.
+	 * The new file has room for at least as many bytes again, so it also works to grow the log.
+	 */
+	private void rewrite() throws IOException {
+		byte[] snapshot = snapshot();
+		int capacity = capacity(snapshot.length);
+		writeTemp(snapshot, capacity);
+		replace(capacity, snapshot.length, values.size());
+	}
+
+	/** @return The header and a record for each current value. */
+	private byte[] snapshot() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(ByteBuffer.allocate(HEADER).putInt(MAGIC).array(), 0, HEADER);
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			byte[] record = record(entry.getKey(), entry.getValue());
+			bytes.write(record, 0, record.length);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static int capacity(int size) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < size * 2) {
+			capacity *= 2;
+		}
+		return capacity;
+	}
+
+	private void writeTemp(byte[] snapshot, int capacity) throws IOException {
+		try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+			out.setLength(capacity);
+			out.write(snapshot);
+			out.getFD().sync();
+		}
+	}
+
+	/** Renames the temp file over the log and maps it. Must be invoked while holding this object's lock. */
+	private void replace(int capacity, int size, int count) throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+		if (!temp.renameTo(file)) throw new IOException("couldn't replace " + file);
+
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+		log.position(size);
+		records = count;
+	}
+
+	private void write(String key, Object value) {
+		synchronized (this) {
+			Object previous = value != null ? values.put(key, value) : values.remove(key);
+			if (value != null ? value.equals(previous) : previous == null) return; // No change
+			append(record(key, value));
+		}
+		changes.onNext(key);
+	}
+
+	@Override
+	public Observable<String> changes() {
+		return changes;
+	}
+
+	@Override
+	public boolean contains(String key) {
+		return values.containsKey(key);
+	}
+
+	@Override
+	public void remove(String key) {
+		write(key, null);
+	}
+
+	@Override
+	public void clear() {
+		Set<String> cleared;
+		synchronized (this) {
+			if (values.isEmpty()) return;
+			cleared = new HashSet<>(values.keySet());
+			values.clear();
+			append(clearRecord());
+		}
+		for (String key : cleared) {
+			changes.onNext(key);
+		}
+	}
+
+	@Override
+	public Set<String> keys() {
+		return new HashSet<>(values.keySet());
+	}
+
+
+	@Override
+	public String getString(String key) {
+		return (String) values.get(key);
+	}
+
+	@Override
+	public void set(String key, String value) {
+		write(key, value);
+	}
+
+	@Override
+	public Observable<String> stringChanges(String key) {
+		return keyChanges.changes(key, String.class, this::getString);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Set<String> getStringSet(String key) {
+		return (Set<String>) values.get(key); // Already immutable
+	}
+
+	@Override
+	public void set(String key, Set<String> value) {
+		write(key, value != null ? Collections.unmodifiableSet(new HashSet<>(value)) : null);
+	}
+
+	@Override
+	public Observable<Set<String>> stringSetChanges(String key) {
+		return keyChanges.changes(key, Set.class, this::getStringSet);
+	}
+
+
+	@Override
+	public int getInt(String key) {
+		Object v = values.get(key);
+		return v != null ? (Integer) v : 0;
+	}
+
+	@Override
+	public void set(String key, int value) {
+		write(key, value);
+	}
+
+	@Override
+	public Observable<Integer> intChanges(String key) {
+		return keyChanges.changes(key, Integer.class, this::getInt);
+	}
+
+
+	@Override
+	public float getFloat(String key) {
+		Object v = values.get(key);
+		return v != null ? (Float) v : 0;
+	}
+
+	@Override
+	public void set(String key, float value) {
+		write(key, value);
+	}
+
+	@Override
+	public Observable<Float> floatChanges(String key) {
+		return keyChanges.changes(key, Float.class, this::getFloat);
+	}
+
+
+	@Override
+	public long getLong(String key) {
+		Object v = values.get(key);
+		return v != null ? (Long) v : 0;
+	}
+
+	@Override
+	public void set(String key, long value) {
+		write(key, value);
+	}
+
+	@Override
+	public Observable<Long> longChanges(String key) {
+		return keyChanges.changes(key, Long.class, this::getLong);
+	}
+
+
+	@Override
+	public boolean getBoolean(String key) {
+		Object v = values.get(key);
+		return v != null ? (Boolean) v : false;
+	}
+
+	@Override
+	public void set(String key, boolean value) {
+		write(key, value);
+	}
+
+	@Override
+	public Observable<Boolean> booleanChanges(String key) {
+		return keyChanges.changes(key, Boolean.class, this::getBoolean);
+	}
+
+}
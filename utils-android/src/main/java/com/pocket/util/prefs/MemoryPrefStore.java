@@ -12,26 +12,17 @@ import io.reactivex.subjects.PublishSubject;
 public class MemoryPrefStore implements Store {
 		
 	private final Map<String, Object> values = new HashMap<>();
-	private final PublishSubject<String> keyChanges = PublishSubject.create();
+	private final PublishSubject<String> changes = PublishSubject.create();
+	private final KeyChanges keyChanges = new KeyChanges(changes);
 	
 	@Override
 	public Observable<String> changes() {
-		return keyChanges;
-	}
-	
-	private <T> Observable<T> changes(String key, AndroidPrefStore.Get<T> getter) {
-		return changes()
-				.filter(changed -> changed.equals(key))
-				.map(k -> getter.get(key));
-	}
-	
-	interface Get<T> {
-		T get(String key);
+		return changes;
 	}
 	
 	private void put(String key, Object value) {
 		values.put(key, value);
-		keyChanges.onNext(key);
+		changes.onNext(key);
 	}
 	
 	@Override
@@ -62,7 +53,7 @@ public class MemoryPrefStore implements Store {
 	
 	@Override
 	public Observable<String> stringChanges(String key) {
-		return changes(key, this::getString);
+		return keyChanges.changes(key, String.class, this::getString);
 	}
 	
 	
@@ -79,7 +70,7 @@ public class MemoryPrefStore implements Store {
 	
 	@Override
 	public Observable<Set<String>> stringSetChanges(String key) {
-		return changes(key, this::getStringSet);
+		return keyChanges.changes(key, Set.class, this::getStringSet);
 	}
 	
 	
@@ -97,7 +88,7 @@ public class MemoryPrefStore implements Store {
 	
 	@Override
 	public Observable<Integer> intChanges(String key) {
-		return changes(key, this::getInt);
+		return keyChanges.changes(key, Integer.class, this::getInt);
 	}
 	
 	
@@ -115,7 +106,7 @@ public class MemoryPrefStore implements Store {
 	
 	@Override
 	public Observable<Float> floatChanges(String key) {
-		return changes(key, this::getFloat);
+		return keyChanges.changes(key, Float.class, this::getFloat);
 	}
 	
 	
@@ -133,7 +124,7 @@ public class MemoryPrefStore implements Store {
 	
 	@Override
 	public Observable<Long> longChanges(String key) {
-		return changes(key, this::getLong);
+		return keyChanges.changes(key, Long.class, this::getLong);
 	}
 	
 	
@@ -151,7 +142,7 @@ public class MemoryPrefStore implements Store {
 	
 	@Override
 	public Observable<Boolean> booleanChanges(String key) {
-		return changes(key, this::getBoolean);
+		return keyChanges.changes(key, Boolean.class, this::getBoolean);
 	}
 	
 	
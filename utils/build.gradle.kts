@@ -10,4 +10,7 @@ dependencies {
     api(Deps.Jackson.databind)
     api(Deps.Apache.Commons.commonsLang)
     api(Deps.ThreeTen.threeTenBp)
+
+    testImplementation(libs.kotlin.test)
+    testImplementation(libs.kotlin.junit)
 }
@@ -0,0 +1,194 @@
+package com.pocket.util.java;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * On Android, {@link java.nio.channels.FileLock}, is only advisory and doesn't actually
+ * do anything to prevent thread safety issues. This class serves as a replacement for that
+ * functionality. To use, there should be a shared single instance of this class and any
+ * reads or writes should invoke one of the lock methods prior to doing anything with the file.
+ * When complete, invoke {@link Lock#release()}. Be sure to release in a finally block to ensure
+ * it releases even with exceptions.
+ * <p>
+ * Use {@link #readLock(String)} when only reading a file, multiple readers of the same file can hold it at the same time.
+ * Use {@link #lock(String)} when writing or deleting, which waits for and excludes all other readers and writers of that file.
+ * Locks are granted in the order they are requested, so a waiting writer is not starved by a stream of new readers.
+ * <p>
+ * Locks are not tied to a thread, a lock may be released from a different thread than the one that obtained it.
+ * <p>
+ * Internally, paths are spread across a fixed number of stripes, each with its own small registry,
+ * so unrelated files don't contend on a shared monitor. A path's entry is removed as soon as no one holds or waits on it.
+ */
+public class FileLocks {
+
+    private static final int STRIPES = 32; // Must be a power of 2
+    /** The number of permits a writer takes, which is also the maximum number of concurrent readers. */
+    private static final int EXCLUSIVE = Integer.MAX_VALUE;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public FileLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Obtains an exclusive (write) lock on a file. If there are any other locks on this file, it blocks until
+     * they are released and it is granted the lock. Be sure to release the lock
+     * when complete with {@link Lock#release()}.
+     *
+     * @param path
+     * @return The lock
+     * @throws InterruptedException
+     */
+    public Lock lock(String path) throws InterruptedException {
+        return acquire(path, EXCLUSIVE);
+    }
+
+    /**
+     * @see #lock(String)
+     */
+    public Lock lock(File file) throws InterruptedException {
+        return lock(file.getAbsolutePath());
+    }
+
+    /**
+     * Obtains a shared (read) lock on a file. It can be held at the same time as other read locks on the file,
+     * but blocks while a {@link #lock(String)} is held or waiting ahead of it. Be sure to release the lock
+     * when complete with {@link Lock#release()}.
+     *
+     * @param path
+     * @return The lock
+     * @throws InterruptedException
+     */
+    public Lock readLock(String path) throws InterruptedException {
+        return acquire(path, 1);
+    }
+
+    /**
+     * @see #readLock(String)
+     */
+    public Lock readLock(File file) throws InterruptedException {
+        return readLock(file.getAbsolutePath());
+    }
+
+    /**
+     * Invokes release or does nothing if the lock is null.
+     */
+    public static void releaseQuietly(FileLocks.Lock lock) {
+        if (lock != null) {
+            lock.release();
+        }
+    }
+
+    private Lock acquire(String path, int permits) throws InterruptedException {
+        Stripe stripe = stripe(path);
+        Entry entry = stripe.retain(path);
+        try {
+            entry.permits.acquire(permits);
+        } catch (InterruptedException | RuntimeException e) {
+            stripe.release(entry);
+            throw e;
+        }
+        return new Lock(stripe, entry, permits);
+    }
+
+    private Stripe stripe(String path) {
+        int h = path.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    public static class Lock {
+
+        private final AtomicBoolean mReleased = new AtomicBoolean();
+        private final Stripe mStripe;
+        private final Entry mEntry;
+        private final int mPermits;
+        public final String file;
+
+        private Lock(Stripe stripe, Entry entry, int permits) {
+            mStripe = stripe;
+            mEntry = entry;
+            mPermits = permits;
+            this.file = entry.path;
+        }
+
+        /**
+         * @return true if this is a shared lock from {@link #readLock(String)}, false if exclusive.
+         */
+        public boolean isShared() {
+            return mPermits != EXCLUSIVE;
+        }
+
+        /**
+         * Release control of the file to let others access it.
+         */
+        public void release() {
+            if (!mReleased.compareAndSet(false, true)) {
+                return; // Already released
+            }
+            mEntry.permits.release(mPermits);
+            mStripe.release(mEntry);
+        }
+    }
+
+    /**
+     * The lock state of a single path.
+     */
+    private static class Entry {
+        final String path;
+        /** Readers take one permit, writers take all of them. Fair, so waiters are granted in order. */
+        final Semaphore permits = new Semaphore(EXCLUSIVE, true);
+        /** How many locks currently hold or are waiting on this entry. Only accessed while holding its {@link Stripe}'s monitor. */
+        int users;
+
+        Entry(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * A registry of the entries for a subset of paths.
+     */
+    private static class Stripe {
+
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        synchronized Entry retain(String path) {
+            Entry entry = entries.get(path);
+            if (entry == null) {
+                entry = new Entry(path);
+                entries.put(path, entry);
+            }
+            entry.users++;
+            return entry;
+        }
+
+        synchronized void release(Entry entry) {
+            if (--entry.users == 0) {
+                entries.remove(entry.path);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return The number of paths currently held or waited on. Idle paths are not retained.
+     */
+    int activeCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.pocket.util.java;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight tracing of where time goes during a cold start.
+ * <p>
+ * Wrap interesting parts of startup in a {@link Span}:
+ * <pre>
+ * StartupTrace.Span span = StartupTrace.begin("AppSync");
+ * try {
+ *     ...
+ * } finally {
+ *     span.end();
+ * }
+ * </pre>
+ * Each span records its wall time, the thread it ran on, the span it is nested in on that thread and, if an
+ * {@link Allocations} counter was provided, how many objects that thread allocated during it.
+ * Work that starts on one thread and completes later, such as waiting on a callback, can use {@link #beginAsync(String)}.
+ * <p>
+ * Nothing is recorded unless the app calls {@link #start(File, Allocations, long)} as early as possible in startup,
+ * so spans in shared code cost next to nothing in tests, tools or any later use.
+ * Once startup is over, {@link #finish()} writes the spans to the trace file and stops recording.
+ * Spans still open at that point are written as ending then.
+ * <p>
+ * The file is plain text with one span per line, see {@link #write(List, Writer)}, and can be turned into a critical path
+ * report with the {@code startupTrace} command in project-tools.
+ */
+public final class StartupTrace {
+
+	/** A format version written in the header, bump if the columns change. */
+	public static final int VERSION = 1;
+	/** A limit to protect against unexpectedly tracing something in a loop. Anything after this is ignored. */
+	private static final int MAX_SPANS = 512;
+	private static final Span NOOP = new Span(null, -1, null, null, 0, -1, false);
+
+	/** Counts allocations on the current thread, if the platform has a way to. */
+	public interface Allocations {
+		long count();
+	}
+
+	private static final Object lock = new Object();
+	private static final ThreadLocal<ArrayDeque<Span>> open = new ThreadLocal<>();
+	private static final List<Span> spans = new ArrayList<>();
+	private static volatile boolean recording;
+	private static File output;
+	private static Allocations allocations;
+	private static long origin;
+
+	private StartupTrace() {}
+
+	/**
+	 * Start recording.
+	 * @param file Where {@link #finish()} should write the trace.
+	 * @param counter Optional, a way to count allocations on the current thread.
+	 * @param processStart The {@link System#nanoTime()} at which the process started, or the current time if unknown.
+	 *                     Offsets in the trace are relative to this and the time before this call is recorded as its own span.
+	 */
+	public static void start(File file, Allocations counter, long processStart) {
+		long now = System.nanoTime();
+		synchronized (lock) {
+			spans.clear();
+			output = file;
+			allocations = counter;
+			origin = Math.min(processStart, now);
+			recording = true;
+			if (origin < now) {
+				Span process = new Span("process start", 0, null, Thread.currentThread().getName(), origin, -1, false);
+				process.endNanos = now;
+				spans.add(process);
+			}
+		}
+	}
+
+	/** @return Whether spans are currently being recorded. */
+	public static boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * Begin a span on the current thread. It is nested in whatever span is open on this thread.
+	 * Must be {@link Span#end() ended} on the same thread.
+	 */
+	public static Span begin(String name) {
+		return begin(name, false);
+	}
+
+	/**
+	 * Begin a span that might end on a different thread, such as one that waits for a callback.
+	 * It isn't nested in other spans and other spans aren't nested in it, but a report can treat any span that runs
+	 * during it, on any thread, as part of it.
+	 */
+	public static Span beginAsync(String name) {
+		return begin(name, true);
+	}
+
+	private static Span begin(String name, boolean async) {
+		if (!recording) return NOOP;
+		synchronized (lock) {
+			if (!recording || spans.size() >= MAX_SPANS) return NOOP;
+			ArrayDeque<Span> stack = open.get();
+			if (stack == null) {
+				stack = new ArrayDeque<>();
+				open.set(stack);
+			}
+			Span parent = async ? null : stack.peek();
+			Span span = new Span(name, spans.size(), parent, Thread.currentThread().getName(), System.nanoTime(), async || allocations == null ? -1 : allocations.count(), async);
+			spans.add(span);
+			if (!async) stack.push(span);
+			return span;
+		}
+	}
+
+	/**
+	 * Stop recording and write what was recorded, on a background thread, to the file provided to {@link #start(File, Allocations, long)}.
+	 * Does nothing if not recording, so it is safe to call from multiple places that might each be the end of startup.
+	 */
+	public static void finish() {
+		long now = System.nanoTime();
+		final List<Span> recorded;
+		final File file;
+		synchronized (lock) {
+			if (!recording) return;
+			recording = false;
+			for (Span span : spans) {
+				if (span.endNanos == 0) {
+					span.endNanos = now;
+					span.allocations = -1;
+				}
+			}
+			recorded = new ArrayList<>(spans);
+			spans.clear();
+			file = output;
+		}
+		if (file == null) return;
+		Thread writer = new Thread(() -> {
+			try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+				write(recorded, out);
+			} catch (IOException e) {
+				Logs.printStackTrace(e);
+			}
+		}, "startup-trace");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Writes the trace in its file format. A header line starting with # and then one line per span, in the order they began, with tab separated columns:
+	 * <ol>
+	 *     <li>The span's index, its line number after the header starting at 0</li>
+	 *     <li>The index of the span it is nested in, or -1</li>
+	 *     <li>Start, in microseconds since the process started</li>
+	 *     <li>Duration, in microseconds</li>
+	 *     <li>Allocations during the span, or -1 if unknown</li>
+	 *     <li>1 if it was begun with {@link #beginAsync(String)}, otherwise 0</li>
+	 *     <li>The thread name</li>
+	 *     <li>The span name</li>
+	 * </ol>
+	 */
+	private static void write(List<Span> recorded, Writer out) throws IOException {
+		out.write("# pocket startup trace " + VERSION + "\n");
+		for (Span span : recorded) {
+			out.write(span.index + "\t"
+					+ (span.parent != null ? span.parent.index : -1) + "\t"
+					+ (span.startNanos - origin) / 1000 + "\t"
+					+ (span.endNanos - span.startNanos) / 1000 + "\t"
+					+ span.allocations + "\t"
+					+ (span.async ? 1 : 0) + "\t"
+					+ clean(span.thread) + "\t"
+					+ clean(span.name) + "\n");
+		}
+	}
+
+	private static String clean(String value) {
+		return value.replace('\t', ' ').replace('\n', ' ');
+	}
+
+	public static final class Span {
+		private final String name;
+		private final int index;
+		private final Span parent;
+		private final String thread;
+		private final long startNanos;
+		private final boolean async;
+		private long endNanos;
+		private long allocations;
+
+		private Span(String name, int index, Span parent, String thread, long startNanos, long allocations, boolean async) {
+			this.name = name;
+			this.index = index;
+			this.parent = parent;
+			this.thread = thread;
+			this.startNanos = startNanos;
+			this.allocations = allocations;
+			this.async = async;
+		}
+
+		/** End the span. Only the first call has an effect. */
+		public void end() {
+			if (this == NOOP) return;
+			long now = System.nanoTime();
+			synchronized (lock) {
+				if (endNanos != 0) return;
+				endNanos = now;
+				if (!async) {
+					ArrayDeque<Span> stack = open.get();
+					if (stack != null) stack.remove(this);
+					if (allocations >= 0 && StartupTrace.allocations != null) allocations = StartupTrace.allocations.count() - allocations;
+				}
+			}
+		}
+	}
+}
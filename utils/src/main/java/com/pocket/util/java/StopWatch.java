@@ -72,7 +72,7 @@ public class StopWatch {
 	public synchronized void merge(StopWatch src) {
 		currentStart = 0;
 		total += src.total;
-		min = Math.min(min, src.min);
+		min = intervals == 0 ? src.min : src.intervals == 0 ? min : Math.min(min, src.min);
 		max = Math.max(max, src.max);
 		lastLap = src.lastLap;
 		intervals += src.intervals;
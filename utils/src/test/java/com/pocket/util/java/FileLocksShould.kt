@@ -0,0 +1,170 @@
+package com.pocket.util.java
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class FileLocksShould {
+
+    @Test
+    fun `let readers of the same file in at the same time`() {
+        val locks = FileLocks()
+        val first = locks.readLock(PATH)
+        val second = runOnOtherThread { locks.readLock(PATH) }
+
+        assertTrue(second.await(1, TimeUnit.SECONDS), "second reader was blocked")
+
+        first.release()
+        second.result!!.release()
+        assertEquals(0, locks.activeCount())
+    }
+
+    @Test
+    fun `make writers wait for readers`() {
+        val locks = FileLocks()
+        val reader = locks.readLock(PATH)
+        val writer = runOnOtherThread { locks.lock(PATH) }
+
+        assertFalse(writer.await(100, TimeUnit.MILLISECONDS), "writer got in while a reader held the lock")
+        reader.release()
+        assertTrue(writer.await(1, TimeUnit.SECONDS), "writer never got in")
+
+        writer.result!!.release()
+        assertEquals(0, locks.activeCount())
+    }
+
+    @Test
+    fun `make readers that arrive after a waiting writer wait for it`() {
+        val locks = FileLocks()
+        val reader = locks.readLock(PATH)
+        val writer = runOnOtherThread { locks.lock(PATH) }
+        assertFalse(writer.await(100, TimeUnit.MILLISECONDS))
+
+        val lateReader = runOnOtherThread { locks.readLock(PATH) }
+        assertFalse(lateReader.await(100, TimeUnit.MILLISECONDS), "reader jumped ahead of a waiting writer")
+
+        reader.release()
+        assertTrue(writer.await(1, TimeUnit.SECONDS))
+        assertFalse(lateReader.await(100, TimeUnit.MILLISECONDS))
+        writer.result!!.release()
+        assertTrue(lateReader.await(1, TimeUnit.SECONDS))
+
+        lateReader.result!!.release()
+        assertEquals(0, locks.activeCount())
+    }
+
+    @Test
+    fun `not block different files`() {
+        val locks = FileLocks()
+        val writer = locks.lock(PATH)
+        val other = runOnOtherThread { locks.lock("$PATH.other") }
+
+        assertTrue(other.await(1, TimeUnit.SECONDS))
+
+        writer.release()
+        other.result!!.release()
+    }
+
+    @Test
+    fun `ignore releasing more than once`() {
+        val locks = FileLocks()
+        val reader = locks.readLock(PATH)
+        reader.release()
+        reader.release()
+
+        val writer = runOnOtherThread { locks.lock(PATH) }
+        assertTrue(writer.await(1, TimeUnit.SECONDS))
+        writer.result!!.release()
+        assertEquals(0, locks.activeCount())
+    }
+
+    @Test
+    fun `keep writers exclusive under heavy contention`() {
+        val locks = FileLocks()
+        val holders = ConcurrentHashMap<String, Holders>() // Locks on different paths are independent, so count per path
+        val maxReaders = AtomicInteger()
+        val violated = AtomicBoolean()
+
+        runWorkload(locks, threads = 16, operations = 5_000, paths = 4, writePercent = 10) { path, write ->
+            val held = holders.computeIfAbsent(path) { Holders() }
+            if (write) {
+                if (held.writers.incrementAndGet() != 1 || held.readers.get() != 0) violated.set(true)
+                Thread.yield()
+                held.writers.decrementAndGet()
+            } else {
+                maxReaders.accumulateAndGet(held.readers.incrementAndGet()) { a, b -> maxOf(a, b) }
+                if (held.writers.get() != 0) violated.set(true)
+                Thread.yield()
+                held.readers.decrementAndGet()
+            }
+        }
+
+        assertFalse(violated.get(), "a writer overlapped with another holder of the same file")
+        assertTrue(maxReaders.get() > 1, "readers never overlapped")
+        assertEquals(0, locks.activeCount(), "idle entries were not reclaimed")
+    }
+
+    private class Holders {
+        val readers = AtomicInteger()
+        val writers = AtomicInteger()
+    }
+
+    private fun runWorkload(
+        locks: FileLocks,
+        threads: Int,
+        operations: Int,
+        paths: Int,
+        writePercent: Int,
+        whileHeld: (path: String, write: Boolean) -> Unit,
+    ) {
+        val pool = Executors.newFixedThreadPool(threads)
+        val start = CountDownLatch(1)
+        val futures = (1..threads).map {
+            pool.submit(Callable {
+                start.await()
+                val random = ThreadLocalRandom.current()
+                repeat(operations) {
+                    val path = "$PATH${random.nextInt(paths)}"
+                    val write = random.nextInt(100) < writePercent
+                    val lock = if (write) locks.lock(path) else locks.readLock(path)
+                    try {
+                        whileHeld(path, write)
+                    } finally {
+                        lock.release()
+                    }
+                }
+            })
+        }
+        start.countDown()
+        futures.forEach { it.get(1, TimeUnit.MINUTES) }
+        pool.shutdown()
+    }
+
+    private fun <T> runOnOtherThread(block: () -> T): Pending<T> {
+        val pending = Pending<T>()
+        Thread {
+            pending.result = block()
+            pending.latch.countDown()
+        }.start()
+        return pending
+    }
+
+    private class Pending<T> {
+        val latch = CountDownLatch(1)
+        @Volatile var result: T? = null
+        fun await(time: Long, unit: TimeUnit) = latch.await(time, unit)
+    }
+
+    companion object {
+        private const val PATH = "/data/pocket/assets/image.jpg"
+    }
+}
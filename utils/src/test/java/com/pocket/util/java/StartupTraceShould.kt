@@ -0,0 +1,149 @@
+package com.pocket.util.java
+
+import java.io.File
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+import kotlin.test.AfterTest
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+import kotlin.test.fail
+
+class StartupTraceShould {
+
+    private val file = File.createTempFile("startup", ".trace").apply { delete() }
+    private var allocated = 0L
+
+    @AfterTest fun tearDown() {
+        StartupTrace.finish()
+        file.delete()
+    }
+
+    /** The columns of a line of the trace file, see [StartupTrace]. */
+    private data class Line(val index: Int, val parent: Int, val start: Long, val duration: Long, val allocations: Long, val async: Boolean, val thread: String, val name: String)
+
+    private fun start(processStart: Long = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1)) = StartupTrace.start(file, { allocated }, processStart)
+
+    /**
+     * Finish and wait for the trace to be written.
+     * @param spans How many spans were recorded after [start].
+     * @return The spans in the trace, starting with the one for the time before [start].
+     */
+    private fun finish(spans: Int): List<Line> {
+        StartupTrace.finish()
+        val until = System.currentTimeMillis() + 10_000
+        while (System.currentTimeMillis() < until) {
+            val lines = if (file.exists()) file.readLines().filter { it.isNotEmpty() } else emptyList()
+            if (lines.size > spans + 1) {
+                assertEquals("# pocket startup trace ${StartupTrace.VERSION}", lines.first())
+                return lines.drop(1).map {
+                    val c = it.split('\t')
+                    Line(c[0].toInt(), c[1].toInt(), c[2].toLong(), c[3].toLong(), c[4].toLong(), c[5] == "1", c[6], c[7])
+                }
+            }
+            Thread.sleep(10)
+        }
+        fail("The trace was never written")
+    }
+
+    @Test
+    fun `record nothing until started`() {
+        StartupTrace.begin("before").end()
+        assertFalse(StartupTrace.isRecording())
+
+        start()
+        assertTrue(StartupTrace.isRecording())
+        StartupTrace.begin("after").end()
+
+        assertEquals(listOf("process start", "after"), finish(1).map { it.name })
+    }
+
+    @Test
+    fun `record the time before it started from the process start`() {
+        start(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(50))
+        StartupTrace.begin("first").end()
+
+        val (process, first) = finish(1)
+        assertEquals("process start", process.name)
+        assertEquals(0, process.start)
+        assertTrue(process.duration >= 50_000)
+        assertTrue(first.start >= process.duration)
+    }
+
+    @Test
+    fun `nest spans in the span open on the same thread`() {
+        start()
+        val outer = StartupTrace.begin("outer")
+        val inner = StartupTrace.begin("inner")
+        thread(name = "other") { StartupTrace.begin("other thread").end() }.join()
+        inner.end()
+        StartupTrace.begin("sibling").end()
+        outer.end()
+
+        val spans = finish(4).associateBy { it.name }
+        val outerIndex = spans.getValue("outer").index
+        assertEquals(-1, spans.getValue("outer").parent)
+        assertEquals(outerIndex, spans.getValue("inner").parent)
+        assertEquals(outerIndex, spans.getValue("sibling").parent)
+        assertEquals(-1, spans.getValue("other thread").parent)
+        assertEquals("other", spans.getValue("other thread").thread)
+        assertTrue(spans.getValue("inner").start >= spans.getValue("outer").start)
+        assertTrue(spans.getValue("inner").duration <= spans.getValue("outer").duration)
+    }
+
+    @Test
+    fun `keep async spans out of nesting`() {
+        start()
+        val async = StartupTrace.beginAsync("async")
+        StartupTrace.begin("during").end()
+        thread { async.end() }.join()
+
+        val spans = finish(2).associateBy { it.name }
+        assertTrue(spans.getValue("async").async)
+        assertFalse(spans.getValue("during").async)
+        assertEquals(-1, spans.getValue("during").parent)
+    }
+
+    @Test
+    fun `count allocations during a span`() {
+        start()
+        allocated = 100
+        val span = StartupTrace.begin("allocating")
+        allocated = 150
+        span.end()
+        allocated = 500
+        span.end() // Only the first end counts
+        val async = StartupTrace.beginAsync("async")
+        async.end()
+
+        val spans = finish(2).associateBy { it.name }
+        assertEquals(50, spans.getValue("allocating").allocations)
+        assertEquals(-1, spans.getValue("async").allocations)
+    }
+
+    @Test
+    fun `end spans that are still open when it finishes`() {
+        start()
+        thread { StartupTrace.begin("never ended") }.join()
+
+        val span = finish(1).last()
+        assertEquals("never ended", span.name)
+        assertTrue(span.duration >= 0)
+        assertEquals(-1, span.allocations, "allocations are unknown for spans that didn't end")
+    }
+
+    @Test
+    fun `stop recording once finished`() {
+        start()
+        StartupTrace.begin("recorded").end()
+        finish(1)
+
+        assertFalse(StartupTrace.isRecording())
+        StartupTrace.begin("after").end()
+        file.delete()
+        StartupTrace.finish()
+        Thread.sleep(100)
+        assertFalse(file.exists(), "finishing again doesn't write anything")
+    }
+}